@@ -0,0 +1,136 @@
+package com.victorqueiroga.serverwatch.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.victorqueiroga.serverwatch.dto.DiskInfoDto;
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+import com.victorqueiroga.serverwatch.model.Alert;
+import com.victorqueiroga.serverwatch.model.AlertRule;
+import com.victorqueiroga.serverwatch.model.OperationSystem;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.model.Severity;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+
+/**
+ * Dados fixos compartilhados pelos benchmarks (servidor, valores brutos de
+ * disco e snapshots de status já preenchidos).
+ */
+final class BenchmarkFixtures {
+
+    /** Valores brutos de dskTable em KB: total, usado, disponível */
+    static final long[][] RAW_DISKS_KB = {
+        {102_400_000L, 51_200_000L, 51_200_000L},
+        {1_048_576L, 262_144L, 786_432L},
+        {1_048_576_000L, 960_000_000L, 88_576_000L},
+        {524_288_000L, 104_857_600L, 419_430_400L}
+    };
+
+    static final String[] DISK_PATHS = {"/", "/boot", "/var/lib/postgresql", "/srv"};
+
+    private BenchmarkFixtures() {
+    }
+
+    static Server server(long id, String ip) {
+        OperationSystem os = new OperationSystem();
+        os.setId(1L);
+        os.setName("Linux");
+
+        Server server = new Server();
+        server.setId(id);
+        server.setName("bench-host-" + id);
+        server.setIpAddress(ip);
+        server.setOperationSystem(os);
+        return server;
+    }
+
+    static List<DiskInfoDto> buildDiskList() {
+        List<DiskInfoDto> disks = new ArrayList<>(RAW_DISKS_KB.length);
+        for (int i = 0; i < RAW_DISKS_KB.length; i++) {
+            DiskInfoDto disk = new DiskInfoDto();
+            disk.setPath(DISK_PATHS[i]);
+            disk.setDescription(DISK_PATHS[i] + " filesystem");
+            disk.setTotalGB(RAW_DISKS_KB[i][0] / (1024 * 1024));
+            disk.setUsedGB(RAW_DISKS_KB[i][1] / (1024 * 1024));
+            disk.setAvailableGB(RAW_DISKS_KB[i][2] / (1024 * 1024));
+            disk.setType("Linux Filesystem");
+            disk.calculateUsagePercent();
+            disks.add(disk);
+        }
+        return disks;
+    }
+
+    static ServerStatusDto buildStatus(Server server) {
+        ServerStatusDto status = ServerStatusDto.fromServer(server);
+        status.markAsOnline();
+        status.setSystemDescription("Linux bench-host 5.15.0-91-generic #101-Ubuntu SMP x86_64");
+        status.setHostname("bench-host");
+        status.setUptime("114d 7h 29m");
+        status.setCpuLoad1Min(13.0);
+        status.setMemoryTotal(15_936L);
+        status.setMemoryUsed(9_216L);
+        status.setMemoryAvailable(6_720L);
+
+        List<DiskInfoDto> disks = buildDiskList();
+        status.setDiskList(disks);
+        status.setDiskTotal(disks.get(0).getTotalGB());
+        status.setDiskUsed(disks.get(0).getUsedGB());
+        status.setDiskAvailable(disks.get(0).getAvailableGB());
+
+        status.calculateMemoryUsage();
+        status.calculateDiskUsage();
+        RuleSet rules = ruleSet();
+        status.calculateCriticalDiskLetters(rules);
+        status.determineStatus(rules);
+        return status;
+    }
+
+    /**
+     * Regras de {@link #alertRules()} compiladas, no escopo global
+     */
+    static RuleSet ruleSet() {
+        return CompiledAlertRules.compile(alertRules()).ruleSetFor(null, null);
+    }
+
+    /**
+     * Regras globais padrão (as mesmas da migração V1_0_15) e uma regra
+     * crítica adicional de CPU
+     */
+    static List<AlertRule> alertRules() {
+        Severity critical = Severity.builder().id(1L).name("Critical").level(1).build();
+        Severity high = Severity.builder().id(2L).name("High").level(2).build();
+        // Condições das regras padrão (V1_0_16)
+        AlertRule cpu = rule(2L, AlertRule.RuleMetric.CPU_USAGE, AlertRule.Operator.GREATER_THAN, 80, high);
+        cpu.setCondition(AlertRule.Condition.FOR_DURATION);
+        cpu.setDurationSeconds(240);
+        cpu.setRecoveryThreshold(BigDecimal.valueOf(70));
+        AlertRule memory = rule(4L, AlertRule.RuleMetric.MEMORY_USAGE, AlertRule.Operator.GREATER_THAN, 85, high);
+        memory.setCondition(AlertRule.Condition.M_OF_N);
+        memory.setRequiredSamples(3);
+        memory.setWindowSamples(5);
+        memory.setRecoveryThreshold(BigDecimal.valueOf(75));
+        AlertRule disk = rule(5L, AlertRule.RuleMetric.DISK_USAGE, AlertRule.Operator.GREATER_OR_EQUAL, 90, critical);
+        disk.setRecoveryThreshold(BigDecimal.valueOf(85));
+        return List.of(
+                rule(1L, AlertRule.RuleMetric.AVAILABILITY, AlertRule.Operator.LESS_THAN, 1, critical),
+                cpu,
+                rule(3L, AlertRule.RuleMetric.CPU_USAGE, AlertRule.Operator.GREATER_THAN, 95, critical),
+                memory,
+                disk);
+    }
+
+    private static AlertRule rule(long id, AlertRule.RuleMetric metric, AlertRule.Operator operator, double threshold,
+            Severity severity) {
+        return AlertRule.builder()
+                .id(id)
+                .name(metric + " " + operator.getSymbol() + " " + threshold)
+                .metric(metric)
+                .operator(operator)
+                .threshold(BigDecimal.valueOf(threshold))
+                .severity(severity)
+                .alertType(Alert.AlertType.PERFORMANCE)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.victorqueiroga.serverwatch.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.service.ServerMonitoringService;
+import com.victorqueiroga.serverwatch.utils.SnmpCredentials;
+import com.victorqueiroga.serverwatch.utils.SnmpHelper;
+import com.victorqueiroga.serverwatch.utils.SnmpRateLimit;
+
+/**
+ * Coleta completa de um host (sistema, CPU, memória e discos) contra o
+ * {@link InProcessSnmpAgent} em loopback, usando o mesmo caminho do
+ * monitoramento agendado. O parâmetro {@code snmpVersion} compara v2c com v3
+ * authPriv (SHA/AES128) pela sessão compartilhada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HostCollectionBenchmark {
+
+    // Sem limitação efetiva: mede o custo da coleta, não o espaçamento entre requisições
+    private static final SnmpRateLimit NO_LIMIT = new SnmpRateLimit(1_000_000, 1_000, 64, 30_000);
+
+    @Param({ "V2C", "V3" })
+    private String snmpVersion;
+
+    private InProcessSnmpAgent agent;
+    private ServerMonitoringService monitoringService;
+    private Server server;
+    private SnmpCredentials credentials;
+
+    @Setup(Level.Trial)
+    public void startAgent() throws IOException {
+        agent = new InProcessSnmpAgent();
+        // Sem contexto Spring: a coleta de um host não depende do ServerService
+        monitoringService = new ServerMonitoringService(null);
+        server = BenchmarkFixtures.server(1L, "127.0.0.1");
+        credentials = "V3".equals(snmpVersion)
+                ? SnmpCredentials.usm(agent.getPort(), InProcessSnmpAgent.V3_USER,
+                        Server.SnmpAuthProtocol.SHA, InProcessSnmpAgent.V3_AUTH_PASSPHRASE,
+                        Server.SnmpPrivProtocol.AES128, InProcessSnmpAgent.V3_PRIV_PASSPHRASE)
+                : SnmpCredentials.community(agent.getPort(), ServerMonitoringService.DEFAULT_COMMUNITY);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopAgent() throws IOException {
+        agent.close();
+    }
+
+    @Benchmark
+    public ServerStatusDto collectHost() {
+        SnmpHelper snmp = new SnmpHelper("127.0.0.1", credentials, NO_LIMIT);
+        ServerStatusDto status = monitoringService.collectServerMetrics(server, snmp);
+        if (!status.isOnline()) {
+            throw new IllegalStateException("Coleta falhou contra o agente embarcado: " + status.getErrorMessage());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,73 @@
+package com.victorqueiroga.serverwatch.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * PostgreSQL embarcado (porta efêmera) com o schema da aplicação aplicado
+ * pelas migrations do Flyway, para medir a gravação de métricas sem depender
+ * de um banco externo.
+ */
+final class InProcessPostgres implements Closeable {
+
+    private final EmbeddedPostgres postgres;
+
+    InProcessPostgres() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    /**
+     * Nova conexão; {@code reWriteBatchedInserts} reproduz a configuração do
+     * datasource da aplicação
+     */
+    Connection connect(boolean reWriteBatchedInserts) throws SQLException {
+        return postgres.getPostgresDatabase(Map.of("reWriteBatchedInserts", String.valueOf(reWriteBatchedInserts)))
+                .getConnection();
+    }
+
+    /**
+     * Cadastra servidores com IDs 1..count para satisfazer a FK de server_metrics
+     */
+    void insertServers(int count) throws SQLException {
+        try (Connection connection = connect(false);
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO servers (id, name, ip_address) VALUES (?, ?, ?) ON CONFLICT DO NOTHING")) {
+            for (int id = 1; id <= count; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "bench-" + id);
+                insert.setString(3, "10.0." + (id / 256) + "." + (id % 256));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Esvazia server_metrics entre iterações, para que o tamanho da tabela e
+     * dos índices não distorça a comparação
+     */
+    void truncateMetrics() throws SQLException {
+        try (Connection connection = connect(false); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE server_metrics");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+}
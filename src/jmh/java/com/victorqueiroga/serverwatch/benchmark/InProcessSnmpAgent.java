@@ -0,0 +1,200 @@
+package com.victorqueiroga.serverwatch.benchmark;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.snmp4j.CommandResponder;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.MessageDispatcherImpl;
+import org.snmp4j.MessageException;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.mp.MPv2c;
+import org.snmp4j.mp.MPv3;
+import org.snmp4j.mp.StatusInformation;
+import org.snmp4j.security.AuthSHA;
+import org.snmp4j.security.PrivAES128;
+import org.snmp4j.security.SecurityModels;
+import org.snmp4j.security.SecurityProtocols;
+import org.snmp4j.security.USM;
+import org.snmp4j.security.UsmUser;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.Gauge32;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.Null;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+
+import com.victorqueiroga.serverwatch.utils.SnmpHelper;
+
+/**
+ * Agente SNMP v2c/v3 embarcado (loopback, porta efêmera) que simula um host
+ * Linux com Net-SNMP: MIB-II, UCD-SNMP (CPU, memória, dskTable) e Host
+ * Resources (hrStorage, hrProcessorLoad). Responde GET e GETNEXT a partir de
+ * uma MIB estática, permitindo medir a coleta completa sem depender de rede.
+ * No v3 aceita o usuário {@link #V3_USER} com SHA/AES128.
+ */
+public class InProcessSnmpAgent implements CommandResponder, AutoCloseable {
+
+    public static final String V3_USER = "bench";
+    public static final String V3_AUTH_PASSPHRASE = "bench-auth-pass";
+    public static final String V3_PRIV_PASSPHRASE = "bench-priv-pass";
+
+    private static final byte[] ENGINE_ID = MPv3.createLocalEngineID(new OctetString("serverwatch-bench"));
+
+    private final TreeMap<OID, Variable> mib = new TreeMap<>();
+    private final Snmp snmp;
+    private final int port;
+
+    public InProcessSnmpAgent() throws IOException {
+        this(0, 0);
+    }
+
+    /**
+     * Agente em uma porta fixa (0 = efêmera). Todas as instâncias têm o mesmo
+     * engine ID; um {@code engineBoots} maior simula o reinício do snmpd.
+     */
+    public InProcessSnmpAgent(int port, int engineBoots) throws IOException {
+        populateLinuxHost();
+
+        SecurityProtocols protocols = SecurityProtocols.getInstance().addDefaultProtocols();
+        protocols.addAuthenticationProtocol(new AuthSHA());
+        USM usm = new USM(protocols, new OctetString(ENGINE_ID), engineBoots);
+        usm.addUser(new OctetString(V3_USER), usm.getLocalEngineID(), new UsmUser(new OctetString(V3_USER),
+                AuthSHA.ID, new OctetString(V3_AUTH_PASSPHRASE),
+                PrivAES128.ID, new OctetString(V3_PRIV_PASSPHRASE)));
+        MPv3 mpv3 = new MPv3(usm);
+        // Modelos de segurança próprios: o cliente no mesmo processo tem outro USM
+        mpv3.setSecurityModels(new SecurityModels().addSecurityModel(usm));
+
+        MessageDispatcherImpl dispatcher = new MessageDispatcherImpl();
+        dispatcher.addMessageProcessingModel(new MPv2c());
+        dispatcher.addMessageProcessingModel(mpv3);
+
+        DefaultUdpTransportMapping transport = new DefaultUdpTransportMapping(new UdpAddress("127.0.0.1/" + port));
+        this.snmp = new Snmp(dispatcher, transport);
+        this.snmp.addCommandResponder(this);
+        transport.listen();
+        this.port = transport.getListenAddress().getPort();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public <A extends Address> void processPdu(CommandResponderEvent<A> event) {
+        PDU request = event.getPDU();
+        if (request == null) {
+            return;
+        }
+
+        // Clone preserva, no v3, o contexto do ScopedPDU (clear() zera o request ID)
+        PDU response = (PDU) request.clone();
+        response.clear();
+        response.setType(PDU.RESPONSE);
+        response.setRequestID(request.getRequestID());
+
+        for (VariableBinding vb : request.getVariableBindings()) {
+            if (request.getType() == PDU.GETNEXT) {
+                Map.Entry<OID, Variable> next = mib.higherEntry(vb.getOid());
+                response.add(next != null
+                        ? new VariableBinding(next.getKey(), next.getValue())
+                        : new VariableBinding(vb.getOid(), Null.endOfMibView));
+            } else {
+                Variable value = mib.get(vb.getOid());
+                response.add(new VariableBinding(vb.getOid(), value != null ? value : Null.noSuchObject));
+            }
+        }
+
+        try {
+            event.getMessageDispatcher().returnResponsePdu(event.getMessageProcessingModel(),
+                    event.getSecurityModel(), event.getSecurityName(), event.getSecurityLevel(),
+                    response, event.getMaxSizeResponsePDU(), event.getStateReference(),
+                    new StatusInformation());
+        } catch (MessageException e) {
+            throw new IllegalStateException("Falha ao responder PDU no agente embarcado", e);
+        }
+        event.setProcessed(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        snmp.close();
+    }
+
+    private void put(String oid, Variable value) {
+        mib.put(new OID(oid), value);
+    }
+
+    private void populateLinuxHost() {
+        // MIB-II system
+        put(SnmpHelper.OID_SYS_DESCR, new OctetString("Linux bench-host 5.15.0-91-generic #101-Ubuntu SMP x86_64"));
+        put(SnmpHelper.OID_SYS_UPTIME, new TimeTicks(987654321L));
+        put(SnmpHelper.OID_CONTACT, new OctetString("root@bench-host"));
+        put(SnmpHelper.OID_HOSTNAME, new OctetString("bench-host"));
+        put(SnmpHelper.OID_LOCATION, new OctetString("rack-1"));
+        put(SnmpHelper.OID_IF_NUMBER, new Integer32(2));
+
+        // Host Resources: hrStorage (memória física, virtual e filesystems)
+        addStorage(1, "1.3.6.1.2.1.25.2.1.2", "Physical memory", 1024, 16_318_464L, 9_437_184L);
+        addStorage(3, "1.3.6.1.2.1.25.2.1.3", "Virtual memory", 1024, 18_415_616L, 9_961_472L);
+        addStorage(6, "1.3.6.1.2.1.25.2.1.1", "Memory buffers", 1024, 16_318_464L, 412_672L);
+        addStorage(7, "1.3.6.1.2.1.25.2.1.1", "Cached memory", 1024, 4_194_304L, 4_194_304L);
+        addStorage(31, "1.3.6.1.2.1.25.2.1.4", "/", 4096, 25_600_000L, 12_800_000L);
+        addStorage(35, "1.3.6.1.2.1.25.2.1.4", "/boot", 4096, 262_144L, 65_536L);
+        addStorage(36, "1.3.6.1.2.1.25.2.1.4", "/var/lib/postgresql", 4096, 262_144_000L, 240_000_000L);
+
+        // Host Resources: hrProcessorLoad (4 cores)
+        for (int core = 0; core < 4; core++) {
+            put(SnmpHelper.OID_HR_PROCESSOR_LOAD + "." + (196608 + core), new Integer32(10 + core * 5));
+        }
+
+        // UCD-SNMP: load average e CPU
+        put(SnmpHelper.OID_CPU_LOAD_1MIN, new OctetString("0.42"));
+        put(SnmpHelper.OID_CPU_LOAD_5MIN, new OctetString("0.37"));
+        put(SnmpHelper.OID_CPU_LOAD_15MIN, new OctetString("0.31"));
+        put(SnmpHelper.OID_SS_CPU_USER_PERCENT, new Integer32(9));
+        put(SnmpHelper.OID_SS_CPU_SYSTEM_PERCENT, new Integer32(3));
+        put(SnmpHelper.OID_SS_CPU_IDLE_PERCENT, new Integer32(87));
+        put(SnmpHelper.OID_SS_CPU_RAW_USER, new Counter32(81_234_567L));
+        put(SnmpHelper.OID_SS_CPU_RAW_NICE, new Counter32(12_345L));
+        put(SnmpHelper.OID_SS_CPU_RAW_SYSTEM, new Counter32(23_456_789L));
+        put(SnmpHelper.OID_SS_CPU_RAW_IDLE, new Counter32(987_654_321L));
+
+        // UCD-SNMP: memória (KB)
+        put(SnmpHelper.OID_MEM_TOTAL_REAL, new Integer32(16_318_464));
+        put(SnmpHelper.OID_MEM_AVAIL_REAL, new Integer32(6_881_280));
+        put(SnmpHelper.OID_MEM_FREE_REAL, new Integer32(2_097_152));
+        put(SnmpHelper.OID_MEM_USED_REAL, new Integer32(9_437_184));
+
+        // UCD-SNMP: dskTable (KB)
+        addDisk(1, "/", 102_400_000L, 51_200_000L);
+        addDisk(2, "/boot", 1_048_576L, 262_144L);
+        addDisk(3, "/var/lib/postgresql", 1_048_576_000L, 960_000_000L);
+    }
+
+    private void addStorage(int index, String type, String descr, int units, long size, long used) {
+        put(SnmpHelper.OID_HR_STORAGE_INDEX + "." + index, new Integer32(index));
+        put(SnmpHelper.OID_HR_STORAGE_TYPE + "." + index, new OID(type));
+        put(SnmpHelper.OID_HR_STORAGE_DESCR + "." + index, new OctetString(descr));
+        put(SnmpHelper.OID_HR_STORAGE_UNITS + "." + index, new Integer32(units));
+        put(SnmpHelper.OID_HR_STORAGE_SIZE + "." + index, new Integer32((int) size));
+        put(SnmpHelper.OID_HR_STORAGE_USED + "." + index, new Integer32((int) used));
+    }
+
+    private void addDisk(int index, String path, long totalKB, long usedKB) {
+        put(SnmpHelper.OID_DISK_PATH + "." + index, new OctetString(path));
+        put(SnmpHelper.OID_DISK_TOTAL + "." + index, new Gauge32(totalKB));
+        put(SnmpHelper.OID_DISK_AVAIL + "." + index, new Gauge32(totalKB - usedKB));
+        put(SnmpHelper.OID_DISK_USED + "." + index, new Gauge32(usedKB));
+        put(SnmpHelper.OID_DISK_PERCENT + "." + index, new Integer32((int) (usedKB * 100 / totalKB)));
+    }
+}
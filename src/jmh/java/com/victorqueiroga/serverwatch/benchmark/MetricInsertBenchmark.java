@@ -0,0 +1,196 @@
+package com.victorqueiroga.serverwatch.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.model.ServerMetric;
+import com.victorqueiroga.serverwatch.service.CopyMetricWriter;
+import com.victorqueiroga.serverwatch.service.LatestMetricWriter;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+
+/**
+ * Gravação de um lote de métricas em server_metrics (PostgreSQL embarcado),
+ * reproduzindo os comandos JDBC que o Hibernate emite em cada mapeamento de
+ * ID. O resultado é em linhas por segundo.
+ *
+ * <ul>
+ * <li>{@code IDENTITY_AUTOCOMMIT}: um {@code save} por métrica (antes do
+ * write-behind): um INSERT ... RETURNING e um commit por linha</li>
+ * <li>{@code IDENTITY_TX}: {@code saveAll} em uma transação com IDENTITY: o ID
+ * gerado precisa voltar a cada linha, então não há batch</li>
+ * <li>{@code SEQUENCE_BATCH}: sequence com blocos de
+ * {@link ServerMetric#ID_ALLOCATION_SIZE} IDs, JDBC batch e
+ * reWriteBatchedInserts (INSERT multi-linha)</li>
+ * <li>{@code COPY}: {@link CopyMetricWriter} (COPY FROM STDIN em CSV)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MetricInsertBenchmark {
+
+    // Mesmo tamanho de lote padrão do MetricIngestService
+    private static final int ROWS = 500;
+    private static final int SERVERS = 50;
+
+    private static final String INSERT_COLUMNS = "server_id, metric_name, metric_value, unit, category, "
+            + "subcategory, snmp_oid, timestamp, is_critical, warning_threshold, critical_threshold";
+
+    @Param({ "IDENTITY_AUTOCOMMIT", "IDENTITY_TX", "SEQUENCE_BATCH", "COPY" })
+    private String mode;
+
+    private InProcessPostgres database;
+    private Connection connection;
+    private CopyMetricWriter copyWriter;
+    private List<MetricSample> samples;
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws IOException, SQLException {
+        database = new InProcessPostgres();
+        database.insertServers(SERVERS);
+        connection = database.connect("SEQUENCE_BATCH".equals(mode));
+        connection.setAutoCommit("IDENTITY_AUTOCOMMIT".equals(mode) || "COPY".equals(mode));
+        // Mesma conexão em todas as chamadas, como o pool da aplicação
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(connection, true);
+        copyWriter = new CopyMetricWriter(dataSource, new LatestMetricWriter(dataSource));
+
+        samples = new ArrayList<>(ROWS);
+        RuleSet rules = BenchmarkFixtures.ruleSet();
+        while (samples.size() < ROWS) {
+            long serverId = samples.size() % SERVERS + 1;
+            for (MetricSample sample : MetricSample.fromStatus(
+                    BenchmarkFixtures.buildStatus(BenchmarkFixtures.server(serverId, "127.0.0.1")), rules)) {
+                if (samples.size() < ROWS) {
+                    samples.add(sample);
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        database.truncateMetrics();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() throws IOException, SQLException {
+        connection.close();
+        database.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long insertBatch() throws SQLException {
+        return switch (mode) {
+            case "SEQUENCE_BATCH" -> insertWithSequence();
+            case "COPY" -> copyWriter.write(samples.iterator());
+            default -> insertWithIdentity();
+        };
+    }
+
+    private long insertWithIdentity() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO server_metrics (" + INSERT_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (MetricSample sample : samples) {
+                bind(insert, 1, sample);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+        return lastId;
+    }
+
+    private long insertWithSequence() throws SQLException {
+        long nextId = 1;
+        long lastAllocated = 0;
+        try (PreparedStatement nextval = connection.prepareStatement("SELECT nextval('server_metrics_id_seq')");
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO server_metrics (id, " + INSERT_COLUMNS
+                                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (MetricSample sample : samples) {
+                if (nextId > lastAllocated) {
+                    // Otimizador pooled: nextval devolve o fim do bloco
+                    try (ResultSet rs = nextval.executeQuery()) {
+                        rs.next();
+                        lastAllocated = rs.getLong(1);
+                    }
+                    nextId = lastAllocated - ServerMetric.ID_ALLOCATION_SIZE + 1;
+                }
+                insert.setLong(1, nextId++);
+                bind(insert, 2, sample);
+                insert.addBatch();
+                if (++pending == ServerMetric.ID_ALLOCATION_SIZE) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+            }
+        }
+        connection.commit();
+        return nextId;
+    }
+
+    private static void bind(PreparedStatement insert, int index, MetricSample sample) throws SQLException {
+        insert.setLong(index, sample.serverId());
+        insert.setString(index + 1, sample.metricName());
+        insert.setBigDecimal(index + 2, BigDecimal.valueOf(sample.value()));
+        insert.setString(index + 3, sample.unit());
+        insert.setString(index + 4, sample.category().name());
+        insert.setString(index + 5, sample.subcategory());
+        insert.setString(index + 6, sample.snmpOid());
+        insert.setTimestamp(index + 7, Timestamp.valueOf(sample.timestamp()));
+        insert.setBoolean(index + 8, sample.isCritical());
+        setDecimal(insert, index + 9, sample.warningThreshold());
+        setDecimal(insert, index + 10, sample.criticalThreshold());
+    }
+
+    private static void setDecimal(PreparedStatement insert, int index, Double value) throws SQLException {
+        if (value == null) {
+            insert.setNull(index, Types.NUMERIC);
+        } else {
+            insert.setBigDecimal(index, BigDecimal.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.victorqueiroga.serverwatch.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+
+/**
+ * Serialização JSON do snapshot de status (equivalente à resposta de
+ * /api/monitoring/servers) para diferentes quantidades de servidores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotSerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int servers;
+
+    private ObjectMapper objectMapper;
+    private List<ServerStatusDto> snapshot;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        snapshot = new ArrayList<>(servers);
+        for (int i = 0; i < servers; i++) {
+            snapshot.add(BenchmarkFixtures.buildStatus(
+                    BenchmarkFixtures.server(i + 1L, "10.0." + (i / 250) + "." + (i % 250 + 1))));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeSnapshot() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(snapshot);
+    }
+}
@@ -0,0 +1,84 @@
+package com.victorqueiroga.serverwatch.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.snmp4j.smi.Gauge32;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.VariableBinding;
+
+import com.victorqueiroga.serverwatch.utils.SnmpHelper;
+import com.victorqueiroga.serverwatch.utils.SnmpValueDecoder;
+
+/**
+ * Conversão das respostas SNMP: caminho textual ({@code Variable.toString()}
+ * seguido de {@code Double.parseDouble} / {@code Long.parseLong}) versus a
+ * decodificação tipada do {@link SnmpValueDecoder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnmpParsingBenchmark {
+
+    private final VariableBinding cpuIdle = new VariableBinding(
+            new OID(SnmpHelper.OID_SS_CPU_IDLE_PERCENT), new Integer32(87));
+    private final VariableBinding loadAverage = new VariableBinding(
+            new OID(SnmpHelper.OID_CPU_LOAD_1MIN), new OctetString("0.42"));
+    private final VariableBinding memTotal = new VariableBinding(
+            new OID(SnmpHelper.OID_MEM_TOTAL_REAL), new Integer32(16_318_464));
+    private final VariableBinding diskTotal = new VariableBinding(
+            new OID(SnmpHelper.OID_DISK_TOTAL + ".1"), new Gauge32(102_400_000L));
+
+    @Benchmark
+    public Double parseIntegerAsDouble() {
+        return SnmpHelper.parseDoubleValue(cpuIdle.getVariable().toString());
+    }
+
+    @Benchmark
+    public Double parseOctetStringAsDouble() {
+        return SnmpHelper.parseDoubleValue(loadAverage.getVariable().toString());
+    }
+
+    @Benchmark
+    public long parseIntegerAsLong() {
+        return Long.parseLong(memTotal.getVariable().toString().trim());
+    }
+
+    @Benchmark
+    public long parseGaugeAsLong() {
+        return Long.parseLong(diskTotal.getVariable().toString().trim());
+    }
+
+    @Benchmark
+    public double decodeIntegerAsDouble() {
+        return SnmpValueDecoder.toDouble(cpuIdle.getVariable());
+    }
+
+    @Benchmark
+    public double decodeOctetStringAsDouble() {
+        return SnmpValueDecoder.toDouble(loadAverage.getVariable());
+    }
+
+    @Benchmark
+    public long decodeIntegerAsLong() {
+        return SnmpValueDecoder.toLong(memTotal.getVariable());
+    }
+
+    @Benchmark
+    public long decodeGaugeAsLong() {
+        return SnmpValueDecoder.toLong(diskTotal.getVariable());
+    }
+}
@@ -0,0 +1,75 @@
+package com.victorqueiroga.serverwatch.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.victorqueiroga.serverwatch.dto.DiskInfoDto;
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.utils.AlertRuleEvaluator;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+
+/**
+ * Montagem do {@link ServerStatusDto} (cálculo de percentuais e
+ * {@code determineStatus}), construção da lista de discos a partir dos
+ * valores brutos em KB e avaliação das regras de alerta compiladas sobre o
+ * snapshot (sem mudança de estado, o caso de toda coleta estável).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusAssemblyBenchmark {
+
+    private final Server server = BenchmarkFixtures.server(1L, "10.0.0.1");
+
+    @Benchmark
+    public List<DiskInfoDto> buildDiskList() {
+        return BenchmarkFixtures.buildDiskList();
+    }
+
+    @Benchmark
+    public ServerStatusDto assembleStatus() {
+        return BenchmarkFixtures.buildStatus(server);
+    }
+
+    @Benchmark
+    public String determineStatus(StatusState state) {
+        state.status.determineStatus(state.rules);
+        return state.status.getStatus();
+    }
+
+    @Benchmark
+    public int evaluateRules(StatusState state) {
+        return state.evaluator.evaluate(state.status);
+    }
+
+    @State(Scope.Thread)
+    public static class StatusState {
+
+        ServerStatusDto status;
+        AlertRuleEvaluator evaluator;
+        RuleSet rules;
+
+        public StatusState() {
+            this.status = BenchmarkFixtures.buildStatus(BenchmarkFixtures.server(1L, "10.0.0.1"));
+            this.evaluator = new AlertRuleEvaluator(event -> {
+            });
+            this.evaluator.setRules(CompiledAlertRules.compile(BenchmarkFixtures.alertRules()));
+            this.rules = BenchmarkFixtures.ruleSet();
+        }
+    }
+}
@@ -129,7 +129,8 @@ public class SecurityConfiguration {
                                                 // 2. Acesse Realm → Clients → seu-client
                                                 // 3. Vá em Client Scopes → Assign scope → Adicione "roles"
                                                 // 4. Configure as roles no Keycloak e atribua aos usuários
-                                                 .requestMatchers("/servers/**", "/settings/**", "/api/servers/**")
+                                                 .requestMatchers("/servers/**", "/settings/**", "/api/servers/**",
+                                                 "/api/metrics/**")
                                                  .hasAnyRole("SERVERWATCH_USER")
                                                  .requestMatchers("/dashboard", "/monitoring/**",
                                                  "/api/monitoring/**")
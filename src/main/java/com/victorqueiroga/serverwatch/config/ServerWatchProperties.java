@@ -1,5 +1,10 @@
 package com.victorqueiroga.serverwatch.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -152,12 +157,259 @@ public class ServerWatchProperties {
          */
         private Alerts alerts = new Alerts();
 
+        /**
+         * Configurações do cliente SNMP
+         */
+        private Snmp snmp = new Snmp();
+
+        /**
+         * Configurações da gravação das métricas coletadas
+         */
+        private Ingest ingest = new Ingest();
+
+        /**
+         * Retenção e particionamento do histórico de métricas
+         */
+        private Retention retention = new Retention();
+
+        /**
+         * Agregação contínua das métricas (rollups)
+         */
+        private Rollups rollups = new Rollups();
+
+        /**
+         * Histórico recente em memória
+         */
+        private Recent recent = new Recent();
+
+        /**
+         * Compactação do histórico antigo em blocos
+         */
+        private Compaction compaction = new Compaction();
+
         @Data
         public static class Alerts {
             private boolean enableEmailAlerts = true;
             private boolean enableSmsAlerts = false;
             private boolean enableWebhookAlerts = false;
+
+            /**
+             * Período após a resolução de um alerta em que a mesma série não
+             * reabre alerta, mesmo que continue violando a regra
+             */
             private int cooldownMinutes = 15;
+
+            /**
+             * Intervalo de releitura das regras de alerta (alert_rules)
+             */
+            private long ruleReloadMillis = 60_000;
+
+            /**
+             * Capacidade da fila de eventos de regras aguardando gravação
+             */
+            private int eventQueueCapacity = 10_000;
+
+            /**
+             * Intervalo de gravação (em lote) do valor atual dos alertas
+             * abertos cujas séries continuam violando a regra
+             */
+            private long valueFlushMillis = 60_000;
+
+            /**
+             * Intervalo de conferência com o banco das estatísticas de
+             * alertas mantidas em memória
+             */
+            private long statsReconcileMillis = 300_000;
+
+            /**
+             * Resolve automaticamente (resolvedBy = "system") o alerta cuja
+             * série volta ao normal e assim permanece por
+             * {@link #autoResolveMinutes}
+             */
+            private boolean autoResolve = true;
+
+            /**
+             * Tempo contínuo do lado de recuperação da regra para a
+             * resolução automática
+             */
+            private int autoResolveMinutes = 10;
+        }
+
+        @Data
+        public static class Snmp {
+            /**
+             * Limite de carga padrão por agente
+             */
+            private RateLimit rateLimit = new RateLimit();
+
+            /**
+             * Limites por tipo de SO: a chave é comparada (sem diferenciar
+             * maiúsculas) com o nome do sistema operacional do servidor
+             */
+            private Map<String, RateLimit> osRateLimits = new LinkedHashMap<>(Map.of(
+                    "pfsense", RateLimit.fragile(),
+                    "freebsd", RateLimit.fragile()));
+
+            /**
+             * Limite aplicável ao sistema operacional informado
+             */
+            public RateLimit rateLimitFor(String operationSystemName) {
+                if (operationSystemName != null) {
+                    String name = operationSystemName.toLowerCase();
+                    for (Map.Entry<String, RateLimit> entry : osRateLimits.entrySet()) {
+                        if (name.contains(entry.getKey().toLowerCase())) {
+                            return entry.getValue();
+                        }
+                    }
+                }
+                return rateLimit;
+            }
+        }
+
+        @Data
+        public static class Ingest {
+            /**
+             * Forma de gravação dos lotes: COPY (padrão) ou JPA (INSERT em lote)
+             */
+            private IngestMode mode = IngestMode.COPY;
+
+            /**
+             * Amostras aguardando gravação; acima disso novas amostras são descartadas
+             */
+            private int queueCapacity = 50_000;
+
+            /**
+             * Amostras por lote de INSERT
+             */
+            private int batchSize = 500;
+
+            /**
+             * Tempo máximo que uma amostra espera na fila antes do flush
+             */
+            private long flushIntervalMillis = 5_000;
+
+            /**
+             * Spool local em disco entre a coleta e o banco
+             */
+            private Spool spool = new Spool();
+        }
+
+        @Data
+        public static class Spool {
+            /**
+             * Grava as amostras no spool e as envia ao banco a partir dele;
+             * sem o spool, lotes que falham no banco são perdidos
+             */
+            private boolean enabled = true;
+
+            /**
+             * Diretório dos segmentos e do checkpoint
+             */
+            private String directory = "data/metric-spool";
+
+            /**
+             * Tamanho de cada segmento mapeado em memória
+             */
+            private int segmentSizeMb = 16;
+
+            /**
+             * Tamanho máximo do spool; acima disso os segmentos mais antigos
+             * são descartados
+             */
+            private int maxSizeMb = 512;
+
+            /**
+             * Espera máxima entre tentativas de envio com o banco indisponível
+             */
+            private long maxRetryDelayMillis = 30_000;
+        }
+
+        @Data
+        public static class Retention {
+            /**
+             * Dias de histórico mantidos em server_metrics
+             */
+            private int metricDays = 30;
+
+            /**
+             * Partições diárias criadas antecipadamente
+             */
+            private int partitionPremakeDays = 7;
+
+            /**
+             * Agenda da manutenção das partições
+             */
+            private String maintenanceCron = "0 15 * * * *";
+        }
+
+        @Data
+        public static class Rollups {
+            /**
+             * Intervalo entre execuções da agregação
+             */
+            private long intervalMillis = 60_000;
+
+            /**
+             * Atraso até um intervalo ser considerado fechado, para incluir
+             * amostras ainda na fila de gravação
+             */
+            private long lateDataGraceSeconds = 120;
+        }
+
+        @Data
+        public static class Recent {
+            /**
+             * Amostras retidas por série (arredondado para potência de 2);
+             * com coleta a cada 2 minutos, 256 amostras cobrem ~8 horas
+             */
+            private int capacityPerSeries = 256;
+
+            /**
+             * Máximo de séries em memória
+             */
+            private int maxSeries = 20_000;
+        }
+
+        @Data
+        public static class Compaction {
+            /**
+             * Dias após os quais as amostras brutas são convertidas em blocos
+             * (0 desabilita)
+             */
+            private int compactAfterDays = 7;
+
+            /**
+             * Dias de histórico compactado mantidos
+             */
+            private int blockRetentionDays = 365;
+
+            /**
+             * Agenda da compactação
+             */
+            private String cron = "0 30 * * * *";
+        }
+
+        public enum IngestMode {
+            COPY, JPA
+        }
+
+        @Data
+        public static class RateLimit {
+            private double requestsPerSecond = 200;
+            private int burst = 50;
+            private int maxInFlight = 4;
+            private long acquireTimeoutMillis = 30_000;
+
+            /**
+             * Perfil para agentes que descartam rajadas (pfSense, switches)
+             */
+            static RateLimit fragile() {
+                RateLimit limit = new RateLimit();
+                limit.setRequestsPerSecond(20);
+                limit.setBurst(5);
+                limit.setMaxInFlight(1);
+                return limit;
+            }
         }
     }
 
@@ -176,21 +428,109 @@ public class ServerWatchProperties {
         @Data
         public static class Email {
             private boolean enabled = false;
+
+            /**
+             * Servidor SMTP; vazio usa o de spring.mail
+             */
             private String smtpHost = "";
             private int smtpPort = 587;
             private String username = "";
             private String password = "";
+
+            /**
+             * TLS na conexão: implícito na porta 465, STARTTLS nas demais
+             */
             private boolean useSSL = true;
             private String fromAddress = "noreply@serverwatch.com";
             private String fromName = "ServerWatch";
+
+            /**
+             * Destinatários dos resumos de alertas
+             */
+            private List<String> recipients = new ArrayList<>();
+
+            /**
+             * Janela de agrupamento: os alertas de um destinatário recebidos
+             * nesse período vão em um único e-mail
+             */
+            private long digestWindowMillis = 60_000;
+
+            /**
+             * Máximo de alertas por e-mail; ao atingir, o resumo é enviado
+             * antes do fim da janela
+             */
+            private int maxAlertsPerDigest = 200;
+
+            /**
+             * Capacidade da fila de alertas aguardando agrupamento
+             */
+            private int queueCapacity = 10_000;
+
+            /**
+             * Tentativas de envio de um resumo antes de descartá-lo
+             */
+            private int maxAttempts = 5;
+
+            /**
+             * Espera antes da primeira nova tentativa; dobra a cada falha
+             */
+            private long retryBackoffMillis = 30_000;
+
+            /**
+             * Conexão SMTP ociosa por mais que isto é fechada
+             */
+            private long idleTimeoutMillis = 60_000;
         }
 
         @Data
         public static class Webhook {
             private boolean enabled = false;
             private String url = "";
+
+            /**
+             * Chave da assinatura HMAC-SHA256 do corpo; vazia não assina
+             */
             private String secret = "";
             private int timeoutSeconds = 10;
+
+            /**
+             * Janela de agrupamento: os alertas recebidos nesse período vão
+             * em uma única requisição
+             */
+            private long batchWindowMillis = 2_000;
+
+            /**
+             * Máximo de alertas por requisição
+             */
+            private int maxAlertsPerBatch = 100;
+
+            /**
+             * Requisições simultâneas por destino; lotes além disso vão para
+             * a fila persistente (webhook_outbox)
+             */
+            private int maxConcurrentRequests = 2;
+
+            /**
+             * Capacidade da fila de alertas aguardando agrupamento
+             */
+            private int queueCapacity = 10_000;
+
+            /**
+             * Tentativas de envio de um lote antes de marcá-lo como falho
+             */
+            private int maxAttempts = 8;
+
+            /**
+             * Espera antes da primeira nova tentativa; dobra a cada falha,
+             * até {@code maxBackoffMillis}, com variação aleatória
+             */
+            private long retryBackoffMillis = 10_000;
+            private long maxBackoffMillis = 600_000;
+
+            /**
+             * Intervalo de leitura dos lotes pendentes em webhook_outbox
+             */
+            private long retryPollMillis = 5_000;
         }
     }
 }
\ No newline at end of file
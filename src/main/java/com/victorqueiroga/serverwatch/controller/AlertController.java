@@ -1,5 +1,9 @@
 package com.victorqueiroga.serverwatch.controller;
 
+import com.victorqueiroga.serverwatch.dto.AlertBulkRequest;
+import com.victorqueiroga.serverwatch.dto.AlertFilter;
+import com.victorqueiroga.serverwatch.dto.AlertStats;
+import com.victorqueiroga.serverwatch.dto.KeysetPage;
 import com.victorqueiroga.serverwatch.model.Alert;
 import com.victorqueiroga.serverwatch.model.Server;
 import com.victorqueiroga.serverwatch.model.Severity;
@@ -10,10 +14,6 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -22,8 +22,10 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -36,6 +38,8 @@ import java.util.Optional;
 @Profile("!dev")  // Exclui este controller do profile dev
 public class AlertController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final AlertService alertService;
     private final ServerService serverService;
     private final SeverityService severityService;
@@ -45,9 +49,8 @@ public class AlertController {
      */
     @GetMapping
     public String listAlerts(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) Long serverId,
             @RequestParam(required = false) Long severityId,
@@ -58,10 +61,6 @@ public class AlertController {
             Model model) {
 
         try {
-            // Cria paginação
-            Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
-            Pageable pageable = PageRequest.of(page, size, sort);
-
             // Converte parâmetros para enums
             Alert.AlertStatus alertStatus = null;
             if (status != null && !status.trim().isEmpty()) {
@@ -81,17 +80,19 @@ public class AlertController {
                 }
             }
 
-            // Busca alertas com filtros
-            Page<Alert> alerts = alertService.findByFilters(
-                serverId, severityId, resolved, alertStatus, alertTypeEnum, title, pageable);
+            // Busca alertas com filtros (paginação por cursor, total estimado)
+            AlertFilter filter = new AlertFilter(serverId, severityId, resolved, alertStatus, alertTypeEnum, title);
+            KeysetPage<Alert> alerts = alertService.findPage(filter, cursor, pageSize(size),
+                    "asc".equalsIgnoreCase(sortDir), true);
 
             // Carrega dados para filtros
             List<Server> servers = serverService.findAll();
             List<Severity> severities = severityService.findAll();
 
-            // Estatísticas
-            long totalAlerts = alertService.countActiveAlerts();
-            long criticalAlerts = alertService.countActiveCriticalAlerts();
+            // Estatísticas (em memória)
+            AlertStats alertStats = alertService.getAlertStats();
+            long totalAlerts = alertStats.totalActive();
+            long criticalAlerts = alertStats.totalCritical();
 
             // Adiciona atributos ao modelo
             model.addAttribute("alerts", alerts);
@@ -111,10 +112,8 @@ public class AlertController {
             model.addAttribute("currentTitle", title);
 
             // Parâmetros de paginação
-            model.addAttribute("currentPage", page);
-            model.addAttribute("currentSize", size);
-            model.addAttribute("currentSortBy", sortBy);
-            model.addAttribute("currentSortDir", sortDir);
+            model.addAttribute("currentSize", pageSize(size));
+            model.addAttribute("currentSortDir", "asc".equalsIgnoreCase(sortDir) ? "asc" : "desc");
 
             return "alerts/list";
 
@@ -340,19 +339,28 @@ public class AlertController {
      */
     @GetMapping("/api")
     @ResponseBody
-    public ResponseEntity<Page<Alert>> listAlertsApi(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<KeysetPage<Alert>> listAlertsApi(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) Long serverId,
+            @RequestParam(required = false) Long severityId,
+            @RequestParam(required = false) Boolean resolved,
+            @RequestParam(required = false) Alert.AlertStatus status,
+            @RequestParam(required = false) Alert.AlertType alertType,
+            @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = "false") boolean estimateTotal) {
 
         try {
-            Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
-            Pageable pageable = PageRequest.of(page, size, sort);
-            Page<Alert> alerts = alertService.findAll(pageable);
+            AlertFilter filter = new AlertFilter(serverId, severityId, resolved, status, alertType, title);
+            KeysetPage<Alert> alerts = alertService.findPage(filter, cursor, pageSize(size),
+                    "asc".equalsIgnoreCase(sortDir), estimateTotal);
 
             return ResponseEntity.ok(alerts);
 
+        } catch (IllegalArgumentException e) {
+            log.warn("API de listagem de alertas: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro na API de listagem de alertas: ", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -399,13 +407,16 @@ public class AlertController {
     public ResponseEntity<Object> getAlertStats() {
         try {
             var stats = new java.util.HashMap<String, Object>();
-            
-            stats.put("totalActive", alertService.countActiveAlerts());
-            stats.put("totalCritical", alertService.countActiveCriticalAlerts());
-            stats.put("statsByStatus", alertService.getAlertStatsByStatus());
-            stats.put("statsByType", alertService.getAlertStatsByType());
-            stats.put("statsBySeverity", alertService.getAlertStatsBySeverity());
-            stats.put("topServersWithAlerts", alertService.getTopServersWithAlerts(5));
+            // Contadores em memória: uma única leitura consistente
+            AlertStats alertStats = alertService.getAlertStats();
+
+            stats.put("totalActive", alertStats.totalActive());
+            stats.put("totalCritical", alertStats.totalCritical());
+            stats.put("statsByStatus", alertStats.byStatus());
+            stats.put("statsByType", alertStats.byType());
+            stats.put("statsBySeverity", alertStats.bySeverity());
+            stats.put("topServersWithAlerts", alertStats.topServers(5));
+            stats.put("reconciledAt", alertStats.reconciledAt());
             stats.put("timestamp", LocalDateTime.now());
 
             return ResponseEntity.ok(stats);
@@ -451,4 +462,58 @@ public class AlertController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reconhece alertas em lote via API REST: pelos IDs ou pelos filtros
+     */
+    @PostMapping("/api/bulk/acknowledge")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> acknowledgeAlertsApi(@RequestBody AlertBulkRequest request) {
+        try {
+            int affected = request.hasIds()
+                    ? alertService.acknowledgeAlerts(request.ids())
+                    : alertService.acknowledgeAlerts(request.filter());
+            return ResponseEntity.ok(Map.of("affected", affected));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("API de reconhecimento em lote: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Erro na API de reconhecimento em lote: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Resolve alertas em lote via API REST: pelos IDs ou pelos filtros. Sem
+     * {@code resolvedBy}, vale o usuário autenticado.
+     */
+    @PostMapping("/api/bulk/resolve")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> resolveAlertsApi(@RequestBody AlertBulkRequest request,
+                                                               Principal principal) {
+        String resolvedBy = request.resolvedBy() != null && !request.resolvedBy().isBlank()
+                ? request.resolvedBy()
+                : principal != null ? principal.getName() : null;
+        if (resolvedBy == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Informe quem resolveu os alertas"));
+        }
+        try {
+            int affected = request.hasIds()
+                    ? alertService.resolveAlerts(request.ids(), resolvedBy, request.resolutionComment())
+                    : alertService.resolveAlerts(request.filter(), resolvedBy, request.resolutionComment());
+            return ResponseEntity.ok(Map.of("affected", affected));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("API de resolução em lote: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Erro na API de resolução em lote: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
@@ -1,11 +1,24 @@
 package com.victorqueiroga.serverwatch.controller;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.victorqueiroga.serverwatch.service.MetricIngestService;
 import com.victorqueiroga.serverwatch.utils.SnmpHelper;
+import com.victorqueiroga.serverwatch.utils.SnmpSessionManager;
+import com.victorqueiroga.serverwatch.utils.SnmpTrace;
 
 /**
  * Debug controller para diagnóstico de SNMP
@@ -15,15 +28,102 @@ import com.victorqueiroga.serverwatch.utils.SnmpHelper;
 @RequestMapping("/api/debug")
 public class DebugController {
 
+    // Ausente no profile dev
+    private final ObjectProvider<MetricIngestService> metricIngestService;
+
+    public DebugController(ObjectProvider<MetricIngestService> metricIngestService) {
+        this.metricIngestService = metricIngestService;
+    }
+
+    /**
+     * Executa a coleta de memória e discos com trace ativo e retorna os
+     * eventos SNMP registrados
+     */
     @GetMapping("/snmp/{ip}/{community}")
-    public String diagnosticSnmp(@PathVariable String ip, @PathVariable String community) {
+    public ResponseEntity<?> diagnosticSnmp(@PathVariable String ip, @PathVariable String community) {
+        boolean temporary = SnmpTrace.forAddress(ip) == null;
+        SnmpTrace trace = temporary ? SnmpTrace.enable(ip, SnmpTrace.DEFAULT_CAPACITY) : SnmpTrace.forAddress(ip);
         try {
             SnmpHelper snmp = new SnmpHelper(ip, community);
-            snmp.diagnosticDiskCollection();
-            return "✅ Diagnóstico executado. Verifique os logs do servidor.";
+            try {
+                snmp.readMemory();
+            } catch (Exception e) {
+                trace.note("memory", "Falha na leitura de memória: " + e.getMessage());
+            }
+            snmp.getAllDisks();
+            return ResponseEntity.ok(trace.snapshot());
         } catch (Exception e) {
-            return "❌ Erro: " + e.getMessage();
+            return ResponseEntity.internalServerError().body("❌ Erro: " + e.getMessage());
+        } finally {
+            if (temporary) {
+                SnmpTrace.disable(ip);
+            }
+        }
+    }
+
+    /**
+     * Carga SNMP por agente (limite, requisições em andamento, esperas e recusas)
+     */
+    @GetMapping("/snmp-limits")
+    public List<SnmpSessionManager.AgentLoad> listSnmpLimits() {
+        return SnmpSessionManager.getInstance().getAgentLoads();
+    }
+
+    /**
+     * Fila e contadores da gravação de métricas
+     */
+    @GetMapping("/metric-ingest")
+    public ResponseEntity<?> metricIngestStats() {
+        MetricIngestService service = metricIngestService.getIfAvailable();
+        if (service == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(service.getStats());
+    }
+
+    /**
+     * Lista os IPs com trace SNMP ativo
+     */
+    @GetMapping("/snmp-trace")
+    public Set<String> listSnmpTraces() {
+        return SnmpTrace.enabledAddresses();
+    }
+
+    /**
+     * Habilita (ou reinicia) o trace SNMP de um dispositivo
+     */
+    @PostMapping("/snmp-trace/{ip}")
+    public Map<String, Object> enableSnmpTrace(@PathVariable String ip,
+            @RequestParam(defaultValue = "" + SnmpTrace.DEFAULT_CAPACITY) int capacity) {
+        SnmpTrace trace = SnmpTrace.enable(ip, capacity);
+        return Map.of("address", ip, "enabled", true, "capacity", trace.getCapacity());
+    }
+
+    /**
+     * Desabilita o trace SNMP de um dispositivo
+     */
+    @DeleteMapping("/snmp-trace/{ip}")
+    public Map<String, Object> disableSnmpTrace(@PathVariable String ip) {
+        return Map.of("address", ip, "enabled", false, "removed", SnmpTrace.disable(ip));
+    }
+
+    /**
+     * Eventos registrados no trace SNMP de um dispositivo (mais antigos
+     * primeiro)
+     */
+    @GetMapping("/snmp-trace/{ip}")
+    public ResponseEntity<?> viewSnmpTrace(@PathVariable String ip) {
+        SnmpTrace trace = SnmpTrace.forAddress(ip);
+        if (trace == null) {
+            return ResponseEntity.notFound().build();
         }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("address", trace.getAddress());
+        body.put("enabledAt", trace.getEnabledAt());
+        body.put("capacity", trace.getCapacity());
+        body.put("totalEvents", trace.getTotalEvents());
+        body.put("events", trace.snapshot());
+        return ResponseEntity.ok(body);
     }
 
     @GetMapping("/disks/{ip}/{community}")
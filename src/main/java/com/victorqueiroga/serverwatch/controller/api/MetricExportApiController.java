@@ -0,0 +1,70 @@
+package com.victorqueiroga.serverwatch.controller.api;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.victorqueiroga.serverwatch.service.MetricExportService;
+import com.victorqueiroga.serverwatch.utils.MetricExportWriter;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * API de exportação de histórico de métricas
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@Profile("!dev")
+public class MetricExportApiController {
+
+    private final MetricExportService metricExportService;
+
+    /**
+     * GET /api/metrics/export?format=ndjson|csv|binary&serverId=&metric=&from=&to=
+     * Exporta as amostras do período (padrão: últimas 24 horas) escrevendo
+     * direto no corpo da resposta, à medida que são lidas do banco. O CSV
+     * pode ser reimportado em POST /api/metrics/import.
+     */
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long serverId,
+            @RequestParam(required = false) String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        MetricExportWriter.Format exportFormat;
+        try {
+            exportFormat = MetricExportWriter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Formato inválido: " + format);
+            return;
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        if (!start.isBefore(end)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Período inválido: 'from' deve ser anterior a 'to'");
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"metrics-"
+                + start.toLocalDate() + "-" + end.toLocalDate() + "." + exportFormat.getExtension() + "\"");
+        long rows = metricExportService.export(exportFormat, serverId, metric, start, end,
+                response.getOutputStream());
+        log.debug("API: {} métricas exportadas ({})", rows, exportFormat);
+    }
+}
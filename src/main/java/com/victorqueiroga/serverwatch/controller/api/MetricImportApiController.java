@@ -0,0 +1,98 @@
+package com.victorqueiroga.serverwatch.controller.api;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.service.CopyMetricWriter;
+import com.victorqueiroga.serverwatch.service.MetricRollupService;
+import com.victorqueiroga.serverwatch.service.RecentMetricStore;
+import com.victorqueiroga.serverwatch.utils.MetricCsvReader;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * API de importação de histórico de métricas (backfill)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@Profile("!dev")
+public class MetricImportApiController {
+
+    private final CopyMetricWriter copyMetricWriter;
+    private final MetricRollupService metricRollupService;
+    private final RecentMetricStore recentMetricStore;
+
+    /**
+     * POST /api/metrics/import Importa amostras em CSV (ver
+     * {@link MetricCsvReader#HEADER}) via COPY, lendo o corpo da requisição
+     * em streaming. A importação é atômica: qualquer linha inválida cancela
+     * o arquivo inteiro. Os agregados já calculados para o período importado
+     * são refeitos em seguida, e o histórico recente em memória deixa de
+     * atender consultas sobre o período.
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "text/plain" })
+    public ResponseEntity<Map<String, Object>> importCsv(HttpServletRequest request) throws IOException {
+        long start = System.currentTimeMillis();
+        try (MetricCsvReader reader = new MetricCsvReader(new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)))) {
+            TimeRange range = new TimeRange(reader);
+            long rows = copyMetricWriter.write(range);
+            if (rows > 0) {
+                recentMetricStore.imported(range.min, range.max);
+                metricRollupService.recompute(range.min, range.max);
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            log.info("API: {} métricas importadas em {} ms", rows, elapsed);
+            return ResponseEntity.ok(Map.of("imported", rows, "elapsedMillis", elapsed));
+        } catch (IllegalArgumentException e) {
+            log.warn("API: importação de métricas rejeitada: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Repassa as amostras registrando o menor e o maior timestamp
+     */
+    private static final class TimeRange implements Iterator<MetricSample> {
+        private final Iterator<MetricSample> samples;
+        private LocalDateTime min;
+        private LocalDateTime max;
+
+        TimeRange(Iterator<MetricSample> samples) {
+            this.samples = samples;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return samples.hasNext();
+        }
+
+        @Override
+        public MetricSample next() {
+            MetricSample sample = samples.next();
+            if (min == null || sample.timestamp().isBefore(min)) {
+                min = sample.timestamp();
+            }
+            if (max == null || sample.timestamp().isAfter(max)) {
+                max = sample.timestamp();
+            }
+            return sample;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.victorqueiroga.serverwatch.controller.api;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.victorqueiroga.serverwatch.dto.KeysetPage;
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.dto.MetricSeries;
+import com.victorqueiroga.serverwatch.model.ServerMetric;
+import com.victorqueiroga.serverwatch.service.MetricRollupService;
+import com.victorqueiroga.serverwatch.service.ServerMetricService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * API de séries históricas de métricas para gráficos e de listagem de amostras
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@Profile("!dev")
+public class MetricSeriesApiController {
+
+    private static final int MAX_PAGE_SIZE = 1_000;
+
+    private final MetricRollupService metricRollupService;
+    private final ServerMetricService serverMetricService;
+
+    /**
+     * GET /api/metrics/samples?serverId=&cursor=&size=100&estimateTotal=false
+     * Amostras brutas, da mais recente para a mais antiga, paginadas por
+     * cursor: o token {@code nextCursor} (ou {@code previousCursor}) da
+     * resposta é passado em {@code cursor} para a página seguinte (ou anterior)
+     */
+    @GetMapping("/samples")
+    public ResponseEntity<?> getSamples(@RequestParam(required = false) Long serverId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "false") boolean estimateTotal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetPage<ServerMetric> page;
+        try {
+            page = serverId != null
+                    ? serverMetricService.findPageByServerId(serverId, cursor, pageSize, estimateTotal)
+                    : serverMetricService.findPage(cursor, pageSize, estimateTotal);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(page.map(MetricSample::fromEntity));
+    }
+
+    /**
+     * GET /api/metrics/servers/{serverId}/series?metric=CPU_USAGE&from=&to=
+     * Série de uma métrica no período (padrão: últimas 24 horas), na
+     * resolução mais grossa que atende o período
+     */
+    @GetMapping("/servers/{serverId}/series")
+    public ResponseEntity<?> getSeries(@PathVariable Long serverId,
+            @RequestParam String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Período inválido: 'from' deve ser anterior a 'to'"));
+        }
+
+        MetricSeries series = metricRollupService.findSeries(serverId, metric, start, end);
+        log.debug("API: série {} do servidor {} com {} pontos ({})", metric, serverId, series.points().size(),
+                series.resolution());
+        return ResponseEntity.ok(series);
+    }
+}
@@ -0,0 +1,21 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import java.util.List;
+
+import com.victorqueiroga.serverwatch.model.Alert;
+
+/**
+ * Reconhecimento ou resolução de alertas em lote: pelos IDs informados ou,
+ * sem IDs, pelos filtros da listagem de alertas
+ */
+public record AlertBulkRequest(List<Long> ids, Long serverId, Long severityId, Alert.AlertStatus status,
+        Alert.AlertType alertType, String title, String resolvedBy, String resolutionComment) {
+
+    public boolean hasIds() {
+        return ids != null && !ids.isEmpty();
+    }
+
+    public AlertFilter filter() {
+        return new AlertFilter(serverId, severityId, null, status, alertType, title);
+    }
+}
@@ -0,0 +1,10 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import com.victorqueiroga.serverwatch.model.Alert;
+
+/**
+ * Filtros da listagem de alertas; campos nulos (ou título vazio) não filtram
+ */
+public record AlertFilter(Long serverId, Long severityId, Boolean resolved, Alert.AlertStatus status,
+        Alert.AlertType alertType, String title) {
+}
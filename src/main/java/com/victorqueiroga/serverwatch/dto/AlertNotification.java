@@ -0,0 +1,22 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alerta a notificar: aberto ou com severidade alterada pelas regras
+ *
+ * @param escalated true quando o alerta já estava aberto e passou a violar
+ *                  outra regra
+ */
+public record AlertNotification(
+        Long alertId,
+        Long serverId,
+        String serverName,
+        String title,
+        String severity,
+        int severityLevel,
+        String currentValue,
+        String thresholdValue,
+        LocalDateTime timestamp,
+        boolean escalated) {
+}
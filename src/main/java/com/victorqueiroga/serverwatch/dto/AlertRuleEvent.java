@@ -0,0 +1,44 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import java.time.LocalDateTime;
+
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.Rule;
+
+/**
+ * Mudança de estado de uma série avaliada pelas regras de alerta: a série
+ * passou a violar uma regra (OPENED), passou a violar outra regra da mesma
+ * métrica (CHANGED, ex.: de alta para crítica), voltou ao normal (CLOSED) ou
+ * permaneceu normal pelo tempo de resolução automática (RECOVERED).
+ * Periodicamente, cada série ainda violando uma regra também gera um VALUE
+ * com o último valor avaliado.
+ *
+ * @param rule regra violada; em CLOSED e RECOVERED, a regra que estava
+ *             violada (RECOVERED de série com alerta aberto sem CLOSED: a
+ *             regra mais grave da métrica com o tipo do alerta)
+ * @param subcategory disco avaliado, em DISK_USAGE
+ */
+public record AlertRuleEvent(
+        Type type,
+        Long serverId,
+        String serverName,
+        Rule rule,
+        String subcategory,
+        double value,
+        LocalDateTime timestamp) {
+
+    public enum Type {
+        OPENED,
+        CHANGED,
+        CLOSED,
+        RECOVERED,
+        VALUE
+    }
+
+    /**
+     * Nome da série no alerta ({@code metricName}): a métrica, seguida do
+     * disco quando houver (ex.: {@code DISK_USAGE:/var})
+     */
+    public String seriesName() {
+        return subcategory != null ? rule.metric().name() + ":" + subcategory : rule.metric().name();
+    }
+}
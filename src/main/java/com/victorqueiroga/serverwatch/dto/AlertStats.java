@@ -0,0 +1,34 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Estatísticas dos alertas, mantidas em memória pelo {@code AlertStatistics}.
+ * As listas têm pares {@code [chave, quantidade]}, no mesmo formato das
+ * consultas agregadas que substituem.
+ *
+ * @param totalActive   alertas não resolvidos
+ * @param totalCritical alertas não resolvidos com severidade de nível 1 ou 2
+ * @param byStatus      todos os alertas, por status
+ * @param byType        todos os alertas, por tipo
+ * @param bySeverity    todos os alertas, por nome da severidade, da mais grave
+ * @param topServers    alertas não resolvidos por nome do servidor, do maior
+ * @param reconciledAt  última conferência dos contadores com o banco
+ */
+public record AlertStats(
+        long totalActive,
+        long totalCritical,
+        List<Object[]> byStatus,
+        List<Object[]> byType,
+        List<Object[]> bySeverity,
+        List<Object[]> topServers,
+        LocalDateTime reconciledAt) {
+
+    /**
+     * Os {@code limit} servidores com mais alertas não resolvidos
+     */
+    public List<Object[]> topServers(int limit) {
+        return topServers.subList(0, Math.min(Math.max(limit, 0), topServers.size()));
+    }
+}
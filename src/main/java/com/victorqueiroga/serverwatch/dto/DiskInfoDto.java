@@ -1,5 +1,8 @@
 package com.victorqueiroga.serverwatch.dto;
 
+import com.victorqueiroga.serverwatch.model.AlertRule.RuleMetric;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,7 +12,6 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class DiskInfoDto {
 
-    public static final long CRITICAL_USAGE_THRESHOLD = 90L;    // Limite de uso critico em porcentagem
     private String path;        // Caminho do disco (ex: /, C:, /var)
     private String description; // Descrição do disco
     private Long totalGB;       // Total em GB
@@ -31,8 +33,11 @@ public class DiskInfoDto {
         }
     }
 
-    public String verifyCriticalDiskLetter() {
-        if (this.usagePercent != null && this.usagePercent >= CRITICAL_USAGE_THRESHOLD) {
+    /**
+     * Caminho do disco, se o uso passa do limite crítico das regras de disco
+     */
+    public String verifyCriticalDiskLetter(RuleSet rules) {
+        if (this.usagePercent != null && rules.exceedsCritical(RuleMetric.DISK_USAGE, this.usagePercent)) {
             return this.path;
         } else {
             return null;
@@ -0,0 +1,57 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.victorqueiroga.serverwatch.utils.KeysetCursor;
+
+/**
+ * Página de uma listagem paginada por chave. Os cursores são tokens opacos
+ * ({@link KeysetCursor}) para a página seguinte e a anterior, ou null quando
+ * não há. Não há contagem exata: {@code estimatedTotal} é a estimativa do
+ * planejador do PostgreSQL, quando solicitada.
+ */
+public record KeysetPage<T>(List<T> content, String nextCursor, String previousCursor, Long estimatedTotal) {
+
+    /**
+     * Monta a página a partir das linhas lidas a partir do cursor, no sentido
+     * da leitura: até {@code size + 1} linhas, a excedente indicando que há
+     * mais itens depois desta página
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, KeysetCursor cursor,
+            Function<T, LocalDateTime> position, ToLongFunction<T> id, Long estimatedTotal) {
+        boolean backward = cursor != null && cursor.backward();
+        boolean more = rows.size() > size;
+        List<T> content = new ArrayList<>(more ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(content);
+        }
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null, estimatedTotal);
+        }
+
+        T first = content.get(0);
+        T last = content.get(content.size() - 1);
+        String next = backward || more
+                ? new KeysetCursor(position.apply(last), id.applyAsLong(last), false).encode()
+                : null;
+        String previous = (backward ? more : cursor != null)
+                ? new KeysetCursor(position.apply(first), id.applyAsLong(first), true).encode()
+                : null;
+        return new KeysetPage<>(content, next, previous, estimatedTotal);
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(content.stream().map(mapper).toList(), nextCursor, previousCursor, estimatedTotal);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
@@ -0,0 +1,33 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Mínimo, máximo, soma e contagem de uma métrica em um período. Agregados de
+ * períodos disjuntos (amostras brutas e rollups) são combinados com
+ * {@link #merge}.
+ */
+public record MetricAggregate(BigDecimal min, BigDecimal max, BigDecimal sum, long count) {
+
+    /**
+     * Lê as colunas [min, max, sum, count] a partir do índice informado
+     */
+    public static MetricAggregate fromRow(Object[] row, int offset) {
+        return new MetricAggregate((BigDecimal) row[offset], (BigDecimal) row[offset + 1],
+                (BigDecimal) row[offset + 2], ((Number) row[offset + 3]).longValue());
+    }
+
+    public MetricAggregate merge(MetricAggregate other) {
+        if (other == null || other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            return other;
+        }
+        return new MetricAggregate(min.min(other.min), max.max(other.max), sum.add(other.sum), count + other.count);
+    }
+
+    public Double average() {
+        return count == 0 ? null : sum.doubleValue() / count;
+    }
+}
@@ -0,0 +1,122 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.victorqueiroga.serverwatch.model.AlertRule.RuleMetric;
+import com.victorqueiroga.serverwatch.model.ServerMetric;
+import com.victorqueiroga.serverwatch.model.ServerMetric.MetricCategory;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+import com.victorqueiroga.serverwatch.utils.SnmpHelper;
+
+/**
+ * Amostra de métrica pronta para persistência em {@code server_metrics}.
+ *
+ * Guarda apenas o ID do servidor, para que as amostras possam atravessar a
+ * fila de gravação sem carregar entidades JPA entre threads.
+ */
+public record MetricSample(
+        Long serverId,
+        String metricName,
+        double value,
+        String unit,
+        MetricCategory category,
+        String subcategory,
+        String snmpOid,
+        LocalDateTime timestamp,
+        Double warningThreshold,
+        Double criticalThreshold) {
+
+    public static final String AVAILABILITY = "AVAILABILITY";
+    public static final String CPU_USAGE = "CPU_USAGE";
+    public static final String MEMORY_USAGE = "MEMORY_USAGE";
+    public static final String MEMORY_USED = "MEMORY_USED";
+    public static final String DISK_USAGE = "DISK_USAGE";
+
+    /**
+     * Converte o resultado de uma coleta em amostras. Servidores offline
+     * geram apenas a amostra de disponibilidade. Os limites de aviso e
+     * crítico (e, com eles, o indicador de amostra crítica) vêm das regras de
+     * alerta do servidor.
+     */
+    public static List<MetricSample> fromStatus(ServerStatusDto status, RuleSet rules) {
+        List<MetricSample> samples = new ArrayList<>();
+        if (status.getServerId() == null) {
+            return samples;
+        }
+
+        Long serverId = status.getServerId();
+        LocalDateTime timestamp = status.getLastCheck() != null ? status.getLastCheck() : LocalDateTime.now();
+
+        samples.add(new MetricSample(serverId, AVAILABILITY, status.isOnline() ? 1 : 0, null,
+                MetricCategory.SYSTEM, null, SnmpHelper.OID_SYS_DESCR, timestamp, null, null));
+        if (!status.isOnline()) {
+            return samples;
+        }
+
+        if (status.getCpuLoad1Min() != null) {
+            samples.add(new MetricSample(serverId, CPU_USAGE, status.getCpuLoad1Min(), "%",
+                    MetricCategory.CPU, null, SnmpHelper.OID_HR_PROCESSOR_LOAD, timestamp,
+                    rules.warningThreshold(RuleMetric.CPU_USAGE), rules.criticalThreshold(RuleMetric.CPU_USAGE)));
+        }
+        if (status.getMemoryUsagePercent() != null) {
+            samples.add(new MetricSample(serverId, MEMORY_USAGE, status.getMemoryUsagePercent(), "%",
+                    MetricCategory.MEMORY, null, SnmpHelper.OID_HR_STORAGE_USED, timestamp,
+                    rules.warningThreshold(RuleMetric.MEMORY_USAGE), rules.criticalThreshold(RuleMetric.MEMORY_USAGE)));
+        }
+        if (status.getMemoryUsed() != null) {
+            samples.add(new MetricSample(serverId, MEMORY_USED, status.getMemoryUsed(), "MB",
+                    MetricCategory.MEMORY, null, SnmpHelper.OID_HR_STORAGE_USED, timestamp, null, null));
+        }
+        if (status.getDiskList() != null) {
+            Double diskWarning = rules.warningThreshold(RuleMetric.DISK_USAGE);
+            Double diskCritical = rules.criticalThreshold(RuleMetric.DISK_USAGE);
+            for (DiskInfoDto disk : status.getDiskList()) {
+                if (disk.getUsagePercent() != null) {
+                    samples.add(new MetricSample(serverId, DISK_USAGE, disk.getUsagePercent(), "%",
+                            MetricCategory.DISK, disk.getPath(), SnmpHelper.OID_HR_STORAGE_USED, timestamp,
+                            diskWarning, diskCritical));
+                }
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Amostra com os dados de uma entidade já persistida
+     */
+    public static MetricSample fromEntity(ServerMetric metric) {
+        return new MetricSample(metric.getServer().getId(), metric.getMetricName(), metric.getValue().doubleValue(),
+                metric.getUnit(), metric.getCategory(), metric.getSubcategory(), metric.getSnmpOid(),
+                metric.getTimestamp(),
+                metric.getWarningThreshold() != null ? metric.getWarningThreshold().doubleValue() : null,
+                metric.getCriticalThreshold() != null ? metric.getCriticalThreshold().doubleValue() : null);
+    }
+
+    /**
+     * Indica se a amostra já excede o threshold crítico
+     */
+    public boolean isCritical() {
+        return criticalThreshold != null && value >= criticalThreshold;
+    }
+
+    /**
+     * Copia os dados da amostra para uma nova entidade (sem o servidor)
+     */
+    public ServerMetric toEntity() {
+        return ServerMetric.builder()
+                .metricName(metricName)
+                .value(BigDecimal.valueOf(value))
+                .unit(unit)
+                .category(category)
+                .subcategory(subcategory)
+                .snmpOid(snmpOid)
+                .timestamp(timestamp)
+                .critical(isCritical())
+                .warningThreshold(warningThreshold != null ? BigDecimal.valueOf(warningThreshold) : null)
+                .criticalThreshold(criticalThreshold != null ? BigDecimal.valueOf(criticalThreshold) : null)
+                .build();
+    }
+}
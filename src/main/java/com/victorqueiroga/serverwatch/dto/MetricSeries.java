@@ -0,0 +1,40 @@
+package com.victorqueiroga.serverwatch.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.victorqueiroga.serverwatch.model.ServerMetricRollup;
+
+/**
+ * Série temporal de uma métrica na resolução escolhida para o período
+ */
+public record MetricSeries(
+        Long serverId,
+        String metricName,
+        ServerMetricRollup.Resolution resolution,
+        LocalDateTime from,
+        LocalDateTime to,
+        List<Point> points) {
+
+    /**
+     * Um intervalo da série; métricas com subcategoria (ex: discos) têm um
+     * ponto por subcategoria em cada intervalo
+     */
+    public record Point(
+            LocalDateTime bucketStart,
+            String subcategory,
+            BigDecimal min,
+            BigDecimal max,
+            BigDecimal avg,
+            long count,
+            BigDecimal last) {
+
+        public static Point from(ServerMetricRollup rollup) {
+            return new Point(rollup.getBucketStart(),
+                    rollup.getSubcategory().isEmpty() ? null : rollup.getSubcategory(),
+                    rollup.getMinValue(), rollup.getMaxValue(), rollup.getAverage(),
+                    rollup.getSampleCount(), rollup.getLastValue());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.victorqueiroga.serverwatch.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -46,6 +48,29 @@ public class ServerDTO {
 
     private String status;
 
+    @Builder.Default
+    private String snmpVersion = "V2C";
+
+    @Builder.Default
+    private Integer snmpPort = 161;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Size(max = 100, message = "Community não pode exceder 100 caracteres")
+    private String snmpCommunity;
+
+    @Size(max = 100, message = "Usuário SNMP não pode exceder 100 caracteres")
+    private String snmpSecurityName;
+
+    private String snmpAuthProtocol;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String snmpAuthPassphrase;
+
+    private String snmpPrivProtocol;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String snmpPrivPassphrase;
+
     /**
      * DTO simplificado para listagens
      */
@@ -5,7 +5,9 @@ import java.util.List;
 import java.util.ArrayList;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.victorqueiroga.serverwatch.model.AlertRule.RuleMetric;
 import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -124,10 +126,14 @@ public class ServerStatusDto {
         }
     }
 
-    public void calculateCriticalDiskLetters() {
+    /**
+     * Lista os discos acima do limite crítico de uso das regras de alerta do
+     * servidor (nenhum sem regra crítica de disco)
+     */
+    public void calculateCriticalDiskLetters(RuleSet rules) {
         StringBuilder criticalLetters = new StringBuilder();
         for (DiskInfoDto disk : diskList) {
-            String letter = disk.verifyCriticalDiskLetter();
+            String letter = disk.verifyCriticalDiskLetter(rules);
             if (letter != null) {
                 if (criticalLetters.length() > 0) {
                     criticalLetters.append(", ");
@@ -139,44 +145,41 @@ public class ServerStatusDto {
     }
     
     /**
-     * Determina o status baseado nas métricas
+     * Determina o status pelos limites das regras de alerta do servidor
+     * ({@link RuleSet#warningThreshold} e {@link RuleSet#criticalThreshold}).
+     * Na coleta agendada o status é redefinido pela avaliação completa das
+     * regras ({@code AlertRuleEngine}), que considera as condições em janela.
      */
-    public void determineStatus() {
+    public void determineStatus(RuleSet rules) {
         if (!online) {
             status = "OFFLINE";
             return;
         }
-        
-        boolean hasWarning = false;
-        
-        // Verifica CPU (warning se > 80%)
-        if (cpuLoad1Min != null && cpuLoad1Min > 80.0) {
-            hasWarning = true;
-        }
-        
-        // Verifica memória (warning se > 85%)
-        if (memoryUsagePercent != null && memoryUsagePercent > 85.0) {
-            hasWarning = true;
-        }
-        
-        // Verifica disco (warning se > 90%)
-        if (diskUsagePercent != null && diskUsagePercent > 90.0) {
-            hasWarning = true;
-        }
-        
-        // Verifica discos da lista (warning se qualquer > 90%)
-        if (diskList != null) {
+
+        boolean hasWarning = exceeds(rules, RuleMetric.CPU_USAGE, cpuLoad1Min)
+                || exceeds(rules, RuleMetric.MEMORY_USAGE, memoryUsagePercent)
+                || exceeds(rules, RuleMetric.DISK_USAGE, diskUsagePercent);
+
+        // Verifica discos da lista
+        if (!hasWarning && diskList != null) {
             for (DiskInfoDto disk : diskList) {
-                if (disk.getUsagePercent() != null && disk.getUsagePercent() > 90.0) {
+                if (exceeds(rules, RuleMetric.DISK_USAGE, disk.getUsagePercent())) {
                     hasWarning = true;
                     break;
                 }
             }
         }
-        
+
         status = hasWarning ? "WARNING" : "ONLINE";
     }
-    
+
+    private static boolean exceeds(RuleSet rules, RuleMetric metric, Double value) {
+        if (value == null) {
+            return false;
+        }
+        return rules.exceedsWarning(metric, value) || rules.exceedsCritical(metric, value);
+    }
+
     /**
      * Retorna lastUpdate para compatibilidade (como Date)
      */
@@ -0,0 +1,373 @@
+package com.victorqueiroga.serverwatch.mail;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.AlertNotification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envio de alertas por e-mail em resumos, fora das threads que abrem os
+ * alertas.
+ *
+ * {@link #submit} só enfileira (fila limitada; com ela cheia o alerta é
+ * descartado). Uma thread agrupa os alertas por destinatário: o primeiro
+ * alerta abre uma janela de {@code digest-window-millis} e tudo o que chegar
+ * nela vai no mesmo e-mail, de modo que uma rajada de alertas em centenas de
+ * servidores vira um e-mail por destinatário. A conexão SMTP é mantida entre
+ * os envios e fechada após {@code idle-timeout-millis} sem uso. Um resumo que
+ * falha é reenviado com espera crescente (dobrando a partir de
+ * {@code retry-backoff-millis}) até {@code max-attempts} tentativas; alertas
+ * que chegam enquanto isso entram no mesmo resumo.
+ *
+ * Configurado por {@code serverwatch.notifications.email}; sem
+ * {@code smtp-host}, usa o servidor de {@code spring.mail}. Para mensagens
+ * avulsas e síncronas há o {@link EmailServiceImpl}.
+ */
+@Slf4j
+@Component
+public class AlertEmailDispatcher {
+
+    private static final long MAX_POLL_MILLIS = 1_000;
+
+    private final ServerWatchProperties.Notifications.Email settings;
+    private final EmailConfig emailConfig;
+    private final boolean enabled;
+    private final BlockingQueue<AlertNotification> queue;
+
+    // Acessados só pela thread de envio
+    private final Map<String, Digest> digests = new LinkedHashMap<>();
+    private Session session;
+    private Transport transport;
+    private long lastUsed;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AlertEmailDispatcher(ServerWatchProperties serverWatchProperties, EmailConfig emailConfig) {
+        this.settings = serverWatchProperties.getNotifications().getEmail();
+        this.emailConfig = emailConfig;
+        if (settings.getQueueCapacity() < 1 || settings.getMaxAlertsPerDigest() < 1 || settings.getMaxAttempts() < 1
+                || settings.getDigestWindowMillis() < 0 || settings.getRetryBackoffMillis() < 0) {
+            throw new IllegalArgumentException("Configuração de notificações por e-mail inválida: " + settings);
+        }
+        this.enabled = settings.isEnabled() && serverWatchProperties.getMonitoring().getAlerts().isEnableEmailAlerts()
+                && !settings.getRecipients().isEmpty();
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("Notificações de alertas por e-mail desabilitadas");
+            return;
+        }
+        session = Session.getInstance(sessionProperties());
+        running = true;
+        worker = new Thread(this::run, "serverwatch-alert-email");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Notificações de alertas por e-mail para {} destinatários via {}:{}", settings.getRecipients().size(),
+                host(), port());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join(30_000);
+    }
+
+    /**
+     * Enfileira um alerta para todos os destinatários
+     *
+     * @return false se as notificações estão desabilitadas ou a fila está cheia
+     */
+    public boolean submit(AlertNotification notification) {
+        if (!enabled) {
+            return false;
+        }
+        if (!queue.offer(notification)) {
+            if (dropped.incrementAndGet() % 1_000 == 1) {
+                log.warn("Fila de notificações por e-mail cheia: alertas descartados (total {})", dropped.get());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * E-mails enviados
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * Conexões SMTP abertas
+     */
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    private void run() {
+        List<AlertNotification> received = new ArrayList<>();
+        while (running) {
+            try {
+                AlertNotification first = queue.poll(pollMillis(System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    received.add(first);
+                    queue.drainTo(received);
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(received);
+            }
+            long now = System.currentTimeMillis();
+            received.forEach(notification -> add(notification, now));
+            received.clear();
+            sendDue(now, false);
+            closeIfIdle(now);
+        }
+        // Encerramento: uma última tentativa para tudo o que está pendente
+        queue.drainTo(received);
+        long now = System.currentTimeMillis();
+        received.forEach(notification -> add(notification, now));
+        sendDue(now, true);
+        closeTransport();
+        log.info("Notificações por e-mail encerradas: {} e-mails enviados, {} falhas, {} alertas descartados",
+                sent.get(), failures.get(), dropped.get());
+    }
+
+    private void add(AlertNotification notification, long now) {
+        for (String recipient : settings.getRecipients()) {
+            Digest digest = digests.computeIfAbsent(recipient,
+                    to -> new Digest(to, now + settings.getDigestWindowMillis()));
+            if (digest.alerts.size() < settings.getMaxAlertsPerDigest()) {
+                digest.alerts.add(notification);
+            } else {
+                digest.overflow++;
+            }
+            // Resumo cheio sai antes do fim da janela (mas respeita a espera de
+            // um reenvio)
+            if (digest.alerts.size() == settings.getMaxAlertsPerDigest() && digest.attempts == 0) {
+                digest.dueAt = Math.min(digest.dueAt, now);
+            }
+        }
+    }
+
+    private void sendDue(long now, boolean all) {
+        Iterator<Digest> pending = digests.values().iterator();
+        while (pending.hasNext()) {
+            Digest digest = pending.next();
+            if (!all && digest.dueAt > now) {
+                continue;
+            }
+            try {
+                send(digest);
+                sent.incrementAndGet();
+                pending.remove();
+            } catch (MessagingException | UnsupportedEncodingException e) {
+                failures.incrementAndGet();
+                closeTransport();
+                digest.attempts++;
+                if (digest.attempts >= settings.getMaxAttempts() || all) {
+                    log.error("Resumo de {} alertas para {} descartado após {} tentativas: {}", digest.alerts.size(),
+                            digest.recipient, digest.attempts, e.getMessage());
+                    pending.remove();
+                } else {
+                    long backoff = settings.getRetryBackoffMillis() << Math.min(digest.attempts - 1, 16);
+                    digest.dueAt = now + backoff;
+                    log.warn("Falha ao enviar resumo de alertas para {} (tentativa {}), nova tentativa em {} ms: {}",
+                            digest.recipient, digest.attempts, backoff, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void send(Digest digest) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(from(), settings.getFromName(), StandardCharsets.UTF_8.name()));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(digest.recipient));
+        message.setSubject(subject(digest), StandardCharsets.UTF_8.name());
+        message.setText(body(digest), StandardCharsets.UTF_8.name());
+        message.saveChanges();
+
+        Transport connected = connect();
+        connected.sendMessage(message, message.getAllRecipients());
+        lastUsed = System.currentTimeMillis();
+        log.debug("Resumo com {} alertas enviado para {}", digest.alerts.size(), digest.recipient);
+    }
+
+    /**
+     * Conexão SMTP aberta, reaproveitada entre os envios
+     */
+    private Transport connect() throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        closeTransport();
+        Transport opened = session.getTransport("smtp");
+        String username = username();
+        if (username.isEmpty()) {
+            opened.connect();
+        } else {
+            opened.connect(host(), port(), username, password());
+        }
+        connections.incrementAndGet();
+        transport = opened;
+        return transport;
+    }
+
+    private void closeIfIdle(long now) {
+        if (transport != null && now - lastUsed > settings.getIdleTimeoutMillis()) {
+            closeTransport();
+        }
+    }
+
+    private void closeTransport() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Falha ao fechar a conexão SMTP: {}", e.getMessage());
+        }
+        transport = null;
+    }
+
+    private long pollMillis(long now) {
+        long wait = MAX_POLL_MILLIS;
+        for (Digest digest : digests.values()) {
+            wait = Math.min(wait, digest.dueAt - now);
+        }
+        return Math.max(wait, 1);
+    }
+
+    private static String subject(Digest digest) {
+        if (digest.alerts.size() == 1 && digest.overflow == 0) {
+            AlertNotification alert = digest.alerts.get(0);
+            return "[ServerWatch] " + alert.severity() + ": " + alert.title() + " em " + alert.serverName();
+        }
+        long servers = digest.alerts.stream().map(AlertNotification::serverId).distinct().count();
+        return "[ServerWatch] " + (digest.alerts.size() + digest.overflow) + " alertas em " + servers + " servidores";
+    }
+
+    private static String body(Digest digest) {
+        List<AlertNotification> alerts = new ArrayList<>(digest.alerts);
+        // Mais graves primeiro, depois por horário
+        alerts.sort(Comparator.comparingInt(AlertNotification::severityLevel)
+                .thenComparing(AlertNotification::timestamp));
+        StringBuilder body = new StringBuilder();
+        for (AlertNotification alert : alerts) {
+            body.append(alert.timestamp()).append(" | ")
+                    .append(alert.severity()).append(alert.escalated() ? " (alterado)" : "").append(" | ")
+                    .append(alert.serverName()).append(" | ")
+                    .append(alert.title()).append(" | atual: ").append(alert.currentValue())
+                    .append(" | limite: ").append(alert.thresholdValue()).append('\n');
+        }
+        if (digest.overflow > 0) {
+            body.append("\n... e mais ").append(digest.overflow).append(" alertas no mesmo período\n");
+        }
+        return body.toString();
+    }
+
+    private Properties sessionProperties() {
+        Properties properties = new Properties();
+        properties.put("mail.transport.protocol", "smtp");
+        properties.put("mail.smtp.host", host());
+        properties.put("mail.smtp.port", String.valueOf(port()));
+        properties.put("mail.smtp.auth", String.valueOf(!username().isEmpty()));
+        properties.put("mail.smtp.connectiontimeout", "10000");
+        properties.put("mail.smtp.timeout", "10000");
+        properties.put("mail.smtp.writetimeout", "10000");
+        if (settings.isUseSSL()) {
+            if (port() == 465) {
+                properties.put("mail.smtp.ssl.enable", "true");
+            } else {
+                properties.put("mail.smtp.starttls.enable", "true");
+                properties.put("mail.smtp.starttls.required", "true");
+            }
+        }
+        return properties;
+    }
+
+    private boolean customServer() {
+        return settings.getSmtpHost() != null && !settings.getSmtpHost().isBlank();
+    }
+
+    private String host() {
+        return customServer() ? settings.getSmtpHost() : emailConfig.getHost();
+    }
+
+    private int port() {
+        return customServer() ? settings.getSmtpPort() : emailConfig.getPort();
+    }
+
+    private String username() {
+        String username = customServer() ? settings.getUsername() : emailConfig.getUsername();
+        return username != null ? username : "";
+    }
+
+    private String password() {
+        return customServer() ? settings.getPassword() : emailConfig.getPassword();
+    }
+
+    private String from() {
+        return settings.getFromAddress() != null && !settings.getFromAddress().isBlank()
+                ? settings.getFromAddress()
+                : emailConfig.getFrom();
+    }
+
+    /**
+     * Alertas pendentes de um destinatário
+     */
+    private static final class Digest {
+
+        private final String recipient;
+        private final List<AlertNotification> alerts = new ArrayList<>();
+        private long dueAt;
+        private int attempts;
+        private int overflow;
+
+        Digest(String recipient, long dueAt) {
+            this.recipient = recipient;
+            this.dueAt = dueAt;
+        }
+    }
+}
@@ -29,6 +29,11 @@ public class ServerMapper {
                 .port(server.getPort())
                 .active(server.getActive())
                 .status(server.getStatus() != null ? server.getStatus().name() : null)
+                .snmpVersion(server.getSnmpVersion() != null ? server.getSnmpVersion().name() : null)
+                .snmpPort(server.getSnmpPort())
+                .snmpSecurityName(server.getSnmpSecurityName())
+                .snmpAuthProtocol(server.getSnmpAuthProtocol() != null ? server.getSnmpAuthProtocol().name() : null)
+                .snmpPrivProtocol(server.getSnmpPrivProtocol() != null ? server.getSnmpPrivProtocol().name() : null)
                 .build();
     }
 
@@ -47,6 +52,7 @@ public class ServerMapper {
         server.setDescription(dto.getDescription());
         server.setPort(dto.getPort());
         server.setActive(dto.getActive());
+        applySnmpSettings(server, dto);
 
         // O sistema operacional deve ser definido separadamente
         if (dto.getOperationSystemId() != null) {
@@ -80,6 +86,7 @@ public class ServerMapper {
         server.setDescription(dto.getDescription());
         server.setPort(dto.getPort());
         server.setActive(dto.getActive());
+        applySnmpSettings(server, dto);
 
         // O sistema operacional deve ser definido separadamente
         if (dto.getOperationSystemId() != null) {
@@ -98,6 +105,41 @@ public class ServerMapper {
         }
     }
 
+    /**
+     * Aplica as configurações SNMP do DTO. Community e senhas em branco
+     * mantêm os valores atuais (não são devolvidas pela API); senhas que a
+     * versão ou o nível de segurança não usam mais são descartadas.
+     */
+    private void applySnmpSettings(Server server, ServerDTO dto) {
+        if (dto.getSnmpVersion() != null) {
+            server.setSnmpVersion(Server.SnmpVersion.valueOf(dto.getSnmpVersion().toUpperCase()));
+        }
+        if (dto.getSnmpPort() != null) {
+            server.setSnmpPort(dto.getSnmpPort());
+        }
+        server.setSnmpSecurityName(dto.getSnmpSecurityName());
+        server.setSnmpAuthProtocol(hasText(dto.getSnmpAuthProtocol())
+                ? Server.SnmpAuthProtocol.valueOf(dto.getSnmpAuthProtocol().toUpperCase())
+                : null);
+        server.setSnmpPrivProtocol(hasText(dto.getSnmpPrivProtocol())
+                ? Server.SnmpPrivProtocol.valueOf(dto.getSnmpPrivProtocol().toUpperCase())
+                : null);
+        if (hasText(dto.getSnmpCommunity())) {
+            server.setSnmpCommunity(dto.getSnmpCommunity());
+        }
+        if (hasText(dto.getSnmpAuthPassphrase())) {
+            server.setSnmpAuthPassphrase(dto.getSnmpAuthPassphrase());
+        }
+        if (hasText(dto.getSnmpPrivPassphrase())) {
+            server.setSnmpPrivPassphrase(dto.getSnmpPrivPassphrase());
+        }
+        server.clearUnusedSnmpSecrets();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
     /**
      * Converte Server para ServerDTO.Summary
      */
@@ -21,7 +21,7 @@ import java.time.LocalDateTime;
     @Index(name = "idx_alert_server", columnList = "server_id"),
     @Index(name = "idx_alert_severity", columnList = "severity_id"),
     @Index(name = "idx_alert_resolved", columnList = "resolved"),
-    @Index(name = "idx_alert_created", columnList = "created_at"),
+    @Index(name = "idx_alert_created_id", columnList = "created_at, id"),
     @Index(name = "idx_alert_type", columnList = "alert_type")
 })
 @Data
@@ -0,0 +1,211 @@
+package com.victorqueiroga.serverwatch.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Regra de limite avaliada contra cada coleta de um servidor.
+ *
+ * O escopo define a quem a regra se aplica; para uma mesma métrica, as regras
+ * de um servidor substituem as do seu sistema operacional, que substituem as
+ * globais. A condição define quando o limite conta como violado: na própria
+ * amostra ou de forma sustentada ({@link Condition}). As regras são
+ * compiladas pelo {@code AlertRuleEngine}.
+ */
+@Entity
+@Table(name = "alert_rules", indexes = {
+    @Index(name = "idx_alert_rule_server", columnList = "server_id"),
+    @Index(name = "idx_alert_rule_os", columnList = "operation_system_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Nome da regra, usado no título dos alertas
+     */
+    @NotBlank(message = "Nome da regra é obrigatório")
+    @Size(max = 100, message = "Nome deve ter no máximo 100 caracteres")
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    /**
+     * Métrica avaliada
+     */
+    @NotNull(message = "Métrica é obrigatória")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric_name", nullable = false, length = 50)
+    private RuleMetric metric;
+
+    /**
+     * Comparação entre o valor coletado e o limite
+     */
+    @NotNull(message = "Operador é obrigatório")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operator", nullable = false, length = 20)
+    private Operator operator;
+
+    /**
+     * Limite da regra
+     */
+    @NotNull(message = "Limite é obrigatório")
+    @Column(name = "threshold", nullable = false, precision = 15, scale = 4)
+    private BigDecimal threshold;
+
+    /**
+     * Quando o limite conta como violado
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "condition_type", nullable = false, length = 20)
+    @Builder.Default
+    private Condition condition = Condition.INSTANT;
+
+    /**
+     * Duração da violação (FOR_DURATION) ou janela da taxa (RATE_OF_CHANGE)
+     */
+    @Column(name = "duration_seconds")
+    private Integer durationSeconds;
+
+    /**
+     * M de M_OF_N: amostras violando exigidas na janela
+     */
+    @Column(name = "required_samples")
+    private Integer requiredSamples;
+
+    /**
+     * N de M_OF_N: tamanho da janela em amostras
+     */
+    @Column(name = "window_samples")
+    private Integer windowSamples;
+
+    /**
+     * Limite de recuperação (histerese): com a regra violada, ela só volta ao
+     * normal quando o valor deixa de atender o operador em relação a este
+     * limite. Ex.: {@code > 80} com recuperação 70 fecha abaixo de 70.
+     */
+    @Column(name = "recovery_threshold", precision = 15, scale = 4)
+    private BigDecimal recoveryThreshold;
+
+    /**
+     * Severidade dos alertas abertos pela regra
+     */
+    @NotNull(message = "Severidade é obrigatória")
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "severity_id", nullable = false)
+    private Severity severity;
+
+    /**
+     * Tipo dos alertas abertos pela regra
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false)
+    @Builder.Default
+    private Alert.AlertType alertType = Alert.AlertType.PERFORMANCE;
+
+    /**
+     * A quem a regra se aplica
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 20)
+    @Builder.Default
+    private Scope scope = Scope.GLOBAL;
+
+    /**
+     * Servidor da regra (escopo SERVER)
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "server_id")
+    private Server server;
+
+    /**
+     * Sistema operacional da regra (escopo OPERATION_SYSTEM)
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "operation_system_id")
+    private OperationSystem operationSystem;
+
+    @Column(name = "enabled", nullable = false)
+    @Builder.Default
+    private Boolean enabled = true;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Métricas avaliáveis; os nomes são os de
+     * {@link com.victorqueiroga.serverwatch.dto.MetricSample}
+     */
+    public enum RuleMetric {
+        /** 1 com o servidor respondendo ao SNMP, 0 sem resposta */
+        AVAILABILITY,
+        CPU_USAGE,
+        MEMORY_USAGE,
+        /** Avaliada para cada disco do servidor */
+        DISK_USAGE
+    }
+
+    public enum Operator {
+        GREATER_THAN(">"),
+        GREATER_OR_EQUAL(">="),
+        LESS_THAN("<"),
+        LESS_OR_EQUAL("<=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public boolean test(double value, double threshold) {
+            return switch (this) {
+                case GREATER_THAN -> value > threshold;
+                case GREATER_OR_EQUAL -> value >= threshold;
+                case LESS_THAN -> value < threshold;
+                case LESS_OR_EQUAL -> value <= threshold;
+            };
+        }
+    }
+
+    public enum Condition {
+        /** A amostra atual viola o limite */
+        INSTANT,
+        /** Todas as amostras violam o limite há pelo menos {@code durationSeconds} */
+        FOR_DURATION,
+        /** Ao menos {@code requiredSamples} das últimas {@code windowSamples} amostras violam o limite */
+        M_OF_N,
+        /** A variação por minuto ao longo de {@code durationSeconds} viola o limite */
+        RATE_OF_CHANGE
+    }
+
+    public enum Scope {
+        GLOBAL,
+        OPERATION_SYSTEM,
+        SERVER
+    }
+}
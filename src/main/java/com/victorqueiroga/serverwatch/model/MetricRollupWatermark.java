@@ -0,0 +1,30 @@
+package com.victorqueiroga.serverwatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progresso da agregação de métricas em uma resolução
+ */
+@Entity
+@Table(name = "metric_rollup_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricRollupWatermark {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", length = 20)
+    private ServerMetricRollup.Resolution resolution;
+
+    /**
+     * Fim (exclusivo) do período já agregado
+     */
+    @Column(name = "processed_until", nullable = false)
+    private LocalDateTime processedUntil;
+}
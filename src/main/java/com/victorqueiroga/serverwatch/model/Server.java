@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -25,6 +27,7 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Entidade que representa um servidor monitorado pelo sistema
@@ -87,6 +90,65 @@ public class Server {
     @Column(name = "port")
     private Integer port = 80;
 
+    /**
+     * Versão SNMP usada na coleta
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "snmp_version", nullable = false, length = 5)
+    private SnmpVersion snmpVersion = SnmpVersion.V2C;
+
+    /**
+     * Porta UDP do agente SNMP
+     */
+    @Column(name = "snmp_port", nullable = false)
+    private Integer snmpPort = 161;
+
+    /**
+     * Community SNMP (v2c)
+     */
+    @Size(max = 100, message = "Community não pode exceder 100 caracteres")
+    @ToString.Exclude
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Column(name = "snmp_community", length = 100)
+    private String snmpCommunity = "public";
+
+    /**
+     * Usuário USM (v3)
+     */
+    @Size(max = 100, message = "Usuário SNMP não pode exceder 100 caracteres")
+    @Column(name = "snmp_security_name", length = 100)
+    private String snmpSecurityName;
+
+    /**
+     * Protocolo de autenticação v3 (null = noAuth)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "snmp_auth_protocol", length = 10)
+    private SnmpAuthProtocol snmpAuthProtocol;
+
+    /**
+     * Senha de autenticação v3
+     */
+    @ToString.Exclude
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Column(name = "snmp_auth_passphrase", length = 200)
+    private String snmpAuthPassphrase;
+
+    /**
+     * Protocolo de privacidade v3 (null = noPriv)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "snmp_priv_protocol", length = 10)
+    private SnmpPrivProtocol snmpPrivProtocol;
+
+    /**
+     * Senha de privacidade v3
+     */
+    @ToString.Exclude
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Column(name = "snmp_priv_passphrase", length = 200)
+    private String snmpPrivPassphrase;
+
     /**
      * Descrição adicional do servidor
      */
@@ -153,6 +215,42 @@ public class Server {
         }
     }
 
+    /**
+     * Versões SNMP suportadas na coleta
+     */
+    public enum SnmpVersion {
+        V2C, V3
+    }
+
+    /**
+     * Protocolos de autenticação SNMPv3
+     */
+    public enum SnmpAuthProtocol {
+        MD5, SHA, SHA256, SHA512
+    }
+
+    /**
+     * Protocolos de privacidade SNMPv3
+     */
+    public enum SnmpPrivProtocol {
+        DES, AES128, AES256
+    }
+
+    /**
+     * Descarta as senhas SNMPv3 que a configuração atual não usa (outra
+     * versão ou nível de segurança sem autenticação/privacidade), já que
+     * senhas em branco no formulário/API mantêm as gravadas
+     */
+    public void clearUnusedSnmpSecrets() {
+        boolean v3 = this.snmpVersion == SnmpVersion.V3;
+        if (!v3 || this.snmpAuthProtocol == null) {
+            this.snmpAuthPassphrase = null;
+        }
+        if (!v3 || this.snmpPrivProtocol == null) {
+            this.snmpPrivPassphrase = null;
+        }
+    }
+
     /**
      * Verifica se o servidor está online
      */
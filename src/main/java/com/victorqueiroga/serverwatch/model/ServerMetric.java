@@ -5,7 +5,6 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,8 +17,9 @@ import java.time.LocalDateTime;
        indexes = {
            @Index(name = "idx_metric_server", columnList = "server_id"),
            @Index(name = "idx_metric_name", columnList = "metric_name"),
-           @Index(name = "idx_metric_timestamp", columnList = "timestamp"),
-           @Index(name = "idx_metric_server_name", columnList = "server_id,metric_name")
+           @Index(name = "idx_metric_timestamp_id", columnList = "timestamp,id"),
+           @Index(name = "idx_metric_server_name", columnList = "server_id,metric_name"),
+           @Index(name = "idx_metric_server_timestamp_id", columnList = "server_id,timestamp,id")
        })
 @Data
 @Builder
@@ -27,8 +27,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ServerMetric {
 
+    /**
+     * Incremento da sequence no banco (V1_0_8); IDs alocados em blocos para
+     * que o Hibernate agrupe os INSERTs em lote (IDENTITY desabilita o batch)
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "server_metrics_seq")
+    @SequenceGenerator(name = "server_metrics_seq", sequenceName = "server_metrics_id_seq",
+                       allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -82,9 +90,8 @@ public class ServerMetric {
     private String snmpOid;
 
     /**
-     * Timestamp da coleta
+     * Timestamp da coleta (preenchido na gravação se não informado)
      */
-    @CreationTimestamp
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
 
@@ -131,6 +138,17 @@ public class ServerMetric {
         }
     }
 
+    /**
+     * Preserva o instante da coleta: métricas gravadas em lote chegam ao
+     * banco depois de coletadas
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
+    }
+
     /**
      * Verifica se a métrica está em estado de warning
      */
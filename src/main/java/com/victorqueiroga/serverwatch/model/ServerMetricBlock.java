@@ -0,0 +1,87 @@
+package com.victorqueiroga.serverwatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Amostras de um dia de uma série, compactadas pelo
+ * {@link com.victorqueiroga.serverwatch.utils.GorillaEncoder}
+ */
+@Entity
+@Table(name = "server_metric_blocks")
+@IdClass(ServerMetricBlock.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServerMetricBlock {
+
+    @Id
+    @Column(name = "server_id")
+    private Long serverId;
+
+    @Id
+    @Column(name = "metric_name", length = 100)
+    private String metricName;
+
+    /**
+     * Subcategoria da métrica; vazio quando não há
+     */
+    @Id
+    @Column(name = "subcategory", length = 100)
+    private String subcategory;
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "unit", length = 20)
+    private String unit;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private ServerMetric.MetricCategory category;
+
+    /**
+     * Thresholds da amostra mais recente do dia
+     */
+    @Column(name = "warning_threshold", precision = 15, scale = 4)
+    private BigDecimal warningThreshold;
+
+    @Column(name = "critical_threshold", precision = 15, scale = 4)
+    private BigDecimal criticalThreshold;
+
+    @Column(name = "sample_count", nullable = false)
+    private int sampleCount;
+
+    @Column(name = "first_timestamp", nullable = false)
+    private LocalDateTime firstTimestamp;
+
+    @Column(name = "last_timestamp", nullable = false)
+    private LocalDateTime lastTimestamp;
+
+    /**
+     * Pontos (timestamp em milissegundos, valor) codificados
+     */
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    /**
+     * Chave composta do bloco
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long serverId;
+        private String metricName;
+        private String subcategory;
+        private LocalDate day;
+    }
+}
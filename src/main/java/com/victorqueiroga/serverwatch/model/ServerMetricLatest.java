@@ -0,0 +1,75 @@
+package com.victorqueiroga.serverwatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Último valor de uma série de métricas (servidor, métrica, subcategoria).
+ * Gravado apenas pelo {@link com.victorqueiroga.serverwatch.service.LatestMetricWriter}.
+ */
+@Entity
+@Table(name = "server_metric_latest")
+@IdClass(ServerMetricLatest.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServerMetricLatest {
+
+    @Id
+    @Column(name = "server_id")
+    private Long serverId;
+
+    @Id
+    @Column(name = "metric_name", length = 100)
+    private String metricName;
+
+    /**
+     * Subcategoria da métrica; vazio quando não há
+     */
+    @Id
+    @Column(name = "subcategory", length = 100)
+    private String subcategory;
+
+    @Column(name = "metric_value", nullable = false, precision = 15, scale = 4)
+    private BigDecimal value;
+
+    @Column(name = "unit", length = 20)
+    private String unit;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private ServerMetric.MetricCategory category;
+
+    @Column(name = "snmp_oid", length = 200)
+    private String snmpOid;
+
+    @Column(name = "timestamp", nullable = false)
+    private LocalDateTime timestamp;
+
+    @Column(name = "is_critical", nullable = false)
+    private boolean critical;
+
+    @Column(name = "warning_threshold", precision = 15, scale = 4)
+    private BigDecimal warningThreshold;
+
+    @Column(name = "critical_threshold", precision = 15, scale = 4)
+    private BigDecimal criticalThreshold;
+
+    /**
+     * Chave composta da série
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long serverId;
+        private String metricName;
+        private String subcategory;
+    }
+}
@@ -0,0 +1,150 @@
+package com.victorqueiroga.serverwatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Agregado das métricas de um servidor em um intervalo fixo (bucket)
+ */
+@Entity
+@Table(name = "server_metric_rollups")
+@IdClass(ServerMetricRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServerMetricRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", length = 20)
+    private Resolution resolution;
+
+    @Id
+    @Column(name = "server_id")
+    private Long serverId;
+
+    @Id
+    @Column(name = "metric_name", length = 100)
+    private String metricName;
+
+    /**
+     * Subcategoria da métrica; vazio quando não há
+     */
+    @Id
+    @Column(name = "subcategory", length = 100)
+    private String subcategory;
+
+    /**
+     * Início do intervalo
+     */
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "min_value", nullable = false, precision = 15, scale = 4)
+    private BigDecimal minValue;
+
+    @Column(name = "max_value", nullable = false, precision = 15, scale = 4)
+    private BigDecimal maxValue;
+
+    @Column(name = "sum_value", nullable = false, precision = 24, scale = 4)
+    private BigDecimal sumValue;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    /**
+     * Valor da amostra mais recente do intervalo
+     */
+    @Column(name = "last_value", nullable = false, precision = 15, scale = 4)
+    private BigDecimal lastValue;
+
+    @Column(name = "last_timestamp", nullable = false)
+    private LocalDateTime lastTimestamp;
+
+    /**
+     * Média das amostras do intervalo
+     */
+    public BigDecimal getAverage() {
+        return sumValue.divide(BigDecimal.valueOf(sampleCount), 4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Resoluções mantidas, da mais fina para a mais grossa, com o tempo de
+     * retenção de cada uma
+     */
+    public enum Resolution {
+        ONE_MINUTE(Duration.ofMinutes(1), "1 minute", Duration.ofDays(2)),
+        FIVE_MINUTES(Duration.ofMinutes(5), "5 minutes", Duration.ofDays(7)),
+        ONE_HOUR(Duration.ofHours(1), "1 hour", Duration.ofDays(90)),
+        ONE_DAY(Duration.ofDays(1), "1 day", Duration.ofDays(730));
+
+        private final Duration bucket;
+        private final String interval;
+        private final Duration retention;
+
+        Resolution(Duration bucket, String interval, Duration retention) {
+            this.bucket = bucket;
+            this.interval = interval;
+            this.retention = retention;
+        }
+
+        public Duration getBucket() {
+            return bucket;
+        }
+
+        /**
+         * Tamanho do intervalo como INTERVAL do PostgreSQL
+         */
+        public String getInterval() {
+            return interval;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        /**
+         * Início do intervalo que contém o instante. Os intervalos dividem o
+         * dia, então o alinhamento pelo epoch coincide com o date_bin a partir
+         * de 2000-01-01 usado no banco.
+         */
+        public LocalDateTime floor(LocalDateTime time) {
+            long seconds = time.toEpochSecond(ZoneOffset.UTC);
+            long bucketSeconds = bucket.toSeconds();
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(seconds, bucketSeconds) * bucketSeconds, 0,
+                    ZoneOffset.UTC);
+        }
+
+        /**
+         * Menor início de intervalo igual ou posterior ao instante
+         */
+        public LocalDateTime ceil(LocalDateTime time) {
+            LocalDateTime floor = floor(time);
+            return floor.isEqual(time) ? floor : floor.plus(bucket);
+        }
+    }
+
+    /**
+     * Chave composta do agregado
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Resolution resolution;
+        private Long serverId;
+        private String metricName;
+        private String subcategory;
+        private LocalDateTime bucketStart;
+    }
+}
@@ -0,0 +1,89 @@
+package com.victorqueiroga.serverwatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lote de alertas aguardando nova tentativa de envio por webhook.
+ *
+ * O corpo é guardado já serializado, para que todas as tentativas enviem os
+ * mesmos bytes (e a mesma assinatura) com o mesmo {@code deliveryId}, que o
+ * destino pode usar para descartar duplicados.
+ */
+@Entity
+@Table(name = "webhook_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Identificador do lote, enviado em todas as tentativas
+     */
+    @Column(name = "delivery_id", nullable = false, unique = true, length = 36)
+    private String deliveryId;
+
+    /**
+     * URL de destino
+     */
+    @Column(name = "endpoint", nullable = false, length = 500)
+    private String endpoint;
+
+    /**
+     * Corpo JSON (array de alertas)
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "alert_count", nullable = false)
+    private int alertCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    /**
+     * Tentativas que falharam
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        /**
+         * Aguardando nova tentativa
+         */
+        PENDING,
+
+        /**
+         * Tentativas esgotadas ou recusado pelo destino
+         */
+        FAILED
+    }
+}
@@ -3,9 +3,11 @@ package com.victorqueiroga.serverwatch.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -82,35 +84,65 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
                                Pageable pageable);
 
     /**
-     * Busca alertas com filtros complexos
+     * Filtros das listagens paginadas; parâmetros nulos não filtram
      */
-    @Query("SELECT a FROM Alert a WHERE " +
-           "(:serverId IS NULL OR a.server.id = :serverId) AND " +
+    String FILTERS = "(:serverId IS NULL OR a.server.id = :serverId) AND " +
            "(:severityId IS NULL OR a.severity.id = :severityId) AND " +
            "(:resolved IS NULL OR a.resolved = :resolved) AND " +
            "(:status IS NULL OR a.status = :status) AND " +
            "(:alertType IS NULL OR a.alertType = :alertType) AND " +
-           "(:title IS NULL OR :title = '' OR a.title LIKE '%' || :title || '%') " +
-           "ORDER BY a.createdAt DESC")
-    Page<Alert> findByFilters(@Param("serverId") Long serverId,
-                             @Param("severityId") Long severityId,
-                             @Param("resolved") Boolean resolved,
-                             @Param("status") Alert.AlertStatus status,
-                             @Param("alertType") Alert.AlertType alertType,
-                             @Param("title") String title,
-                             Pageable pageable);
-
-    /**
-     * Conta alertas ativos
-     */
-    @Query("SELECT COUNT(a) FROM Alert a WHERE a.resolved = false")
-    long countActiveAlerts();
-
-    /**
-     * Conta alertas críticos ativos
-     */
-    @Query("SELECT COUNT(a) FROM Alert a WHERE a.resolved = false AND a.severity.level <= 2")
-    long countActiveCriticalAlerts();
+           "(:title IS NULL OR :title = '' OR a.title LIKE '%' || :title || '%')";
+
+    /**
+     * Alertas filtrados anteriores à posição (createdAt, id), do mais recente
+     * para o mais antigo (paginação por chave)
+     */
+    @Query("SELECT a FROM Alert a WHERE " + FILTERS + " AND " +
+           "a.createdAt <= :createdAt AND (a.createdAt < :createdAt OR a.id < :id) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Alert> findByFiltersBefore(@Param("serverId") Long serverId,
+                                    @Param("severityId") Long severityId,
+                                    @Param("resolved") Boolean resolved,
+                                    @Param("status") Alert.AlertStatus status,
+                                    @Param("alertType") Alert.AlertType alertType,
+                                    @Param("title") String title,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Limit limit);
+
+    /**
+     * Alertas filtrados posteriores à posição (createdAt, id), do mais antigo
+     * para o mais recente (paginação por chave)
+     */
+    @Query("SELECT a FROM Alert a WHERE " + FILTERS + " AND " +
+           "a.createdAt >= :createdAt AND (a.createdAt > :createdAt OR a.id > :id) " +
+           "ORDER BY a.createdAt ASC, a.id ASC")
+    List<Alert> findByFiltersAfter(@Param("serverId") Long serverId,
+                                   @Param("severityId") Long severityId,
+                                   @Param("resolved") Boolean resolved,
+                                   @Param("status") Alert.AlertStatus status,
+                                   @Param("alertType") Alert.AlertType alertType,
+                                   @Param("title") String title,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Limit limit);
+
+    /**
+     * Regrava regra, severidade e valores de um alerta ainda não resolvido
+     *
+     * @return 1, ou 0 se o alerta já foi resolvido
+     */
+    @Modifying
+    @Query("UPDATE Alert a SET a.title = :title, a.description = :description, a.severity = :severity, " +
+           "a.currentValue = :currentValue, a.thresholdValue = :thresholdValue, a.updatedAt = :updatedAt " +
+           "WHERE a.id = :id AND a.resolved = false")
+    int updateOpenAlert(@Param("id") Long id,
+                        @Param("title") String title,
+                        @Param("description") String description,
+                        @Param("severity") Severity severity,
+                        @Param("currentValue") String currentValue,
+                        @Param("thresholdValue") String thresholdValue,
+                        @Param("updatedAt") LocalDateTime updatedAt);
 
     /**
      * Conta alertas por servidor
@@ -141,27 +173,17 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
     Page<Alert> findByMetricName(@Param("metricName") String metricName, Pageable pageable);
 
     /**
-     * Estatísticas de alertas por status
-     */
-    @Query("SELECT a.status, COUNT(a) FROM Alert a GROUP BY a.status")
-    List<Object[]> getAlertStatsByStatus();
-
-    /**
-     * Estatísticas de alertas por tipo
-     */
-    @Query("SELECT a.alertType, COUNT(a) FROM Alert a GROUP BY a.alertType")
-    List<Object[]> getAlertStatsByType();
-
-    /**
-     * Estatísticas de alertas por severidade
+     * Contagem de todos os alertas por status, tipo, severidade (id e nível)
+     * e resolução, para a conferência das estatísticas em memória
      */
-    @Query("SELECT s.name, COUNT(a) FROM Alert a JOIN a.severity s GROUP BY s.name ORDER BY s.level")
-    List<Object[]> getAlertStatsBySeverity();
+    @Query("SELECT a.status, a.alertType, s.id, s.level, a.resolved, COUNT(a) FROM Alert a JOIN a.severity s " +
+           "GROUP BY a.status, a.alertType, s.id, s.level, a.resolved")
+    List<Object[]> countForStatistics();
 
     /**
-     * Top servidores com mais alertas
+     * Alertas não resolvidos por servidor: [id, nome, quantidade]
      */
-    @Query("SELECT s.name, COUNT(a) FROM Alert a JOIN a.server s WHERE a.resolved = false " +
-           "GROUP BY s.id, s.name ORDER BY COUNT(a) DESC")
-    List<Object[]> getTopServersWithAlerts(Pageable pageable);
+    @Query("SELECT s.id, s.name, COUNT(a) FROM Alert a JOIN a.server s WHERE a.resolved = false " +
+           "GROUP BY s.id, s.name")
+    List<Object[]> countActiveByServer();
 }
\ No newline at end of file
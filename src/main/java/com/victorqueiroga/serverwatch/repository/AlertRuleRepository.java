@@ -0,0 +1,26 @@
+package com.victorqueiroga.serverwatch.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.victorqueiroga.serverwatch.model.AlertRule;
+
+/**
+ * Repositório das regras de alerta
+ */
+@Repository
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+
+    /**
+     * Regras habilitadas, com servidor e sistema operacional carregados para
+     * a compilação
+     */
+    @Query("SELECT r FROM AlertRule r " +
+           "LEFT JOIN FETCH r.server s LEFT JOIN FETCH s.operationSystem " +
+           "LEFT JOIN FETCH r.operationSystem " +
+           "WHERE r.enabled = true")
+    List<AlertRule> findEnabledForCompilation();
+}
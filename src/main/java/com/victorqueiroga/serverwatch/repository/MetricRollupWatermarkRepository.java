@@ -0,0 +1,14 @@
+package com.victorqueiroga.serverwatch.repository;
+
+import com.victorqueiroga.serverwatch.model.MetricRollupWatermark;
+import com.victorqueiroga.serverwatch.model.ServerMetricRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório do progresso da agregação de métricas
+ */
+@Repository
+public interface MetricRollupWatermarkRepository
+        extends JpaRepository<MetricRollupWatermark, ServerMetricRollup.Resolution> {
+}
@@ -0,0 +1,50 @@
+package com.victorqueiroga.serverwatch.repository;
+
+import com.victorqueiroga.serverwatch.model.ServerMetricBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório do histórico compactado de métricas
+ */
+@Repository
+public interface ServerMetricBlockRepository extends JpaRepository<ServerMetricBlock, ServerMetricBlock.Key> {
+
+    /**
+     * Blocos de um dia (compactação incremental)
+     */
+    List<ServerMetricBlock> findByDay(LocalDate day);
+
+    /**
+     * Blocos de uma métrica de um servidor com pontos no período
+     */
+    @Query("SELECT b FROM ServerMetricBlock b WHERE b.serverId = :serverId AND b.metricName = :metricName " +
+           "AND b.lastTimestamp >= :from AND b.firstTimestamp < :to " +
+           "ORDER BY b.day, b.subcategory")
+    List<ServerMetricBlock> findBlocks(@Param("serverId") Long serverId,
+                                       @Param("metricName") String metricName,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    /**
+     * Blocos de todas as séries com pontos no período
+     */
+    @Query("SELECT b FROM ServerMetricBlock b WHERE b.lastTimestamp >= :from AND b.firstTimestamp < :to " +
+           "ORDER BY b.day, b.serverId, b.metricName, b.subcategory")
+    List<ServerMetricBlock> findOverlapping(@Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    /**
+     * Remove os blocos anteriores ao dia informado
+     */
+    @Modifying
+    @Query("DELETE FROM ServerMetricBlock b WHERE b.day < :before")
+    int deleteOlderThan(@Param("before") LocalDate before);
+}
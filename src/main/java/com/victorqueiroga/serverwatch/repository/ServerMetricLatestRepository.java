@@ -0,0 +1,43 @@
+package com.victorqueiroga.serverwatch.repository;
+
+import com.victorqueiroga.serverwatch.model.ServerMetric;
+import com.victorqueiroga.serverwatch.model.ServerMetricLatest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório dos últimos valores das séries de métricas. As consultas são
+ * proporcionais a servidores × métricas, independentemente do histórico.
+ */
+@Repository
+public interface ServerMetricLatestRepository extends JpaRepository<ServerMetricLatest, ServerMetricLatest.Key> {
+
+    /**
+     * Último valor de uma métrica de um servidor (a subcategoria mais recente)
+     */
+    Optional<ServerMetricLatest> findFirstByServerIdAndMetricNameOrderByTimestampDesc(Long serverId,
+                                                                                      String metricName);
+
+    /**
+     * Últimos valores das métricas de uma categoria de um servidor
+     */
+    @Query("SELECT l FROM ServerMetricLatest l WHERE l.serverId = :serverId AND l.category = :category " +
+           "ORDER BY l.metricName, l.subcategory")
+    List<ServerMetricLatest> findByServerIdAndCategory(@Param("serverId") Long serverId,
+                                                       @Param("category") ServerMetric.MetricCategory category);
+
+    /**
+     * Métricas para dashboard (resumo): [serverId, nome do servidor, métrica,
+     * valor, unidade, warning, critical, timestamp]
+     */
+    @Query("SELECT l.serverId, s.name, l.metricName, l.value, l.unit, " +
+           "l.warningThreshold, l.criticalThreshold, l.timestamp " +
+           "FROM ServerMetricLatest l JOIN Server s ON s.id = l.serverId " +
+           "ORDER BY s.name, l.metricName, l.subcategory")
+    List<Object[]> getDashboardMetrics();
+}
@@ -2,16 +2,24 @@ package com.victorqueiroga.serverwatch.repository;
 
 import com.victorqueiroga.serverwatch.model.Server;
 import com.victorqueiroga.serverwatch.model.ServerMetric;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para gerenciamento de métricas dos servidores
@@ -25,9 +33,42 @@ public interface ServerMetricRepository extends JpaRepository<ServerMetric, Long
     Page<ServerMetric> findByServer(Server server, Pageable pageable);
 
     /**
-     * Busca métricas por servidor ID
+     * Métricas anteriores à posição (timestamp, id), da mais recente para a
+     * mais antiga (paginação por chave)
      */
-    Page<ServerMetric> findByServerId(Long serverId, Pageable pageable);
+    @Query("SELECT m FROM ServerMetric m WHERE m.timestamp <= :timestamp AND " +
+           "(m.timestamp < :timestamp OR m.id < :id) ORDER BY m.timestamp DESC, m.id DESC")
+    List<ServerMetric> findBefore(@Param("timestamp") LocalDateTime timestamp, @Param("id") Long id, Limit limit);
+
+    /**
+     * Métricas posteriores à posição (timestamp, id), da mais antiga para a
+     * mais recente (paginação por chave)
+     */
+    @Query("SELECT m FROM ServerMetric m WHERE m.timestamp >= :timestamp AND " +
+           "(m.timestamp > :timestamp OR m.id > :id) ORDER BY m.timestamp ASC, m.id ASC")
+    List<ServerMetric> findAfter(@Param("timestamp") LocalDateTime timestamp, @Param("id") Long id, Limit limit);
+
+    /**
+     * Métricas do servidor anteriores à posição (timestamp, id), da mais
+     * recente para a mais antiga (paginação por chave)
+     */
+    @Query("SELECT m FROM ServerMetric m WHERE m.server.id = :serverId AND m.timestamp <= :timestamp AND " +
+           "(m.timestamp < :timestamp OR m.id < :id) ORDER BY m.timestamp DESC, m.id DESC")
+    List<ServerMetric> findByServerIdBefore(@Param("serverId") Long serverId,
+                                            @Param("timestamp") LocalDateTime timestamp,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    /**
+     * Métricas do servidor posteriores à posição (timestamp, id), da mais
+     * antiga para a mais recente (paginação por chave)
+     */
+    @Query("SELECT m FROM ServerMetric m WHERE m.server.id = :serverId AND m.timestamp >= :timestamp AND " +
+           "(m.timestamp > :timestamp OR m.id > :id) ORDER BY m.timestamp ASC, m.id ASC")
+    List<ServerMetric> findByServerIdAfter(@Param("serverId") Long serverId,
+                                           @Param("timestamp") LocalDateTime timestamp,
+                                           @Param("id") Long id,
+                                           Limit limit);
 
     /**
      * Busca métricas por categoria
@@ -49,14 +90,6 @@ public interface ServerMetricRepository extends JpaRepository<ServerMetric, Long
      */
     List<ServerMetric> findByServerAndMetricNameOrderByTimestampDesc(Server server, String metricName);
 
-    /**
-     * Busca última métrica por servidor e nome
-     */
-    @Query("SELECT m FROM ServerMetric m WHERE m.server = :server AND m.metricName = :metricName " +
-           "ORDER BY m.timestamp DESC")
-    Optional<ServerMetric> findLatestByServerAndMetricName(@Param("server") Server server, 
-                                                          @Param("metricName") String metricName);
-
     /**
      * Busca métricas por período
      */
@@ -76,6 +109,16 @@ public interface ServerMetricRepository extends JpaRepository<ServerMetric, Long
                                                @Param("startDate") LocalDateTime startDate,
                                                @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Busca uma métrica de um servidor a partir do instante informado
+     */
+    @Query("SELECT m FROM ServerMetric m WHERE m.server.id = :serverId " +
+           "AND m.metricName = :metricName AND m.timestamp >= :since " +
+           "ORDER BY m.timestamp DESC")
+    List<ServerMetric> findMetricSince(@Param("serverId") Long serverId,
+                                       @Param("metricName") String metricName,
+                                       @Param("since") LocalDateTime since);
+
     /**
      * Busca métricas recentes por servidor (última hora)
      */
@@ -107,95 +150,87 @@ public interface ServerMetricRepository extends JpaRepository<ServerMetric, Long
            "AND (m.criticalThreshold IS NULL OR m.value < m.criticalThreshold)")
     List<ServerMetric> findWarningMetrics();
 
-    /**
-     * Busca últimas métricas por categoria para um servidor
-     */
-    @Query("SELECT m FROM ServerMetric m WHERE m.server.id = :serverId " +
-           "AND m.category = :category " +
-           "AND m.timestamp = (SELECT MAX(m2.timestamp) FROM ServerMetric m2 " +
-           "WHERE m2.server.id = :serverId AND m2.category = :category AND m2.metricName = m.metricName)")
-    List<ServerMetric> findLatestMetricsByServerAndCategory(@Param("serverId") Long serverId,
-                                                           @Param("category") ServerMetric.MetricCategory category);
-
     /**
      * Busca métricas por OID SNMP
      */
     List<ServerMetric> findBySnmpOid(String snmpOid);
 
     /**
-     * Remove métricas antigas (cleanup)
+     * Remove métricas antigas linha a linha. Com a tabela particionada, use
+     * apenas após {@link #dropPartitionsBefore}: restam só as linhas da
+     * partição default.
      */
+    @Modifying
     @Query("DELETE FROM ServerMetric m WHERE m.timestamp < :cutoffDate")
-    void deleteOldMetrics(@Param("cutoffDate") LocalDateTime cutoffDate);
+    int deleteOldMetrics(@Param("cutoffDate") LocalDateTime cutoffDate);
 
     /**
-     * Conta métricas por servidor
+     * Cria a partição diária do dia informado, se não existir
      */
-    long countByServer(Server server);
+    @Transactional
+    @Query(value = "SELECT server_metrics_create_partition(CAST(:day AS date))", nativeQuery = true)
+    boolean createPartition(@Param("day") LocalDate day);
 
     /**
-     * Conta métricas por categoria
+     * Remove (DROP) as partições diárias anteriores ao dia informado
      */
-    long countByCategory(ServerMetric.MetricCategory category);
+    @Transactional
+    @Query(value = "SELECT server_metrics_drop_partitions(CAST(:before AS date))", nativeQuery = true)
+    int dropPartitionsBefore(@Param("before") LocalDate before);
 
     /**
-     * Média de valores por métrica
+     * Move as linhas da partição default para partições diárias, descartando
+     * as anteriores ao dia informado
      */
-    @Query("SELECT m.metricName, AVG(m.value) FROM ServerMetric m " +
-           "WHERE m.server.id = :serverId AND m.timestamp >= :since " +
-           "GROUP BY m.metricName")
-    List<Object[]> getAverageMetricValues(@Param("serverId") Long serverId,
-                                         @Param("since") LocalDateTime since);
+    @Transactional
+    @Query(value = "SELECT server_metrics_relocate_default(CAST(:before AS date))", nativeQuery = true)
+    long relocateDefaultPartition(@Param("before") LocalDate before);
 
     /**
-     * Valores máximos por métrica
+     * Conta métricas por servidor
      */
-    @Query("SELECT m.metricName, MAX(m.value) FROM ServerMetric m " +
-           "WHERE m.server.id = :serverId AND m.timestamp >= :since " +
-           "GROUP BY m.metricName")
-    List<Object[]> getMaxMetricValues(@Param("serverId") Long serverId,
-                                     @Param("since") LocalDateTime since);
+    long countByServer(Server server);
+
+    /**
+     * Conta métricas por categoria
+     */
+    long countByCategory(ServerMetric.MetricCategory category);
 
     /**
-     * Valores mínimos por métrica
+     * Mínimo, máximo, soma e contagem por métrica de um servidor desde o
+     * instante informado, excluindo o período [excludeFrom, excludeTo) já
+     * coberto pelos agregados
      */
-    @Query("SELECT m.metricName, MIN(m.value) FROM ServerMetric m " +
+    @Query("SELECT m.metricName, MIN(m.value), MAX(m.value), SUM(m.value), COUNT(m) FROM ServerMetric m " +
            "WHERE m.server.id = :serverId AND m.timestamp >= :since " +
+           "AND (m.timestamp < :excludeFrom OR m.timestamp >= :excludeTo) " +
            "GROUP BY m.metricName")
-    List<Object[]> getMinMetricValues(@Param("serverId") Long serverId,
-                                     @Param("since") LocalDateTime since);
+    List<Object[]> aggregateByMetricExcluding(@Param("serverId") Long serverId,
+                                              @Param("since") LocalDateTime since,
+                                              @Param("excludeFrom") LocalDateTime excludeFrom,
+                                              @Param("excludeTo") LocalDateTime excludeTo);
 
     /**
-     * Estatísticas de uso de CPU
+     * Amostras de [from, to) em streaming, ordenadas por série e timestamp:
+     * [serverId, metricName, subcategory, unit, category, timestamp, value,
+     * warningThreshold, criticalThreshold]
      */
-    @Query("SELECT AVG(m.value), MIN(m.value), MAX(m.value), COUNT(m) FROM ServerMetric m " +
-           "WHERE m.server.id = :serverId AND m.metricName = 'CPU_USAGE' " +
-           "AND m.timestamp >= :since")
-    List<Object[]> getCpuUsageStats(@Param("serverId") Long serverId,
-                                   @Param("since") LocalDateTime since);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT m.server.id, m.metricName, m.subcategory, m.unit, m.category, m.timestamp, m.value, " +
+           "m.warningThreshold, m.criticalThreshold FROM ServerMetric m " +
+           "WHERE m.timestamp >= :from AND m.timestamp < :to " +
+           "ORDER BY m.server.id, m.metricName, m.subcategory, m.timestamp")
+    Stream<Object[]> streamRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     /**
-     * Estatísticas de uso de memória
+     * Timestamp da amostra mais antiga
      */
-    @Query("SELECT AVG(m.value), MIN(m.value), MAX(m.value), COUNT(m) FROM ServerMetric m " +
-           "WHERE m.server.id = :serverId AND m.metricName = 'MEMORY_USAGE' " +
-           "AND m.timestamp >= :since")
-    List<Object[]> getMemoryUsageStats(@Param("serverId") Long serverId,
-                                      @Param("since") LocalDateTime since);
+    @Query("SELECT MIN(m.timestamp) FROM ServerMetric m")
+    Optional<LocalDateTime> findFirstTimestamp();
 
     /**
      * Busca servidores com métricas disponíveis
      */
     @Query("SELECT DISTINCT m.server FROM ServerMetric m WHERE m.timestamp >= :since")
     List<Server> findServersWithRecentMetrics(@Param("since") LocalDateTime since);
-
-    /**
-     * Busca métricas para dashboard (resumo)
-     */
-    @Query("SELECT m.server.id, m.server.name, m.metricName, m.value, m.unit, " +
-           "m.warningThreshold, m.criticalThreshold, m.timestamp FROM ServerMetric m " +
-           "WHERE m.timestamp = (SELECT MAX(m2.timestamp) FROM ServerMetric m2 " +
-           "WHERE m2.server.id = m.server.id AND m2.metricName = m.metricName) " +
-           "ORDER BY m.server.name, m.metricName")
-    List<Object[]> getDashboardMetrics();
 }
\ No newline at end of file
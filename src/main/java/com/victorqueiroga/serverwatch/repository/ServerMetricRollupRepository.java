@@ -0,0 +1,100 @@
+package com.victorqueiroga.serverwatch.repository;
+
+import com.victorqueiroga.serverwatch.model.ServerMetricRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório dos agregados de métricas (rollups)
+ */
+@Repository
+public interface ServerMetricRollupRepository extends JpaRepository<ServerMetricRollup, ServerMetricRollup.Key> {
+
+    /**
+     * Agrega as amostras brutas de [from, to) na resolução informada. O
+     * período deve estar alinhado aos intervalos da resolução.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO server_metric_rollups (resolution, server_id, metric_name, subcategory, " +
+           "bucket_start, min_value, max_value, sum_value, sample_count, last_value, last_timestamp) " +
+           "SELECT :resolution, server_id, metric_name, COALESCE(subcategory, ''), " +
+           "date_bin(CAST(:bucket AS interval), timestamp, TIMESTAMP '2000-01-01'), " +
+           "MIN(metric_value), MAX(metric_value), SUM(metric_value), COUNT(*), " +
+           "(array_agg(metric_value ORDER BY timestamp DESC))[1], MAX(timestamp) " +
+           "FROM server_metrics WHERE timestamp >= :from AND timestamp < :to " +
+           "GROUP BY 2, 3, 4, 5", nativeQuery = true)
+    int aggregateRawMetrics(@Param("resolution") String resolution,
+                            @Param("bucket") String bucket,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to);
+
+    /**
+     * Agrega sob demanda as amostras brutas de um servidor/métrica, no mesmo
+     * formato dos agregados gravados (período ainda não processado)
+     */
+    @Query(value = "SELECT :resolution AS resolution, server_id, metric_name, " +
+           "COALESCE(subcategory, '') AS subcategory, " +
+           "date_bin(CAST(:bucket AS interval), timestamp, TIMESTAMP '2000-01-01') AS bucket_start, " +
+           "MIN(metric_value) AS min_value, MAX(metric_value) AS max_value, " +
+           "SUM(metric_value) AS sum_value, COUNT(*) AS sample_count, " +
+           "(array_agg(metric_value ORDER BY timestamp DESC))[1] AS last_value, " +
+           "MAX(timestamp) AS last_timestamp " +
+           "FROM server_metrics WHERE server_id = :serverId AND metric_name = :metricName " +
+           "AND timestamp >= :from AND timestamp < :to " +
+           "GROUP BY 2, 3, 4, 5 ORDER BY 5, 4", nativeQuery = true)
+    List<ServerMetricRollup> aggregateRawSeries(@Param("resolution") String resolution,
+                                                @Param("bucket") String bucket,
+                                                @Param("serverId") Long serverId,
+                                                @Param("metricName") String metricName,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    /**
+     * Série de uma métrica em uma resolução
+     */
+    @Query("SELECT r FROM ServerMetricRollup r WHERE r.resolution = :resolution " +
+           "AND r.serverId = :serverId AND r.metricName = :metricName " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "ORDER BY r.bucketStart, r.subcategory")
+    List<ServerMetricRollup> findSeries(@Param("resolution") ServerMetricRollup.Resolution resolution,
+                                        @Param("serverId") Long serverId,
+                                        @Param("metricName") String metricName,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    /**
+     * Mínimo, máximo, soma e contagem por métrica de um servidor em [from, to)
+     */
+    @Query("SELECT r.metricName, MIN(r.minValue), MAX(r.maxValue), SUM(r.sumValue), SUM(r.sampleCount) " +
+           "FROM ServerMetricRollup r WHERE r.resolution = :resolution AND r.serverId = :serverId " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.metricName")
+    List<Object[]> aggregateByMetric(@Param("resolution") ServerMetricRollup.Resolution resolution,
+                                     @Param("serverId") Long serverId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    /**
+     * Remove os agregados de uma resolução em [from, to)
+     */
+    @Modifying
+    @Query("DELETE FROM ServerMetricRollup r WHERE r.resolution = :resolution " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("resolution") ServerMetricRollup.Resolution resolution,
+                    @Param("from") LocalDateTime from,
+                    @Param("to") LocalDateTime to);
+
+    /**
+     * Remove os agregados de uma resolução anteriores ao instante informado
+     */
+    @Modifying
+    @Query("DELETE FROM ServerMetricRollup r WHERE r.resolution = :resolution AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("resolution") ServerMetricRollup.Resolution resolution,
+                        @Param("before") LocalDateTime before);
+}
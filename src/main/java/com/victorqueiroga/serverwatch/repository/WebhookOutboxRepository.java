@@ -0,0 +1,30 @@
+package com.victorqueiroga.serverwatch.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.victorqueiroga.serverwatch.model.WebhookOutbox;
+
+/**
+ * Repositório dos lotes de webhook aguardando nova tentativa
+ */
+@Repository
+public interface WebhookOutboxRepository extends JpaRepository<WebhookOutbox, Long> {
+
+    /**
+     * Lotes pendentes com tentativa vencida, bloqueados para a transação
+     * atual; lotes já bloqueados por outra instância são pulados
+     */
+    @Query(value = "SELECT * FROM webhook_outbox " +
+                   "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                   "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<WebhookOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(WebhookOutbox.Status status);
+}
@@ -0,0 +1,139 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import com.victorqueiroga.serverwatch.model.Alert;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reconhecimento e resolução de alertas em lote, com um único
+ * {@code UPDATE ... RETURNING} por operação.
+ *
+ * As linhas alvo são travadas ({@code FOR UPDATE}) e alteradas no mesmo
+ * comando, que devolve o estado anterior de cada alerta alterado: quem chama
+ * atualiza o índice de alertas abertos e as estatísticas sem reler os alertas.
+ * Usa a conexão da transação em andamento.
+ */
+@Service
+@Profile("!dev")
+@RequiredArgsConstructor
+public class AlertBulkUpdater {
+
+    private static final String TARGET_SQL =
+            "WITH target AS (SELECT id, status FROM alerts WHERE resolved = FALSE%s AND (%s) FOR UPDATE) ";
+
+    private static final String RETURNING_SQL =
+            "FROM target t, severities s WHERE a.id = t.id AND s.id = a.severity_id " +
+            "RETURNING a.id, t.status, a.alert_type, a.severity_id, s.severity_level, a.server_id, a.metric_name";
+
+    private final DataSource dataSource;
+
+    /**
+     * Reconhece os alertas abertos ({@code OPEN}) que atendem à condição
+     *
+     * @param condition  condição SQL sobre as colunas de {@code alerts}
+     * @param parameters valores dos {@code ?} da condição; {@code Long[]} é
+     *                   enviado como {@code bigint[]}
+     * @return alertas alterados, com o estado anterior
+     */
+    public List<Updated> acknowledge(String condition, List<Object> parameters) {
+        String sql = String.format(TARGET_SQL, " AND status = 'OPEN'", condition) +
+                "UPDATE alerts a SET status = 'ACKNOWLEDGED', updated_at = ? " + RETURNING_SQL;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return execute(sql, parameters, List.of(now));
+    }
+
+    /**
+     * Resolve os alertas não resolvidos que atendem à condição
+     *
+     * @param condition  condição SQL sobre as colunas de {@code alerts}
+     * @param parameters valores dos {@code ?} da condição; {@code Long[]} é
+     *                   enviado como {@code bigint[]}
+     * @return alertas alterados, com o estado anterior
+     */
+    public List<Updated> resolve(String condition, List<Object> parameters, String resolvedBy,
+            String resolutionComment) {
+        String sql = String.format(TARGET_SQL, "", condition) +
+                "UPDATE alerts a SET resolved = TRUE, status = 'RESOLVED', resolved_by = ?, " +
+                "resolution_comment = ?, resolved_at = ?, updated_at = ? " + RETURNING_SQL;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> values = new ArrayList<>();
+        values.add(resolvedBy);
+        values.add(resolutionComment);
+        values.add(now);
+        values.add(now);
+        return execute(sql, parameters, values);
+    }
+
+    private List<Updated> execute(String sql, List<Object> parameters, List<Object> values) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Object parameter : parameters) {
+                if (parameter instanceof Long[] ids) {
+                    statement.setArray(index++, connection.createArrayOf("bigint", ids));
+                } else {
+                    statement.setObject(index++, parameter);
+                }
+            }
+            for (Object value : values) {
+                statement.setObject(index++, value);
+            }
+            List<Updated> updated = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    updated.add(new Updated(rows.getLong(1), Alert.AlertStatus.valueOf(rows.getString(2)),
+                            Alert.AlertType.valueOf(rows.getString(3)), rows.getLong(4), rows.getInt(5),
+                            rows.getLong(6), rows.getString(7)));
+                }
+            }
+            return updated;
+        } catch (SQLException e) {
+            throw new RuntimeException("Falha ao atualizar alertas em lote: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Alerta alterado em lote, com o status anterior à alteração
+     */
+    public record Updated(long alertId, Alert.AlertStatus previousStatus, Alert.AlertType alertType,
+            Long severityId, int severityLevel, Long serverId, String metricName) {
+
+        /**
+         * Estado anterior, para as estatísticas
+         */
+        public AlertStatistics.State before() {
+            return new AlertStatistics.State(previousStatus, alertType, severityId, severityLevel, false, serverId);
+        }
+
+        /**
+         * Estado depois da alteração, para as estatísticas
+         */
+        public AlertStatistics.State after(Alert.AlertStatus status, boolean resolved) {
+            return new AlertStatistics.State(status, alertType, severityId, severityLevel, resolved, serverId);
+        }
+
+        /**
+         * Série do alerta no índice de alertas abertos, ou {@code null}
+         */
+        public OpenAlertIndex.Key key() {
+            return metricName != null ? new OpenAlertIndex.Key(serverId, metricName, alertType) : null;
+        }
+    }
+}
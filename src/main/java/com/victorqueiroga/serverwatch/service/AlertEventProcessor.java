@@ -0,0 +1,373 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.AlertNotification;
+import com.victorqueiroga.serverwatch.dto.AlertRuleEvent;
+import com.victorqueiroga.serverwatch.mail.AlertEmailDispatcher;
+import com.victorqueiroga.serverwatch.model.Alert;
+import com.victorqueiroga.serverwatch.repository.AlertRepository;
+import com.victorqueiroga.serverwatch.repository.ServerRepository;
+import com.victorqueiroga.serverwatch.repository.SeverityRepository;
+import com.victorqueiroga.serverwatch.service.OpenAlertIndex.Entry;
+import com.victorqueiroga.serverwatch.service.OpenAlertIndex.Key;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.Rule;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gravação dos eventos das regras de alerta em {@code alerts}.
+ *
+ * A avaliação ({@link AlertRuleEngine}) roda nas threads de coleta e só
+ * enfileira os eventos, sem bloquear; uma thread os grava em lotes, cada lote
+ * em uma transação. O alerta aberto de cada série vem do
+ * {@link OpenAlertIndex}, sem consulta ao banco: uma violação abre um alerta
+ * só se a série não tem alerta aberto nem está em carência; violações
+ * repetidas apenas atualizam o valor atual, gravado em um único UPDATE em
+ * lote ao final de cada lote, e só quando o valor muda. Aberturas e trocas de
+ * severidade atualizam o {@link AlertStatistics}. O retorno ao normal é
+ * registrado; as séries que permanecem normais pelo tempo de resolução
+ * automática (RECOVERED) têm o alerta resolvido por {@value #SYSTEM_USER},
+ * todas as do lote em um único UPDATE ({@link AlertService#resolveAlerts}). Alertas
+ * abertos e agravados são notificados ({@link AlertEmailDispatcher},
+ * {@link AlertWebhookNotifier}) depois que o lote é confirmado.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class AlertEventProcessor {
+
+    private static final int BATCH_SIZE = 200;
+
+    /**
+     * Responsável registrado nos alertas resolvidos automaticamente
+     */
+    static final String SYSTEM_USER = "system";
+
+    static final String UPDATE_VALUE_SQL = "UPDATE alerts SET current_value = ?, updated_at = ? "
+            + "WHERE id = ? AND resolved = false";
+
+    private final AlertRepository alertRepository;
+    private final ServerRepository serverRepository;
+    private final SeverityRepository severityRepository;
+    private final OpenAlertIndex openAlertIndex;
+    private final AlertStatistics alertStatistics;
+    private final AlertService alertService;
+    private final AlertEmailDispatcher alertEmailDispatcher;
+    private final AlertWebhookNotifier alertWebhookNotifier;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AlertRuleEvent> queue;
+    private final String recoveryComment;
+
+    // Acessados só pela thread de gravação: valor atual pendente por alerta,
+    // alertas a resolver e notificações do lote em andamento
+    private final Map<Long, String> pendingValues = new LinkedHashMap<>();
+    private final Set<Long> recovered = new LinkedHashSet<>();
+    private final List<AlertNotification> notifications = new ArrayList<>();
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicLong autoResolved = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AlertEventProcessor(AlertRepository alertRepository, ServerRepository serverRepository,
+            SeverityRepository severityRepository, OpenAlertIndex openAlertIndex, AlertStatistics alertStatistics,
+            AlertService alertService, AlertEmailDispatcher alertEmailDispatcher,
+            AlertWebhookNotifier alertWebhookNotifier, DataSource dataSource,
+            PlatformTransactionManager transactionManager, ServerWatchProperties serverWatchProperties) {
+        ServerWatchProperties.Monitoring.Alerts alerts = serverWatchProperties.getMonitoring().getAlerts();
+        int capacity = alerts.getEventQueueCapacity();
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade da fila de eventos de alerta inválida: " + capacity);
+        }
+        this.alertRepository = alertRepository;
+        this.serverRepository = serverRepository;
+        this.severityRepository = severityRepository;
+        this.openAlertIndex = openAlertIndex;
+        this.alertStatistics = alertStatistics;
+        this.alertService = alertService;
+        this.alertEmailDispatcher = alertEmailDispatcher;
+        this.alertWebhookNotifier = alertWebhookNotifier;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.recoveryComment = "Resolvido automaticamente: métrica normal por " + alerts.getAutoResolveMinutes()
+                + " minutos";
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::run, "serverwatch-alert-events");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(10_000);
+    }
+
+    /**
+     * Enfileira um evento; com a fila cheia o evento é descartado
+     */
+    public void submit(AlertRuleEvent event) {
+        if (!queue.offer(event)) {
+            if (dropped.incrementAndGet() % 1_000 == 1) {
+                log.warn("Fila de eventos de alerta cheia: eventos descartados (total {})", dropped.get());
+            }
+        }
+    }
+
+    /**
+     * Indica se a série do evento tem alerta aberto no índice
+     */
+    public boolean hasOpenAlert(AlertRuleEvent event) {
+        return openAlertIndex.get(new Key(event.serverId(), event.seriesName(), event.rule().alertType())) != null;
+    }
+
+    private void run() {
+        List<AlertRuleEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                AlertRuleEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, BATCH_SIZE);
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    batch.forEach(this::apply);
+                    flushValues();
+                    resolveRecovered();
+                });
+                for (AlertNotification notification : notifications) {
+                    alertEmailDispatcher.submit(notification);
+                    alertWebhookNotifier.submit(notification);
+                }
+            } catch (RuntimeException e) {
+                log.error("Falha ao gravar {} eventos de alerta: {}", batch.size(), e.getMessage());
+                // O índice pode ter registrado alertas que não foram gravados
+                reloadIndex();
+            }
+            pendingValues.clear();
+            recovered.clear();
+            notifications.clear();
+            batch.clear();
+        }
+        log.info("Eventos de alerta encerrados: {} alertas abertos, {} atualizados, {} resolvidos automaticamente, "
+                + "{} suprimidos pela carência, {} eventos descartados", opened.get(), updated.get(),
+                autoResolved.get(), suppressed.get(), dropped.get());
+    }
+
+    private void apply(AlertRuleEvent event) {
+        if (event.type() == AlertRuleEvent.Type.CLOSED) {
+            log.info("Servidor {}: {} voltou ao normal ({})", event.serverName(), event.seriesName(),
+                    format(event.value()));
+            return;
+        }
+
+        Rule rule = event.rule();
+        Key key = new Key(event.serverId(), event.seriesName(), rule.alertType());
+        Entry entry = openAlertIndex.get(key);
+        if (event.type() == AlertRuleEvent.Type.RECOVERED) {
+            if (entry != null) {
+                recovered.add(entry.getAlertId());
+                pendingValues.remove(entry.getAlertId());
+            }
+            return;
+        }
+        if (entry == null) {
+            if (openAlertIndex.isCoolingDown(key)) {
+                if (event.type() != AlertRuleEvent.Type.VALUE) {
+                    suppressed.incrementAndGet();
+                    log.debug("Servidor {}: {} em carência, alerta não reaberto", event.serverName(),
+                            event.seriesName());
+                }
+                return;
+            }
+            open(key, event);
+            return;
+        }
+        // Voltou a violar no mesmo lote: não resolve
+        recovered.remove(entry.getAlertId());
+        if (event.type() == AlertRuleEvent.Type.VALUE || entry.getRuleId() == rule.id()) {
+            String value = format(event.value());
+            if (!value.equals(entry.getCurrentValue())) {
+                entry.setCurrentValue(value);
+                pendingValues.put(entry.getAlertId(), value);
+            }
+        } else {
+            update(key, entry, event);
+        }
+    }
+
+    private void open(Key key, AlertRuleEvent event) {
+        Rule rule = event.rule();
+        Alert alert = Alert.builder()
+                .server(serverRepository.getReferenceById(event.serverId()))
+                .metricName(event.seriesName())
+                .alertType(rule.alertType())
+                .title(title(event))
+                .description(description(event))
+                .severity(severityRepository.getReferenceById(rule.severityId()))
+                .currentValue(format(event.value()))
+                .thresholdValue(threshold(rule))
+                .build();
+        alertRepository.save(alert);
+        openAlertIndex.opened(key, new Entry(alert.getId(), rule.id(), rule.severityId(), rule.severityLevel(),
+                alert.getCurrentValue(), alert.getStatus()));
+        alertStatistics.changed(null, new AlertStatistics.State(alert.getStatus(), rule.alertType(), rule.severityId(),
+                rule.severityLevel(), false, event.serverId()));
+        notifications.add(notification(alert.getId(), event, false));
+        opened.incrementAndGet();
+        log.info("Abrindo alerta para servidor {}: {}", event.serverName(), alert.getTitle());
+    }
+
+    /**
+     * A série passou a violar outra regra: regrava título, severidade e
+     * limite do alerta aberto
+     */
+    private void update(Key key, Entry entry, AlertRuleEvent event) {
+        Rule rule = event.rule();
+        String value = format(event.value());
+        int rows = alertRepository.updateOpenAlert(entry.getAlertId(), title(event), description(event),
+                severityRepository.getReferenceById(rule.severityId()), value, threshold(rule),
+                LocalDateTime.now());
+        if (rows == 0) {
+            // Resolvido por outro caminho sem passar pelo índice
+            openAlertIndex.closed(key, entry.getAlertId());
+            return;
+        }
+        pendingValues.remove(entry.getAlertId());
+        if (rule.severityLevel() < entry.getSeverityLevel()) {
+            notifications.add(notification(entry.getAlertId(), event, true));
+        }
+        alertStatistics.changed(
+                new AlertStatistics.State(entry.getStatus(), key.alertType(), entry.getSeverityId(),
+                        entry.getSeverityLevel(), false, key.serverId()),
+                new AlertStatistics.State(entry.getStatus(), key.alertType(), rule.severityId(),
+                        rule.severityLevel(), false, key.serverId()));
+        entry.setRuleId(rule.id());
+        entry.setSeverityId(rule.severityId());
+        entry.setSeverityLevel(rule.severityLevel());
+        entry.setCurrentValue(value);
+        updated.incrementAndGet();
+    }
+
+    private static AlertNotification notification(Long alertId, AlertRuleEvent event, boolean escalated) {
+        Rule rule = event.rule();
+        return new AlertNotification(alertId, event.serverId(), event.serverName(), title(event),
+                rule.severityName(), rule.severityLevel(), format(event.value()), threshold(rule), event.timestamp(),
+                escalated);
+    }
+
+    private void flushValues() {
+        if (pendingValues.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_VALUE_SQL)) {
+            for (Map.Entry<Long, String> pending : pendingValues.entrySet()) {
+                statement.setString(1, pending.getValue());
+                statement.setTimestamp(2, now);
+                statement.setLong(3, pending.getKey());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            updated.addAndGet(pendingValues.size());
+        } catch (SQLException e) {
+            throw new RuntimeException("Falha ao atualizar o valor atual dos alertas: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Resolve em um único UPDATE os alertas das séries recuperadas no lote
+     */
+    private void resolveRecovered() {
+        if (recovered.isEmpty()) {
+            return;
+        }
+        int resolved = alertService.resolveAlerts(List.copyOf(recovered), SYSTEM_USER, recoveryComment);
+        autoResolved.addAndGet(resolved);
+        log.info("{} alertas resolvidos automaticamente após a recuperação das séries", resolved);
+    }
+
+    private void reloadIndex() {
+        try {
+            openAlertIndex.reload();
+        } catch (RuntimeException e) {
+            log.error("Falha ao recarregar o índice de alertas abertos: {}", e.getMessage());
+        }
+    }
+
+    private static String title(AlertRuleEvent event) {
+        String title = event.subcategory() != null
+                ? event.rule().name() + " (" + event.subcategory() + ")"
+                : event.rule().name();
+        return title.length() > 200 ? title.substring(0, 200) : title;
+    }
+
+    private static String description(AlertRuleEvent event) {
+        Rule rule = event.rule();
+        return String.format(Locale.ROOT, "%s = %s (limite: %s) em %s", event.seriesName(),
+                format(event.value()), threshold(rule), event.timestamp());
+    }
+
+    private static String threshold(Rule rule) {
+        String threshold = rule.operator().getSymbol() + " " + format(rule.threshold());
+        return switch (rule.condition()) {
+            case INSTANT -> threshold;
+            case FOR_DURATION -> threshold + " por " + rule.windowMillis() / 1_000 + " s";
+            case M_OF_N -> threshold + " em " + rule.requiredSamples() + " de " + rule.windowSamples() + " coletas";
+            case RATE_OF_CHANGE -> threshold + "/min em " + rule.windowMillis() / 1_000 + " s";
+        };
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,113 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+import com.victorqueiroga.serverwatch.repository.AlertRuleRepository;
+import com.victorqueiroga.serverwatch.utils.AlertRuleEvaluator;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor de regras de alerta.
+ *
+ * As regras de {@code alert_rules} são compiladas em memória
+ * ({@link CompiledAlertRules}) na inicialização e relidas periodicamente
+ * ({@code serverwatch.monitoring.alerts.rule-reload-millis}) ou sob demanda
+ * ({@link #reload()}). Cada snapshot coletado é avaliado na própria thread de
+ * coleta ({@link AlertRuleEvaluator}, sem acesso ao banco); as mudanças de
+ * estado vão para o {@link AlertEventProcessor}, assim como, a cada
+ * {@code serverwatch.monitoring.alerts.value-flush-millis}, o último valor
+ * das séries que continuam violadas, e as séries normais há
+ * {@code auto-resolve-minutes} (resolução automática).
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class AlertRuleEngine {
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final AlertRuleEvaluator evaluator;
+    private volatile boolean loaded;
+
+    public AlertRuleEngine(AlertRuleRepository alertRuleRepository, AlertEventProcessor alertEventProcessor,
+            ServerWatchProperties serverWatchProperties) {
+        ServerWatchProperties.Monitoring.Alerts alerts = serverWatchProperties.getMonitoring().getAlerts();
+        if (alerts.getAutoResolveMinutes() < 0) {
+            throw new IllegalArgumentException("Tempo de resolução automática de alertas inválido: "
+                    + alerts.getAutoResolveMinutes());
+        }
+        this.alertRuleRepository = alertRuleRepository;
+        this.evaluator = new AlertRuleEvaluator(alertEventProcessor::submit,
+                alerts.isAutoResolve() ? TimeUnit.MINUTES.toMillis(alerts.getAutoResolveMinutes()) : -1,
+                alertEventProcessor::hasOpenAlert);
+    }
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    /**
+     * Relê e recompila as regras habilitadas. Com falha na leitura, as regras
+     * atuais são mantidas.
+     */
+    @Scheduled(fixedDelayString = "${serverwatch.monitoring.alerts.rule-reload-millis:60000}",
+            initialDelayString = "${serverwatch.monitoring.alerts.rule-reload-millis:60000}")
+    public synchronized void reload() {
+        try {
+            CompiledAlertRules rules = CompiledAlertRules.compile(alertRuleRepository.findEnabledForCompilation());
+            if (!loaded || rules.getRuleCount() != evaluator.getRules().getRuleCount()) {
+                log.info("Regras de alerta carregadas: {}", rules.getRuleCount());
+            }
+            evaluator.setRules(rules);
+            loaded = true;
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar as regras de alerta: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Avalia o snapshot de um servidor contra as regras
+     *
+     * @return número de séries violando alguma regra
+     */
+    public int evaluate(ServerStatusDto status) {
+        return evaluator.evaluate(status);
+    }
+
+    /**
+     * Regras atuais aplicáveis ao servidor do snapshot
+     */
+    public RuleSet ruleSetFor(ServerStatusDto status) {
+        return evaluator.getRules().ruleSetFor(status.getServerId(), status.getOperatingSystem());
+    }
+
+    /**
+     * Envia o último valor das séries violadas, para atualização em lote do
+     * valor atual dos alertas abertos
+     */
+    @Scheduled(fixedDelayString = "${serverwatch.monitoring.alerts.value-flush-millis:60000}",
+            initialDelayString = "${serverwatch.monitoring.alerts.value-flush-millis:60000}")
+    public void flushValues() {
+        int emitted = evaluator.emitBreached();
+        if (emitted > 0) {
+            log.debug("Valores de {} séries violadas enviados para gravação", emitted);
+        }
+    }
+
+    /**
+     * Indica se as regras já foram carregadas ao menos uma vez
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
@@ -1,22 +1,30 @@
 package com.victorqueiroga.serverwatch.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.victorqueiroga.serverwatch.dto.AlertFilter;
+import com.victorqueiroga.serverwatch.dto.AlertStats;
+import com.victorqueiroga.serverwatch.dto.KeysetPage;
 import com.victorqueiroga.serverwatch.model.Alert;
 import com.victorqueiroga.serverwatch.model.Server;
 import com.victorqueiroga.serverwatch.model.Severity;
 import com.victorqueiroga.serverwatch.repository.AlertRepository;
 import com.victorqueiroga.serverwatch.repository.SeverityRepository;
+import com.victorqueiroga.serverwatch.utils.KeysetCursor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,16 +39,18 @@ import lombok.extern.slf4j.Slf4j;
 @Profile("!dev")  // Exclui este service do profile dev
 public class AlertService {
 
-    private final AlertRepository alertRepository;
-    private final SeverityRepository severityRepository;
-
     /**
-     * Lista todos os alertas com paginação
+     * Máximo de IDs em uma operação em lote
      */
-    @Transactional(readOnly = true)
-    public Page<Alert> findAll(Pageable pageable) {
-        return alertRepository.findAll(pageable);
-    }
+    static final int MAX_BULK_IDS = 10_000;
+
+    private final AlertRepository alertRepository;
+    private final SeverityRepository severityRepository;
+    private final RowCountEstimator rowCountEstimator;
+    private final OpenAlertIndex openAlertIndex;
+    private final AlertStatistics alertStatistics;
+    private final ReferenceDataCache referenceDataCache;
+    private final AlertBulkUpdater alertBulkUpdater;
 
     /**
      * Busca alerta por ID
@@ -75,13 +85,77 @@ public class AlertService {
     }
 
     /**
-     * Busca alertas com filtros
+     * Página de alertas filtrados, paginada por (createdAt, id) a partir de um
+     * cursor opaco ({@link KeysetCursor}): o custo não depende da
+     * profundidade da página e nenhuma contagem é executada.
+     *
+     * @param cursor token da página seguinte ou anterior; null para a primeira
+     * @param ascending ordem crescente de criação (padrão: mais recentes primeiro)
+     * @param estimateTotal inclui o total estimado pelo planejador
+     * @throws IllegalArgumentException se o cursor for inválido
      */
     @Transactional(readOnly = true)
-    public Page<Alert> findByFilters(Long serverId, Long severityId, Boolean resolved, 
-                                    Alert.AlertStatus status, Alert.AlertType alertType, 
-                                    String title, Pageable pageable) {
-        return alertRepository.findByFilters(serverId, severityId, resolved, status, alertType, title, pageable);
+    public KeysetPage<Alert> findPage(AlertFilter filter, String cursor, int size, boolean ascending,
+            boolean estimateTotal) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        boolean backward = position != null && position.backward();
+        Limit limit = Limit.of(size + 1);
+        List<Alert> rows;
+        if (ascending == backward) {
+            KeysetCursor from = position != null ? position : KeysetCursor.HIGHEST;
+            rows = alertRepository.findByFiltersBefore(filter.serverId(), filter.severityId(), filter.resolved(),
+                    filter.status(), filter.alertType(), filter.title(), from.position(), from.id(), limit);
+        } else {
+            KeysetCursor from = position != null ? position : KeysetCursor.LOWEST;
+            rows = alertRepository.findByFiltersAfter(filter.serverId(), filter.severityId(), filter.resolved(),
+                    filter.status(), filter.alertType(), filter.title(), from.position(), from.id(), limit);
+        }
+        return KeysetPage.of(rows, size, position, Alert::getCreatedAt, Alert::getId,
+                estimateTotal ? estimateTotal(filter) : null);
+    }
+
+    /**
+     * Mesmos filtros de {@link AlertRepository#FILTERS}, em SQL, para o
+     * {@code EXPLAIN} do total estimado
+     */
+    private Long estimateTotal(AlertFilter filter) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT 1 FROM alerts WHERE " + filterCondition(filter, parameters);
+        return rowCountEstimator.estimate(sql, parameters);
+    }
+
+    /**
+     * Condição SQL sobre {@code alerts} equivalente a
+     * {@link AlertRepository#FILTERS}; os valores são acrescentados a
+     * {@code parameters}
+     */
+    private static String filterCondition(AlertFilter filter, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("TRUE");
+        if (filter.serverId() != null) {
+            sql.append(" AND server_id = ?");
+            parameters.add(filter.serverId());
+        }
+        if (filter.severityId() != null) {
+            sql.append(" AND severity_id = ?");
+            parameters.add(filter.severityId());
+        }
+        if (filter.resolved() != null) {
+            sql.append(" AND resolved = ?");
+            parameters.add(filter.resolved());
+        }
+        if (filter.status() != null) {
+            sql.append(" AND status = ?");
+            parameters.add(filter.status().name());
+        }
+        if (filter.alertType() != null) {
+            sql.append(" AND alert_type = ?");
+            parameters.add(filter.alertType().name());
+        }
+        if (filter.title() != null && !filter.title().isEmpty()) {
+            sql.append(" AND title LIKE '%' || ? || '%'");
+            parameters.add(filter.title());
+        }
+        return sql.toString();
     }
 
     /**
@@ -102,9 +176,31 @@ public class AlertService {
     }
 
     /**
-     * Salva ou atualiza um alerta
+     * Salva ou atualiza um alerta, mantendo o índice de alertas abertos e as
+     * estatísticas (resolução, reconhecimento e mudança de status passam por
+     * aqui)
      */
     public Alert save(Alert alert) {
+        if (alert.getId() == null) {
+            return save(alert, null);
+        }
+        // Alerta vindo de formulário ou da API: o gravado tem o estado anterior
+        Optional<Alert> stored = alertRepository.findById(alert.getId());
+        if (stored.isPresent() && stored.get() == alert) {
+            Alert saved = persist(alert);
+            alertStatistics.changedUnknown();
+            return saved;
+        }
+        return save(alert, stored.map(AlertStatistics.State::of).orElse(null));
+    }
+
+    private Alert save(Alert alert, AlertStatistics.State before) {
+        Alert saved = persist(alert);
+        alertStatistics.changed(before, AlertStatistics.State.of(saved));
+        return saved;
+    }
+
+    private Alert persist(Alert alert) {
         if (alert.getId() == null) {
             alert.setCreatedAt(LocalDateTime.now());
             log.info("Criando novo alerta: {} para servidor: {}", 
@@ -114,7 +210,9 @@ public class AlertService {
             log.info("Atualizando alerta ID: {}", alert.getId());
         }
         
-        return alertRepository.save(alert);
+        Alert saved = alertRepository.save(alert);
+        afterCommit(() -> openAlertIndex.update(saved));
+        return saved;
     }
 
     /**
@@ -145,9 +243,10 @@ public class AlertService {
         Optional<Alert> alertOpt = findById(alertId);
         if (alertOpt.isPresent()) {
             Alert alert = alertOpt.get();
+            AlertStatistics.State before = AlertStatistics.State.of(alert);
             alert.resolve(resolvedBy, resolutionNotes);
             log.info("Alerta ID: {} resolvido por: {}", alertId, resolvedBy);
-            return save(alert);
+            return save(alert, before);
         }
         throw new RuntimeException("Alerta não encontrado com ID: " + alertId);
     }
@@ -159,9 +258,10 @@ public class AlertService {
         Optional<Alert> alertOpt = findById(alertId);
         if (alertOpt.isPresent()) {
             Alert alert = alertOpt.get();
+            AlertStatistics.State before = AlertStatistics.State.of(alert);
             alert.acknowledge();
             log.info("Alerta ID: {} reconhecido", alertId);
-            return save(alert);
+            return save(alert, before);
         }
         throw new RuntimeException("Alerta não encontrado com ID: " + alertId);
     }
@@ -173,9 +273,10 @@ public class AlertService {
         Optional<Alert> alertOpt = findById(alertId);
         if (alertOpt.isPresent()) {
             Alert alert = alertOpt.get();
+            AlertStatistics.State before = AlertStatistics.State.of(alert);
             alert.setStatus(newStatus);
             log.info("Status do alerta ID: {} atualizado para: {}", alertId, newStatus);
-            return save(alert);
+            return save(alert, before);
         }
         throw new RuntimeException("Alerta não encontrado com ID: " + alertId);
     }
@@ -184,61 +285,61 @@ public class AlertService {
      * Exclui um alerta
      */
     public void deleteById(Long id) {
-        if (alertRepository.existsById(id)) {
-            alertRepository.deleteById(id);
-            log.info("Alerta ID: {} excluído", id);
-        } else {
-            throw new RuntimeException("Alerta não encontrado com ID: " + id);
-        }
+        Alert alert = alertRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Alerta não encontrado com ID: " + id));
+        alertRepository.delete(alert);
+        afterCommit(() -> openAlertIndex.removed(id));
+        alertStatistics.changed(AlertStatistics.State.of(alert), null);
+        log.info("Alerta ID: {} excluído", id);
+    }
+
+    /**
+     * Estatísticas dos alertas (contadores em memória, sem consulta ao banco)
+     */
+    public AlertStats getAlertStats() {
+        return alertStatistics.snapshot();
     }
 
     /**
      * Conta alertas ativos
      */
-    @Transactional(readOnly = true)
     public long countActiveAlerts() {
-        return alertRepository.countActiveAlerts();
+        return alertStatistics.snapshot().totalActive();
     }
 
     /**
      * Conta alertas críticos ativos
      */
-    @Transactional(readOnly = true)
     public long countActiveCriticalAlerts() {
-        return alertRepository.countActiveCriticalAlerts();
+        return alertStatistics.snapshot().totalCritical();
     }
 
     /**
      * Estatísticas de alertas por status
      */
-    @Transactional(readOnly = true)
     public List<Object[]> getAlertStatsByStatus() {
-        return alertRepository.getAlertStatsByStatus();
+        return alertStatistics.snapshot().byStatus();
     }
 
     /**
      * Estatísticas de alertas por tipo
      */
-    @Transactional(readOnly = true)
     public List<Object[]> getAlertStatsByType() {
-        return alertRepository.getAlertStatsByType();
+        return alertStatistics.snapshot().byType();
     }
 
     /**
      * Estatísticas de alertas por severidade
      */
-    @Transactional(readOnly = true)
     public List<Object[]> getAlertStatsBySeverity() {
-        return alertRepository.getAlertStatsBySeverity();
+        return alertStatistics.snapshot().bySeverity();
     }
 
     /**
      * Top servidores com mais alertas
      */
-    @Transactional(readOnly = true)
     public List<Object[]> getTopServersWithAlerts(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return alertRepository.getTopServersWithAlerts(pageable);
+        return alertStatistics.snapshot().topServers(limit);
     }
 
     /**
@@ -299,7 +400,9 @@ public class AlertService {
                     defaultSeverity.setColor("#ffc107");
                     defaultSeverity.setBootstrapClass("warning");
                     defaultSeverity.setIcon("fas fa-exclamation-triangle");
-                    return severityRepository.save(defaultSeverity);
+                    Severity saved = severityRepository.save(defaultSeverity);
+                    referenceDataCache.invalidate();
+                    return saved;
                 });
     }
 
@@ -307,21 +410,122 @@ public class AlertService {
      * Resolve alertas em lote por servidor
      */
     public int resolveAlertsByServer(Long serverId, String resolvedBy, String resolutionNotes) {
-        Page<Alert> alerts = alertRepository.findByServerId(serverId, Pageable.unpaged());
-        int resolved = 0;
-        
-        for (Alert alert : alerts) {
-            if (!alert.getResolved()) {
-                alert.resolve(resolvedBy, resolutionNotes);
-                save(alert);
-                resolved++;
-            }
-        }
-        
+        int resolved = resolveAlerts(new AlertFilter(serverId, null, null, null, null, null), resolvedBy,
+                resolutionNotes);
         log.info("Resolvidos {} alertas para servidor ID: {}", resolved, serverId);
         return resolved;
     }
 
+    /**
+     * Reconhece em lote os alertas abertos entre os informados
+     *
+     * @return número de alertas reconhecidos
+     * @throws IllegalArgumentException se a lista for vazia ou maior que
+     *                                  {@value #MAX_BULK_IDS}
+     */
+    public int acknowledgeAlerts(List<Long> alertIds) {
+        List<Object> parameters = new ArrayList<>();
+        return acknowledged(alertBulkUpdater.acknowledge(idCondition(alertIds, parameters), parameters));
+    }
+
+    /**
+     * Reconhece em lote os alertas abertos que atendem aos filtros
+     *
+     * @return número de alertas reconhecidos
+     * @throws IllegalArgumentException se nenhum filtro for informado
+     */
+    public int acknowledgeAlerts(AlertFilter filter) {
+        List<Object> parameters = new ArrayList<>();
+        return acknowledged(alertBulkUpdater.acknowledge(bulkCondition(filter, parameters), parameters));
+    }
+
+    /**
+     * Resolve em lote os alertas não resolvidos entre os informados
+     *
+     * @return número de alertas resolvidos
+     * @throws IllegalArgumentException se a lista for vazia ou maior que
+     *                                  {@value #MAX_BULK_IDS}
+     */
+    public int resolveAlerts(List<Long> alertIds, String resolvedBy, String resolutionComment) {
+        List<Object> parameters = new ArrayList<>();
+        return resolved(alertBulkUpdater.resolve(idCondition(alertIds, parameters), parameters, resolvedBy,
+                resolutionComment));
+    }
+
+    /**
+     * Resolve em lote os alertas não resolvidos que atendem aos filtros
+     *
+     * @return número de alertas resolvidos
+     * @throws IllegalArgumentException se nenhum filtro for informado
+     */
+    public int resolveAlerts(AlertFilter filter, String resolvedBy, String resolutionComment) {
+        List<Object> parameters = new ArrayList<>();
+        return resolved(alertBulkUpdater.resolve(bulkCondition(filter, parameters), parameters, resolvedBy,
+                resolutionComment));
+    }
+
+    private static String idCondition(List<Long> alertIds, List<Object> parameters) {
+        if (alertIds == null || alertIds.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum alerta informado");
+        }
+        if (alertIds.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Máximo de " + MAX_BULK_IDS + " alertas por operação");
+        }
+        parameters.add(alertIds.toArray(Long[]::new));
+        return "id = ANY(?)";
+    }
+
+    private static String bulkCondition(AlertFilter filter, List<Object> parameters) {
+        String condition = filterCondition(filter, parameters);
+        // Sem filtro, a operação alcançaria todos os alertas
+        if (parameters.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um filtro");
+        }
+        return condition;
+    }
+
+    private int acknowledged(List<AlertBulkUpdater.Updated> updated) {
+        List<AlertStatistics.State> before = new ArrayList<>(updated.size());
+        List<AlertStatistics.State> after = new ArrayList<>(updated.size());
+        for (AlertBulkUpdater.Updated alert : updated) {
+            before.add(alert.before());
+            after.add(alert.after(Alert.AlertStatus.ACKNOWLEDGED, false));
+        }
+        afterCommit(() -> {
+            for (AlertBulkUpdater.Updated alert : updated) {
+                OpenAlertIndex.Key key = alert.key();
+                if (key != null) {
+                    openAlertIndex.acknowledged(key, alert.alertId());
+                }
+            }
+        });
+        alertStatistics.changed(before, after);
+        log.info("{} alertas reconhecidos em lote", updated.size());
+        return updated.size();
+    }
+
+    private int resolved(List<AlertBulkUpdater.Updated> updated) {
+        List<AlertStatistics.State> before = new ArrayList<>(updated.size());
+        List<AlertStatistics.State> after = new ArrayList<>(updated.size());
+        for (AlertBulkUpdater.Updated alert : updated) {
+            before.add(alert.before());
+            after.add(alert.after(Alert.AlertStatus.RESOLVED, true));
+        }
+        afterCommit(() -> {
+            for (AlertBulkUpdater.Updated alert : updated) {
+                OpenAlertIndex.Key key = alert.key();
+                if (key != null) {
+                    openAlertIndex.closed(key, alert.alertId());
+                } else {
+                    openAlertIndex.removed(alert.alertId());
+                }
+            }
+        });
+        alertStatistics.changed(before, after);
+        log.info("{} alertas resolvidos em lote", updated.size());
+        return updated.size();
+    }
+
     /**
      * Limpa alertas antigos resolvidos
      */
@@ -339,6 +543,7 @@ public class AlertService {
         for (Alert alert : oldAlerts) {
             if (alert.getResolved()) {
                 alertRepository.delete(alert);
+                alertStatistics.changed(AlertStatistics.State.of(alert), null);
                 deleted++;
             }
         }
@@ -346,4 +551,21 @@ public class AlertService {
         log.info("Removidos {} alertas antigos resolvidos", deleted);
         return deleted;
     }
+
+    /**
+     * Aplica a alteração do índice de alertas abertos só depois do commit:
+     * com rollback, o índice continua igual ao banco
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
\ No newline at end of file
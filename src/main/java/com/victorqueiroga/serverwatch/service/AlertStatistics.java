@@ -0,0 +1,312 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.victorqueiroga.serverwatch.dto.AlertStats;
+import com.victorqueiroga.serverwatch.model.Alert;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.model.Severity;
+import com.victorqueiroga.serverwatch.repository.AlertRepository;
+import com.victorqueiroga.serverwatch.repository.ServerRepository;
+import com.victorqueiroga.serverwatch.repository.SeverityRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Estatísticas dos alertas em memória, para a listagem e a API de alertas
+ * não consultarem o banco a cada acesso.
+ *
+ * Os contadores são carregados na inicialização e mantidos a cada alteração
+ * de um alerta: quem cria, altera ou exclui informa o estado anterior e o
+ * novo ({@link #changed}), e a diferença é aplicada depois do commit. As
+ * leituras devolvem um {@link AlertStats} montado uma vez por alteração.
+ * A cada {@code serverwatch.monitoring.alerts.stats-reconcile-millis} os
+ * contadores são conferidos com o banco (duas consultas agregadas), o que
+ * corrige alterações feitas fora da aplicação.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class AlertStatistics {
+
+    /**
+     * Maior nível de severidade contado como crítico
+     */
+    static final int CRITICAL_LEVEL = 2;
+
+    private static final int MAX_RECONCILE_ROUNDS = 3;
+
+    private final AlertRepository alertRepository;
+    private final SeverityRepository severityRepository;
+    private final ServerRepository serverRepository;
+
+    // Acessados sob o monitor do objeto
+    private Counters counters = new Counters();
+    private final Map<Long, Severity> severities = new HashMap<>();
+    private final Map<Long, String> serverNames = new HashMap<>();
+    private long changes;
+    private LocalDateTime reconciledAt;
+
+    private volatile AlertStats snapshot;
+
+    public AlertStatistics(AlertRepository alertRepository, SeverityRepository severityRepository,
+            ServerRepository serverRepository) {
+        this.alertRepository = alertRepository;
+        this.severityRepository = severityRepository;
+        this.serverRepository = serverRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        reconcile();
+    }
+
+    /**
+     * Estatísticas atuais
+     */
+    public AlertStats snapshot() {
+        AlertStats current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = build();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Registra a alteração de um alerta; dentro de uma transação, aplicada só
+     * depois do commit
+     *
+     * @param before estado anterior, ou {@code null} para alerta novo
+     * @param after  estado novo, ou {@code null} para alerta excluído
+     */
+    public void changed(State before, State after) {
+        if (before == null && after == null || before != null && before.equals(after)) {
+            return;
+        }
+        afterCommit(() -> apply(before, after));
+    }
+
+    /**
+     * Registra a alteração de vários alertas (pares na mesma posição das
+     * listas), aplicada de uma vez depois do commit
+     */
+    public void changed(List<State> before, List<State> after) {
+        if (before.size() != after.size()) {
+            throw new IllegalArgumentException("Listas de estados com tamanhos diferentes");
+        }
+        if (before.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> apply(before, after));
+    }
+
+    /**
+     * Alteração cujo estado anterior não é conhecido: confere com o banco
+     * depois do commit
+     */
+    public void changedUnknown() {
+        afterCommit(this::reconcile);
+    }
+
+    /**
+     * Recarrega os contadores do banco. Se houver alterações durante a
+     * leitura, ela é repetida (até {@value #MAX_RECONCILE_ROUNDS} vezes);
+     * diferenças que restarem são corrigidas na conferência seguinte.
+     */
+    @Scheduled(fixedDelayString = "${serverwatch.monitoring.alerts.stats-reconcile-millis:300000}",
+            initialDelayString = "${serverwatch.monitoring.alerts.stats-reconcile-millis:300000}")
+    public void reconcile() {
+        for (int round = 1; round <= MAX_RECONCILE_ROUNDS; round++) {
+            long changesBefore;
+            synchronized (this) {
+                changesBefore = changes;
+            }
+            Counters loaded = new Counters();
+            List<Severity> loadedSeverities;
+            Map<Long, String> loadedNames = new HashMap<>();
+            try {
+                for (Object[] row : alertRepository.countForStatistics()) {
+                    State state = new State((Alert.AlertStatus) row[0], (Alert.AlertType) row[1], (Long) row[2],
+                            ((Number) row[3]).intValue(), (Boolean) row[4], null);
+                    loaded.add(state, ((Number) row[5]).longValue());
+                }
+                for (Object[] row : alertRepository.countActiveByServer()) {
+                    Long serverId = (Long) row[0];
+                    loadedNames.put(serverId, (String) row[1]);
+                    loaded.activeByServer.put(serverId, ((Number) row[2]).longValue());
+                }
+                loadedSeverities = severityRepository.findAll();
+            } catch (RuntimeException e) {
+                log.error("Falha ao conferir as estatísticas de alertas: {}", e.getMessage());
+                return;
+            }
+            synchronized (this) {
+                if (changes != changesBefore && round < MAX_RECONCILE_ROUNDS) {
+                    continue;
+                }
+                if (reconciledAt != null && (loaded.active != counters.active || loaded.total != counters.total)) {
+                    log.info("Estatísticas de alertas corrigidas: {} -> {} ativos, {} -> {} no total", counters.active,
+                            loaded.active, counters.total, loaded.total);
+                }
+                counters = loaded;
+                severities.clear();
+                loadedSeverities.forEach(severity -> severities.put(severity.getId(), severity));
+                serverNames.putAll(loadedNames);
+                reconciledAt = LocalDateTime.now();
+                snapshot = null;
+                return;
+            }
+        }
+    }
+
+    private synchronized void apply(List<State> before, List<State> after) {
+        for (int i = 0; i < before.size(); i++) {
+            apply(before.get(i), after.get(i));
+        }
+    }
+
+    private synchronized void apply(State before, State after) {
+        if (before != null) {
+            counters.add(before, -1);
+        }
+        if (after != null) {
+            counters.add(after, 1);
+        }
+        changes++;
+        snapshot = null;
+    }
+
+    private AlertStats build() {
+        List<Object[]> byStatus = new ArrayList<>();
+        for (Alert.AlertStatus status : Alert.AlertStatus.values()) {
+            if (counters.byStatus[status.ordinal()] > 0) {
+                byStatus.add(new Object[] { status, counters.byStatus[status.ordinal()] });
+            }
+        }
+        List<Object[]> byType = new ArrayList<>();
+        for (Alert.AlertType type : Alert.AlertType.values()) {
+            if (counters.byType[type.ordinal()] > 0) {
+                byType.add(new Object[] { type, counters.byType[type.ordinal()] });
+            }
+        }
+
+        if (!severities.keySet().containsAll(counters.bySeverity.keySet())) {
+            severityRepository.findAll().forEach(severity -> severities.put(severity.getId(), severity));
+        }
+        List<Object[]> bySeverity = new ArrayList<>();
+        counters.bySeverity.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Comparator.comparingInt((Map.Entry<Long, Long> entry) -> level(entry.getKey())))
+                .forEach(entry -> bySeverity.add(new Object[] { severityName(entry.getKey()), entry.getValue() }));
+
+        List<Long> unnamed = counters.activeByServer.keySet().stream()
+                .filter(serverId -> !serverNames.containsKey(serverId))
+                .toList();
+        if (!unnamed.isEmpty()) {
+            for (Server server : serverRepository.findAllById(unnamed)) {
+                serverNames.put(server.getId(), server.getName());
+            }
+        }
+        List<Object[]> topServers = new ArrayList<>();
+        counters.activeByServer.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .forEach(entry -> topServers.add(new Object[] { serverNames.get(entry.getKey()), entry.getValue() }));
+
+        return new AlertStats(counters.active, counters.critical, List.copyOf(byStatus), List.copyOf(byType),
+                List.copyOf(bySeverity), List.copyOf(topServers), reconciledAt);
+    }
+
+    private int level(Long severityId) {
+        Severity severity = severities.get(severityId);
+        return severity != null && severity.getLevel() != null ? severity.getLevel() : Integer.MAX_VALUE;
+    }
+
+    private String severityName(Long severityId) {
+        Severity severity = severities.get(severityId);
+        return severity != null ? severity.getName() : String.valueOf(severityId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Estado de um alerta que entra nas estatísticas
+     */
+    public record State(Alert.AlertStatus status, Alert.AlertType alertType, Long severityId, int severityLevel,
+            boolean resolved, Long serverId) {
+
+        public static State of(Alert alert) {
+            Severity severity = alert.getSeverity();
+            return new State(alert.getStatus(), alert.getAlertType(),
+                    severity != null ? severity.getId() : null,
+                    severity != null && severity.getLevel() != null ? severity.getLevel() : Integer.MAX_VALUE,
+                    Boolean.TRUE.equals(alert.getResolved()),
+                    alert.getServer() != null ? alert.getServer().getId() : null);
+        }
+    }
+
+    private static final class Counters {
+
+        private long total;
+        private long active;
+        private long critical;
+        private final long[] byStatus = new long[Alert.AlertStatus.values().length];
+        private final long[] byType = new long[Alert.AlertType.values().length];
+        private final Map<Long, Long> bySeverity = new HashMap<>();
+        private final Map<Long, Long> activeByServer = new HashMap<>();
+
+        void add(State state, long delta) {
+            total += delta;
+            if (state.status() != null) {
+                byStatus[state.status().ordinal()] += delta;
+            }
+            if (state.alertType() != null) {
+                byType[state.alertType().ordinal()] += delta;
+            }
+            if (state.severityId() != null) {
+                merge(bySeverity, state.severityId(), delta);
+            }
+            if (!state.resolved()) {
+                active += delta;
+                if (state.severityLevel() <= CRITICAL_LEVEL) {
+                    critical += delta;
+                }
+                if (state.serverId() != null) {
+                    merge(activeByServer, state.serverId(), delta);
+                }
+            }
+        }
+
+        private static void merge(Map<Long, Long> counts, Long key, long delta) {
+            counts.merge(key, delta, (current, added) -> current + added == 0 ? null : current + added);
+        }
+    }
+}
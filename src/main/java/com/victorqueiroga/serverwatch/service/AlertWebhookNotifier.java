@@ -0,0 +1,487 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.AlertNotification;
+import com.victorqueiroga.serverwatch.model.WebhookOutbox;
+import com.victorqueiroga.serverwatch.repository.WebhookOutboxRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Envio de alertas por webhook em lotes, sem bloquear quem abre os alertas.
+ *
+ * {@link #submit} só enfileira (fila limitada; com ela cheia o alerta é
+ * descartado). Uma thread agrupa os alertas: o primeiro abre uma janela de
+ * {@code batch-window-millis} e tudo o que chegar nela (até
+ * {@code max-alerts-per-batch}) vai em um único POST, com um array JSON de
+ * {@link AlertNotification} no corpo. As requisições são assíncronas
+ * (WebClient) e limitadas a {@code max-concurrent-requests} por destino; um
+ * lote que não encontra vaga vai direto para {@code webhook_outbox}, de modo
+ * que um destino lento acumula lotes no banco, não em memória nem na
+ * avaliação das regras.
+ *
+ * Cada requisição leva os cabeçalhos {@value #DELIVERY_HEADER} (o mesmo em
+ * todas as tentativas do lote), {@value #TIMESTAMP_HEADER} (segundos desde a
+ * época) e, com {@code secret} configurado, {@value #SIGNATURE_HEADER}:
+ * {@code sha256=} seguido do HMAC-SHA256 em hexadecimal de
+ * {@code timestamp + "." + corpo}.
+ *
+ * Falhas (erro de conexão, tempo esgotado, 408, 429 e 5xx) gravam o lote em
+ * {@code webhook_outbox} com a próxima tentativa após uma espera que dobra a
+ * cada falha, com variação aleatória para que os reenvios não cheguem juntos;
+ * depois de {@code max-attempts} tentativas, ou se o destino recusar o lote
+ * (demais 4xx), ele fica como FAILED. Os lotes pendentes são lidos a cada
+ * {@code retry-poll-millis}, também no início, e enviados de novo.
+ *
+ * Configurado por {@code serverwatch.notifications.webhook}.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class AlertWebhookNotifier {
+
+    static final String DELIVERY_HEADER = "X-ServerWatch-Delivery";
+    static final String TIMESTAMP_HEADER = "X-ServerWatch-Timestamp";
+    static final String SIGNATURE_HEADER = "X-ServerWatch-Signature";
+
+    private static final long MAX_POLL_MILLIS = 1_000;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * Lote a enviar; {@code outboxId} é nulo na primeira tentativa
+     */
+    record Delivery(Long outboxId, String deliveryId, String endpoint, String payload, int alertCount,
+            int attempts) {
+    }
+
+    /**
+     * Resultado de uma requisição; {@code error} é nulo no sucesso
+     */
+    private record Result(Delivery delivery, Throwable error) {
+    }
+
+    private final ServerWatchProperties.Notifications.Webhook settings;
+    private final WebhookOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+    private final boolean enabled;
+    private final BlockingQueue<AlertNotification> queue;
+
+    // Vagas de requisição por destino e respostas aguardando a thread de envio
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final Queue<Result> results = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AlertWebhookNotifier(ServerWatchProperties serverWatchProperties, WebClient.Builder webClientBuilder,
+            WebhookOutboxRepository outboxRepository, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.settings = serverWatchProperties.getNotifications().getWebhook();
+        if (settings.getQueueCapacity() < 1 || settings.getMaxAlertsPerBatch() < 1
+                || settings.getMaxConcurrentRequests() < 1 || settings.getMaxAttempts() < 1
+                || settings.getTimeoutSeconds() < 1 || settings.getBatchWindowMillis() < 0
+                || settings.getRetryBackoffMillis() < 0 || settings.getMaxBackoffMillis() < 0
+                || settings.getRetryPollMillis() < 1) {
+            throw new IllegalArgumentException("Configuração de notificações por webhook inválida: " + settings);
+        }
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.webClient = webClientBuilder.build();
+        this.enabled = settings.isEnabled() && serverWatchProperties.getMonitoring().getAlerts().isEnableWebhookAlerts()
+                && !settings.getUrl().isBlank();
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("Notificações de alertas por webhook desabilitadas");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "serverwatch-alert-webhook");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Notificações de alertas por webhook para {} (até {} requisições simultâneas)", settings.getUrl(),
+                settings.getMaxConcurrentRequests());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join(30_000);
+    }
+
+    /**
+     * Enfileira um alerta
+     *
+     * @return false se as notificações estão desabilitadas ou a fila está cheia
+     */
+    public boolean submit(AlertNotification notification) {
+        if (!enabled) {
+            return false;
+        }
+        if (!queue.offer(notification)) {
+            if (dropped.incrementAndGet() % 1_000 == 1) {
+                log.warn("Fila de notificações por webhook cheia: alertas descartados (total {})", dropped.get());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Lotes entregues
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * Lotes gravados em webhook_outbox por falta de vaga no destino
+     */
+    public long getDeferredCount() {
+        return deferred.get();
+    }
+
+    /**
+     * Tentativas que falharam e foram reagendadas
+     */
+    public long getRetryCount() {
+        return retried.get();
+    }
+
+    /**
+     * Lotes marcados como FAILED
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private void run() {
+        List<AlertNotification> batch = new ArrayList<>(settings.getMaxAlertsPerBatch());
+        long batchDueAt = 0;
+        long nextPoll = System.currentTimeMillis();
+        while (running) {
+            long now = System.currentTimeMillis();
+            long wait = Math.min(MAX_POLL_MILLIS, nextPoll - now);
+            if (!batch.isEmpty()) {
+                wait = Math.min(wait, batchDueAt - now);
+            }
+            try {
+                AlertNotification first = queue.poll(Math.max(wait, 1), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    if (batch.isEmpty()) {
+                        batchDueAt = now + settings.getBatchWindowMillis();
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, settings.getMaxAlertsPerBatch() - batch.size());
+                }
+            } catch (InterruptedException e) {
+                continue;
+            }
+            now = System.currentTimeMillis();
+            if (batch.size() >= settings.getMaxAlertsPerBatch() || (!batch.isEmpty() && now >= batchDueAt)) {
+                Delivery delivery = delivery(batch);
+                if (delivery != null) {
+                    dispatch(delivery);
+                }
+                batch.clear();
+            }
+            handleResults();
+            if (now >= nextPoll) {
+                retryDue();
+                nextPoll = now + settings.getRetryPollMillis();
+            }
+        }
+        shutdown(batch);
+    }
+
+    /**
+     * Encerramento: os alertas ainda não enviados vão para webhook_outbox, e
+     * as requisições em andamento têm até o tempo limite para terminar
+     */
+    private void shutdown(List<AlertNotification> batch) {
+        queue.drainTo(batch);
+        for (int from = 0; from < batch.size(); from += settings.getMaxAlertsPerBatch()) {
+            Delivery delivery = delivery(batch.subList(from,
+                    Math.min(from + settings.getMaxAlertsPerBatch(), batch.size())));
+            if (delivery != null) {
+                defer(delivery);
+            }
+        }
+        long deadline = System.currentTimeMillis() + settings.getTimeoutSeconds() * 1_000L + 1_000L;
+        while (inFlight.get() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        handleResults();
+        log.info("Notificações por webhook encerradas: {} lotes entregues, {} adiados, {} reagendados, {} falhos, "
+                + "{} alertas descartados", sent.get(), deferred.get(), retried.get(), failed.get(), dropped.get());
+    }
+
+    private Delivery delivery(List<AlertNotification> alerts) {
+        try {
+            return new Delivery(null, UUID.randomUUID().toString(), settings.getUrl(),
+                    objectMapper.writeValueAsString(alerts), alerts.size(), 0);
+        } catch (JsonProcessingException e) {
+            log.error("Falha ao serializar lote de {} alertas para webhook: {}", alerts.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Envia o lote se o destino tem vaga; senão grava em webhook_outbox
+     */
+    private void dispatch(Delivery delivery) {
+        Semaphore endpointPermits = permits(delivery.endpoint());
+        if (!endpointPermits.tryAcquire()) {
+            // Lote já gravado volta a ser lido quando a reserva vencer
+            if (delivery.outboxId() == null) {
+                defer(delivery);
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        try {
+            post(delivery).subscribe(
+                    response -> complete(delivery, null, endpointPermits),
+                    error -> complete(delivery, error, endpointPermits));
+        } catch (RuntimeException e) {
+            complete(delivery, e, endpointPermits);
+        }
+    }
+
+    private Mono<?> post(Delivery delivery) {
+        String timestamp = String.valueOf(Instant.now().getEpochSecond());
+        WebClient.RequestBodySpec request = webClient.post()
+                .uri(delivery.endpoint())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(DELIVERY_HEADER, delivery.deliveryId())
+                .header(TIMESTAMP_HEADER, timestamp);
+        if (!settings.getSecret().isEmpty()) {
+            request = request.header(SIGNATURE_HEADER,
+                    "sha256=" + sign(settings.getSecret(), timestamp + "." + delivery.payload()));
+        }
+        return request.bodyValue(delivery.payload())
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(settings.getTimeoutSeconds()));
+    }
+
+    // Chamado na thread do WebClient: só libera a vaga e repassa o resultado
+    private void complete(Delivery delivery, Throwable error, Semaphore endpointPermits) {
+        endpointPermits.release();
+        results.add(new Result(delivery, error));
+        inFlight.decrementAndGet();
+    }
+
+    private void handleResults() {
+        Result result;
+        while ((result = results.poll()) != null) {
+            Delivery delivery = result.delivery();
+            try {
+                if (result.error() == null) {
+                    sent.incrementAndGet();
+                    if (delivery.outboxId() != null) {
+                        outboxRepository.deleteById(delivery.outboxId());
+                    }
+                    log.debug("Lote {} com {} alertas entregue em {}", delivery.deliveryId(), delivery.alertCount(),
+                            delivery.endpoint());
+                } else {
+                    failed(delivery, result.error());
+                }
+            } catch (RuntimeException e) {
+                log.error("Falha ao registrar o resultado do lote {} de webhook: {}", delivery.deliveryId(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void failed(Delivery delivery, Throwable error) {
+        int attempts = delivery.attempts() + 1;
+        WebhookOutbox entry = entry(delivery);
+        entry.setAttempts(attempts);
+        entry.setLastError(truncate(describe(error)));
+        if (isPermanent(error) || attempts >= settings.getMaxAttempts()) {
+            entry.setStatus(WebhookOutbox.Status.FAILED);
+            outboxRepository.save(entry);
+            failed.incrementAndGet();
+            log.error("Lote {} com {} alertas para {} falhou após {} tentativas: {}", delivery.deliveryId(),
+                    delivery.alertCount(), delivery.endpoint(), attempts, entry.getLastError());
+        } else {
+            long backoff = backoff(attempts, settings.getRetryBackoffMillis(), settings.getMaxBackoffMillis());
+            entry.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoff)));
+            outboxRepository.save(entry);
+            retried.incrementAndGet();
+            log.warn("Falha ao enviar lote {} para {} (tentativa {}), nova tentativa em {} ms: {}",
+                    delivery.deliveryId(), delivery.endpoint(), attempts, backoff, entry.getLastError());
+        }
+    }
+
+    private void defer(Delivery delivery) {
+        try {
+            WebhookOutbox entry = entry(delivery);
+            entry.setNextAttemptAt(LocalDateTime.now());
+            outboxRepository.save(entry);
+            deferred.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.error("Lote {} com {} alertas para webhook descartado: {}", delivery.deliveryId(),
+                    delivery.alertCount(), e.getMessage());
+        }
+    }
+
+    /**
+     * Lê os lotes pendentes vencidos, até as vagas livres do destino, e os
+     * reserva pelo tempo de uma requisição antes de reenviá-los
+     */
+    private void retryDue() {
+        int available = permits(settings.getUrl()).availablePermits();
+        if (available == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime reservedUntil = now.plusSeconds(settings.getTimeoutSeconds() * 2L)
+                .plus(Duration.ofMillis(settings.getRetryPollMillis()));
+        try {
+            List<WebhookOutbox> due = transactionTemplate.execute(tx -> {
+                List<WebhookOutbox> locked = outboxRepository.lockDue(now, available);
+                locked.forEach(entry -> entry.setNextAttemptAt(reservedUntil));
+                return locked;
+            });
+            if (due == null) {
+                return;
+            }
+            for (WebhookOutbox entry : due) {
+                dispatch(new Delivery(entry.getId(), entry.getDeliveryId(), entry.getEndpoint(), entry.getPayload(),
+                        entry.getAlertCount(), entry.getAttempts()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao ler lotes pendentes de webhook: {}", e.getMessage());
+        }
+    }
+
+    private WebhookOutbox entry(Delivery delivery) {
+        return WebhookOutbox.builder()
+                .id(delivery.outboxId())
+                .deliveryId(delivery.deliveryId())
+                .endpoint(delivery.endpoint())
+                .payload(delivery.payload())
+                .alertCount(delivery.alertCount())
+                .attempts(delivery.attempts())
+                .build();
+    }
+
+    private Semaphore permits(String endpoint) {
+        return permits.computeIfAbsent(endpoint, url -> new Semaphore(settings.getMaxConcurrentRequests()));
+    }
+
+    /**
+     * Espera antes da tentativa seguinte: metade fixa e metade aleatória de
+     * {@code base * 2^(attempts - 1)}, limitado a {@code max}
+     */
+    static long backoff(int attempts, long base, long max) {
+        long ceiling = Math.min(max, base << Math.min(attempts - 1, 30));
+        if (ceiling < 0) {
+            ceiling = max;
+        }
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    /**
+     * HMAC-SHA256 em hexadecimal
+     */
+    static String sign(String secret, String content) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Falha ao assinar o corpo do webhook", e);
+        }
+    }
+
+    /**
+     * Recusa do destino que não adianta repetir
+     */
+    private static boolean isPermanent(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return response.getStatusCode().is4xxClientError()
+                    && status != HttpStatus.REQUEST_TIMEOUT.value()
+                    && status != HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return false;
+    }
+
+    private static String describe(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return "HTTP " + response.getStatusCode().value();
+        }
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
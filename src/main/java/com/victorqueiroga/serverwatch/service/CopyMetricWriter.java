@@ -0,0 +1,172 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gravação de amostras em {@code server_metrics} via {@code COPY ... FROM
+ * STDIN} (CSV) do driver PostgreSQL.
+ *
+ * As linhas são montadas em um buffer de tamanho fixo e enviadas ao servidor
+ * a cada {@value #CHUNK_CHARS} caracteres, de modo que lotes do collector e
+ * importações de qualquer tamanho usam a mesma memória. O ID fica a cargo do
+ * default da coluna (sequence). Na mesma transação, o último valor de cada
+ * série é atualizado pelo {@link LatestMetricWriter}.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+@RequiredArgsConstructor
+public class CopyMetricWriter {
+
+    static final String COPY_SQL = "COPY server_metrics (server_id, metric_name, metric_value, unit, category, "
+            + "subcategory, snmp_oid, timestamp, is_critical, warning_threshold, critical_threshold) "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    private static final int CHUNK_CHARS = 64 * 1024;
+
+    // Linha CSV mais longa possível (strings limitadas pelo schema)
+    private static final int MAX_ROW_CHARS = 1_024;
+
+    private final DataSource dataSource;
+    private final LatestMetricWriter latestMetricWriter;
+
+    /**
+     * Grava as amostras em um único COPY. Amostras com valor não finito
+     * (NaN/infinito) são ignoradas, pois não cabem em metric_value.
+     *
+     * @return número de linhas gravadas
+     */
+    @Transactional
+    public long write(Iterator<MetricSample> samples) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copy = null;
+        try {
+            copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            StringBuilder buffer = new StringBuilder(CHUNK_CHARS + MAX_ROW_CHARS);
+            LatestMetricWriter.Latest latest = new LatestMetricWriter.Latest();
+            long skipped = 0;
+            while (samples.hasNext()) {
+                MetricSample sample = samples.next();
+                if (!Double.isFinite(sample.value())) {
+                    skipped++;
+                    continue;
+                }
+                appendRow(buffer, sample);
+                latest.offer(sample);
+                if (buffer.length() >= CHUNK_CHARS) {
+                    flushChunk(copy, buffer);
+                }
+            }
+            if (buffer.length() > 0) {
+                flushChunk(copy, buffer);
+            }
+            long rows = copy.endCopy();
+            latestMetricWriter.upsert(latest);
+            if (skipped > 0) {
+                log.warn("COPY de métricas: {} amostras com valor não finito ignoradas", skipped);
+            }
+            return rows;
+        } catch (SQLException e) {
+            cancelQuietly(copy);
+            throw new RuntimeException("Falha no COPY de métricas: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            cancelQuietly(copy);
+            throw e;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void flushChunk(CopyIn copy, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void cancelQuietly(CopyIn copy) {
+        if (copy != null && copy.isActive()) {
+            try {
+                copy.cancelCopy();
+            } catch (SQLException e) {
+                log.debug("Falha ao cancelar COPY: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Linha CSV na ordem de {@link #COPY_SQL}; campo vazio sem aspas = NULL
+     */
+    static void appendRow(StringBuilder out, MetricSample sample) {
+        out.append(sample.serverId()).append(',');
+        appendText(out, sample.metricName());
+        out.append(',');
+        out.append(BigDecimal.valueOf(sample.value()).toPlainString()).append(',');
+        appendText(out, sample.unit());
+        out.append(',');
+        out.append(sample.category().name()).append(',');
+        appendText(out, sample.subcategory());
+        out.append(',');
+        appendText(out, sample.snmpOid());
+        out.append(',');
+        out.append(sample.timestamp()).append(',');
+        out.append(sample.isCritical()).append(',');
+        appendDecimal(out, sample.warningThreshold());
+        out.append(',');
+        appendDecimal(out, sample.criticalThreshold());
+        out.append('\n');
+    }
+
+    private static void appendDecimal(StringBuilder out, Double value) {
+        if (value != null) {
+            out.append(BigDecimal.valueOf(value).toPlainString());
+        }
+    }
+
+    private static void appendText(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && !needsQuoting(value)) {
+            out.append(value);
+            return;
+        }
+        // String vazia precisa de aspas para não ser lida como NULL
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
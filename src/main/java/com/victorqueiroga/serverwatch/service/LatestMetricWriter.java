@@ -0,0 +1,131 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Atualização de {@code server_metric_latest} a partir dos lotes gravados em
+ * {@code server_metrics}.
+ *
+ * Deve ser chamado dentro da transação do lote: usa a mesma conexão, de modo
+ * que o último valor e o histórico são confirmados juntos. Só a amostra mais
+ * recente de cada série é enviada, e uma linha só é substituída por uma
+ * amostra mais nova (importações de históricos antigos não a regridem).
+ */
+@Service
+@Profile("!dev")
+@RequiredArgsConstructor
+public class LatestMetricWriter {
+
+    static final String UPSERT_SQL = "INSERT INTO server_metric_latest (server_id, metric_name, subcategory, "
+            + "metric_value, unit, category, snmp_oid, timestamp, is_critical, warning_threshold, critical_threshold) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (server_id, metric_name, subcategory) DO UPDATE SET "
+            + "metric_value = EXCLUDED.metric_value, unit = EXCLUDED.unit, category = EXCLUDED.category, "
+            + "snmp_oid = EXCLUDED.snmp_oid, timestamp = EXCLUDED.timestamp, is_critical = EXCLUDED.is_critical, "
+            + "warning_threshold = EXCLUDED.warning_threshold, critical_threshold = EXCLUDED.critical_threshold "
+            + "WHERE server_metric_latest.timestamp <= EXCLUDED.timestamp";
+
+    // Ordem fixa das linhas: evita deadlock entre lotes concorrentes
+    private static final Comparator<Series> SERIES_ORDER = Comparator.comparing(Series::serverId)
+            .thenComparing(Series::metricName)
+            .thenComparing(Series::subcategory);
+
+    private final DataSource dataSource;
+
+    /**
+     * Atualiza os últimos valores com as amostras informadas
+     */
+    public void upsert(Collection<MetricSample> samples) {
+        Latest latest = new Latest();
+        samples.forEach(latest::offer);
+        upsert(latest);
+    }
+
+    /**
+     * Atualiza os últimos valores com as amostras acumuladas
+     *
+     * @return número de séries enviadas
+     */
+    public int upsert(Latest latest) {
+        if (latest.samples.isEmpty()) {
+            return 0;
+        }
+        List<Series> keys = new ArrayList<>(latest.samples.keySet());
+        keys.sort(SERIES_ORDER);
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+            for (Series key : keys) {
+                MetricSample sample = latest.samples.get(key);
+                statement.setLong(1, key.serverId());
+                statement.setString(2, key.metricName());
+                statement.setString(3, key.subcategory());
+                statement.setBigDecimal(4, BigDecimal.valueOf(sample.value()));
+                statement.setString(5, sample.unit());
+                statement.setString(6, sample.category().name());
+                statement.setString(7, sample.snmpOid());
+                statement.setTimestamp(8, Timestamp.valueOf(sample.timestamp()));
+                statement.setBoolean(9, sample.isCritical());
+                setDecimal(statement, 10, sample.warningThreshold());
+                setDecimal(statement, 11, sample.criticalThreshold());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            return keys.size();
+        } catch (SQLException e) {
+            throw new RuntimeException("Falha ao atualizar os últimos valores de métricas: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void setDecimal(PreparedStatement statement, int index, Double value) throws SQLException {
+        if (value != null) {
+            statement.setBigDecimal(index, BigDecimal.valueOf(value));
+        } else {
+            statement.setNull(index, Types.DECIMAL);
+        }
+    }
+
+    /**
+     * Amostra mais recente de cada série vista em um lote ou importação
+     */
+    public static final class Latest {
+
+        private final Map<Series, MetricSample> samples = new HashMap<>();
+
+        public void offer(MetricSample sample) {
+            if (!Double.isFinite(sample.value())) {
+                return;
+            }
+            Series key = new Series(sample.serverId(), sample.metricName(),
+                    sample.subcategory() != null ? sample.subcategory() : "");
+            samples.merge(key, sample,
+                    (current, candidate) -> candidate.timestamp().isBefore(current.timestamp()) ? current : candidate);
+        }
+    }
+
+    private record Series(Long serverId, String metricName, String subcategory) {
+    }
+}
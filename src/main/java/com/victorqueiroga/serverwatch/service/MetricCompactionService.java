@@ -0,0 +1,282 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.model.MetricRollupWatermark;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.model.ServerMetric;
+import com.victorqueiroga.serverwatch.model.ServerMetricBlock;
+import com.victorqueiroga.serverwatch.model.ServerMetricRollup;
+import com.victorqueiroga.serverwatch.repository.MetricRollupWatermarkRepository;
+import com.victorqueiroga.serverwatch.repository.ServerMetricBlockRepository;
+import com.victorqueiroga.serverwatch.repository.ServerMetricRepository;
+import com.victorqueiroga.serverwatch.utils.GorillaDecoder;
+import com.victorqueiroga.serverwatch.utils.GorillaEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Conversão dos dias antigos de {@code server_metrics} em blocos compactados
+ * ({@link GorillaEncoder}), um por série e dia, em {@code server_metric_blocks}.
+ *
+ * Cada dia é compactado em uma transação: as amostras são lidas em streaming,
+ * mescladas ao bloco já existente (linhas importadas depois da compactação)
+ * e a partição do dia é removida. Só são compactados dias já processados por
+ * todas as resoluções do {@link MetricRollupService}.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class MetricCompactionService {
+
+    private final ServerMetricRepository serverMetricRepository;
+    private final ServerMetricBlockRepository blockRepository;
+    private final MetricRollupWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ServerWatchProperties.Monitoring.Compaction settings;
+
+    public MetricCompactionService(ServerMetricRepository serverMetricRepository,
+            ServerMetricBlockRepository blockRepository, MetricRollupWatermarkRepository watermarkRepository,
+            PlatformTransactionManager transactionManager, ServerWatchProperties serverWatchProperties) {
+        this.serverMetricRepository = serverMetricRepository;
+        this.blockRepository = blockRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = serverWatchProperties.getMonitoring().getCompaction();
+    }
+
+    @Scheduled(cron = "${serverwatch.monitoring.compaction.cron:0 30 * * * *}")
+    public synchronized void compact() {
+        LocalDate today = LocalDate.now();
+        try {
+            if (settings.getCompactAfterDays() > 0) {
+                compactBefore(today.minusDays(settings.getCompactAfterDays()));
+            }
+            int expired = transactionTemplate.execute(tx -> blockRepository.deleteOlderThan(
+                    today.minusDays(settings.getBlockRetentionDays())));
+            if (expired > 0) {
+                log.info("{} blocos de métricas expirados removidos", expired);
+            }
+        } catch (Exception e) {
+            log.error("Erro na compactação de métricas: {}", e.getMessage());
+        }
+    }
+
+    private void compactBefore(LocalDate cutoff) {
+        // O agregado diário é o último a avançar
+        Optional<LocalDate> rolledUp = watermarkRepository.findById(ServerMetricRollup.Resolution.ONE_DAY)
+                .map(MetricRollupWatermark::getProcessedUntil)
+                .map(LocalDateTime::toLocalDate);
+        if (rolledUp.isEmpty()) {
+            log.debug("Compactação aguardando a primeira agregação diária");
+            return;
+        }
+        LocalDate end = rolledUp.get().isBefore(cutoff) ? rolledUp.get() : cutoff;
+
+        Optional<LocalDateTime> first = serverMetricRepository.findFirstTimestamp();
+        if (first.isEmpty()) {
+            return;
+        }
+        for (LocalDate day = first.get().toLocalDate(); day.isBefore(end); day = day.plusDays(1)) {
+            LocalDate compacting = day;
+            long start = System.currentTimeMillis();
+            long[] result = transactionTemplate.execute(tx -> compactDay(compacting));
+            if (result[0] > 0) {
+                log.info("Métricas de {} compactadas: {} amostras em {} blocos ({} bytes) em {} ms", compacting,
+                        result[0], result[1], result[2], System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    /**
+     * Compacta um dia e remove as amostras brutas dele
+     *
+     * @return [amostras, blocos, bytes]
+     */
+    private long[] compactDay(LocalDate day) {
+        Map<ServerMetricBlock.Key, ServerMetricBlock> existing = new HashMap<>();
+        for (ServerMetricBlock block : blockRepository.findByDay(day)) {
+            existing.put(new ServerMetricBlock.Key(block.getServerId(), block.getMetricName(), block.getSubcategory(),
+                    day), block);
+        }
+
+        long[] result = new long[3];
+        try (Stream<Object[]> rows = serverMetricRepository.streamRange(day.atStartOfDay(),
+                day.plusDays(1).atStartOfDay())) {
+            Iterator<Object[]> iterator = rows.iterator();
+            SeriesBuffer series = null;
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                if (series == null || !series.matches(row)) {
+                    if (series != null) {
+                        saveBlock(series, day, existing, result);
+                    }
+                    series = new SeriesBuffer(row);
+                }
+                series.add(row);
+            }
+            if (series != null) {
+                saveBlock(series, day, existing, result);
+            }
+        }
+
+        LocalDate next = day.plusDays(1);
+        serverMetricRepository.dropPartitionsBefore(next);
+        serverMetricRepository.deleteOldMetrics(next.atStartOfDay());
+        return result;
+    }
+
+    private void saveBlock(SeriesBuffer series, LocalDate day, Map<ServerMetricBlock.Key, ServerMetricBlock> existing,
+            long[] result) {
+        ServerMetricBlock.Key key = new ServerMetricBlock.Key(series.serverId, series.metricName, series.subcategory,
+                day);
+        ServerMetricBlock block = existing.get(key);
+        if (block != null) {
+            series.mergeWith(block.getData());
+        } else {
+            block = new ServerMetricBlock();
+            block.setServerId(series.serverId);
+            block.setMetricName(series.metricName);
+            block.setSubcategory(series.subcategory);
+            block.setDay(day);
+        }
+
+        GorillaEncoder encoder = new GorillaEncoder();
+        for (int i = 0; i < series.size; i++) {
+            encoder.append(series.timestamps[i], series.values[i]);
+        }
+        block.setUnit(series.unit);
+        block.setCategory(series.category);
+        block.setWarningThreshold(series.warningThreshold);
+        block.setCriticalThreshold(series.criticalThreshold);
+        block.setSampleCount(encoder.count());
+        block.setFirstTimestamp(RecentMetricStore.toLocalDateTime(series.timestamps[0]));
+        block.setLastTimestamp(RecentMetricStore.toLocalDateTime(series.timestamps[series.size - 1]));
+        block.setData(encoder.toByteArray());
+        blockRepository.save(block);
+
+        result[0] += series.rawSamples;
+        result[1]++;
+        result[2] += block.getData().length;
+    }
+
+    /**
+     * Amostras compactadas de uma métrica no período [from, to), como
+     * métricas não persistidas
+     */
+    public List<ServerMetric> findMetrics(Server server, String metricName, LocalDateTime from, LocalDateTime to) {
+        long fromMillis = RecentMetricStore.toMillis(from);
+        long toMillis = RecentMetricStore.toMillis(to);
+        List<ServerMetric> metrics = new ArrayList<>();
+        for (ServerMetricBlock block : blockRepository.findBlocks(server.getId(), metricName, from, to)) {
+            GorillaDecoder decoder = new GorillaDecoder(block.getData());
+            while (decoder.next()) {
+                if (decoder.timestamp() < fromMillis || decoder.timestamp() >= toMillis) {
+                    continue;
+                }
+                ServerMetric metric = new ServerMetric();
+                metric.setServer(server);
+                metric.setMetricName(block.getMetricName());
+                metric.setValue(BigDecimal.valueOf(decoder.value()).setScale(4, RoundingMode.HALF_UP));
+                metric.setUnit(block.getUnit());
+                metric.setCategory(block.getCategory());
+                metric.setSubcategory(block.getSubcategory().isEmpty() ? null : block.getSubcategory());
+                metric.setTimestamp(RecentMetricStore.toLocalDateTime(decoder.timestamp()));
+                metric.setWarningThreshold(block.getWarningThreshold());
+                metric.setCriticalThreshold(block.getCriticalThreshold());
+                metric.setCritical(metric.isCritical());
+                metrics.add(metric);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Amostras brutas de uma série em um dia, em ordem de timestamp
+     */
+    private static final class SeriesBuffer {
+        private final Long serverId;
+        private final String metricName;
+        private final String subcategory;
+        private String unit;
+        private ServerMetric.MetricCategory category;
+        private BigDecimal warningThreshold;
+        private BigDecimal criticalThreshold;
+
+        private long[] timestamps = new long[1024];
+        private double[] values = new double[1024];
+        private int size;
+        private int rawSamples;
+
+        SeriesBuffer(Object[] row) {
+            this.serverId = (Long) row[0];
+            this.metricName = (String) row[1];
+            this.subcategory = row[2] != null ? (String) row[2] : "";
+        }
+
+        boolean matches(Object[] row) {
+            return serverId.equals(row[0]) && metricName.equals(row[1])
+                    && subcategory.equals(row[2] != null ? row[2] : "");
+        }
+
+        void add(Object[] row) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            timestamps[size] = RecentMetricStore.toMillis((LocalDateTime) row[5]);
+            values[size] = ((BigDecimal) row[6]).doubleValue();
+            size++;
+            rawSamples++;
+            // Metadados da amostra mais recente
+            unit = (String) row[3];
+            category = (ServerMetric.MetricCategory) row[4];
+            warningThreshold = (BigDecimal) row[7];
+            criticalThreshold = (BigDecimal) row[8];
+        }
+
+        /**
+         * Intercala as amostras de um bloco existente, mantendo a ordem
+         */
+        void mergeWith(byte[] data) {
+            GorillaDecoder decoder = new GorillaDecoder(data);
+            long[] mergedTimestamps = new long[size + decoder.count()];
+            double[] mergedValues = new double[mergedTimestamps.length];
+            int raw = 0;
+            int merged = 0;
+            while (decoder.next()) {
+                while (raw < size && timestamps[raw] < decoder.timestamp()) {
+                    mergedTimestamps[merged] = timestamps[raw];
+                    mergedValues[merged++] = values[raw++];
+                }
+                mergedTimestamps[merged] = decoder.timestamp();
+                mergedValues[merged++] = decoder.value();
+            }
+            while (raw < size) {
+                mergedTimestamps[merged] = timestamps[raw];
+                mergedValues[merged++] = values[raw++];
+            }
+            timestamps = mergedTimestamps;
+            values = mergedValues;
+            size = merged;
+        }
+    }
+}
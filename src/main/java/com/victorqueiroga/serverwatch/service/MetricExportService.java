@@ -0,0 +1,159 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.model.ServerMetric.MetricCategory;
+import com.victorqueiroga.serverwatch.utils.GorillaDecoder;
+import com.victorqueiroga.serverwatch.utils.MetricExportWriter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exportação de histórico de métricas em streaming.
+ *
+ * As linhas são lidas por cursor JDBC (forward-only, com fetch size, em uma
+ * transação somente leitura) e escritas uma a uma no
+ * {@link MetricExportWriter}, sem materializar entidades: a memória usada não
+ * depende do tamanho do período. Dias já compactados
+ * ({@link MetricCompactionService}) são lidos de {@code server_metric_blocks}
+ * e exportados primeiro, por dia e série; em seguida as amostras de
+ * {@code server_metrics}, por timestamp.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+@RequiredArgsConstructor
+public class MetricExportService {
+
+    private static final int FETCH_SIZE = 5_000;
+
+    private final DataSource dataSource;
+
+    /**
+     * Exporta as amostras de [from, to), opcionalmente filtradas por
+     * servidor e métrica
+     *
+     * @return número de amostras exportadas
+     */
+    @Transactional(readOnly = true)
+    public long export(MetricExportWriter.Format format, Long serverId, String metricName, LocalDateTime from,
+            LocalDateTime to, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (MetricExportWriter writer = MetricExportWriter.create(format, out)) {
+            long compacted = exportBlocks(connection, writer, serverId, metricName, from, to);
+            long raw = exportRaw(connection, writer, serverId, metricName, from, to);
+            log.info("Exportação {} de métricas: {} amostras ({} compactadas) em {} ms", format, compacted + raw,
+                    compacted, System.currentTimeMillis() - start);
+            return compacted + raw;
+        } catch (SQLException e) {
+            throw new RuntimeException("Falha na exportação de métricas: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private long exportRaw(Connection connection, MetricExportWriter writer, Long serverId, String metricName,
+            LocalDateTime from, LocalDateTime to) throws SQLException, IOException {
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT server_id, metric_name, metric_value, unit, category, subcategory, timestamp "
+                + "FROM server_metrics WHERE " + filter("timestamp >= ? AND timestamp < ?", parameters, serverId,
+                        metricName, from, to)
+                + " ORDER BY timestamp";
+        long count = 0;
+        try (PreparedStatement statement = cursor(connection, sql, parameters);
+                ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                writer.write(new MetricSample(rows.getLong(1), rows.getString(2), rows.getDouble(3),
+                        rows.getString(4), MetricCategory.valueOf(rows.getString(5)), rows.getString(6), null,
+                        rows.getTimestamp(7).toLocalDateTime(), null, null));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long exportBlocks(Connection connection, MetricExportWriter writer, Long serverId, String metricName,
+            LocalDateTime from, LocalDateTime to) throws SQLException, IOException {
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT server_id, metric_name, unit, category, subcategory, data FROM server_metric_blocks "
+                + "WHERE " + filter("last_timestamp >= ? AND first_timestamp < ?", parameters, serverId, metricName,
+                        from, to)
+                + " ORDER BY day, server_id, metric_name, subcategory";
+        long fromMillis = RecentMetricStore.toMillis(from);
+        long toMillis = RecentMetricStore.toMillis(to);
+        long count = 0;
+        try (PreparedStatement statement = cursor(connection, sql, parameters);
+                ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                long blockServerId = rows.getLong(1);
+                String blockMetricName = rows.getString(2);
+                String unit = rows.getString(3);
+                MetricCategory category = MetricCategory.valueOf(rows.getString(4));
+                String subcategory = rows.getString(5).isEmpty() ? null : rows.getString(5);
+                GorillaDecoder decoder = new GorillaDecoder(rows.getBytes(6));
+                while (decoder.next()) {
+                    if (decoder.timestamp() < fromMillis || decoder.timestamp() >= toMillis) {
+                        continue;
+                    }
+                    writer.write(new MetricSample(blockServerId, blockMetricName, decoder.value(), unit, category,
+                            subcategory, null, RecentMetricStore.toLocalDateTime(decoder.timestamp()), null, null));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static String filter(String range, List<Object> parameters, Long serverId, String metricName,
+            LocalDateTime from, LocalDateTime to) {
+        StringBuilder where = new StringBuilder(range);
+        parameters.add(Timestamp.valueOf(from));
+        parameters.add(Timestamp.valueOf(to));
+        if (serverId != null) {
+            where.append(" AND server_id = ?");
+            parameters.add(serverId);
+        }
+        if (metricName != null) {
+            where.append(" AND metric_name = ?");
+            parameters.add(metricName);
+        }
+        return where.toString();
+    }
+
+    /**
+     * Consulta forward-only com fetch size: o driver PostgreSQL lê o
+     * resultado em partes (cursor) quando não está em autocommit
+     */
+    private static PreparedStatement cursor(Connection connection, String sql, List<Object> parameters)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(FETCH_SIZE);
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+        return statement;
+    }
+}
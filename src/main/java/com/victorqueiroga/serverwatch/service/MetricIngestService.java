@@ -0,0 +1,421 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.model.ServerMetric;
+import com.victorqueiroga.serverwatch.repository.ServerMetricRepository;
+import com.victorqueiroga.serverwatch.repository.ServerRepository;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+import com.victorqueiroga.serverwatch.utils.MetricSpool;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gravação write-behind das métricas coletadas.
+ *
+ * As threads de coleta apenas enfileiram amostras (sem bloquear: com a fila
+ * cheia a amostra é descartada e contabilizada). Uma única thread grava a
+ * fila em lotes, quando o lote enche ou quando a amostra mais antiga atinge
+ * o intervalo de flush. Cada lote vai em um COPY ({@link CopyMetricWriter})
+ * ou, no modo JPA, em INSERTs em lote. Antes de gravar, a mesma thread
+ * registra o lote no {@link RecentMetricStore}, que depende de um escritor
+ * único.
+ *
+ * Com o spool habilitado, a thread de gravação só escreve os lotes no
+ * {@link MetricSpool} em disco, e uma segunda thread os envia ao banco,
+ * confirmando o checkpoint após cada lote gravado. Com o banco lento ou
+ * indisponível as amostras acumulam no spool (até o tamanho máximo) e o
+ * envio é repetido com espera crescente; a coleta não é afetada. Um lote
+ * recusado pelo banco por causa dos próprios dados (SQLState 22/23, p.ex. o
+ * servidor foi excluído) é dividido até isolar as amostras recusadas, que
+ * são descartadas e contabilizadas.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class MetricIngestService {
+
+    private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ServerMetricRepository serverMetricRepository;
+    private final ServerRepository serverRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CopyMetricWriter copyMetricWriter;
+    private final LatestMetricWriter latestMetricWriter;
+    private final RecentMetricStore recentMetricStore;
+    private final ServerWatchProperties.Monitoring.IngestMode mode;
+    private final MetricSpool spool;
+    private final long maxRetryDelayMillis;
+
+    private final BlockingQueue<MetricSample> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final AtomicLong acceptedSamples = new AtomicLong();
+    private final AtomicLong droppedSamples = new AtomicLong();
+    private final AtomicLong writtenSamples = new AtomicLong();
+    private final AtomicLong failedSamples = new AtomicLong();
+    private final AtomicLong rejectedSamples = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong lastDropWarning = new AtomicLong(System.nanoTime() - DROP_WARNING_INTERVAL_NANOS);
+
+    private volatile boolean running;
+    private Thread writer;
+    private Thread replayer;
+
+    public MetricIngestService(ServerMetricRepository serverMetricRepository, ServerRepository serverRepository,
+            PlatformTransactionManager transactionManager, CopyMetricWriter copyMetricWriter,
+            LatestMetricWriter latestMetricWriter, RecentMetricStore recentMetricStore,
+            ServerWatchProperties serverWatchProperties) {
+        ServerWatchProperties.Monitoring.Ingest settings = serverWatchProperties.getMonitoring().getIngest();
+        if (settings.getQueueCapacity() < 1 || settings.getBatchSize() < 1 || settings.getFlushIntervalMillis() < 1) {
+            throw new IllegalArgumentException("Configuração de gravação de métricas inválida: " + settings);
+        }
+        this.serverMetricRepository = serverMetricRepository;
+        this.serverRepository = serverRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.copyMetricWriter = copyMetricWriter;
+        this.latestMetricWriter = latestMetricWriter;
+        this.recentMetricStore = recentMetricStore;
+        this.mode = settings.getMode();
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.batchSize = settings.getBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.getFlushIntervalMillis());
+        this.spool = settings.getSpool().isEnabled() ? openSpool(settings.getSpool()) : null;
+        this.maxRetryDelayMillis = Math.max(1_000, settings.getSpool().getMaxRetryDelayMillis());
+    }
+
+    private static MetricSpool openSpool(ServerWatchProperties.Monitoring.Spool settings) {
+        try {
+            return new MetricSpool(Path.of(settings.getDirectory()), settings.getSegmentSizeMb() << 20,
+                    (long) settings.getMaxSizeMb() << 20);
+        } catch (IOException e) {
+            log.error("Não foi possível abrir o spool de métricas em {}; gravando direto no banco: {}",
+                    settings.getDirectory(), e.getMessage());
+            return null;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "serverwatch-metric-writer");
+        writer.setDaemon(true);
+        writer.start();
+        if (spool != null) {
+            replayer = new Thread(this::runReplayer, "serverwatch-metric-replayer");
+            replayer.setDaemon(true);
+            replayer.start();
+        }
+        log.info("Gravação de métricas iniciada (modo {}, fila {}, lote {}, flush {} ms, spool {})", mode,
+                queue.remainingCapacity(), batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos),
+                spool != null ? "habilitado" : "desabilitado");
+    }
+
+    /**
+     * Encerra a thread de gravação, gravando o que ainda estiver na fila
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+        if (!queue.isEmpty()) {
+            log.warn("{} amostras de métricas não gravadas no encerramento", queue.size());
+        }
+        if (replayer != null) {
+            replayer.interrupt();
+            replayer.join(10_000);
+            if (!replayer.isAlive()) {
+                spool.close();
+            }
+        }
+    }
+
+    /**
+     * Enfileira as métricas de uma coleta concluída, com os limites das
+     * regras de alerta do servidor. Nunca bloqueia.
+     */
+    public void submit(ServerStatusDto status, RuleSet rules) {
+        for (MetricSample sample : MetricSample.fromStatus(status, rules)) {
+            if (queue.offer(sample)) {
+                acceptedSamples.incrementAndGet();
+            } else {
+                droppedSamples.incrementAndGet();
+                warnDropped();
+            }
+        }
+    }
+
+    private void warnDropped() {
+        long now = System.nanoTime();
+        long last = lastDropWarning.get();
+        if (now - last >= DROP_WARNING_INTERVAL_NANOS && lastDropWarning.compareAndSet(last, now)) {
+            log.warn("Fila de gravação de métricas cheia: amostras descartadas (total {})", droppedSamples.get());
+        }
+    }
+
+    private void runWriter() {
+        List<MetricSample> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                MetricSample first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // A amostra mais antiga do lote define o prazo do flush
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    MetricSample next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Encerramento: grava o lote parcial e o restante da fila abaixo
+            }
+            flush(batch);
+        }
+
+        do {
+            queue.drainTo(batch, batchSize - batch.size());
+            flush(batch);
+        } while (!queue.isEmpty());
+        log.info("Gravação de métricas encerrada: {} amostras gravadas, {} descartadas, {} com falha",
+                writtenSamples.get(), droppedSamples.get(), failedSamples.get());
+    }
+
+    /**
+     * Grava o lote no spool ou, sem ele, em uma única transação, e o esvazia
+     */
+    private void flush(List<MetricSample> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batch.forEach(recentMetricStore::append);
+        if (spool != null && appendToSpool(batch)) {
+            batch.clear();
+            LockSupport.unpark(replayer);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            writeToDatabase(batch);
+            writtenSamples.addAndGet(batch.size());
+            batches.incrementAndGet();
+            log.debug("Lote de {} métricas gravado em {} ms", batch.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            failedSamples.addAndGet(batch.size());
+            log.error("Falha ao gravar lote de {} métricas: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private boolean appendToSpool(List<MetricSample> batch) {
+        try {
+            for (MetricSample sample : batch) {
+                spool.append(sample);
+            }
+            spool.sync();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // Amostras já gravadas no spool podem ir de novo ao banco abaixo
+            log.error("Falha ao gravar {} métricas no spool; gravando direto no banco: {}", batch.size(),
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Envia o spool ao banco, lote a lote. Um lote que falha é repetido com
+     * espera crescente até ser gravado; só então o checkpoint avança. Se o
+     * banco recusa os dados do lote, ele é dividido ao meio até isolar as
+     * amostras recusadas; cada parte gravada ou descartada é confirmada no
+     * spool, e a repetição após uma falha transitória continua da parte
+     * pendente.
+     */
+    private void runReplayer() {
+        long retryDelayMillis = 0;
+        while (running) {
+            MetricSpool.Batch batch = spool.read(batchSize);
+            if (batch.samples().isEmpty()) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            // Partes [início, fim) do lote ainda não confirmadas, a do topo primeiro
+            Deque<int[]> parts = new ArrayDeque<>();
+            parts.push(new int[] { 0, batch.samples().size() });
+            long start = System.nanoTime();
+            long rejected = 0;
+            while (!parts.isEmpty()) {
+                int[] range = parts.peek();
+                MetricSpool.Batch part = batch.slice(range[0], range[1]);
+                try {
+                    boolean written = true;
+                    try {
+                        writeToDatabase(part.samples());
+                    } catch (RuntimeException e) {
+                        if (!isRejectedData(e)) {
+                            throw e;
+                        }
+                        if (part.samples().size() > 1) {
+                            int middle = (range[0] + range[1]) >>> 1;
+                            parts.pop();
+                            parts.push(new int[] { middle, range[1] });
+                            parts.push(new int[] { range[0], middle });
+                            continue;
+                        }
+                        written = false;
+                        logRejected(part.samples().get(0), e, rejected == 0);
+                    }
+                    spool.commit(part);
+                    parts.pop();
+                    if (written) {
+                        writtenSamples.addAndGet(part.samples().size());
+                    } else {
+                        rejected++;
+                        rejectedSamples.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    retries.incrementAndGet();
+                    if (retryDelayMillis == 0) {
+                        log.warn("Falha ao gravar métricas do spool no banco; nova tentativa com espera crescente: {}",
+                                e.getMessage());
+                    }
+                    retryDelayMillis = Math.min(maxRetryDelayMillis, Math.max(1_000, retryDelayMillis * 2));
+                    // Ignora os avisos de novos lotes até o fim da espera
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelayMillis);
+                    for (long remaining = deadline - System.nanoTime(); remaining > 0 && running;
+                            remaining = deadline - System.nanoTime()) {
+                        LockSupport.parkNanos(remaining);
+                    }
+                    if (!running) {
+                        // O restante do lote continua no spool e é reenviado na próxima inicialização
+                        return;
+                    }
+                    continue;
+                }
+                if (retryDelayMillis > 0) {
+                    log.info("Gravação de métricas no banco retomada; {} amostras pendentes no spool",
+                            spool.pendingRecords());
+                    retryDelayMillis = 0;
+                }
+            }
+            if (rejected > 0) {
+                log.warn("{} de {} amostras de um lote do spool recusadas pelo banco e descartadas (total {})",
+                        rejected, batch.samples().size(), rejectedSamples.get());
+            }
+            batches.incrementAndGet();
+            log.debug("Lote de {} métricas do spool gravado em {} ms", batch.samples().size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    // Só a primeira amostra recusada de cada lote vai para o log como aviso
+    private static void logRejected(MetricSample sample, Exception error, boolean first) {
+        String message = "Amostra do spool recusada pelo banco e descartada (servidor {}, {} em {}): {}";
+        if (first) {
+            log.warn(message, sample.serverId(), sample.metricName(), sample.timestamp(), error.getMessage());
+        } else {
+            log.debug(message, sample.serverId(), sample.metricName(), sample.timestamp(), error.getMessage());
+        }
+    }
+
+    /**
+     * Se o banco recusou os próprios dados (classes SQLState 22 e 23: valor
+     * inválido, violação de chave estrangeira ou de restrição), caso em que
+     * repetir não adianta
+     */
+    static boolean isRejectedData(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && (sqlException.getSQLState().startsWith("22") || sqlException.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeToDatabase(List<MetricSample> batch) {
+        if (mode == ServerWatchProperties.Monitoring.IngestMode.COPY) {
+            copyMetricWriter.write(batch.iterator());
+        } else {
+            saveWithJpa(batch);
+        }
+    }
+
+    private void saveWithJpa(List<MetricSample> batch) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Map<Long, Server> servers = new HashMap<>();
+            List<ServerMetric> metrics = new ArrayList<>(batch.size());
+            for (MetricSample sample : batch) {
+                ServerMetric metric = sample.toEntity();
+                metric.setServer(servers.computeIfAbsent(sample.serverId(), serverRepository::getReferenceById));
+                metrics.add(metric);
+            }
+            serverMetricRepository.saveAll(metrics);
+            latestMetricWriter.upsert(batch);
+        });
+    }
+
+    /**
+     * Timestamp da amostra mais antiga ainda no spool, à espera do banco, ou
+     * {@code null} se não há (ou sem spool)
+     */
+    public LocalDateTime oldestPendingTimestamp() {
+        return spool != null ? spool.oldestPendingTimestamp() : null;
+    }
+
+    /**
+     * Contadores da gravação para diagnóstico
+     */
+    public IngestStats getStats() {
+        return new IngestStats(queue.size(), queue.remainingCapacity(), acceptedSamples.get(),
+                droppedSamples.get(), writtenSamples.get(), failedSamples.get(), batches.get(),
+                spool != null ? spool.pendingRecords() : 0, spool != null ? spool.getEvictedRecords() : 0,
+                retries.get(), rejectedSamples.get());
+    }
+
+    public record IngestStats(int queued, int remainingCapacity, long accepted, long dropped, long written,
+            long failed, long batches, long spooled, long spoolEvicted, long retries, long rejected) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.time.LocalDate;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.repository.ServerMetricRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manutenção das partições diárias de {@code server_metrics}.
+ *
+ * Na inicialização e periodicamente: realoca as linhas que caíram na partição
+ * default, cria as partições dos próximos dias e remove (DROP) as partições
+ * fora da retenção. Remover uma partição é uma operação de metadados, sem
+ * DELETE linha a linha nem inchaço de tabela/índices.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+@RequiredArgsConstructor
+public class MetricPartitionMaintenanceService {
+
+    private final ServerMetricRepository serverMetricRepository;
+    private final ServerWatchProperties serverWatchProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            maintainPartitions();
+        } catch (Exception e) {
+            log.error("Erro na manutenção das partições de métricas: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${serverwatch.monitoring.retention.maintenance-cron:0 15 * * * *}")
+    public void maintainPartitions() {
+        ServerWatchProperties.Monitoring.Retention retention = serverWatchProperties.getMonitoring().getRetention();
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.minusDays(retention.getMetricDays());
+
+        long relocated = serverMetricRepository.relocateDefaultPartition(cutoff);
+
+        int created = 0;
+        // Inclui ontem: coletas atrasadas perto da meia-noite
+        for (LocalDate day = today.minusDays(1); !day.isAfter(today.plusDays(retention.getPartitionPremakeDays()));
+                day = day.plusDays(1)) {
+            if (serverMetricRepository.createPartition(day)) {
+                created++;
+            }
+        }
+
+        int dropped = serverMetricRepository.dropPartitionsBefore(cutoff);
+
+        if (relocated > 0 || created > 0 || dropped > 0) {
+            log.info("Partições de métricas: {} criadas, {} removidas (antes de {}), {} linhas realocadas da default",
+                    created, dropped, cutoff, relocated);
+        }
+    }
+}
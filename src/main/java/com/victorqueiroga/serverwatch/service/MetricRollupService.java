@@ -0,0 +1,385 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.MetricAggregate;
+import com.victorqueiroga.serverwatch.dto.MetricSeries;
+import com.victorqueiroga.serverwatch.model.MetricRollupWatermark;
+import com.victorqueiroga.serverwatch.model.ServerMetricBlock;
+import com.victorqueiroga.serverwatch.model.ServerMetricRollup;
+import com.victorqueiroga.serverwatch.model.ServerMetricRollup.Resolution;
+import com.victorqueiroga.serverwatch.repository.MetricRollupWatermarkRepository;
+import com.victorqueiroga.serverwatch.repository.ServerMetricBlockRepository;
+import com.victorqueiroga.serverwatch.repository.ServerMetricRepository;
+import com.victorqueiroga.serverwatch.repository.ServerMetricRollupRepository;
+import com.victorqueiroga.serverwatch.utils.GorillaDecoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Agregação contínua das métricas em 1m/5m/1h/1d e roteamento das consultas
+ * para a resolução adequada ao período.
+ *
+ * Cada resolução guarda até onde já foi agregada (watermark); a cada execução
+ * apenas os intervalos fechados desde então são lidos de
+ * {@code server_metrics}. Enquanto houver amostras no spool à espera do
+ * banco ({@link MetricIngestService}), a agregação não passa do intervalo da
+ * mais antiga delas. Nas consultas, o trecho ainda não agregado (e as bordas
+ * fora do alinhamento dos intervalos) é lido das amostras brutas e combinado
+ * com os agregados. Séries de períodos cobertos pelo
+ * {@link RecentMetricStore} são calculadas em memória. Ao refazer os
+ * agregados de dias já compactados ({@link MetricCompactionService}), as
+ * amostras dos blocos entram junto com as linhas brutas importadas.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class MetricRollupService {
+
+    /**
+     * Máximo de pontos por série: um gráfico de 30 dias usa a resolução de 1h
+     * (720 pontos)
+     */
+    static final int MAX_POINTS = 1_000;
+
+    // Período agregado por transação (múltiplo de todos os intervalos)
+    private static final Duration MAX_CHUNK = Duration.ofDays(1);
+
+    /**
+     * Soma um agregado ao gravado para o mesmo intervalo, se houver
+     */
+    static final String MERGE_SQL = "INSERT INTO server_metric_rollups AS r (resolution, server_id, metric_name, "
+            + "subcategory, bucket_start, min_value, max_value, sum_value, sample_count, last_value, last_timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (resolution, server_id, metric_name, subcategory, bucket_start) DO UPDATE SET "
+            + "min_value = LEAST(r.min_value, EXCLUDED.min_value), "
+            + "max_value = GREATEST(r.max_value, EXCLUDED.max_value), "
+            + "sum_value = r.sum_value + EXCLUDED.sum_value, sample_count = r.sample_count + EXCLUDED.sample_count, "
+            + "last_value = CASE WHEN EXCLUDED.last_timestamp >= r.last_timestamp THEN EXCLUDED.last_value "
+            + "ELSE r.last_value END, last_timestamp = GREATEST(r.last_timestamp, EXCLUDED.last_timestamp)";
+
+    private final ServerMetricRollupRepository rollupRepository;
+    private final MetricRollupWatermarkRepository watermarkRepository;
+    private final ServerMetricRepository serverMetricRepository;
+    private final ServerMetricBlockRepository blockRepository;
+    private final RecentMetricStore recentMetricStore;
+    private final MetricIngestService metricIngestService;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate recomputeTemplate;
+    private final Duration lateDataGrace;
+
+    public MetricRollupService(ServerMetricRollupRepository rollupRepository,
+            MetricRollupWatermarkRepository watermarkRepository, ServerMetricRepository serverMetricRepository,
+            ServerMetricBlockRepository blockRepository, RecentMetricStore recentMetricStore,
+            MetricIngestService metricIngestService, DataSource dataSource,
+            PlatformTransactionManager transactionManager, ServerWatchProperties serverWatchProperties) {
+        this.rollupRepository = rollupRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.serverMetricRepository = serverMetricRepository;
+        this.blockRepository = blockRepository;
+        this.recentMetricStore = recentMetricStore;
+        this.metricIngestService = metricIngestService;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Linhas brutas e blocos lidos no mesmo snapshot: uma compactação
+        // concorrente não faz uma amostra ser contada duas vezes (ou nenhuma)
+        this.recomputeTemplate = new TransactionTemplate(transactionManager);
+        this.recomputeTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.lateDataGrace = Duration.ofSeconds(
+                serverWatchProperties.getMonitoring().getRollups().getLateDataGraceSeconds());
+    }
+
+    /**
+     * Agrega os intervalos fechados desde a última execução e aplica a
+     * retenção de cada resolução
+     */
+    @Scheduled(fixedDelayString = "${serverwatch.monitoring.rollups.interval-millis:60000}")
+    public synchronized void aggregate() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime complete = now.minus(lateDataGrace);
+        LocalDateTime pending = metricIngestService.oldestPendingTimestamp();
+        if (pending != null && pending.isBefore(complete)) {
+            // O intervalo da amostra pendente só fecha depois que ela chegar ao banco
+            log.debug("Agregação limitada a {} por amostras pendentes no spool", pending);
+            complete = pending;
+        }
+        for (Resolution resolution : Resolution.values()) {
+            try {
+                long rows = aggregate(resolution, resolution.floor(complete), now);
+                int expired = transactionTemplate.execute(tx -> rollupRepository.deleteOlderThan(resolution,
+                        retentionStart(resolution, now)));
+                if (rows > 0 || expired > 0) {
+                    log.debug("Agregados {}: {} gravados, {} expirados", resolution, rows, expired);
+                }
+            } catch (Exception e) {
+                log.error("Erro ao agregar métricas na resolução {}: {}", resolution, e.getMessage());
+            }
+        }
+    }
+
+    private long aggregate(Resolution resolution, LocalDateTime target, LocalDateTime now) {
+        LocalDateTime from = processedUntil(resolution);
+        if (from == null) {
+            // Primeira execução: agrega o histórico ainda dentro da retenção
+            LocalDateTime retentionStart = retentionStart(resolution, now);
+            from = serverMetricRepository.findFirstTimestamp()
+                    .map(resolution::floor)
+                    .map(first -> first.isBefore(retentionStart) ? retentionStart : first)
+                    .orElse(target);
+        }
+
+        Duration chunk = resolution.getBucket().compareTo(MAX_CHUNK) > 0 ? resolution.getBucket() : MAX_CHUNK;
+        long rows = 0;
+        while (from.isBefore(target)) {
+            LocalDateTime chunkFrom = from;
+            LocalDateTime chunkTo = min(from.plus(chunk), target);
+            rows += transactionTemplate.execute(tx -> {
+                int inserted = rollupRepository.aggregateRawMetrics(resolution.name(), resolution.getInterval(),
+                        chunkFrom, chunkTo);
+                watermarkRepository.save(new MetricRollupWatermark(resolution, chunkTo));
+                return inserted;
+            });
+            from = chunkTo;
+        }
+        return rows;
+    }
+
+    /**
+     * Refaz os agregados já processados que cobrem o período, após a
+     * gravação de amostras com timestamps antigos (importação de histórico).
+     * Dos dias já compactados, {@code server_metrics} só tem as linhas
+     * importadas depois da compactação: as amostras dos blocos são somadas
+     * aos agregados.
+     */
+    public synchronized void recompute(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Resolution resolution : Resolution.values()) {
+            LocalDateTime processedUntil = processedUntil(resolution);
+            if (processedUntil == null) {
+                continue;
+            }
+            LocalDateTime start = max(resolution.floor(from), retentionStart(resolution, now));
+            LocalDateTime end = min(resolution.floor(to).plus(resolution.getBucket()), processedUntil);
+            if (start.isBefore(end)) {
+                int compacted = recomputeTemplate.execute(tx -> {
+                    rollupRepository.deleteRange(resolution, start, end);
+                    rollupRepository.aggregateRawMetrics(resolution.name(), resolution.getInterval(), start, end);
+                    return mergeCompacted(resolution, start, end);
+                });
+                log.info("Agregados {} refeitos de {} a {} ({} blocos compactados)", resolution, start, end,
+                        compacted);
+            }
+        }
+    }
+
+    /**
+     * Soma aos agregados de [start, end) as amostras dos blocos compactados
+     *
+     * @return número de blocos lidos
+     */
+    private int mergeCompacted(Resolution resolution, LocalDateTime start, LocalDateTime end) {
+        List<ServerMetricBlock> blocks = blockRepository.findOverlapping(start, end);
+        if (blocks.isEmpty()) {
+            return 0;
+        }
+        long startMillis = RecentMetricStore.toMillis(start);
+        long endMillis = RecentMetricStore.toMillis(end);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(MERGE_SQL)) {
+            for (ServerMetricBlock block : blocks) {
+                Map<LocalDateTime, ServerMetricRollup> byStart = new TreeMap<>();
+                GorillaDecoder decoder = new GorillaDecoder(block.getData());
+                while (decoder.next()) {
+                    if (decoder.timestamp() >= startMillis && decoder.timestamp() < endMillis) {
+                        accumulate(byStart, resolution, block.getServerId(), block.getMetricName(),
+                                block.getSubcategory(), RecentMetricStore.toLocalDateTime(decoder.timestamp()),
+                                decoder.value());
+                    }
+                }
+                for (ServerMetricRollup rollup : byStart.values()) {
+                    statement.setString(1, resolution.name());
+                    statement.setLong(2, rollup.getServerId());
+                    statement.setString(3, rollup.getMetricName());
+                    statement.setString(4, rollup.getSubcategory());
+                    statement.setTimestamp(5, Timestamp.valueOf(rollup.getBucketStart()));
+                    statement.setBigDecimal(6, rollup.getMinValue());
+                    statement.setBigDecimal(7, rollup.getMaxValue());
+                    statement.setBigDecimal(8, rollup.getSumValue());
+                    statement.setLong(9, rollup.getSampleCount());
+                    statement.setBigDecimal(10, rollup.getLastValue());
+                    statement.setTimestamp(11, Timestamp.valueOf(rollup.getLastTimestamp()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            return blocks.size();
+        } catch (SQLException e) {
+            throw new RuntimeException("Falha ao somar os blocos compactados aos agregados: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Resolução mais grossa que ainda atende o período: a mais fina com até
+     * {@link #MAX_POINTS} intervalos e cuja retenção cobre o início
+     */
+    public Resolution selectResolution(LocalDateTime from, LocalDateTime to) {
+        Duration range = Duration.between(from, to);
+        LocalDateTime now = LocalDateTime.now();
+        for (Resolution resolution : Resolution.values()) {
+            if (range.dividedBy(resolution.getBucket()) <= MAX_POINTS
+                    && !from.isBefore(retentionStart(resolution, now))) {
+                return resolution;
+            }
+        }
+        return Resolution.ONE_DAY;
+    }
+
+    /**
+     * Série de uma métrica no período, na resolução escolhida por
+     * {@link #selectResolution}
+     */
+    @Transactional(readOnly = true)
+    public MetricSeries findSeries(Long serverId, String metricName, LocalDateTime from, LocalDateTime to) {
+        Resolution resolution = selectResolution(from, to);
+        LocalDateTime start = resolution.floor(from);
+
+        Optional<List<RecentMetricStore.SeriesData>> recent = recentMetricStore.find(serverId, metricName, start, to);
+        if (recent.isPresent()) {
+            return new MetricSeries(serverId, metricName, resolution, from, to, bucket(resolution, recent.get()));
+        }
+
+        LocalDateTime split = splitPoint(resolution, start, to);
+        List<MetricSeries.Point> points = new ArrayList<>();
+        if (split.isAfter(start)) {
+            rollupRepository.findSeries(resolution, serverId, metricName, start, split)
+                    .forEach(rollup -> points.add(MetricSeries.Point.from(rollup)));
+        }
+        if (split.isBefore(to)) {
+            rollupRepository.aggregateRawSeries(resolution.name(), resolution.getInterval(), serverId, metricName,
+                    split, to).forEach(rollup -> points.add(MetricSeries.Point.from(rollup)));
+        }
+        return new MetricSeries(serverId, metricName, resolution, from, to, points);
+    }
+
+    /**
+     * Agrupa amostras em memória nos intervalos da resolução, com os mesmos
+     * valores (escala 4) que a agregação no banco
+     */
+    private static List<MetricSeries.Point> bucket(Resolution resolution,
+            List<RecentMetricStore.SeriesData> series) {
+        List<ServerMetricRollup> buckets = new ArrayList<>();
+        for (RecentMetricStore.SeriesData data : series) {
+            Map<LocalDateTime, ServerMetricRollup> byStart = new TreeMap<>();
+            for (int i = 0; i < data.size(); i++) {
+                accumulate(byStart, resolution, data.serverId(), data.metricName(), data.subcategory(),
+                        data.timestamp(i), data.value(i));
+            }
+            buckets.addAll(byStart.values());
+        }
+        buckets.sort(Comparator.comparing(ServerMetricRollup::getBucketStart)
+                .thenComparing(ServerMetricRollup::getSubcategory));
+        return buckets.stream().map(MetricSeries.Point::from).toList();
+    }
+
+    /**
+     * Soma uma amostra ao agregado do seu intervalo, com os mesmos valores
+     * (escala 4) que a agregação no banco
+     */
+    private static void accumulate(Map<LocalDateTime, ServerMetricRollup> byStart, Resolution resolution,
+            Long serverId, String metricName, String subcategory, LocalDateTime timestamp, double sample) {
+        BigDecimal value = BigDecimal.valueOf(sample).setScale(4, RoundingMode.HALF_UP);
+        ServerMetricRollup rollup = byStart.computeIfAbsent(resolution.floor(timestamp),
+                bucketStart -> new ServerMetricRollup(resolution, serverId, metricName, subcategory, bucketStart,
+                        value, value, BigDecimal.ZERO, 0, value, timestamp));
+        rollup.setMinValue(rollup.getMinValue().min(value));
+        rollup.setMaxValue(rollup.getMaxValue().max(value));
+        rollup.setSumValue(rollup.getSumValue().add(value));
+        rollup.setSampleCount(rollup.getSampleCount() + 1);
+        if (!timestamp.isBefore(rollup.getLastTimestamp())) {
+            rollup.setLastValue(value);
+            rollup.setLastTimestamp(timestamp);
+        }
+    }
+
+    /**
+     * Mínimo, máximo, soma e contagem por métrica de um servidor desde o
+     * instante informado. Os intervalos inteiros já agregados vêm dos
+     * rollups; o restante, das amostras brutas.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, MetricAggregate> aggregateByMetric(Long serverId, LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        Resolution resolution = selectResolution(since, now);
+        LocalDateTime rollupFrom = resolution.ceil(since);
+        LocalDateTime rollupTo = max(rollupFrom, splitPoint(resolution, rollupFrom, now));
+
+        Map<String, MetricAggregate> aggregates = new TreeMap<>();
+        if (rollupTo.isAfter(rollupFrom)) {
+            for (Object[] row : rollupRepository.aggregateByMetric(resolution, serverId, rollupFrom, rollupTo)) {
+                aggregates.merge((String) row[0], MetricAggregate.fromRow(row, 1), MetricAggregate::merge);
+            }
+        }
+        for (Object[] row : serverMetricRepository.aggregateByMetricExcluding(serverId, since, rollupFrom,
+                rollupTo)) {
+            aggregates.merge((String) row[0], MetricAggregate.fromRow(row, 1), MetricAggregate::merge);
+        }
+        return aggregates;
+    }
+
+    /**
+     * Fim do trecho de [start, end) coberto pelos agregados gravados
+     */
+    private LocalDateTime splitPoint(Resolution resolution, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime processedUntil = processedUntil(resolution);
+        if (processedUntil == null) {
+            return start;
+        }
+        return min(max(processedUntil, start), end);
+    }
+
+    private LocalDateTime processedUntil(Resolution resolution) {
+        return watermarkRepository.findById(resolution)
+                .map(MetricRollupWatermark::getProcessedUntil)
+                .orElse(null);
+    }
+
+    private static LocalDateTime retentionStart(Resolution resolution, LocalDateTime now) {
+        return resolution.floor(now.minus(resolution.getRetention()));
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
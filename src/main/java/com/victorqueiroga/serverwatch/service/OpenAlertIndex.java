@@ -0,0 +1,251 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.model.Alert;
+import com.victorqueiroga.serverwatch.repository.AlertRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice em memória dos alertas abertos, por série: (servidor, métrica,
+ * tipo).
+ *
+ * Carregado na inicialização com {@link AlertRepository#findActiveAlerts()} e
+ * mantido pelo {@link AlertEventProcessor} (alertas abertos pelas regras) e
+ * pelo {@link AlertService} (resolução, reconhecimento, edição e exclusão,
+ * aplicadas depois do commit).
+ * Com ele, as violações repetidas de uma série não consultam o banco para
+ * achar o alerta aberto. Quando um alerta é resolvido, a série fica em
+ * carência por {@code serverwatch.monitoring.alerts.cooldown-minutes}: nesse
+ * período as regras não reabrem alerta para ela.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class OpenAlertIndex {
+
+    private final AlertRepository alertRepository;
+    private final long cooldownMillis;
+
+    private final ConcurrentHashMap<Key, Entry> open = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Key> keysById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, Long> resolvedAt = new ConcurrentHashMap<>();
+
+    public OpenAlertIndex(AlertRepository alertRepository, ServerWatchProperties serverWatchProperties) {
+        int cooldownMinutes = serverWatchProperties.getMonitoring().getAlerts().getCooldownMinutes();
+        if (cooldownMinutes < 0) {
+            throw new IllegalArgumentException("Período de carência de alertas inválido: " + cooldownMinutes);
+        }
+        this.alertRepository = alertRepository;
+        this.cooldownMillis = TimeUnit.MINUTES.toMillis(cooldownMinutes);
+    }
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    /**
+     * Relê os alertas abertos do banco. Períodos de carência em andamento são
+     * mantidos.
+     */
+    public synchronized void reload() {
+        open.clear();
+        keysById.clear();
+        // Mais recentes primeiro: com duplicatas, o índice fica com o mais novo
+        List<Alert> alerts = alertRepository.findActiveAlerts();
+        for (Alert alert : alerts) {
+            Key key = Key.of(alert);
+            if (key != null && alert.isActive() && !open.containsKey(key)) {
+                put(key, new Entry(alert.getId(), 0, severityId(alert), severityLevel(alert), alert.getCurrentValue(),
+                        alert.getStatus()));
+            }
+        }
+        log.info("Índice de alertas abertos carregado: {} séries ({} alertas ativos)", open.size(), alerts.size());
+    }
+
+    /**
+     * Alerta aberto da série, ou {@code null}
+     */
+    public Entry get(Key key) {
+        return open.get(key);
+    }
+
+    /**
+     * Registra o alerta recém-aberto pelas regras para a série
+     */
+    public synchronized void opened(Key key, Entry entry) {
+        resolvedAt.remove(key);
+        put(key, entry);
+    }
+
+    /**
+     * Sincroniza o índice com um alerta salvo: indexa alertas ativos e remove
+     * os resolvidos ou fechados, iniciando a carência da série
+     */
+    public synchronized void update(Alert alert) {
+        if (alert.getId() == null) {
+            return;
+        }
+        Key key = Key.of(alert);
+        boolean active = key != null && alert.isActive();
+        Key previous = keysById.get(alert.getId());
+        if (previous != null && (!active || !previous.equals(key))) {
+            remove(previous, alert.getId());
+            if (!alert.isActive()) {
+                resolvedAt.put(previous, System.currentTimeMillis());
+            }
+        }
+        if (!active) {
+            return;
+        }
+        Entry entry = open.get(key);
+        if (entry == null) {
+            put(key, new Entry(alert.getId(), 0, severityId(alert), severityLevel(alert), alert.getCurrentValue(),
+                    alert.getStatus()));
+        } else if (entry.alertId == alert.getId()) {
+            entry.severityId = severityId(alert);
+            entry.severityLevel = severityLevel(alert);
+            entry.currentValue = alert.getCurrentValue();
+            entry.status = alert.getStatus();
+        }
+    }
+
+    private static long severityId(Alert alert) {
+        return alert.getSeverity() != null && alert.getSeverity().getId() != null ? alert.getSeverity().getId() : 0;
+    }
+
+    private static int severityLevel(Alert alert) {
+        return alert.getSeverity() != null && alert.getSeverity().getLevel() != null
+                ? alert.getSeverity().getLevel()
+                : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Remove do índice o alerta excluído (sem carência)
+     */
+    public synchronized void removed(Long alertId) {
+        Key key = keysById.get(alertId);
+        if (key != null) {
+            remove(key, alertId);
+        }
+    }
+
+    /**
+     * Remove a série cujo alerta foi resolvido fora do índice (detectado ao
+     * gravar) e inicia a carência
+     */
+    public synchronized void closed(Key key, long alertId) {
+        if (remove(key, alertId)) {
+            resolvedAt.put(key, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Marca como reconhecido o alerta aberto da série (reconhecimento em lote)
+     */
+    public void acknowledged(Key key, long alertId) {
+        Entry entry = open.get(key);
+        if (entry != null && entry.alertId == alertId) {
+            entry.status = Alert.AlertStatus.ACKNOWLEDGED;
+        }
+    }
+
+    /**
+     * Indica se a série teve alerta resolvido há menos que o período de
+     * carência
+     */
+    public boolean isCoolingDown(Key key) {
+        Long resolved = resolvedAt.get(key);
+        if (resolved == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - resolved < cooldownMillis) {
+            return true;
+        }
+        resolvedAt.remove(key, resolved);
+        return false;
+    }
+
+    /**
+     * Número de séries com alerta aberto
+     */
+    public int size() {
+        return open.size();
+    }
+
+    private void put(Key key, Entry entry) {
+        Entry replaced = open.put(key, entry);
+        if (replaced != null && replaced.alertId != entry.alertId) {
+            keysById.remove(replaced.alertId);
+        }
+        keysById.put(entry.alertId, key);
+    }
+
+    private boolean remove(Key key, long alertId) {
+        Entry entry = open.get(key);
+        if (entry == null || entry.alertId != alertId) {
+            return false;
+        }
+        open.remove(key);
+        keysById.remove(alertId);
+        return true;
+    }
+
+    /**
+     * Série de um alerta
+     */
+    public record Key(Long serverId, String metricName, Alert.AlertType alertType) {
+
+        static Key of(Alert alert) {
+            if (alert.getServer() == null || alert.getMetricName() == null || alert.getAlertType() == null) {
+                return null;
+            }
+            return new Key(alert.getServer().getId(), alert.getMetricName(), alert.getAlertType());
+        }
+    }
+
+    /**
+     * Alerta aberto de uma série
+     */
+    @Getter
+    public static final class Entry {
+
+        private final long alertId;
+        @Setter
+        private volatile long ruleId;
+        @Setter
+        private volatile long severityId;
+        @Setter
+        private volatile int severityLevel;
+        @Setter
+        private volatile String currentValue;
+        private volatile Alert.AlertStatus status;
+
+        /**
+         * @param ruleId regra que abriu ou atualizou o alerta por último; 0 se
+         *               desconhecida (alerta carregado do banco ou manual)
+         * @param severityId    severidade atual
+         * @param severityLevel nível da severidade atual (1 = mais grave)
+         */
+        public Entry(long alertId, long ruleId, long severityId, int severityLevel, String currentValue,
+                Alert.AlertStatus status) {
+            this.alertId = alertId;
+            this.ruleId = ruleId;
+            this.severityId = severityId;
+            this.severityLevel = severityLevel;
+            this.currentValue = currentValue;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.model.ServerMetric.MetricCategory;
+import com.victorqueiroga.serverwatch.utils.MetricRingBuffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Histórico recente das métricas em memória: um {@link MetricRingBuffer} por
+ * série (servidor + métrica + subcategoria), identificada por um ID inteiro.
+ *
+ * Alimentado apenas pela thread de gravação do {@link MetricIngestService}
+ * (escritor único); as consultas não usam lock. Uma consulta só é atendida
+ * se a memória cobre o período inteiro (desde a inicialização, sem amostras
+ * descartadas pelo buffer e fora dos períodos importados, que não passam
+ * pela memória); caso contrário o chamador usa o banco. Os limites de aviso
+ * e crítico vêm das regras de alerta e podem mudar: cada série guarda a
+ * partir de quando vale cada par de limites, e cada amostra é devolvida com
+ * os limites com que foi gravada.
+ */
+@Slf4j
+@Service
+public class RecentMetricStore {
+
+    private final int capacityPerSeries;
+    private final int maxSeries;
+    private final long startedAtMillis = toMillis(LocalDateTime.now());
+
+    private final ConcurrentHashMap<SeriesKey, Integer> seriesIds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, int[]> seriesByServer = new ConcurrentHashMap<>();
+
+    // Publicado por escrita volátil após cada registro; indexado pelo ID
+    private volatile Series[] series = new Series[64];
+    private int seriesCount;
+    private volatile boolean full;
+
+    // Envoltória [início, fim] dos períodos importados após a inicialização
+    private volatile long[] imported;
+
+    public RecentMetricStore(ServerWatchProperties serverWatchProperties) {
+        ServerWatchProperties.Monitoring.Recent settings = serverWatchProperties.getMonitoring().getRecent();
+        if (settings.getCapacityPerSeries() < 1 || settings.getMaxSeries() < 1) {
+            throw new IllegalArgumentException("Configuração do histórico recente inválida: " + settings);
+        }
+        this.capacityPerSeries = settings.getCapacityPerSeries();
+        this.maxSeries = settings.getMaxSeries();
+    }
+
+    /**
+     * Registra uma amostra. Apenas a thread de gravação de métricas chama
+     * este método.
+     */
+    public void append(MetricSample sample) {
+        SeriesKey key = new SeriesKey(sample.serverId(), sample.metricName(),
+                sample.subcategory() != null ? sample.subcategory() : "");
+        Integer id = seriesIds.get(key);
+        Series target = id != null ? series[id] : register(key, sample);
+        if (target != null) {
+            long millis = toMillis(sample.timestamp());
+            // Limites publicados antes da amostra que os usa
+            target.updateThresholds(millis, sample.warningThreshold(), sample.criticalThreshold());
+            target.buffer.append(millis, sample.value());
+        }
+    }
+
+    private Series register(SeriesKey key, MetricSample sample) {
+        if (seriesCount >= maxSeries) {
+            if (!full) {
+                full = true;
+                log.warn("Histórico recente em memória atingiu {} séries; consultas passam a usar o banco",
+                        maxSeries);
+            }
+            return null;
+        }
+        int id = seriesCount++;
+        Series created = new Series(key, sample.unit(), sample.category(), sample.warningThreshold(),
+                sample.criticalThreshold(), new MetricRingBuffer(capacityPerSeries));
+        Series[] current = series;
+        if (id >= current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[id] = created;
+        series = current;
+
+        // Leitores chegam à série pelos índices, publicados depois do array
+        seriesByServer.merge(key.serverId(), new int[] { id }, (ids, added) -> {
+            int[] merged = Arrays.copyOf(ids, ids.length + 1);
+            merged[ids.length] = added[0];
+            return merged;
+        });
+        seriesIds.put(key, id);
+        return created;
+    }
+
+    /**
+     * Registra que amostras do período [from, to] foram gravadas direto no
+     * banco (importação): consultas que o alcançam passam a usar o banco.
+     */
+    public synchronized void imported(LocalDateTime from, LocalDateTime to) {
+        long fromMillis = toMillis(from);
+        long toMillis = toMillis(to);
+        if (toMillis < startedAtMillis) {
+            return;
+        }
+        long[] current = imported;
+        imported = current == null ? new long[] { fromMillis, toMillis }
+                : new long[] { Math.min(current[0], fromMillis), Math.max(current[1], toMillis) };
+        log.info("Histórico recente em memória não cobre as amostras importadas entre {} e {}", from, to);
+    }
+
+    /**
+     * Amostras de um servidor em [from, to), de uma métrica ou de todas
+     * ({@code metricName} nulo). {@code to} nulo não limita o fim. Vazio se a
+     * memória não cobre o período.
+     */
+    public Optional<List<SeriesData>> find(Long serverId, String metricName, LocalDateTime from, LocalDateTime to) {
+        long fromMillis = toMillis(from);
+        if (fromMillis < startedAtMillis || full) {
+            return Optional.empty();
+        }
+        long toMillis = to != null ? toMillis(to) : Long.MAX_VALUE;
+        long[] importedRange = imported;
+        if (importedRange != null && importedRange[0] < toMillis && importedRange[1] >= fromMillis) {
+            return Optional.empty();
+        }
+
+        int[] ids = seriesByServer.get(serverId);
+        if (ids == null) {
+            return Optional.of(List.of());
+        }
+        Series[] all = series;
+        List<SeriesData> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Series candidate = all[id];
+            if (metricName != null && !metricName.equals(candidate.key.metricName())) {
+                continue;
+            }
+            MetricRingBuffer.Snapshot snapshot = candidate.buffer.snapshot(fromMillis, toMillis);
+            if (snapshot.retainedSince() > fromMillis) {
+                return Optional.empty();
+            }
+            // Lidos depois das amostras: incluem os limites de todas elas
+            result.add(new SeriesData(candidate, snapshot, candidate.thresholds));
+        }
+        return Optional.of(result);
+    }
+
+    public int getSeriesCount() {
+        return seriesIds.size();
+    }
+
+    // Timestamps em millis do horário local (sem fuso), como na coluna do banco
+    static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+
+    private record SeriesKey(Long serverId, String metricName, String subcategory) {
+    }
+
+    private static final class Series {
+        private final SeriesKey key;
+        private final String unit;
+        private final MetricCategory category;
+        private final MetricRingBuffer buffer;
+        // Limites em ordem de início; alterado só pela thread de gravação
+        private volatile Thresholds[] thresholds;
+
+        private Series(SeriesKey key, String unit, MetricCategory category, Double warningThreshold,
+                Double criticalThreshold, MetricRingBuffer buffer) {
+            this.key = key;
+            this.unit = unit;
+            this.category = category;
+            this.buffer = buffer;
+            this.thresholds = new Thresholds[] { new Thresholds(Long.MIN_VALUE, warningThreshold,
+                    criticalThreshold) };
+        }
+
+        /**
+         * Registra limites novos a partir de {@code millis}, descartando os
+         * que só valiam para amostras que já saíram do buffer
+         */
+        private void updateThresholds(long millis, Double warningThreshold, Double criticalThreshold) {
+            Thresholds[] current = thresholds;
+            Thresholds last = current[current.length - 1];
+            if (Objects.equals(last.warning(), warningThreshold)
+                    && Objects.equals(last.critical(), criticalThreshold)) {
+                return;
+            }
+            long oldest = buffer.oldestTimestamp();
+            int first = 0;
+            while (first < current.length - 1 && current[first + 1].since() <= oldest) {
+                first++;
+            }
+            Thresholds[] updated = Arrays.copyOfRange(current, first, current.length + 1);
+            updated[updated.length - 1] = new Thresholds(millis, warningThreshold, criticalThreshold);
+            thresholds = updated;
+        }
+    }
+
+    private record Thresholds(long since, Double warning, Double critical) {
+    }
+
+    /**
+     * Amostras de uma série no período consultado
+     */
+    public static final class SeriesData {
+        private final Series series;
+        private final MetricRingBuffer.Snapshot snapshot;
+        private final Thresholds[] thresholds;
+
+        private SeriesData(Series series, MetricRingBuffer.Snapshot snapshot, Thresholds[] thresholds) {
+            this.series = series;
+            this.snapshot = snapshot;
+            this.thresholds = thresholds;
+        }
+
+        public Long serverId() {
+            return series.key.serverId();
+        }
+
+        public String metricName() {
+            return series.key.metricName();
+        }
+
+        /**
+         * Subcategoria; vazio quando não há
+         */
+        public String subcategory() {
+            return series.key.subcategory();
+        }
+
+        public String unit() {
+            return series.unit;
+        }
+
+        public MetricCategory category() {
+            return series.category;
+        }
+
+        public int size() {
+            return snapshot.size();
+        }
+
+        public LocalDateTime timestamp(int index) {
+            return toLocalDateTime(snapshot.timestamps()[index]);
+        }
+
+        public double value(int index) {
+            return snapshot.values()[index];
+        }
+
+        /**
+         * Limite de aviso com que a amostra foi gravada
+         */
+        public Double warningThreshold(int index) {
+            return thresholdsAt(index).warning();
+        }
+
+        /**
+         * Limite crítico com que a amostra foi gravada
+         */
+        public Double criticalThreshold(int index) {
+            return thresholdsAt(index).critical();
+        }
+
+        private Thresholds thresholdsAt(int index) {
+            long timestamp = snapshot.timestamps()[index];
+            for (int i = thresholds.length - 1; i > 0; i--) {
+                if (thresholds[i].since() <= timestamp) {
+                    return thresholds[i];
+                }
+            }
+            return thresholds[0];
+        }
+    }
+}
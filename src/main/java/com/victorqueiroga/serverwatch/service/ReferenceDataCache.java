@@ -0,0 +1,127 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.victorqueiroga.serverwatch.model.OperationSystem;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.model.Severity;
+import com.victorqueiroga.serverwatch.repository.OperationSystemRepository;
+import com.victorqueiroga.serverwatch.repository.ServerRepository;
+import com.victorqueiroga.serverwatch.repository.SeverityRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dados de referência (servidores, severidades e sistemas operacionais) em
+ * memória, para as telas e o monitoramento programado não consultarem o banco
+ * a cada acesso.
+ *
+ * As listas são carregadas juntas na primeira leitura e descartadas quando
+ * {@link ServerService} ou {@link SeverityService} gravam ({@link #invalidate}),
+ * depois do commit. Cada carga recebe uma versão; uma carga iniciada antes de
+ * uma invalidação não é guardada. As listas devolvidas são imutáveis e os
+ * objetos são compartilhados entre as leituras: não devem ser alterados.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class ReferenceDataCache {
+
+    private final ServerRepository serverRepository;
+    private final SeverityRepository severityRepository;
+    private final OperationSystemRepository operationSystemRepository;
+
+    // Alterada sob o monitor do objeto
+    private long version;
+
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataCache(ServerRepository serverRepository, SeverityRepository severityRepository,
+            OperationSystemRepository operationSystemRepository) {
+        this.serverRepository = serverRepository;
+        this.severityRepository = severityRepository;
+        this.operationSystemRepository = operationSystemRepository;
+    }
+
+    /**
+     * Todos os servidores
+     */
+    public List<Server> servers() {
+        return snapshot().servers();
+    }
+
+    /**
+     * Severidades ordenadas por nível
+     */
+    public List<Severity> severities() {
+        return snapshot().severities();
+    }
+
+    /**
+     * Todos os sistemas operacionais
+     */
+    public List<OperationSystem> operationSystems() {
+        return snapshot().operationSystems();
+    }
+
+    /**
+     * Dados atuais, carregados do banco se tiverem sido descartados
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long loadVersion;
+        synchronized (this) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            loadVersion = version;
+        }
+        Snapshot loaded = new Snapshot(loadVersion, List.copyOf(serverRepository.findAll()),
+                List.copyOf(severityRepository.findAllByOrderByLevel()),
+                List.copyOf(operationSystemRepository.findAll()));
+        log.debug("Dados de referência carregados (versão {}): {} servidores, {} severidades, {} sistemas operacionais",
+                loadVersion, loaded.servers().size(), loaded.severities().size(), loaded.operationSystems().size());
+        synchronized (this) {
+            if (version == loadVersion && snapshot == null) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Descarta os dados; dentro de uma transação, só depois do commit
+     */
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            discard();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                discard();
+            }
+        });
+    }
+
+    private synchronized void discard() {
+        version++;
+        snapshot = null;
+    }
+
+    /**
+     * Versão dos dados de referência
+     */
+    public record Snapshot(long version, List<Server> servers, List<Severity> severities,
+            List<OperationSystem> operationSystems) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.victorqueiroga.serverwatch.service;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Total aproximado de linhas de uma consulta, lido do plano do PostgreSQL
+ * ({@code EXPLAIN}, sem executá-la). Usa as estatísticas das tabelas: custa o
+ * mesmo para qualquer volume, ao contrário de um {@code COUNT(*)}.
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+@RequiredArgsConstructor
+public class RowCountEstimator {
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Estimativa de linhas retornadas por {@code SELECT 1 FROM ... WHERE ...}
+     *
+     * @return estimativa, ou null se o plano não puder ser obtido
+     */
+    public Long estimate(String sql, List<Object> parameters) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                if (!rows.next()) {
+                    return null;
+                }
+                JsonNode plan = objectMapper.readTree(rows.getString(1)).path(0).path("Plan");
+                return plan.has("Plan Rows") ? plan.get("Plan Rows").asLong() : null;
+            }
+        } catch (SQLException | IOException e) {
+            log.warn("Não foi possível estimar o total de linhas: {}", e.getMessage());
+            return null;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
@@ -1,22 +1,41 @@
 package com.victorqueiroga.serverwatch.service;
 
+import com.victorqueiroga.serverwatch.dto.KeysetPage;
+import com.victorqueiroga.serverwatch.dto.MetricAggregate;
+import com.victorqueiroga.serverwatch.dto.MetricSample;
 import com.victorqueiroga.serverwatch.model.Server;
 import com.victorqueiroga.serverwatch.model.ServerMetric;
+import com.victorqueiroga.serverwatch.model.ServerMetricLatest;
+import com.victorqueiroga.serverwatch.repository.ServerMetricLatestRepository;
 import com.victorqueiroga.serverwatch.repository.ServerMetricRepository;
+import com.victorqueiroga.serverwatch.repository.ServerRepository;
+import com.victorqueiroga.serverwatch.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Serviço para gerenciamento de métricas dos servidores
+ *
+ * As métricas das coletas SNMP são gravadas pelo {@link MetricIngestService}.
+ * Estatísticas por período são calculadas pelo {@link MetricRollupService},
+ * que combina agregados e amostras brutas. Históricos recentes vêm do
+ * {@link RecentMetricStore} quando a memória cobre o período; dias antigos
+ * podem estar compactados pelo {@link MetricCompactionService}. Os últimos
+ * valores de cada série vêm de {@code server_metric_latest}.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,13 +44,31 @@ import java.util.Optional;
 public class ServerMetricService {
 
     private final ServerMetricRepository serverMetricRepository;
+    private final MetricRollupService metricRollupService;
+    private final RecentMetricStore recentMetricStore;
+    private final ServerRepository serverRepository;
+    private final MetricCompactionService metricCompactionService;
+    private final ServerMetricLatestRepository serverMetricLatestRepository;
+    private final LatestMetricWriter latestMetricWriter;
+    private final RowCountEstimator rowCountEstimator;
 
     /**
-     * Lista todas as métricas com paginação
+     * Página de métricas, da mais recente para a mais antiga, paginada por
+     * (timestamp, id) a partir de um cursor opaco ({@link KeysetCursor})
+     *
+     * @param cursor token da página seguinte ou anterior; null para a primeira
+     * @param estimateTotal inclui o total estimado pelo planejador
+     * @throws IllegalArgumentException se o cursor for inválido
      */
     @Transactional(readOnly = true)
-    public Page<ServerMetric> findAll(Pageable pageable) {
-        return serverMetricRepository.findAll(pageable);
+    public KeysetPage<ServerMetric> findPage(String cursor, int size, boolean estimateTotal) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        KeysetCursor from = position != null ? position : KeysetCursor.HIGHEST;
+        List<ServerMetric> rows = from.backward()
+                ? serverMetricRepository.findAfter(from.position(), from.id(), Limit.of(size + 1))
+                : serverMetricRepository.findBefore(from.position(), from.id(), Limit.of(size + 1));
+        return KeysetPage.of(rows, size, position, ServerMetric::getTimestamp, ServerMetric::getId,
+                estimateTotal ? rowCountEstimator.estimate("SELECT 1 FROM server_metrics", List.of()) : null);
     }
 
     /**
@@ -51,11 +88,19 @@ public class ServerMetricService {
     }
 
     /**
-     * Busca métricas por servidor ID
+     * Página de métricas do servidor, como em {@link #findPage}
      */
     @Transactional(readOnly = true)
-    public Page<ServerMetric> findByServerId(Long serverId, Pageable pageable) {
-        return serverMetricRepository.findByServerId(serverId, pageable);
+    public KeysetPage<ServerMetric> findPageByServerId(Long serverId, String cursor, int size,
+            boolean estimateTotal) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        KeysetCursor from = position != null ? position : KeysetCursor.HIGHEST;
+        List<ServerMetric> rows = from.backward()
+                ? serverMetricRepository.findByServerIdAfter(serverId, from.position(), from.id(), Limit.of(size + 1))
+                : serverMetricRepository.findByServerIdBefore(serverId, from.position(), from.id(), Limit.of(size + 1));
+        return KeysetPage.of(rows, size, position, ServerMetric::getTimestamp, ServerMetric::getId,
+                estimateTotal ? rowCountEstimator.estimate("SELECT 1 FROM server_metrics WHERE server_id = ?",
+                        List.of(serverId)) : null);
     }
 
     /**
@@ -71,7 +116,9 @@ public class ServerMetricService {
      */
     @Transactional(readOnly = true)
     public Optional<ServerMetric> findLatestByServerAndMetricName(Server server, String metricName) {
-        return serverMetricRepository.findLatestByServerAndMetricName(server, metricName);
+        return serverMetricLatestRepository
+                .findFirstByServerIdAndMetricNameOrderByTimestampDesc(server.getId(), metricName)
+                .map(latest -> toMetric(server, latest));
     }
 
     /**
@@ -80,7 +127,9 @@ public class ServerMetricService {
     @Transactional(readOnly = true)
     public List<ServerMetric> findRecentMetrics(Long serverId) {
         LocalDateTime since = LocalDateTime.now().minusHours(1);
-        return serverMetricRepository.findRecentMetrics(serverId, since);
+        return recentMetricStore.find(serverId, null, since, null)
+                .map(series -> toMetrics(serverRepository.getReferenceById(serverId), series))
+                .orElseGet(() -> serverMetricRepository.findRecentMetrics(serverId, since));
     }
 
     /**
@@ -116,16 +165,18 @@ public class ServerMetricService {
     }
 
     /**
-     * Salva ou atualiza uma métrica
+     * Salva ou atualiza uma métrica, atualizando o último valor da série
      */
     public ServerMetric save(ServerMetric metric) {
         if (metric.getId() == null) {
-            // timestamp é automaticamente definido pela anotação @CreationTimestamp
+            // timestamp, se ausente, é definido no persist (@PrePersist)
             log.debug("Salvando nova métrica: {} para servidor: {}", 
                      metric.getMetricName(), metric.getServer().getName());
         }
-        
-        return serverMetricRepository.save(metric);
+
+        ServerMetric saved = serverMetricRepository.save(metric);
+        latestMetricWriter.upsert(List.of(MetricSample.fromEntity(saved)));
+        return saved;
     }
 
     /**
@@ -147,32 +198,11 @@ public class ServerMetricService {
         if (criticalThreshold != null) {
             metric.setCriticalThreshold(BigDecimal.valueOf(criticalThreshold));
         }
-        // timestamp é automaticamente definido pela anotação @CreationTimestamp
+        // timestamp é definido no persist (@PrePersist)
 
         return save(metric);
     }
 
-    /**
-     * Coleta métricas SNMP para um servidor
-     */
-    public List<ServerMetric> collectSnmpMetrics(Server server) {
-        log.info("Coletando métricas SNMP para servidor: {}", server.getName());
-        
-        // TODO: Implementar coleta SNMP real
-        // Por enquanto, simula algumas métricas
-        List<ServerMetric> metrics = List.of(
-            createMetric(server, "CPU_USAGE", 75.5, "%", 
-                        ServerMetric.MetricCategory.CPU, "1.3.6.1.4.1.2021.11.9.0", 80.0, 90.0),
-            createMetric(server, "MEMORY_USAGE", 82.3, "%", 
-                        ServerMetric.MetricCategory.MEMORY, "1.3.6.1.4.1.2021.4.5.0", 85.0, 95.0),
-            createMetric(server, "DISK_USAGE", 65.1, "%", 
-                        ServerMetric.MetricCategory.DISK, "1.3.6.1.4.1.2021.9.1.9.1", 80.0, 90.0)
-        );
-
-        log.info("Coletadas {} métricas para servidor: {}", metrics.size(), server.getName());
-        return metrics;
-    }
-
     /**
      * Exclui uma métrica
      */
@@ -186,12 +216,16 @@ public class ServerMetricService {
     }
 
     /**
-     * Remove métricas antigas (cleanup)
+     * Remove métricas antigas (cleanup). A retenção é por dia: as partições
+     * diárias anteriores ao corte são removidas inteiras (DROP), e apenas as
+     * linhas antigas que ainda estejam na partição default são apagadas.
      */
     public void cleanupOldMetrics(int daysOld) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
-        serverMetricRepository.deleteOldMetrics(cutoffDate);
-        log.info("Métricas antigas (mais de {} dias) removidas", daysOld);
+        LocalDate cutoffDay = LocalDate.now().minusDays(daysOld);
+        int droppedPartitions = serverMetricRepository.dropPartitionsBefore(cutoffDay);
+        int deletedRows = serverMetricRepository.deleteOldMetrics(cutoffDay.atStartOfDay());
+        log.info("Métricas antigas (mais de {} dias) removidas: {} partições, {} linhas avulsas",
+                daysOld, droppedPartitions, deletedRows);
     }
 
     /**
@@ -211,19 +245,28 @@ public class ServerMetricService {
     }
 
     /**
-     * Estatísticas de CPU
+     * Estatísticas de CPU: uma linha [média, mínimo, máximo, contagem]
      */
     @Transactional(readOnly = true)
     public List<Object[]> getCpuUsageStats(Long serverId, LocalDateTime since) {
-        return serverMetricRepository.getCpuUsageStats(serverId, since);
+        return List.<Object[]>of(statsRow(
+                metricRollupService.aggregateByMetric(serverId, since).get(MetricSample.CPU_USAGE)));
     }
 
     /**
-     * Estatísticas de memória
+     * Estatísticas de memória: uma linha [média, mínimo, máximo, contagem]
      */
     @Transactional(readOnly = true)
     public List<Object[]> getMemoryUsageStats(Long serverId, LocalDateTime since) {
-        return serverMetricRepository.getMemoryUsageStats(serverId, since);
+        return List.<Object[]>of(statsRow(
+                metricRollupService.aggregateByMetric(serverId, since).get(MetricSample.MEMORY_USAGE)));
+    }
+
+    private static Object[] statsRow(MetricAggregate aggregate) {
+        if (aggregate == null) {
+            return new Object[] { null, null, null, 0L };
+        }
+        return new Object[] { aggregate.average(), aggregate.min(), aggregate.max(), aggregate.count() };
     }
 
     /**
@@ -231,7 +274,7 @@ public class ServerMetricService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getDashboardMetrics() {
-        return serverMetricRepository.getDashboardMetrics();
+        return serverMetricLatestRepository.getDashboardMetrics();
     }
 
     /**
@@ -249,7 +292,31 @@ public class ServerMetricService {
     @Transactional(readOnly = true)
     public List<ServerMetric> findLatestMetricsByServerAndCategory(Long serverId, 
                                                                   ServerMetric.MetricCategory category) {
-        return serverMetricRepository.findLatestMetricsByServerAndCategory(serverId, category);
+        List<ServerMetricLatest> latest = serverMetricLatestRepository.findByServerIdAndCategory(serverId, category);
+        if (latest.isEmpty()) {
+            return List.of();
+        }
+        Server server = serverRepository.getReferenceById(serverId);
+        return latest.stream().map(metric -> toMetric(server, metric)).toList();
+    }
+
+    /**
+     * Converte o último valor de uma série em métrica (não persistida)
+     */
+    private static ServerMetric toMetric(Server server, ServerMetricLatest latest) {
+        ServerMetric metric = new ServerMetric();
+        metric.setServer(server);
+        metric.setMetricName(latest.getMetricName());
+        metric.setValue(latest.getValue());
+        metric.setUnit(latest.getUnit());
+        metric.setCategory(latest.getCategory());
+        metric.setSubcategory(latest.getSubcategory().isEmpty() ? null : latest.getSubcategory());
+        metric.setSnmpOid(latest.getSnmpOid());
+        metric.setTimestamp(latest.getTimestamp());
+        metric.setCritical(latest.isCritical());
+        metric.setWarningThreshold(latest.getWarningThreshold());
+        metric.setCriticalThreshold(latest.getCriticalThreshold());
+        return metric;
     }
 
     /**
@@ -257,7 +324,9 @@ public class ServerMetricService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getAverageMetricValues(Long serverId, LocalDateTime since) {
-        return serverMetricRepository.getAverageMetricValues(serverId, since);
+        return metricRollupService.aggregateByMetric(serverId, since).entrySet().stream()
+                .map(entry -> new Object[] { entry.getKey(), entry.getValue().average() })
+                .toList();
     }
 
     /**
@@ -265,7 +334,9 @@ public class ServerMetricService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getMaxMetricValues(Long serverId, LocalDateTime since) {
-        return serverMetricRepository.getMaxMetricValues(serverId, since);
+        return metricRollupService.aggregateByMetric(serverId, since).entrySet().stream()
+                .map(entry -> new Object[] { entry.getKey(), entry.getValue().max() })
+                .toList();
     }
 
     /**
@@ -273,7 +344,9 @@ public class ServerMetricService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getMinMetricValues(Long serverId, LocalDateTime since) {
-        return serverMetricRepository.getMinMetricValues(serverId, since);
+        return metricRollupService.aggregateByMetric(serverId, since).entrySet().stream()
+                .map(entry -> new Object[] { entry.getKey(), entry.getValue().min() })
+                .toList();
     }
 
     /**
@@ -290,10 +363,58 @@ public class ServerMetricService {
     @Transactional(readOnly = true)
     public List<ServerMetric> findMetricHistory(Server server, String metricName, int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        return serverMetricRepository.findByServerAndDateRange(server.getId(), since, LocalDateTime.now())
-                .stream()
-                .filter(metric -> metric.getMetricName().equals(metricName))
-                .toList();
+        return recentMetricStore.find(server.getId(), metricName, since, null)
+                .map(series -> toMetrics(server, series))
+                .orElseGet(() -> findStoredMetricHistory(server, metricName, since));
+    }
+
+    /**
+     * Histórico no banco: amostras brutas e, para dias já compactados, os
+     * pontos dos blocos
+     */
+    private List<ServerMetric> findStoredMetricHistory(Server server, String metricName, LocalDateTime since) {
+        List<ServerMetric> metrics = serverMetricRepository.findMetricSince(server.getId(), metricName, since);
+        List<ServerMetric> compacted = metricCompactionService.findMetrics(server, metricName, since,
+                LocalDateTime.now());
+        if (compacted.isEmpty()) {
+            return metrics;
+        }
+        List<ServerMetric> merged = new ArrayList<>(metrics);
+        merged.addAll(compacted);
+        merged.sort(Comparator.comparing(ServerMetric::getTimestamp).reversed());
+        return merged;
+    }
+
+    /**
+     * Converte as amostras em memória em métricas (não persistidas), da mais
+     * recente para a mais antiga, como nas consultas ao banco
+     */
+    private static List<ServerMetric> toMetrics(Server server, List<RecentMetricStore.SeriesData> series) {
+        List<ServerMetric> metrics = new ArrayList<>();
+        for (RecentMetricStore.SeriesData data : series) {
+            for (int i = 0; i < data.size(); i++) {
+                ServerMetric metric = new ServerMetric();
+                metric.setServer(server);
+                metric.setMetricName(data.metricName());
+                metric.setValue(BigDecimal.valueOf(data.value(i)).setScale(4, RoundingMode.HALF_UP));
+                metric.setUnit(data.unit());
+                metric.setCategory(data.category());
+                metric.setSubcategory(data.subcategory().isEmpty() ? null : data.subcategory());
+                metric.setTimestamp(data.timestamp(i));
+                Double warningThreshold = data.warningThreshold(i);
+                if (warningThreshold != null) {
+                    metric.setWarningThreshold(BigDecimal.valueOf(warningThreshold));
+                }
+                Double criticalThreshold = data.criticalThreshold(i);
+                if (criticalThreshold != null) {
+                    metric.setCriticalThreshold(BigDecimal.valueOf(criticalThreshold));
+                }
+                metric.setCritical(metric.isCritical());
+                metrics.add(metric);
+            }
+        }
+        metrics.sort(Comparator.comparing(ServerMetric::getTimestamp).reversed());
+        return metrics;
     }
 
     /**
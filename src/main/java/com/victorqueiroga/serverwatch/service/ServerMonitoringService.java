@@ -3,12 +3,14 @@ package com.victorqueiroga.serverwatch.service;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import org.snmp4j.smi.OID;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -16,9 +18,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
 import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
 import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+import com.victorqueiroga.serverwatch.utils.SnmpCredentials;
 import com.victorqueiroga.serverwatch.utils.SnmpHelper;
+import com.victorqueiroga.serverwatch.utils.SnmpRateLimit;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -47,6 +53,15 @@ public class ServerMonitoringService {
     @Autowired
     private CacheService cacheService;
 
+    @Autowired
+    private ServerWatchProperties serverWatchProperties;
+
+    @Autowired
+    private MetricIngestService metricIngestService;
+
+    @Autowired
+    private AlertRuleEngine alertRuleEngine;
+
     /**
      * Limpa o cache forçando nova coleta SNMP na próxima consulta
      */
@@ -301,14 +316,41 @@ public class ServerMonitoringService {
     }
 
     /**
-     * Coleta métricas SNMP de um servidor
+     * Coleta métricas SNMP de um servidor, avalia as regras de alerta e
+     * enfileira o resultado para gravação no histórico
      */
     private ServerStatusDto collectServerMetrics(Server server) {
+        ServerStatusDto status = collectServerMetrics(server,
+                new SnmpHelper(server.getIpAddress(), SnmpCredentials.fromServer(server), rateLimitFor(server)));
+        int breached = alertRuleEngine.evaluate(status);
+        if (status.isOnline() && alertRuleEngine.isLoaded()) {
+            // A avaliação completa (com as condições em janela) substitui a dos limites
+            status.setStatus(breached > 0 ? "WARNING" : "ONLINE");
+        }
+        metricIngestService.submit(status, alertRuleEngine.ruleSetFor(status));
+        return status;
+    }
+
+    /**
+     * Limite de carga SNMP configurado para o tipo de SO do servidor
+     */
+    private SnmpRateLimit rateLimitFor(Server server) {
+        String osName = server.getOperationSystem() != null ? server.getOperationSystem().getName() : null;
+        ServerWatchProperties.Monitoring.RateLimit limit = serverWatchProperties.getMonitoring().getSnmp()
+                .rateLimitFor(osName);
+        return new SnmpRateLimit(limit.getRequestsPerSecond(), limit.getBurst(), limit.getMaxInFlight(),
+                limit.getAcquireTimeoutMillis());
+    }
+
+    /**
+     * Coleta métricas SNMP de um servidor usando o helper informado (permite
+     * apontar para agentes em porta não padrão, como nos benchmarks)
+     */
+    public ServerStatusDto collectServerMetrics(Server server, SnmpHelper snmp) {
         log.info("=== Iniciando coleta SNMP para servidor: {} [{}] ===",
                 server.getName(), server.getIpAddress());
 
         ServerStatusDto status = ServerStatusDto.fromServer(server);
-        SnmpHelper snmp = new SnmpHelper(server.getIpAddress(), DEFAULT_COMMUNITY);
 
         try {
             // Testa conectividade básica primeiro
@@ -339,10 +381,11 @@ public class ServerMonitoringService {
             // Calcula percentuais
             status.calculateMemoryUsage();
             status.calculateDiskUsage();
-            status.calculateCriticalDiskLetters();
 
-            // Determina status final
-            status.determineStatus();
+            // Discos críticos e status final pelos limites das regras de alerta
+            RuleSet rules = alertRuleEngine.ruleSetFor(status);
+            status.calculateCriticalDiskLetters(rules);
+            status.determineStatus(rules);
 
             log.info("=== Coleta SNMP concluída para {}: Status={}, CPU={}, Mem={}%, Disk={}% ===",
                     server.getName(), status.getStatus(), status.getCpuLoad1Min(),
@@ -373,15 +416,11 @@ public class ServerMonitoringService {
             status.setHostname(hostname);
             log.debug("Hostname: {}", hostname);
 
-            // Converte uptime de centésimos de segundo para formato legível
-            String uptimeStr = snmp.getUptime();
-            if (uptimeStr != null && !uptimeStr.isEmpty()) {
-                long uptimeCentiseconds = Long.parseLong(uptimeStr);
-                long uptimeSeconds = uptimeCentiseconds / 100;
-                String formattedUptime = formatUptime(uptimeSeconds);
-                status.setUptime(formattedUptime);
-                log.debug("Uptime: {} segundos = {}", uptimeSeconds, formattedUptime);
-            }
+            // Converte uptime (TimeTicks, centésimos de segundo) para formato legível
+            long uptimeSeconds = snmp.getUptimeCentiseconds() / 100;
+            String formattedUptime = formatUptime(uptimeSeconds);
+            status.setUptime(formattedUptime);
+            log.debug("Uptime: {} segundos = {}", uptimeSeconds, formattedUptime);
         } catch (Exception e) {
             log.warn("Erro ao coletar info do sistema: {}", e.getMessage());
         }
@@ -394,40 +433,26 @@ public class ServerMonitoringService {
         log.debug("=== Coletando métricas de CPU (método inteligente por SO) ===");
 
         try {
-            String cpuValue = snmp.getCpuUsagePercent().toString();
-            if (cpuValue != null && !cpuValue.trim().isEmpty()) {
-                Double cpuLoad = parseDoubleValue(cpuValue);
-                if (cpuLoad != null) {
-                    status.setCpuLoad1Min(cpuLoad);
-                    log.info("✅ CPU coletada com método inteligente! Valor: {} -> {}", cpuValue, cpuLoad);
-                } else {
-                    log.warn("⚠️ CPU valor não numérico: {}", cpuValue);
-                }
-            } else {
-                log.warn("⚠️ CPU Load não disponível via método inteligente");
-            }
+            double cpuLoad = snmp.getCpuUsagePercent();
+            status.setCpuLoad1Min(cpuLoad);
+            log.info("✅ CPU coletada com método inteligente! Valor: {}", cpuLoad);
         } catch (Exception e) {
             log.warn("❌ Erro ao coletar CPU via método inteligente: {}", e.getMessage());
 
             // Fallback para método manual
             log.debug("Tentando fallback manual para CPU...");
-            String[] cpuOids = {
-                SnmpHelper.OID_HR_PROCESSOR_LOAD + ".1", // Host Resources
-                SnmpHelper.OID_CPU_LOAD_1MIN, // Net-SNMP Linux
-                "1.3.6.1.4.1.2021.11.10.0" // Net-SNMP CPU user
+            OID[] cpuOids = {
+                new OID(SnmpHelper.OID_HR_PROCESSOR_LOAD + ".1"), // Host Resources
+                new OID(SnmpHelper.OID_CPU_LOAD_1MIN), // Net-SNMP Linux
+                new OID(SnmpHelper.OID_SS_CPU_SYSTEM_PERCENT) // Net-SNMP CPU system
             };
 
-            for (String oid : cpuOids) {
+            for (OID oid : cpuOids) {
                 try {
-                    String value = snmp.getAsString(oid);
-                    if (value != null && !value.contains("noSuch")) {
-                        Double cpuLoad = parseDoubleValue(value);
-                        if (cpuLoad != null) {
-                            status.setCpuLoad1Min(cpuLoad);
-                            log.info("✅ CPU coletada com fallback! OID: {} = {}", oid, cpuLoad);
-                            return;
-                        }
-                    }
+                    double cpuLoad = snmp.getDouble(oid);
+                    status.setCpuLoad1Min(cpuLoad);
+                    log.info("✅ CPU coletada com fallback! OID: {} = {}", oid, cpuLoad);
+                    return;
                 } catch (Exception ex) {
                     log.debug("❌ Fallback OID {} falhou: {}", oid, ex.getMessage());
                 }
@@ -444,54 +469,31 @@ public class ServerMonitoringService {
         log.debug("=== Coletando métricas de MEMÓRIA (métodos inteligentes por SO) ===");
 
         try {
-            // Memória Total
-            String memTotalValue = snmp.getMemoryTotal();
-            if (memTotalValue != null && !memTotalValue.trim().isEmpty()) {
-                Long totalKB = Long.parseLong(memTotalValue.trim());
-                Long totalMB = totalKB / 1024;
-                status.setMemoryTotal(totalMB);
-                log.info("✅ Memória TOTAL coletada via método inteligente! {} KB = {} MB", totalKB, totalMB);
-            } else {
-                log.warn("⚠️ Memória TOTAL não disponível via método inteligente");
-            }
+            // Uma única varredura para total/usada/disponível (valores em KB)
+            SnmpHelper.MemoryReading memory = snmp.readMemory();
+
+            long totalMB = memory.getTotalKB() / 1024;
+            status.setMemoryTotal(totalMB);
+            log.info("✅ Memória TOTAL coletada via método inteligente! {} KB = {} MB", memory.getTotalKB(), totalMB);
 
-            // Memória Usada
-            String memUsedValue = snmp.getMemoryUsed();
-            if (memUsedValue != null && !memUsedValue.trim().isEmpty()) {
-                Long usedKB = Long.parseLong(memUsedValue.trim());
-                Long usedMB = usedKB / 1024;
+            if (memory.getUsedKB() != SnmpHelper.NOT_AVAILABLE) {
+                long usedMB = memory.getUsedKB() / 1024;
                 status.setMemoryUsed(usedMB);
-                log.info("✅ Memória USADA coletada via método inteligente! {} KB = {} MB", usedKB, usedMB);
+                log.info("✅ Memória USADA coletada via método inteligente! {} KB = {} MB", memory.getUsedKB(), usedMB);
             } else {
                 log.warn("⚠️ Memória USADA não disponível via método inteligente");
             }
 
-            // Memória Disponível
-            String memAvailValue = snmp.getMemoryAvailable();
-            if (memAvailValue != null && !memAvailValue.trim().isEmpty()) {
-                Long availKB = Long.parseLong(memAvailValue.trim());
-                Long availMB = availKB / 1024;
+            if (memory.getAvailableKB() != SnmpHelper.NOT_AVAILABLE) {
+                long availMB = memory.getAvailableKB() / 1024;
                 status.setMemoryAvailable(availMB);
-                log.info("✅ Memória DISPONÍVEL coletada via método inteligente! {} KB = {} MB", availKB, availMB);
+                log.info("✅ Memória DISPONÍVEL coletada via método inteligente! {} KB = {} MB", memory.getAvailableKB(), availMB);
             } else {
                 log.warn("⚠️ Memória DISPONÍVEL não disponível via método inteligente");
             }
 
         } catch (Exception e) {
             log.error("❌ Erro ao coletar memória via métodos inteligentes: {}", e.getMessage());
-
-            // Fallback para coleta manual
-            log.debug("Tentando fallback manual para memória...");
-            try {
-                String totalValue = snmp.getAsString(SnmpHelper.OID_MEM_TOTAL_REAL);
-                if (totalValue != null && !totalValue.contains("noSuch")) {
-                    Long totalKB = Long.parseLong(totalValue.trim());
-                    status.setMemoryTotal(totalKB / 1024);
-                    log.info("✅ Memória TOTAL via fallback: {} KB", totalKB);
-                }
-            } catch (Exception ex) {
-                log.debug("❌ Fallback memória total falhou: {}", ex.getMessage());
-            }
         }
 
         if (status.getMemoryTotal() == null || status.getMemoryTotal() == 0) {
@@ -552,11 +554,10 @@ public class ServerMonitoringService {
         log.debug("Usando fallback para disco único...");
 
         try {
-            // Disco Total
+            // Disco Total (KB)
             String diskTotalValue = snmp.getDiskTotal();
-            if (diskTotalValue != null && !diskTotalValue.trim().isEmpty()) {
-                Long totalKB = Long.parseLong(diskTotalValue.trim());
-                Long totalGB = totalKB / (1024 * 1024);
+            if (diskTotalValue != null) {
+                long totalGB = Long.parseLong(diskTotalValue) / (1024 * 1024);
                 status.setDiskTotal(totalGB);
                 log.info("✅ Disco TOTAL (fallback): {} GB", totalGB);
             }
@@ -569,23 +570,6 @@ public class ServerMonitoringService {
         }
     }
 
-    /**
-     * Converte string para double, tratando diferentes formatos
-     */
-    private Double parseDoubleValue(String value) {
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            // Tenta remover caracteres não numéricos
-            String cleanValue = value.replaceAll("[^0-9.]", "");
-            try {
-                return Double.parseDouble(cleanValue);
-            } catch (NumberFormatException ex) {
-                return null;
-            }
-        }
-    }
-
     /**
      * Formata uptime em formato legível
      */
@@ -611,7 +595,11 @@ public class ServerMonitoringService {
         StringBuilder result = new StringBuilder();
         result.append("=== TESTE SNMP DETALHADO PARA: ").append(serverIp).append(" ===\n\n");
 
-        SnmpHelper snmp = new SnmpHelper(serverIp, DEFAULT_COMMUNITY);
+        // Usa as credenciais e o limite cadastrados (v2c/v3) quando o IP pertence a um servidor
+        Optional<Server> registered = serverService.findByIpAddress(serverIp);
+        SnmpHelper snmp = registered
+                .map(server -> new SnmpHelper(serverIp, SnmpCredentials.fromServer(server), rateLimitFor(server)))
+                .orElseGet(() -> new SnmpHelper(serverIp, DEFAULT_COMMUNITY));
 
         // Testa OIDs básicos
         String[] basicOids = {
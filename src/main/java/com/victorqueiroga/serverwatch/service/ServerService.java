@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.victorqueiroga.serverwatch.model.OperationSystem;
@@ -29,6 +30,7 @@ public class ServerService {
 
     private final ServerRepository serverRepository;
     private final OperationSystemRepository operationSystemRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Busca todos os servidores com paginação
@@ -41,11 +43,11 @@ public class ServerService {
     
 
     /**
-     * Busca todos os servidores sem paginação
+     * Busca todos os servidores sem paginação (em memória; lista imutável)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Server> findAll() {
-        log.debug("Buscando todos os servidores");
-        return serverRepository.findAll();
+        return referenceDataCache.servers();
     }
 
     /**
@@ -96,6 +98,11 @@ public class ServerService {
     public Server save(Server server) {
         log.info("Salvando servidor: {}", server.getName());
 
+        if (server.getId() != null) {
+            serverRepository.findById(server.getId()).ifPresent(existing -> keepSnmpSecrets(server, existing));
+        }
+        server.clearUnusedSnmpSecrets();
+
         // Validações básicas
         validateServer(server);
 
@@ -112,6 +119,7 @@ public class ServerService {
         }
 
         Server savedServer = serverRepository.save(server);
+        referenceDataCache.invalidate();
         log.info("Servidor salvo com sucesso - ID: {}, Nome: {}", savedServer.getId(), savedServer.getName());
 
         return savedServer;
@@ -129,6 +137,7 @@ public class ServerService {
         }
 
         serverRepository.deleteById(id);
+        referenceDataCache.invalidate();
         log.info("Servidor deletado com sucesso - ID: {}", id);
     }
 
@@ -154,11 +163,12 @@ public class ServerService {
     }
 
     /**
-     * Busca todos os sistemas operacionais disponíveis
+     * Busca todos os sistemas operacionais disponíveis (em memória; lista
+     * imutável)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<OperationSystem> findAllOperationSystems() {
-        log.debug("Buscando todos os sistemas operacionais");
-        return operationSystemRepository.findAll();
+        return referenceDataCache.operationSystems();
     }
 
     /**
@@ -169,6 +179,26 @@ public class ServerService {
         return operationSystemRepository.findById(id);
     }
 
+    /**
+     * Community e senhas SNMP não são exibidas no formulário/API: valores em
+     * branco na edição mantêm os atuais
+     */
+    private void keepSnmpSecrets(Server server, Server existing) {
+        if (isBlank(server.getSnmpCommunity())) {
+            server.setSnmpCommunity(existing.getSnmpCommunity());
+        }
+        if (isBlank(server.getSnmpAuthPassphrase())) {
+            server.setSnmpAuthPassphrase(existing.getSnmpAuthPassphrase());
+        }
+        if (isBlank(server.getSnmpPrivPassphrase())) {
+            server.setSnmpPrivPassphrase(existing.getSnmpPrivPassphrase());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
     /**
      * Valida os dados do servidor
      */
@@ -193,6 +223,43 @@ public class ServerService {
         if (!isValidIpAddress(server.getIpAddress())) {
             throw new IllegalArgumentException("Endereço IP inválido: " + server.getIpAddress());
         }
+
+        validateSnmpSettings(server);
+    }
+
+    /**
+     * Valida as credenciais SNMP (v3 exige usuário; privacidade exige
+     * autenticação)
+     */
+    private void validateSnmpSettings(Server server) {
+        if (server.getSnmpPort() != null && (server.getSnmpPort() < 1 || server.getSnmpPort() > 65535)) {
+            throw new IllegalArgumentException("Porta SNMP inválida: " + server.getSnmpPort());
+        }
+
+        if (server.getSnmpVersion() != Server.SnmpVersion.V3) {
+            return;
+        }
+
+        if (isBlank(server.getSnmpSecurityName())) {
+            throw new IllegalArgumentException("Usuário SNMPv3 é obrigatório");
+        }
+
+        if (server.getSnmpPrivProtocol() != null && server.getSnmpAuthProtocol() == null) {
+            throw new IllegalArgumentException("Privacidade SNMPv3 exige protocolo de autenticação");
+        }
+
+        // RFC 3414: senhas com menos de 8 caracteres não são aceitas pelos agentes
+        if (server.getSnmpAuthProtocol() != null && !hasMinLength(server.getSnmpAuthPassphrase())) {
+            throw new IllegalArgumentException("Senha de autenticação SNMPv3 deve ter ao menos 8 caracteres");
+        }
+
+        if (server.getSnmpPrivProtocol() != null && !hasMinLength(server.getSnmpPrivPassphrase())) {
+            throw new IllegalArgumentException("Senha de privacidade SNMPv3 deve ter ao menos 8 caracteres");
+        }
+    }
+
+    private static boolean hasMinLength(String passphrase) {
+        return passphrase != null && passphrase.length() >= 8;
     }
 
     /**
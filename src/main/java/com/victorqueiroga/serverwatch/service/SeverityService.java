@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -21,13 +22,15 @@ import java.util.Optional;
 public class SeverityService {
 
     private final SeverityRepository severityRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
-     * Lista todas as severidades ordenadas por nível
+     * Lista todas as severidades ordenadas por nível (em memória; lista
+     * imutável)
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Severity> findAll() {
-        return severityRepository.findAllByOrderByLevel();
+        return referenceDataCache.severities();
     }
 
     /**
@@ -119,8 +122,10 @@ public class SeverityService {
         } else {
             log.info("Atualizando severidade ID: {}", severity.getId());
         }
-        
-        return severityRepository.save(severity);
+
+        Severity saved = severityRepository.save(severity);
+        referenceDataCache.invalidate();
+        return saved;
     }
 
     /**
@@ -165,6 +170,7 @@ public class SeverityService {
             }
             
             severityRepository.deleteById(id);
+            referenceDataCache.invalidate();
             log.info("Severidade ID: {} excluída", id);
         } else {
             throw new RuntimeException("Severidade não encontrada com ID: " + id);
@@ -0,0 +1,102 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limitador de um agente SNMP: token bucket (taxa + rajada) e semáforo de
+ * requisições simultâneas.
+ *
+ * O bucket é implementado por reserva: cada requisição reserva o próximo
+ * instante livre e espera fora do lock até ele, de modo que chamadas
+ * concorrentes ficam espaçadas sem polling.
+ */
+final class AgentRateLimiter {
+
+    private final SnmpRateLimit limit;
+    private final long intervalNanos;
+    private final Semaphore inFlight;
+
+    // Próximo instante livre do bucket (guardado por this)
+    private long nextFreeNanos = Long.MIN_VALUE;
+
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private final AtomicLong rejectedRequests = new AtomicLong();
+
+    AgentRateLimiter(SnmpRateLimit limit) {
+        this.limit = limit;
+        this.intervalNanos = limit.intervalNanos();
+        this.inFlight = new Semaphore(limit.getMaxInFlight(), true);
+    }
+
+    SnmpRateLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Aguarda vaga e token para uma requisição. Deve ser seguido de
+     * {@link #release()} ao término da requisição.
+     *
+     * @throws RuntimeException se não houver vaga dentro do tempo limite
+     */
+    void acquire(Object address) {
+        try {
+            if (!inFlight.tryAcquire(limit.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                rejectedRequests.incrementAndGet();
+                throw new RuntimeException("Limite de requisições SNMP simultâneas atingido para " + address
+                        + " (" + limit.getMaxInFlight() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando vaga SNMP para " + address, e);
+        }
+
+        long waitNanos = reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            throttledRequests.incrementAndGet();
+            long deadline = System.nanoTime() + waitNanos;
+            long remaining = waitNanos;
+            while (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.interrupted()) {
+                    inFlight.release();
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrompido aguardando token SNMP para " + address);
+                }
+                remaining = deadline - System.nanoTime();
+            }
+        }
+    }
+
+    void release() {
+        inFlight.release();
+    }
+
+    /**
+     * Reserva o próximo token e retorna quanto esperar por ele. Após um
+     * período ocioso, até {@code burst} requisições passam sem espera.
+     */
+    private synchronized long reserve(long now) {
+        long earliest = now - (limit.getBurst() - 1) * intervalNanos;
+        if (nextFreeNanos == Long.MIN_VALUE || nextFreeNanos - earliest < 0) {
+            nextFreeNanos = earliest;
+        }
+        long wait = Math.max(0, nextFreeNanos - now);
+        nextFreeNanos += intervalNanos;
+        return wait;
+    }
+
+    long getThrottledRequests() {
+        return throttledRequests.get();
+    }
+
+    long getRejectedRequests() {
+        return rejectedRequests.get();
+    }
+
+    int getInFlight() {
+        return limit.getMaxInFlight() - inFlight.availablePermits();
+    }
+}
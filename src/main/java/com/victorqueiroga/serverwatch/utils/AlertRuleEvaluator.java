@@ -0,0 +1,294 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.victorqueiroga.serverwatch.dto.AlertRuleEvent;
+import com.victorqueiroga.serverwatch.dto.DiskInfoDto;
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+import com.victorqueiroga.serverwatch.model.AlertRule.RuleMetric;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.Rule;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+
+/**
+ * Avaliação das regras compiladas contra cada snapshot coletado.
+ *
+ * Guarda, por servidor, a regra violada em cada série (disponibilidade, CPU,
+ * memória e cada disco) e emite um {@link AlertRuleEvent} só quando esse
+ * estado muda. Sem mudança de estado a avaliação não aloca: lê os valores do
+ * snapshot, percorre os vetores do {@link RuleSet} e compara referências.
+ * Regras com condição em janela ou histerese têm, por série, um
+ * {@link WindowedCondition} atualizado a cada amostra, criado quando a série
+ * passa a ser avaliada por um novo conjunto de regras.
+ * As regras podem ser trocadas a qualquer momento ({@link #setRules}); o
+ * estado das séries é mantido. O último valor de cada série violada é
+ * guardado e emitido sob demanda ({@link #emitBreached()}), para que o valor
+ * atual dos alertas seja gravado em lote, e não a cada coleta.
+ * Com a resolução automática habilitada, as séries sem regra violada são
+ * acompanhadas: quando uma série permanece do lado de recuperação de todas
+ * as regras da métrica ({@code recovery_threshold}, ou o próprio limite sem
+ * histerese; nas regras RATE_OF_CHANGE, a taxa de variação) por
+ * {@code recoveryMillis} sem interrupção, é emitido um RECOVERED para a regra
+ * que estava violada, se a série voltou ao normal (CLOSED) nesse período. A
+ * cada novo período normal, também é emitido um RECOVERED para as séries com
+ * alerta aberto ({@code openAlert}), que não passaram por CLOSED: alertas
+ * abertos antes de uma reinicialização ou cujo RECOVERED foi descartado.
+ */
+public class AlertRuleEvaluator {
+
+    private static final int AVAILABILITY_SLOT = 0;
+    private static final int CPU_SLOT = 1;
+    private static final int MEMORY_SLOT = 2;
+    private static final int FIRST_DISK_SLOT = 3;
+
+    private final Consumer<AlertRuleEvent> listener;
+    private final long recoveryMillis;
+    private final Predicate<AlertRuleEvent> openAlert;
+    private final ConcurrentHashMap<Long, ServerState> states = new ConcurrentHashMap<>();
+    private volatile CompiledAlertRules rules = CompiledAlertRules.EMPTY;
+
+    public AlertRuleEvaluator(Consumer<AlertRuleEvent> listener) {
+        this(listener, -1);
+    }
+
+    /**
+     * @param recoveryMillis tempo do lado de recuperação para emitir
+     *                       RECOVERED; negativo desabilita
+     */
+    public AlertRuleEvaluator(Consumer<AlertRuleEvent> listener, long recoveryMillis) {
+        this(listener, recoveryMillis, event -> false);
+    }
+
+    /**
+     * @param recoveryMillis tempo do lado de recuperação para emitir
+     *                       RECOVERED; negativo desabilita
+     * @param openAlert      indica se a série do RECOVERED tem alerta aberto,
+     *                       para as séries que não passaram por CLOSED
+     */
+    public AlertRuleEvaluator(Consumer<AlertRuleEvent> listener, long recoveryMillis,
+            Predicate<AlertRuleEvent> openAlert) {
+        this.listener = listener;
+        this.recoveryMillis = recoveryMillis;
+        this.openAlert = openAlert;
+    }
+
+    public void setRules(CompiledAlertRules rules) {
+        this.rules = rules;
+    }
+
+    public CompiledAlertRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Avalia o snapshot de um servidor
+     *
+     * @return número de séries violando alguma regra
+     */
+    public int evaluate(ServerStatusDto status) {
+        Long serverId = status.getServerId();
+        if (serverId == null) {
+            return 0;
+        }
+        RuleSet set = rules.ruleSetFor(serverId, status.getOperatingSystem());
+        ServerState state = states.get(serverId);
+        if (state == null) {
+            state = states.computeIfAbsent(serverId, ServerState::new);
+        }
+
+        synchronized (state) {
+            state.serverName = status.getServerName();
+            state.lastCheck = status.getLastCheck();
+            state.timestamp = status.getLastCheck() != null
+                    ? status.getLastCheck().toInstant(ZoneOffset.UTC).toEpochMilli()
+                    : Math.max(state.timestamp, System.currentTimeMillis());
+            int breached = check(state, set, status, AVAILABILITY_SLOT, RuleMetric.AVAILABILITY,
+                    status.isOnline() ? 1 : 0, null);
+            if (!status.isOnline()) {
+                // Sem coleta, as demais séries mantêm o último estado
+                return breached;
+            }
+            Double cpu = status.getCpuLoad1Min();
+            if (cpu != null) {
+                breached += check(state, set, status, CPU_SLOT, RuleMetric.CPU_USAGE, cpu, null);
+            }
+            Double memory = status.getMemoryUsagePercent();
+            if (memory != null) {
+                breached += check(state, set, status, MEMORY_SLOT, RuleMetric.MEMORY_USAGE, memory, null);
+            }
+            List<DiskInfoDto> disks = status.getDiskList();
+            if (disks != null && set.hasRules(RuleMetric.DISK_USAGE)) {
+                for (int i = 0; i < disks.size(); i++) {
+                    DiskInfoDto disk = disks.get(i);
+                    Double usage = disk.getUsagePercent();
+                    if (usage != null && disk.getPath() != null) {
+                        breached += check(state, set, status, state.diskSlot(disk.getPath()),
+                                RuleMetric.DISK_USAGE, usage, disk.getPath());
+                    }
+                }
+            }
+            return breached;
+        }
+    }
+
+    private int check(ServerState state, RuleSet set, ServerStatusDto status, int slot, RuleMetric metric,
+            double value, String subcategory) {
+        Rule rule;
+        if (set.isStateful(metric)) {
+            if (state.sets[slot] != set) {
+                state.conditions[slot] = set.conditionsFor(metric, state.conditions[slot]);
+                state.sets[slot] = set;
+            }
+            rule = set.firstBreached(metric, value, state.timestamp, state.conditions[slot]);
+        } else {
+            rule = set.firstBreached(metric, value);
+        }
+        Rule open = state.open[slot];
+        state.open[slot] = rule;
+        state.values[slot] = value;
+        if (rule == null) {
+            if (open != null) {
+                emit(AlertRuleEvent.Type.CLOSED, status, open, subcategory, value);
+                if (recoveryMillis >= 0) {
+                    state.recovering[slot] = open;
+                }
+            }
+            if (recoveryMillis >= 0) {
+                checkRecovery(state, set, status, slot, metric, value, subcategory);
+            }
+            return 0;
+        }
+        state.recovering[slot] = null;
+        state.recoveringSince[slot] = -1;
+        if (open == null) {
+            emit(AlertRuleEvent.Type.OPENED, status, rule, subcategory, value);
+        } else if (open.id() != rule.id()) {
+            emit(AlertRuleEvent.Type.CHANGED, status, rule, subcategory, value);
+        }
+        return 1;
+    }
+
+    /**
+     * Série sem regra violada: conta o tempo contínuo do lado de recuperação
+     * e, a cada {@code recoveryMillis}, emite os RECOVERED
+     */
+    private void checkRecovery(ServerState state, RuleSet set, ServerStatusDto status, int slot, RuleMetric metric,
+            double value, String subcategory) {
+        if (!set.isRecovered(metric, value, set.isStateful(metric) ? state.conditions[slot] : null)) {
+            state.recoveringSince[slot] = -1;
+            return;
+        }
+        if (state.recoveringSince[slot] < 0) {
+            state.recoveringSince[slot] = state.timestamp;
+        }
+        if (state.timestamp - state.recoveringSince[slot] < recoveryMillis) {
+            return;
+        }
+        // Próximo período normal começa agora
+        state.recoveringSince[slot] = state.timestamp;
+        Rule closed = state.recovering[slot];
+        state.recovering[slot] = null;
+        if (closed != null) {
+            emit(AlertRuleEvent.Type.RECOVERED, status, closed, subcategory, value);
+        }
+        List<Rule> rules = set.recoveryRules(metric);
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            if (closed == null || rule.alertType() != closed.alertType()) {
+                AlertRuleEvent event = event(AlertRuleEvent.Type.RECOVERED, status, rule, subcategory, value);
+                if (openAlert.test(event)) {
+                    listener.accept(event);
+                }
+            }
+        }
+    }
+
+    private void emit(AlertRuleEvent.Type type, ServerStatusDto status, Rule rule, String subcategory, double value) {
+        listener.accept(event(type, status, rule, subcategory, value));
+    }
+
+    private static AlertRuleEvent event(AlertRuleEvent.Type type, ServerStatusDto status, Rule rule,
+            String subcategory, double value) {
+        LocalDateTime timestamp = status.getLastCheck() != null ? status.getLastCheck() : LocalDateTime.now();
+        return new AlertRuleEvent(type, status.getServerId(), status.getServerName(), rule, subcategory, value,
+                timestamp);
+    }
+
+    /**
+     * Emite um evento VALUE com o último valor de cada série que continua
+     * violando uma regra
+     *
+     * @return número de eventos emitidos
+     */
+    public int emitBreached() {
+        int emitted = 0;
+        for (ServerState state : states.values()) {
+            synchronized (state) {
+                LocalDateTime timestamp = state.lastCheck != null ? state.lastCheck : LocalDateTime.now();
+                for (int slot = 0; slot < FIRST_DISK_SLOT + state.disks; slot++) {
+                    Rule rule = state.open[slot];
+                    if (rule != null) {
+                        String subcategory = slot >= FIRST_DISK_SLOT ? state.diskPaths[slot - FIRST_DISK_SLOT] : null;
+                        listener.accept(new AlertRuleEvent(AlertRuleEvent.Type.VALUE, state.serverId,
+                                state.serverName, rule, subcategory, state.values[slot], timestamp));
+                        emitted++;
+                    }
+                }
+            }
+        }
+        return emitted;
+    }
+
+    /**
+     * Regra violada, último valor, condições em janela e recuperação de cada
+     * série de um servidor. Os discos ganham uma posição na primeira vez em que aparecem.
+     */
+    private static final class ServerState {
+
+        private final Long serverId;
+        private String serverName;
+        private LocalDateTime lastCheck;
+        private long timestamp;
+        private Rule[] open = new Rule[FIRST_DISK_SLOT + 4];
+        private double[] values = new double[FIRST_DISK_SLOT + 4];
+        // Regra que voltou ao normal (CLOSED) ainda sem RECOVERED e início do
+        // período contínuo do lado de recuperação (-1 fora dele)
+        private Rule[] recovering = new Rule[FIRST_DISK_SLOT + 4];
+        private long[] recoveringSince = new long[FIRST_DISK_SLOT + 4];
+        // Conjunto de regras para o qual as condições da série foram criadas
+        private RuleSet[] sets = new RuleSet[FIRST_DISK_SLOT + 4];
+        private WindowedCondition[][] conditions = new WindowedCondition[FIRST_DISK_SLOT + 4][];
+        private String[] diskPaths = new String[4];
+        private int disks;
+
+        ServerState(Long serverId) {
+            this.serverId = serverId;
+            Arrays.fill(recoveringSince, -1);
+        }
+
+        int diskSlot(String path) {
+            for (int i = 0; i < disks; i++) {
+                if (diskPaths[i].equals(path)) {
+                    return FIRST_DISK_SLOT + i;
+                }
+            }
+            if (disks == diskPaths.length) {
+                diskPaths = Arrays.copyOf(diskPaths, disks * 2);
+                open = Arrays.copyOf(open, FIRST_DISK_SLOT + disks * 2);
+                values = Arrays.copyOf(values, FIRST_DISK_SLOT + disks * 2);
+                recovering = Arrays.copyOf(recovering, FIRST_DISK_SLOT + disks * 2);
+                recoveringSince = Arrays.copyOf(recoveringSince, FIRST_DISK_SLOT + disks * 2);
+                Arrays.fill(recoveringSince, FIRST_DISK_SLOT + disks, recoveringSince.length, -1);
+                sets = Arrays.copyOf(sets, FIRST_DISK_SLOT + disks * 2);
+                conditions = Arrays.copyOf(conditions, FIRST_DISK_SLOT + disks * 2);
+            }
+            diskPaths[disks] = path;
+            return FIRST_DISK_SLOT + disks++;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.victorqueiroga.serverwatch.model.Alert;
+import com.victorqueiroga.serverwatch.model.AlertRule;
+import com.victorqueiroga.serverwatch.model.AlertRule.Condition;
+import com.victorqueiroga.serverwatch.model.AlertRule.Operator;
+import com.victorqueiroga.serverwatch.model.AlertRule.RuleMetric;
+
+/**
+ * Regras de alerta compiladas para avaliação em memória.
+ *
+ * A precedência de escopo é resolvida na compilação: cada servidor com regras
+ * próprias, cada sistema operacional com regras e o escopo global recebem um
+ * {@link RuleSet} já combinado, em que cada métrica tem só as regras do
+ * escopo mais específico. Dentro de uma métrica as regras ficam em ordem de
+ * severidade (mais grave primeiro), em vetores primitivos: a avaliação é um
+ * laço sobre limites e operadores, sem alocação. Regras com condição em
+ * janela ou histerese são avaliadas pelo {@link WindowedCondition} da série,
+ * mantido por quem avalia. Instâncias são imutáveis.
+ */
+public final class CompiledAlertRules {
+
+    private static final RuleMetric[] METRICS = RuleMetric.values();
+
+    // Mais grave primeiro (nível 1 = crítico); empates pela ordem de criação
+    private static final Comparator<AlertRule> SEVERITY_ORDER = Comparator
+            .comparing((AlertRule rule) -> rule.getSeverity().getLevel())
+            .thenComparing(AlertRule::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    public static final CompiledAlertRules EMPTY = compile(List.of());
+
+    private final RuleSet global;
+    private final Map<String, RuleSet> byOperationSystem;
+    private final Map<Long, RuleSet> byServer;
+    private final int ruleCount;
+
+    private CompiledAlertRules(RuleSet global, Map<String, RuleSet> byOperationSystem, Map<Long, RuleSet> byServer,
+            int ruleCount) {
+        this.global = global;
+        this.byOperationSystem = byOperationSystem;
+        this.byServer = byServer;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * Compila as regras habilitadas. Regras de servidor precisam do servidor
+     * com o sistema operacional carregado, para herdar as regras do SO nas
+     * métricas que não redefinem.
+     */
+    public static CompiledAlertRules compile(Collection<AlertRule> rules) {
+        Map<RuleMetric, List<AlertRule>> global = new EnumMap<>(RuleMetric.class);
+        Map<String, Map<RuleMetric, List<AlertRule>>> byOs = new HashMap<>();
+        Map<Long, Map<RuleMetric, List<AlertRule>>> byServer = new HashMap<>();
+        Map<Long, String> serverOs = new HashMap<>();
+        int count = 0;
+
+        for (AlertRule rule : rules) {
+            if (!Boolean.TRUE.equals(rule.getEnabled())) {
+                continue;
+            }
+            Map<RuleMetric, List<AlertRule>> target = switch (rule.getScope()) {
+                case GLOBAL -> global;
+                case OPERATION_SYSTEM -> byOs.computeIfAbsent(rule.getOperationSystem().getName(),
+                        name -> new EnumMap<>(RuleMetric.class));
+                case SERVER -> {
+                    Long serverId = rule.getServer().getId();
+                    if (rule.getServer().getOperationSystem() != null) {
+                        serverOs.put(serverId, rule.getServer().getOperationSystem().getName());
+                    }
+                    yield byServer.computeIfAbsent(serverId, id -> new EnumMap<>(RuleMetric.class));
+                }
+            };
+            target.computeIfAbsent(rule.getMetric(), metric -> new ArrayList<>()).add(rule);
+            count++;
+        }
+
+        RuleSet globalSet = RuleSet.of(global);
+        Map<String, RuleSet> osSets = new HashMap<>();
+        byOs.forEach((os, metrics) -> osSets.put(os, RuleSet.of(overlay(metrics, global))));
+        Map<Long, RuleSet> serverSets = new HashMap<>();
+        byServer.forEach((serverId, metrics) -> {
+            Map<RuleMetric, List<AlertRule>> inherited = overlay(byOs.getOrDefault(serverOs.get(serverId), Map.of()),
+                    global);
+            serverSets.put(serverId, RuleSet.of(overlay(metrics, inherited)));
+        });
+        return new CompiledAlertRules(globalSet, osSets, serverSets, count);
+    }
+
+    /**
+     * Métricas de {@code specific}, completadas pelas de {@code fallback}
+     */
+    private static Map<RuleMetric, List<AlertRule>> overlay(Map<RuleMetric, List<AlertRule>> specific,
+            Map<RuleMetric, List<AlertRule>> fallback) {
+        Map<RuleMetric, List<AlertRule>> merged = new EnumMap<>(RuleMetric.class);
+        merged.putAll(fallback);
+        merged.putAll(specific);
+        return merged;
+    }
+
+    /**
+     * Regras aplicáveis a um servidor
+     *
+     * @param operationSystem nome do sistema operacional do servidor (pode ser null)
+     */
+    public RuleSet ruleSetFor(Long serverId, String operationSystem) {
+        RuleSet set = byServer.get(serverId);
+        if (set != null) {
+            return set;
+        }
+        if (operationSystem != null) {
+            set = byOperationSystem.get(operationSystem);
+            if (set != null) {
+                return set;
+            }
+        }
+        return global;
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Dados de uma regra necessários para avaliar e abrir o alerta
+     *
+     * @param windowMillis duração (FOR_DURATION) ou janela (RATE_OF_CHANGE)
+     * @param recoveryThreshold limite de recuperação, ou NaN sem histerese
+     */
+    public record Rule(long id, String name, RuleMetric metric, Operator operator, double threshold, Long severityId,
+            int severityLevel, String severityName, Alert.AlertType alertType, Condition condition, long windowMillis,
+            int requiredSamples, int windowSamples, double recoveryThreshold) {
+
+        static Rule of(AlertRule rule) {
+            Condition condition = rule.getCondition() != null ? rule.getCondition() : Condition.INSTANT;
+            return new Rule(rule.getId() != null ? rule.getId() : 0L, rule.getName(), rule.getMetric(),
+                    rule.getOperator(), rule.getThreshold().doubleValue(), rule.getSeverity().getId(),
+                    rule.getSeverity().getLevel(), rule.getSeverity().getName(), rule.getAlertType(), condition,
+                    rule.getDurationSeconds() != null ? rule.getDurationSeconds() * 1_000L : 0L,
+                    rule.getRequiredSamples() != null ? rule.getRequiredSamples() : 0,
+                    rule.getWindowSamples() != null ? rule.getWindowSamples() : 0,
+                    rule.getRecoveryThreshold() != null ? rule.getRecoveryThreshold().doubleValue() : Double.NaN);
+        }
+    }
+
+    /**
+     * Regras de um escopo já combinado. As regras da métrica {@code m} ocupam
+     * as posições {@code [start[m], start[m + 1])} dos vetores.
+     */
+    public static final class RuleSet {
+
+        private static final int GREATER_THAN = Operator.GREATER_THAN.ordinal();
+        private static final int GREATER_OR_EQUAL = Operator.GREATER_OR_EQUAL.ordinal();
+        private static final int LESS_THAN = Operator.LESS_THAN.ordinal();
+
+        // Severidades gravadas como críticas nas amostras, como em Severity#isCritical
+        private static final int CRITICAL_LEVEL = 2;
+
+        private final int[] start;
+        private final int[] operators;
+        private final double[] thresholds;
+        private final boolean[] stateful;
+        private final Rule[] rules;
+        private final Double[] warningThresholds;
+        private final Double[] criticalThresholds;
+        // Se o limite de aviso/crítico da métrica vem de uma regra >= (senão >)
+        private final boolean[] warningInclusive;
+        private final boolean[] criticalInclusive;
+        private final List<List<Rule>> recoveryRules;
+
+        private RuleSet(int[] start, int[] operators, double[] thresholds, boolean[] stateful, Rule[] rules,
+                Double[] warningThresholds, Double[] criticalThresholds, boolean[] warningInclusive,
+                boolean[] criticalInclusive, List<List<Rule>> recoveryRules) {
+            this.start = start;
+            this.operators = operators;
+            this.thresholds = thresholds;
+            this.stateful = stateful;
+            this.rules = rules;
+            this.warningThresholds = warningThresholds;
+            this.criticalThresholds = criticalThresholds;
+            this.warningInclusive = warningInclusive;
+            this.criticalInclusive = criticalInclusive;
+            this.recoveryRules = recoveryRules;
+        }
+
+        static RuleSet of(Map<RuleMetric, List<AlertRule>> byMetric) {
+            int[] start = new int[METRICS.length + 1];
+            List<Rule> ordered = new ArrayList<>();
+            for (RuleMetric metric : METRICS) {
+                start[metric.ordinal()] = ordered.size();
+                List<AlertRule> metricRules = new ArrayList<>(byMetric.getOrDefault(metric, List.of()));
+                metricRules.sort(SEVERITY_ORDER);
+                metricRules.forEach(rule -> ordered.add(Rule.of(rule)));
+            }
+            start[METRICS.length] = ordered.size();
+
+            int[] operators = new int[ordered.size()];
+            double[] thresholds = new double[ordered.size()];
+            boolean[] stateful = new boolean[METRICS.length];
+            Double[] warningThresholds = new Double[METRICS.length];
+            Double[] criticalThresholds = new Double[METRICS.length];
+            boolean[] warningInclusive = new boolean[METRICS.length];
+            boolean[] criticalInclusive = new boolean[METRICS.length];
+            List<List<Rule>> recoveryRules = new ArrayList<>();
+            for (RuleMetric metric : METRICS) {
+                // A regra mais grave de cada tipo de alerta da métrica
+                Map<Alert.AlertType, Rule> byType = new EnumMap<>(Alert.AlertType.class);
+                for (int i = start[metric.ordinal()]; i < start[metric.ordinal() + 1]; i++) {
+                    byType.putIfAbsent(ordered.get(i).alertType(), ordered.get(i));
+                }
+                recoveryRules.add(List.copyOf(byType.values()));
+            }
+            for (int i = 0; i < ordered.size(); i++) {
+                Rule rule = ordered.get(i);
+                operators[i] = rule.operator().ordinal();
+                thresholds[i] = rule.threshold();
+                if (WindowedCondition.isStateful(rule)) {
+                    // Valida a condição já na compilação
+                    new WindowedCondition(rule);
+                    stateful[rule.metric().ordinal()] = true;
+                }
+                // Só limites superiores sobre o próprio valor (não sobre a taxa de variação)
+                if (rule.condition() != Condition.RATE_OF_CHANGE && (operators[i] == GREATER_THAN
+                        || operators[i] == GREATER_OR_EQUAL)) {
+                    boolean critical = rule.severityLevel() <= CRITICAL_LEVEL;
+                    Double[] target = critical ? criticalThresholds : warningThresholds;
+                    boolean[] inclusive = critical ? criticalInclusive : warningInclusive;
+                    int m = rule.metric().ordinal();
+                    Double current = target[m];
+                    if (current == null || rule.threshold() < current) {
+                        target[m] = rule.threshold();
+                        inclusive[m] = operators[i] == GREATER_OR_EQUAL;
+                    } else if (rule.threshold() == current) {
+                        inclusive[m] |= operators[i] == GREATER_OR_EQUAL;
+                    }
+                }
+            }
+            return new RuleSet(start, operators, thresholds, stateful, ordered.toArray(new Rule[0]),
+                    warningThresholds, criticalThresholds, warningInclusive, criticalInclusive, recoveryRules);
+        }
+
+        /**
+         * Limite de aviso gravado com as amostras da métrica: o menor limite
+         * superior ({@code >} ou {@code >=}) das regras de severidade não
+         * crítica, ou null se não há
+         */
+        public Double warningThreshold(RuleMetric metric) {
+            return warningThresholds[metric.ordinal()];
+        }
+
+        /**
+         * Limite crítico gravado com as amostras da métrica: o menor limite
+         * superior das regras de severidade crítica, ou null se não há
+         */
+        public Double criticalThreshold(RuleMetric metric) {
+            return criticalThresholds[metric.ordinal()];
+        }
+
+        /**
+         * Indica se o valor passa do limite de aviso da métrica, com o
+         * operador ({@code >} ou {@code >=}) da regra que o definiu
+         */
+        public boolean exceedsWarning(RuleMetric metric, double value) {
+            return exceeds(warningThresholds[metric.ordinal()], warningInclusive[metric.ordinal()], value);
+        }
+
+        /**
+         * Indica se o valor passa do limite crítico da métrica, com o
+         * operador da regra que o definiu
+         */
+        public boolean exceedsCritical(RuleMetric metric, double value) {
+            return exceeds(criticalThresholds[metric.ordinal()], criticalInclusive[metric.ordinal()], value);
+        }
+
+        private static boolean exceeds(Double threshold, boolean inclusive, double value) {
+            return threshold != null && (inclusive ? value >= threshold : value > threshold);
+        }
+
+        /**
+         * Regras em nome das quais a série da métrica é dada como recuperada:
+         * a mais grave de cada tipo de alerta (o tipo identifica o alerta
+         * aberto da série)
+         */
+        public List<Rule> recoveryRules(RuleMetric metric) {
+            return recoveryRules.get(metric.ordinal());
+        }
+
+        /**
+         * Indica se a série está do lado de recuperação de todas as regras da
+         * métrica: nenhuma atende o operador em relação ao limite de
+         * recuperação, ou ao próprio limite sem histerese. Nas regras
+         * RATE_OF_CHANGE vale a taxa de variação medida pela condição da série.
+         *
+         * @param conditions estado da série, de {@link #conditionsFor}; null em
+         *                   métricas sem regras com estado
+         */
+        public boolean isRecovered(RuleMetric metric, double value, WindowedCondition[] conditions) {
+            int first = start[metric.ordinal()];
+            for (int i = first, end = start[metric.ordinal() + 1]; i < end; i++) {
+                Rule rule = rules[i];
+                double bound = Double.isNaN(rule.recoveryThreshold()) ? rule.threshold() : rule.recoveryThreshold();
+                double observed = value;
+                if (rule.condition() == Condition.RATE_OF_CHANGE) {
+                    // Sem taxa medida (NaN), a regra não é atendida
+                    observed = conditions != null && conditions[i - first] != null
+                            ? conditions[i - first].getRate()
+                            : Double.NaN;
+                }
+                if (rule.operator().test(observed, bound)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Indica se há regras para a métrica
+         */
+        public boolean hasRules(RuleMetric metric) {
+            return start[metric.ordinal()] < start[metric.ordinal() + 1];
+        }
+
+        /**
+         * Indica se alguma regra da métrica precisa de estado por série
+         */
+        public boolean isStateful(RuleMetric metric) {
+            return stateful[metric.ordinal()];
+        }
+
+        /**
+         * Regra mais grave violada pelo valor, ou null se nenhuma. Só para
+         * métricas sem regras com estado ({@link #isStateful}).
+         */
+        public Rule firstBreached(RuleMetric metric, double value) {
+            for (int i = start[metric.ordinal()], end = start[metric.ordinal() + 1]; i < end; i++) {
+                if (test(i, value)) {
+                    return rules[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Regra mais grave violada pela série, ou null se nenhuma. Todas as
+         * condições com estado recebem a amostra, mesmo após uma regra mais
+         * grave ter sido violada, para que as janelas fiquem completas.
+         *
+         * @param conditions estado da série, de {@link #conditionsFor}
+         */
+        public Rule firstBreached(RuleMetric metric, double value, long timestamp, WindowedCondition[] conditions) {
+            int first = start[metric.ordinal()];
+            Rule breached = null;
+            for (int i = first, end = start[metric.ordinal() + 1]; i < end; i++) {
+                WindowedCondition condition = conditions[i - first];
+                if (condition != null) {
+                    if (condition.update(timestamp, value) && breached == null) {
+                        breached = rules[i];
+                    }
+                } else if (breached == null && test(i, value)) {
+                    breached = rules[i];
+                }
+            }
+            return breached;
+        }
+
+        /**
+         * Estado de uma série para as regras da métrica neste conjunto: uma
+         * posição por regra, null nas regras sem estado. O estado de
+         * {@code previous} é reaproveitado para as regras que não mudaram.
+         */
+        public WindowedCondition[] conditionsFor(RuleMetric metric, WindowedCondition[] previous) {
+            int first = start[metric.ordinal()];
+            WindowedCondition[] conditions = new WindowedCondition[start[metric.ordinal() + 1] - first];
+            for (int i = 0; i < conditions.length; i++) {
+                Rule rule = rules[first + i];
+                if (!WindowedCondition.isStateful(rule)) {
+                    continue;
+                }
+                if (previous != null) {
+                    for (WindowedCondition condition : previous) {
+                        if (condition != null && condition.getRule().equals(rule)) {
+                            conditions[i] = condition;
+                            break;
+                        }
+                    }
+                }
+                if (conditions[i] == null) {
+                    conditions[i] = new WindowedCondition(rule);
+                }
+            }
+            return conditions;
+        }
+
+        private boolean test(int i, double value) {
+            int operator = operators[i];
+            double threshold = thresholds[i];
+            return operator == GREATER_THAN ? value > threshold
+                    : operator == GREATER_OR_EQUAL ? value >= threshold
+                    : operator == LESS_THAN ? value < threshold
+                    : value <= threshold;
+        }
+    }
+}
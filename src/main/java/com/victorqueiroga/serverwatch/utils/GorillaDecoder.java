@@ -0,0 +1,119 @@
+package com.victorqueiroga.serverwatch.utils;
+
+/**
+ * Leitura sequencial de um bloco gerado por {@link GorillaEncoder}, um ponto
+ * por vez e sem alocar por ponto:
+ *
+ * <pre>
+ * GorillaDecoder decoder = new GorillaDecoder(data);
+ * while (decoder.next()) {
+ *     use(decoder.timestamp(), decoder.value());
+ * }
+ * </pre>
+ */
+public final class GorillaDecoder {
+
+    private final byte[] data;
+    private final int count;
+    private long bitPosition = GorillaEncoder.COUNT_BITS;
+
+    private int read;
+    private long timestamp;
+    private long delta;
+    private long valueBits;
+    private int leading;
+    private int trailing;
+
+    public GorillaDecoder(byte[] data) {
+        if (data.length < 4) {
+            throw new IllegalArgumentException("Bloco de métricas inválido: " + data.length + " bytes");
+        }
+        this.data = data;
+        this.count = ((data[0] & 0xFF) << 24) | ((data[1] & 0xFF) << 16) | ((data[2] & 0xFF) << 8)
+                | (data[3] & 0xFF);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Avança para o próximo ponto
+     *
+     * @return false ao final do bloco
+     */
+    public boolean next() {
+        if (read >= count) {
+            return false;
+        }
+        if (read == 0) {
+            timestamp = readBits(64);
+            valueBits = readBits(64);
+        } else {
+            delta += readDeltaOfDelta();
+            timestamp += delta;
+            valueBits ^= readXor();
+        }
+        read++;
+        return true;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public double value() {
+        return Double.longBitsToDouble(valueBits);
+    }
+
+    private long readDeltaOfDelta() {
+        if (readBits(1) == 0) {
+            return 0;
+        }
+        if (readBits(1) == 0) {
+            return signed(readBits(7), 7);
+        }
+        if (readBits(1) == 0) {
+            return signed(readBits(9), 9);
+        }
+        if (readBits(1) == 0) {
+            return signed(readBits(12), 12);
+        }
+        return readBits(1) == 0 ? signed(readBits(32), 32) : readBits(64);
+    }
+
+    private long readXor() {
+        if (readBits(1) == 0) {
+            return 0;
+        }
+        if (readBits(1) == 1) {
+            leading = (int) readBits(5);
+            int significant = (int) readBits(6) + 1;
+            trailing = 64 - leading - significant;
+        }
+        return readBits(64 - leading - trailing) << trailing;
+    }
+
+    private static long signed(long value, int bits) {
+        return (value << (64 - bits)) >> (64 - bits);
+    }
+
+    private long readBits(int bits) {
+        if (bitPosition + bits > (long) data.length << 3) {
+            throw new IllegalArgumentException("Bloco de métricas truncado");
+        }
+        long result = 0;
+        int remaining = bits;
+        while (remaining > 0) {
+            int byteIndex = (int) (bitPosition >>> 3);
+            int bitOffset = (int) (bitPosition & 7);
+            int available = 8 - bitOffset;
+            int take = Math.min(available, remaining);
+            int chunk = ((data[byteIndex] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+            result = (result << take) | chunk;
+            remaining -= take;
+            bitPosition += take;
+        }
+        return result;
+    }
+}
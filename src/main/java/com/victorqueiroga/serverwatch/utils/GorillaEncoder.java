@@ -0,0 +1,145 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.util.Arrays;
+
+/**
+ * Codificação compacta de uma série (timestamp em millis, valor double) no
+ * formato do Gorilla (Facebook): delta-of-delta nos timestamps e XOR com o
+ * valor anterior nos valores. Séries regulares ocupam poucos bits por ponto.
+ *
+ * Formato, lido por {@link GorillaDecoder}:
+ * <ul>
+ * <li>32 bits: quantidade de pontos</li>
+ * <li>primeiro ponto: timestamp e valor com 64 bits cada</li>
+ * <li>timestamps seguintes: delta-of-delta D em '0' (D = 0), '10' + 7 bits,
+ * '110' + 9 bits, '1110' + 12 bits, '11110' + 32 bits ou '11111' + 64 bits
+ * (complemento de dois)</li>
+ * <li>valores seguintes: X = bits XOR bits anteriores; '0' se X = 0; '10' +
+ * bits significativos se cabem na janela (zeros à esquerda/direita) do valor
+ * anterior; senão '11' + 5 bits de zeros à esquerda + 6 bits de (tamanho - 1)
+ * + bits significativos</li>
+ * </ul>
+ *
+ * Os pontos devem ser adicionados em ordem crescente de timestamp.
+ */
+public final class GorillaEncoder {
+
+    static final int COUNT_BITS = 32;
+
+    private long[] words = new long[16];
+    private long bitPosition = COUNT_BITS;
+
+    private int count;
+    private long previousTimestamp;
+    private long previousDelta;
+    private long previousValueBits;
+    private int previousLeading = -1;
+    private int previousTrailing;
+
+    public void append(long timestampMillis, double value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            write(timestampMillis, 64);
+            write(valueBits, 64);
+        } else {
+            if (timestampMillis < previousTimestamp) {
+                throw new IllegalArgumentException("Timestamps fora de ordem: " + timestampMillis + " < "
+                        + previousTimestamp);
+            }
+            long delta = timestampMillis - previousTimestamp;
+            appendDeltaOfDelta(delta - previousDelta);
+            appendValue(valueBits ^ previousValueBits);
+            previousDelta = delta;
+        }
+        previousTimestamp = timestampMillis;
+        previousValueBits = valueBits;
+        count++;
+    }
+
+    private void appendDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            write(0b0, 1);
+        } else if (fits(deltaOfDelta, 7)) {
+            write(0b10, 2);
+            write(deltaOfDelta, 7);
+        } else if (fits(deltaOfDelta, 9)) {
+            write(0b110, 3);
+            write(deltaOfDelta, 9);
+        } else if (fits(deltaOfDelta, 12)) {
+            write(0b1110, 4);
+            write(deltaOfDelta, 12);
+        } else if (fits(deltaOfDelta, 32)) {
+            write(0b11110, 5);
+            write(deltaOfDelta, 32);
+        } else {
+            write(0b11111, 5);
+            write(deltaOfDelta, 64);
+        }
+    }
+
+    private void appendValue(long xor) {
+        if (xor == 0) {
+            write(0b0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            write(0b10, 2);
+            write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+        } else {
+            int significant = 64 - leading - trailing;
+            write(0b11, 2);
+            write(leading, 5);
+            write(significant - 1, 6);
+            write(xor >>> trailing, significant);
+            previousLeading = leading;
+            previousTrailing = trailing;
+        }
+    }
+
+    private static boolean fits(long value, int bits) {
+        long limit = 1L << (bits - 1);
+        return value >= -limit && value < limit;
+    }
+
+    /**
+     * Grava os {@code bits} menos significativos, do mais significativo para
+     * o menos
+     */
+    private void write(long value, int bits) {
+        int wordIndex = (int) (bitPosition >>> 6);
+        if (wordIndex + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        int offset = (int) (bitPosition & 63);
+        long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+        int free = 64 - offset;
+        if (bits <= free) {
+            words[wordIndex] |= masked << (free - bits);
+        } else {
+            words[wordIndex] |= masked >>> (bits - free);
+            words[wordIndex + 1] |= masked << (64 - (bits - free));
+        }
+        bitPosition += bits;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Bloco codificado, com a quantidade de pontos no cabeçalho
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[(int) ((bitPosition + 7) >>> 3)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> (56 - ((i & 7) << 3)));
+        }
+        bytes[0] = (byte) (count >>> 24);
+        bytes[1] = (byte) (count >>> 16);
+        bytes[2] = (byte) (count >>> 8);
+        bytes[3] = (byte) count;
+        return bytes;
+    }
+}
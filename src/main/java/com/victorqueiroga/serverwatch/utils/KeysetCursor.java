@@ -0,0 +1,60 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Posição de uma listagem paginada por chave: (data, id) do último item
+ * entregue e o sentido em que a próxima página deve ser lida.
+ *
+ * É trafegado como token opaco ({@link #encode()}): 17 bytes (epoch em
+ * microssegundos UTC, id e sentido) em Base64 URL-safe.
+ */
+public record KeysetCursor(LocalDateTime position, long id, boolean backward) {
+
+    private static final int TOKEN_BYTES = Long.BYTES * 2 + 1;
+
+    /** Antes de qualquer item em ordem crescente */
+    public static final KeysetCursor LOWEST = new KeysetCursor(LocalDateTime.of(1, 1, 1, 0, 0), Long.MIN_VALUE, false);
+
+    /** Depois de qualquer item em ordem crescente */
+    public static final KeysetCursor HIGHEST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            Long.MAX_VALUE, false);
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES);
+        buffer.putLong(position.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + position.getNano() / 1_000);
+        buffer.putLong(id);
+        buffer.put((byte) (backward ? 1 : 0));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Lê um token gerado por {@link #encode()}
+     *
+     * @return cursor, ou null para token ausente (primeira página)
+     * @throws IllegalArgumentException se o token não for válido
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido: " + token);
+        }
+        if (bytes.length != TOKEN_BYTES || (bytes[TOKEN_BYTES - 1] & 0xFE) != 0) {
+            throw new IllegalArgumentException("Cursor de paginação inválido: " + token);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long micros = buffer.getLong();
+        long id = buffer.getLong();
+        LocalDateTime position = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+        return new KeysetCursor(position, id, buffer.get() == 1);
+    }
+}
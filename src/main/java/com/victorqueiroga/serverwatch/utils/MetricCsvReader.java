@@ -0,0 +1,153 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.model.ServerMetric.MetricCategory;
+
+/**
+ * Leitura incremental de amostras em CSV para importação/backfill.
+ *
+ * Formato (com cabeçalho na primeira linha):
+ * {@code server_id,metric_name,value,unit,category,subcategory,timestamp},
+ * com timestamp ISO-8601 local (ex: 2025-01-31T13:45:00). As linhas são lidas
+ * sob demanda, então o arquivo nunca é carregado inteiro em memória.
+ */
+public final class MetricCsvReader implements Iterator<MetricSample>, Closeable {
+
+    public static final String HEADER = "server_id,metric_name,value,unit,category,subcategory,timestamp";
+
+    private static final int COLUMNS = 7;
+
+    private final BufferedReader reader;
+    private MetricSample next;
+    private long lineNumber = 0;
+
+    public MetricCsvReader(BufferedReader reader) {
+        this.reader = reader;
+        String header = readLine();
+        if (header == null || !HEADER.equalsIgnoreCase(header.strip())) {
+            throw new IllegalArgumentException("Cabeçalho CSV inválido; esperado: " + HEADER);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readSample();
+        }
+        return next != null;
+    }
+
+    @Override
+    public MetricSample next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        MetricSample sample = next;
+        next = null;
+        return sample;
+    }
+
+    private MetricSample readSample() {
+        String line;
+        do {
+            line = readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        List<String> fields = split(line);
+        if (fields.size() != COLUMNS) {
+            throw invalid("esperadas " + COLUMNS + " colunas, encontradas " + fields.size());
+        }
+        try {
+            return new MetricSample(
+                    Long.valueOf(fields.get(0)),
+                    required(fields.get(1), "metric_name"),
+                    Double.parseDouble(fields.get(2)),
+                    emptyToNull(fields.get(3)),
+                    MetricCategory.valueOf(fields.get(4).toUpperCase()),
+                    emptyToNull(fields.get(5)),
+                    null,
+                    LocalDateTime.parse(fields.get(6)),
+                    null,
+                    null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalid(e.getMessage());
+        }
+    }
+
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler CSV de métricas", e);
+        }
+    }
+
+    private IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("CSV de métricas inválido na linha " + lineNumber + ": " + reason);
+    }
+
+    private static String required(String value, String column) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(column + " é obrigatório");
+        }
+        return value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Separa uma linha CSV (RFC 4180, sem quebras de linha dentro de aspas)
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,212 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+
+/**
+ * Escrita incremental de amostras exportadas em um dos formatos de
+ * {@link Format}. Cada amostra é escrita ao ser recebida; só o buffer de
+ * saída (e, no formato binário, o dicionário de séries) fica em memória.
+ */
+public abstract class MetricExportWriter implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    public enum Format {
+        /** Um objeto JSON por linha */
+        NDJSON("application/x-ndjson", "ndjson"),
+        /** Mesmo formato aceito pela importação ({@link MetricCsvReader#HEADER}) */
+        CSV("text/csv", "csv"),
+        /** Formato binário compacto, descrito em {@link BinaryWriter} */
+        BINARY("application/octet-stream", "bin");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public static MetricExportWriter create(Format format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(out);
+            case CSV -> new CsvWriter(out);
+            case BINARY -> new BinaryWriter(out);
+        };
+    }
+
+    public abstract void write(MetricSample sample) throws IOException;
+
+    /**
+     * Descarrega o buffer sem fechar a saída
+     */
+    @Override
+    public abstract void close() throws IOException;
+
+    private static final class NdjsonWriter extends MetricExportWriter {
+        private static final JsonFactory FACTORY = new JsonFactory();
+
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            generator = FACTORY.createGenerator(new BufferedOutputStream(out, BUFFER_BYTES), JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        public void write(MetricSample sample) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("serverId", sample.serverId());
+            generator.writeStringField("metricName", sample.metricName());
+            generator.writeNumberField("value", BigDecimal.valueOf(sample.value()));
+            generator.writeStringField("unit", sample.unit());
+            generator.writeStringField("category", sample.category().name());
+            generator.writeStringField("subcategory", sample.subcategory());
+            generator.writeStringField("timestamp", sample.timestamp().toString());
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter extends MetricExportWriter {
+        private final BufferedWriter writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_BYTES);
+            writer.write(MetricCsvReader.HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(MetricSample sample) throws IOException {
+            writer.write(Long.toString(sample.serverId()));
+            writer.write(',');
+            writeText(sample.metricName());
+            writer.write(',');
+            writer.write(BigDecimal.valueOf(sample.value()).toPlainString());
+            writer.write(',');
+            writeText(sample.unit());
+            writer.write(',');
+            writer.write(sample.category().name());
+            writer.write(',');
+            writeText(sample.subcategory());
+            writer.write(',');
+            writer.write(sample.timestamp().toString());
+            writer.write('\n');
+        }
+
+        private void writeText(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Formato binário (big-endian):
+     *
+     * <pre>
+     * cabeçalho: "SWM1"
+     * série:     byte 1, int id, long serverId, utf metricName, utf unit,
+     *            utf category, utf subcategory (unit/subcategory vazios = ausentes)
+     * amostra:   byte 2, int id da série, long epoch em microssegundos (UTC), double valor
+     * </pre>
+     *
+     * Cada série é declarada antes da sua primeira amostra.
+     */
+    public static final class BinaryWriter extends MetricExportWriter {
+        public static final int MAGIC = 0x53574D31;
+        public static final byte SERIES = 1;
+        public static final byte SAMPLE = 2;
+
+        private final DataOutputStream out;
+        private final Map<SeriesKey, Integer> series = new HashMap<>();
+
+        BinaryWriter(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_BYTES));
+            this.out.writeInt(MAGIC);
+        }
+
+        @Override
+        public void write(MetricSample sample) throws IOException {
+            SeriesKey key = new SeriesKey(sample.serverId(), sample.metricName(), sample.unit(), sample.category().name(),
+                    sample.subcategory());
+            Integer id = series.get(key);
+            if (id == null) {
+                id = series.size();
+                series.put(key, id);
+                out.writeByte(SERIES);
+                out.writeInt(id);
+                out.writeLong(key.serverId());
+                out.writeUTF(key.metricName());
+                out.writeUTF(key.unit() != null ? key.unit() : "");
+                out.writeUTF(key.category());
+                out.writeUTF(key.subcategory() != null ? key.subcategory() : "");
+            }
+            out.writeByte(SAMPLE);
+            out.writeInt(id);
+            out.writeLong(toMicros(sample.timestamp()));
+            out.writeDouble(sample.value());
+        }
+
+        private static long toMicros(LocalDateTime timestamp) {
+            return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+
+        private record SeriesKey(Long serverId, String metricName, String unit, String category, String subcategory) {
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffer circular de tamanho fixo com as amostras mais recentes de uma série
+ * (timestamp em epoch millis e valor), em arrays primitivos.
+ *
+ * Um único escritor: {@link #append} grava a posição e só então publica o
+ * novo total (store com semântica release). Leitores não usam lock: leem o
+ * total, copiam as posições e releem o total (como num seqlock); as posições
+ * que o escritor pode ter sobrescrito durante a cópia são descartadas.
+ */
+public final class MetricRingBuffer {
+
+    private final long[] timestamps;
+    private final double[] values;
+    private final int mask;
+
+    // Total de amostras já gravadas; a posição de cada uma é (índice & mask)
+    private final AtomicLong published = new AtomicLong();
+
+    /**
+     * @param capacity arredondada para a próxima potência de 2
+     */
+    public MetricRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade do buffer deve ser positiva: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.timestamps = new long[size];
+        this.values = new double[size];
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * Grava uma amostra, sobrescrevendo a mais antiga se cheio. Apenas uma
+     * thread pode chamar este método.
+     */
+    public void append(long timestampMillis, double value) {
+        long index = published.get();
+        // A publicação anterior fica visível antes de sobrescrever a posição
+        VarHandle.storeStoreFence();
+        int slot = (int) (index & mask);
+        timestamps[slot] = timestampMillis;
+        values[slot] = value;
+        published.lazySet(index + 1);
+    }
+
+    /**
+     * Timestamp da amostra mais antiga retida, ou {@link Long#MAX_VALUE} se
+     * vazio. Apenas a thread escritora pode chamar este método.
+     */
+    public long oldestTimestamp() {
+        long end = published.get();
+        if (end == 0) {
+            return Long.MAX_VALUE;
+        }
+        return timestamps[(int) (Math.max(0, end - timestamps.length) & mask)];
+    }
+
+    /**
+     * Copia as amostras retidas com timestamp em [fromMillis, toMillis), na
+     * ordem de gravação
+     */
+    public Snapshot snapshot(long fromMillis, long toMillis) {
+        long end = published.get();
+        long start = Math.max(0, end - timestamps.length);
+        int count = (int) (end - start);
+        long[] copiedTimestamps = new long[count];
+        double[] copiedValues = new double[count];
+        for (int i = 0; i < count; i++) {
+            int slot = (int) ((start + i) & mask);
+            copiedTimestamps[i] = timestamps[slot];
+            copiedValues[i] = values[slot];
+        }
+
+        // Até a posição do total atual pode estar sendo sobrescrita: só as
+        // posições depois de (total atual - capacidade) são confiáveis
+        VarHandle.loadLoadFence();
+        long firstValid = Math.max(start, published.get() - timestamps.length + 1);
+        int skip = (int) (firstValid - start);
+
+        boolean wrapped = firstValid > 0;
+        long oldestRetained = skip < count ? copiedTimestamps[skip] : Long.MAX_VALUE;
+
+        int size = 0;
+        for (int i = skip; i < count; i++) {
+            if (copiedTimestamps[i] >= fromMillis && copiedTimestamps[i] < toMillis) {
+                copiedTimestamps[size] = copiedTimestamps[i];
+                copiedValues[size] = copiedValues[i];
+                size++;
+            }
+        }
+        return new Snapshot(copiedTimestamps, copiedValues, size, wrapped ? oldestRetained : Long.MIN_VALUE);
+    }
+
+    /**
+     * Cópia de parte do buffer. {@code retainedSince} é o timestamp mais
+     * antigo ainda retido se o buffer já descartou amostras, ou
+     * {@link Long#MIN_VALUE} se ainda contém todas as gravadas.
+     */
+    public record Snapshot(long[] timestamps, double[] values, int size, long retainedSince) {
+    }
+}
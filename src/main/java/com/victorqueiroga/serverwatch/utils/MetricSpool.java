@@ -0,0 +1,506 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.model.ServerMetric.MetricCategory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spool local de amostras de métricas: log append-only em segmentos de
+ * tamanho fixo mapeados em memória ({@link MappedByteBuffer}).
+ *
+ * Cada registro é {@code [tamanho int][crc32c int][amostra]}. Na abertura os
+ * segmentos são percorridos até o primeiro registro vazio ou com CRC
+ * inválido, o que descarta registros incompletos de uma queda no meio da
+ * escrita. A leitura começa no checkpoint, gravado em arquivo separado e
+ * substituído atomicamente a cada {@link #commit(Batch)}; registros lidos e
+ * não confirmados antes de uma queda são lidos de novo (entrega
+ * at-least-once).
+ *
+ * Acima de {@code maxBytes} os segmentos mais antigos são removidos, mesmo
+ * que ainda não lidos, e os registros perdidos são contabilizados.
+ *
+ * Os métodos são sincronizados: um escritor e um leitor.
+ */
+@Slf4j
+public class MetricSpool implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final MetricCategory[] CATEGORIES = MetricCategory.values();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final ByteBuffer encodeBuffer;
+    private final CRC32C crc = new CRC32C();
+
+    /** Posição de leitura (ainda não confirmada) */
+    private Segment readSegment;
+    private int readOffset;
+
+    /** Posição confirmada: início das amostras ainda não gravadas no banco */
+    private long committedSegmentId;
+    private int committedOffset;
+
+    /** Início do trecho gravado desde o último {@link #sync()} */
+    private int dirtyFrom;
+
+    private long appendedRecords;
+    private long evictedRecords;
+
+    public MetricSpool(Path directory, int segmentBytes, long maxBytes) throws IOException {
+        if (segmentBytes < 4096 || maxBytes < 2L * segmentBytes) {
+            throw new IllegalArgumentException(
+                    "Spool de métricas inválido: segmento " + segmentBytes + " bytes, máximo " + maxBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.encodeBuffer = ByteBuffer.allocate(Math.min(segmentBytes - HEADER_BYTES, 64 * 1024));
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        ids.sort(null);
+        for (long id : ids) {
+            Segment segment = Segment.open(segmentPath(id), id, segmentBytes);
+            segment.end = scan(segment.buffer);
+            segments.addLast(segment);
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(Segment.open(segmentPath(0), 0, segmentBytes));
+        }
+        dirtyFrom = segments.getLast().end;
+
+        readSegment = segments.getFirst();
+        readOffset = 0;
+        long[] checkpoint = readCheckpoint();
+        if (checkpoint != null) {
+            for (Segment segment : segments) {
+                if (segment.id == checkpoint[0]) {
+                    readSegment = segment;
+                    readOffset = (int) Math.min(checkpoint[1], segment.end);
+                }
+            }
+            if (checkpoint[0] > segments.getLast().id) {
+                readSegment = segments.getLast();
+                readOffset = readSegment.end;
+            }
+        }
+        committedSegmentId = readSegment.id;
+        committedOffset = readOffset;
+        long pending = pendingRecords();
+        if (pending > 0) {
+            log.info("Spool de métricas em {}: {} amostras pendentes em {} segmentos", directory, pending,
+                    segments.size());
+        }
+    }
+
+    /**
+     * Percorre os registros válidos do segmento
+     *
+     * @return posição após o último registro válido
+     */
+    private int scan(ByteBuffer buffer) {
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - HEADER_BYTES
+                    || checksum(buffer, position + HEADER_BYTES, length) != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private int checksum(ByteBuffer buffer, int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Grava uma amostra no segmento ativo, abrindo um novo segmento quando
+     * ele enche
+     */
+    public synchronized void append(MetricSample sample) throws IOException {
+        encodeBuffer.clear();
+        encode(sample, encodeBuffer);
+        encodeBuffer.flip();
+        int length = encodeBuffer.remaining();
+
+        Segment active = segments.getLast();
+        if (active.end + HEADER_BYTES + length > active.buffer.capacity()) {
+            sync();
+            active = roll();
+        }
+        int position = active.end;
+        crc.reset();
+        crc.update(encodeBuffer.duplicate());
+        active.buffer.put(position + HEADER_BYTES, encodeBuffer, 0, length);
+        active.buffer.putInt(position + 4, (int) crc.getValue());
+        // O tamanho por último: até aqui o registro termina o segmento
+        active.buffer.putInt(position, length);
+        active.end = position + HEADER_BYTES + length;
+        appendedRecords++;
+    }
+
+    private Segment roll() throws IOException {
+        Segment segment = Segment.open(segmentPath(segments.getLast().id + 1), segments.getLast().id + 1, segmentBytes);
+        segments.addLast(segment);
+        dirtyFrom = 0;
+        while ((long) segments.size() * segmentBytes > maxBytes) {
+            evictOldest();
+        }
+        return segment;
+    }
+
+    private void evictOldest() {
+        Segment oldest = segments.removeFirst();
+        long lost = 0;
+        if (oldest == readSegment) {
+            lost = countRecords(oldest, readOffset);
+            readSegment = segments.getFirst();
+            readOffset = 0;
+        }
+        evictedRecords += lost;
+        delete(oldest);
+        log.warn("Spool de métricas cheio: segmento {} removido ({} amostras não gravadas descartadas)", oldest.id,
+                lost);
+    }
+
+    private long countRecords(Segment segment, int offset) {
+        long count = 0;
+        for (int position = offset; position < segment.end; count++) {
+            position += HEADER_BYTES + segment.buffer.getInt(position);
+        }
+        return count;
+    }
+
+    /**
+     * Força a gravação em disco do que foi escrito desde a última chamada
+     */
+    public synchronized void sync() {
+        Segment active = segments.getLast();
+        if (active.end > dirtyFrom) {
+            active.buffer.force(dirtyFrom, active.end - dirtyFrom);
+            dirtyFrom = active.end;
+        }
+    }
+
+    /**
+     * Lê até {@code maxRecords} amostras a partir da posição de leitura, que
+     * avança; a posição confirmada só muda em {@link #commit(Batch)}
+     */
+    public synchronized Batch read(int maxRecords) {
+        List<MetricSample> samples = new ArrayList<>(Math.min(maxRecords, 1024));
+        long[] segmentIds = new long[Math.min(maxRecords, 1024)];
+        int[] offsets = new int[segmentIds.length];
+        while (samples.size() < maxRecords) {
+            if (readOffset >= readSegment.end) {
+                Segment next = nextSegment(readSegment);
+                if (next == null) {
+                    break;
+                }
+                readSegment = next;
+                readOffset = 0;
+                continue;
+            }
+            int length = readSegment.buffer.getInt(readOffset);
+            samples.add(decode(readSegment.buffer.slice(readOffset + HEADER_BYTES, length)));
+            readOffset += HEADER_BYTES + length;
+            if (samples.size() > segmentIds.length) {
+                segmentIds = Arrays.copyOf(segmentIds, Math.min(maxRecords, segmentIds.length * 2));
+                offsets = Arrays.copyOf(offsets, segmentIds.length);
+            }
+            segmentIds[samples.size() - 1] = readSegment.id;
+            offsets[samples.size() - 1] = readOffset;
+        }
+        return new Batch(samples, segmentIds, offsets, readSegment.id, readOffset);
+    }
+
+    private Segment nextSegment(Segment segment) {
+        for (Segment candidate : segments) {
+            if (candidate.id > segment.id) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Confirma a gravação das amostras lidas até o fim do lote: grava o
+     * checkpoint e remove os segmentos já consumidos
+     */
+    public synchronized void commit(Batch batch) throws IOException {
+        long segmentId = Math.max(batch.segmentId(), segments.getFirst().id);
+        int offset = segmentId == batch.segmentId() ? batch.offset() : 0;
+        writeCheckpoint(segmentId, offset);
+        committedSegmentId = segmentId;
+        committedOffset = offset;
+        while (segments.getFirst().id < segmentId) {
+            delete(segments.removeFirst());
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            // Alguns sistemas não removem arquivos ainda mapeados; fica para a próxima abertura
+            log.debug("Segmento {} do spool não removido: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private void writeCheckpoint(long segmentId, int offset) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+        ByteBuffer data = ByteBuffer.allocate(16).putLong(segmentId).putInt(offset);
+        data.putInt(checksum(data, 0, 12)).flip();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(data);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private long[] readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (data.remaining() != 16) {
+            log.warn("Checkpoint do spool de métricas inválido; relendo desde o início");
+            return null;
+        }
+        long segmentId = data.getLong();
+        int offset = data.getInt();
+        if (data.getInt() != checksum(data, 0, 12)) {
+            log.warn("Checkpoint do spool de métricas inválido; relendo desde o início");
+            return null;
+        }
+        return new long[] { segmentId, offset };
+    }
+
+    /**
+     * Timestamp da primeira amostra ainda não confirmada (lida ou não), ou
+     * {@code null} se não há. As amostras entram no spool na ordem das
+     * coletas, então é também, aproximadamente, a mais antiga.
+     */
+    public synchronized LocalDateTime oldestPendingTimestamp() {
+        for (Segment segment : segments) {
+            if (segment.id < committedSegmentId) {
+                continue;
+            }
+            int position = segment.id == committedSegmentId ? committedOffset : 0;
+            if (position < segment.end) {
+                // Amostra: serverId (8 bytes), segundos (8) e nanos (4) do timestamp
+                int record = position + HEADER_BYTES;
+                return LocalDateTime.ofEpochSecond(segment.buffer.getLong(record + 8),
+                        segment.buffer.getInt(record + 16), ZoneOffset.UTC);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Amostras gravadas no spool e ainda não lidas
+     */
+    public synchronized long pendingRecords() {
+        long pending = countRecords(readSegment, readOffset);
+        for (Segment segment : segments) {
+            if (segment.id > readSegment.id) {
+                pending += countRecords(segment, 0);
+            }
+        }
+        return pending;
+    }
+
+    public synchronized long pendingBytes() {
+        long bytes = readSegment.end - readOffset;
+        for (Segment segment : segments) {
+            if (segment.id > readSegment.id) {
+                bytes += segment.end;
+            }
+        }
+        return bytes;
+    }
+
+    public synchronized long getAppendedRecords() {
+        return appendedRecords;
+    }
+
+    public synchronized long getEvictedRecords() {
+        return evictedRecords;
+    }
+
+    @Override
+    public synchronized void close() {
+        sync();
+        segments.clear();
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+    }
+
+    // Codificação: serverId, segundos e nanos do timestamp (UTC), valor,
+    // categoria, máscara de campos presentes, textos e thresholds presentes
+
+    private static void encode(MetricSample sample, ByteBuffer out) {
+        out.putLong(sample.serverId());
+        out.putLong(sample.timestamp().toEpochSecond(ZoneOffset.UTC));
+        out.putInt(sample.timestamp().getNano());
+        out.putDouble(sample.value());
+        out.put((byte) sample.category().ordinal());
+        int present = (sample.unit() != null ? 1 : 0) | (sample.subcategory() != null ? 2 : 0)
+                | (sample.snmpOid() != null ? 4 : 0) | (sample.warningThreshold() != null ? 8 : 0)
+                | (sample.criticalThreshold() != null ? 16 : 0);
+        out.put((byte) present);
+        putString(out, sample.metricName());
+        if (sample.unit() != null) {
+            putString(out, sample.unit());
+        }
+        if (sample.subcategory() != null) {
+            putString(out, sample.subcategory());
+        }
+        if (sample.snmpOid() != null) {
+            putString(out, sample.snmpOid());
+        }
+        if (sample.warningThreshold() != null) {
+            out.putDouble(sample.warningThreshold());
+        }
+        if (sample.criticalThreshold() != null) {
+            out.putDouble(sample.criticalThreshold());
+        }
+    }
+
+    private static MetricSample decode(ByteBuffer in) {
+        long serverId = in.getLong();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        double value = in.getDouble();
+        MetricCategory category = CATEGORIES[in.get()];
+        int present = in.get();
+        String metricName = getString(in);
+        String unit = (present & 1) != 0 ? getString(in) : null;
+        String subcategory = (present & 2) != 0 ? getString(in) : null;
+        String snmpOid = (present & 4) != 0 ? getString(in) : null;
+        Double warningThreshold = (present & 8) != 0 ? in.getDouble() : null;
+        Double criticalThreshold = (present & 16) != 0 ? in.getDouble() : null;
+        return new MetricSample(serverId, metricName, value, unit, category, subcategory, snmpOid, timestamp,
+                warningThreshold, criticalThreshold);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Amostras lidas e a posição após a última delas. Guarda também a posição
+     * após cada amostra, para confirmar partes do lote ({@link #slice}).
+     */
+    public static final class Batch {
+        private final List<MetricSample> samples;
+        private final long[] segmentIds;
+        private final int[] offsets;
+        private final long segmentId;
+        private final int offset;
+
+        private Batch(List<MetricSample> samples, long[] segmentIds, int[] offsets, long segmentId, int offset) {
+            this.samples = samples;
+            this.segmentIds = segmentIds;
+            this.offsets = offsets;
+            this.segmentId = segmentId;
+            this.offset = offset;
+        }
+
+        public List<MetricSample> samples() {
+            return samples;
+        }
+
+        public long segmentId() {
+            return segmentId;
+        }
+
+        public int offset() {
+            return offset;
+        }
+
+        /**
+         * Amostras de {@code from} (inclusive) a {@code to} (exclusive), com a
+         * posição após a última delas: confirmar a parte confirma também as
+         * amostras anteriores do lote
+         */
+        public Batch slice(int from, int to) {
+            if (from < 0 || to > samples.size() || from >= to) {
+                throw new IllegalArgumentException("Parte inválida do lote: [" + from + ", " + to + ")");
+            }
+            return new Batch(samples.subList(from, to), Arrays.copyOfRange(segmentIds, from, to),
+                    Arrays.copyOfRange(offsets, from, to), segmentIds[to - 1], offsets[to - 1]);
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long id;
+        private final MappedByteBuffer buffer;
+        private int end;
+
+        private Segment(Path path, long id, MappedByteBuffer buffer) {
+            this.path = path;
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long id, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                // Segmentos existentes mantêm o tamanho com que foram criados
+                long mapped = Math.max(size, channel.size());
+                return new Segment(path, id, channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped));
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.util.Objects;
+
+import org.snmp4j.PDU;
+import org.snmp4j.ScopedPDU;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.security.AuthHMAC192SHA256;
+import org.snmp4j.security.AuthHMAC384SHA512;
+import org.snmp4j.security.AuthMD5;
+import org.snmp4j.security.AuthSHA;
+import org.snmp4j.security.PrivAES128;
+import org.snmp4j.security.PrivAES256;
+import org.snmp4j.security.PrivDES;
+import org.snmp4j.security.SecurityLevel;
+import org.snmp4j.smi.OID;
+
+import com.victorqueiroga.serverwatch.model.Server;
+
+/**
+ * Credenciais SNMP de um agente: community (v2c) ou usuário USM (v3).
+ *
+ * Imutável; os protocolos já são resolvidos para os OIDs do SNMP4J na
+ * criação, para que o envio não precise convertê-los a cada requisição.
+ */
+public final class SnmpCredentials {
+
+    public static final int DEFAULT_PORT = 161;
+
+    private final int version;
+    private final int port;
+    private final String community;
+    private final String securityName;
+    private final OID authProtocol;
+    private final String authPassphrase;
+    private final OID privProtocol;
+    private final String privPassphrase;
+
+    private SnmpCredentials(int version, int port, String community, String securityName, OID authProtocol,
+            String authPassphrase, OID privProtocol, String privPassphrase) {
+        this.version = version;
+        this.port = port;
+        this.community = community;
+        this.securityName = securityName;
+        this.authProtocol = authProtocol;
+        this.authPassphrase = authPassphrase;
+        this.privProtocol = privProtocol;
+        this.privPassphrase = privPassphrase;
+    }
+
+    /**
+     * Credenciais SNMPv2c
+     */
+    public static SnmpCredentials community(int port, String community) {
+        return new SnmpCredentials(SnmpConstants.version2c, port, community, null, null, null, null, null);
+    }
+
+    /**
+     * Credenciais SNMPv3 (protocolos nulos = noAuth/noPriv)
+     */
+    public static SnmpCredentials usm(int port, String securityName, Server.SnmpAuthProtocol authProtocol,
+            String authPassphrase, Server.SnmpPrivProtocol privProtocol, String privPassphrase) {
+        if (securityName == null || securityName.isBlank()) {
+            throw new IllegalArgumentException("Usuário SNMPv3 é obrigatório");
+        }
+        if (privProtocol != null && authProtocol == null) {
+            throw new IllegalArgumentException("Privacidade SNMPv3 exige protocolo de autenticação");
+        }
+        return new SnmpCredentials(SnmpConstants.version3, port, null, securityName, toOid(authProtocol),
+                authPassphrase, toOid(privProtocol), privPassphrase);
+    }
+
+    /**
+     * Credenciais configuradas no cadastro do servidor
+     */
+    public static SnmpCredentials fromServer(Server server) {
+        int port = server.getSnmpPort() != null ? server.getSnmpPort() : DEFAULT_PORT;
+        if (server.getSnmpVersion() == Server.SnmpVersion.V3) {
+            return usm(port, server.getSnmpSecurityName(), server.getSnmpAuthProtocol(),
+                    server.getSnmpAuthPassphrase(), server.getSnmpPrivProtocol(), server.getSnmpPrivPassphrase());
+        }
+        String community = server.getSnmpCommunity();
+        return community(port, community == null || community.isBlank() ? "public" : community);
+    }
+
+    /**
+     * PDU adequado à versão (ScopedPDU no v3)
+     */
+    public PDU createPdu() {
+        return isV3() ? new ScopedPDU() : new PDU();
+    }
+
+    public boolean isV3() {
+        return version == SnmpConstants.version3;
+    }
+
+    public int getSecurityLevel() {
+        if (authProtocol == null) {
+            return SecurityLevel.NOAUTH_NOPRIV;
+        }
+        return privProtocol == null ? SecurityLevel.AUTH_NOPRIV : SecurityLevel.AUTH_PRIV;
+    }
+
+    /**
+     * Identifica a combinação usuário/protocolos/senhas, para detectar
+     * alteração de credenciais já localizadas
+     */
+    int fingerprint() {
+        return Objects.hash(securityName, authProtocol, authPassphrase, privProtocol, privPassphrase);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getCommunity() {
+        return community;
+    }
+
+    public String getSecurityName() {
+        return securityName;
+    }
+
+    public OID getAuthProtocol() {
+        return authProtocol;
+    }
+
+    public String getAuthPassphrase() {
+        return authPassphrase;
+    }
+
+    public OID getPrivProtocol() {
+        return privProtocol;
+    }
+
+    public String getPrivPassphrase() {
+        return privPassphrase;
+    }
+
+    private static OID toOid(Server.SnmpAuthProtocol protocol) {
+        if (protocol == null) {
+            return null;
+        }
+        return switch (protocol) {
+            case MD5 -> AuthMD5.ID;
+            case SHA -> AuthSHA.ID;
+            case SHA256 -> AuthHMAC192SHA256.ID;
+            case SHA512 -> AuthHMAC384SHA512.ID;
+        };
+    }
+
+    private static OID toOid(Server.SnmpPrivProtocol protocol) {
+        if (protocol == null) {
+            return null;
+        }
+        return switch (protocol) {
+            case DES -> PrivDES.ID;
+            case AES128 -> PrivAES128.ID;
+            case AES256 -> PrivAES256.ID;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return isV3()
+                ? "SNMPv3 " + securityName + " (nível " + getSecurityLevel() + ")"
+                : "SNMPv2c";
+    }
+}
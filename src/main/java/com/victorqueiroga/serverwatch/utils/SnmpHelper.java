@@ -2,20 +2,17 @@ package com.victorqueiroga.serverwatch.utils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 
-import org.snmp4j.CommunityTarget;
 import org.snmp4j.PDU;
-import org.snmp4j.Snmp;
-import org.snmp4j.TransportMapping;
-import org.snmp4j.event.ResponseEvent;
-import org.snmp4j.mp.SnmpConstants;
-import org.snmp4j.smi.Address;
-import org.snmp4j.smi.GenericAddress;
 import org.snmp4j.smi.OID;
-import org.snmp4j.smi.OctetString;
 import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.Variable;
 import org.snmp4j.smi.VariableBinding;
-import org.snmp4j.transport.DefaultUdpTransportMapping;
+
+import com.victorqueiroga.serverwatch.dto.DiskInfoDto;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Helper class for SNMP operations with corrected and standardized OIDs.
@@ -28,6 +25,7 @@ import org.snmp4j.transport.DefaultUdpTransportMapping;
  * @author Victor Queiroga
  * @version 2.0 - Corrected OIDs and added utility methods
  */
+@Slf4j
 public class SnmpHelper {
 
     // Standard MIB-II OIDs
@@ -109,96 +107,201 @@ public class SnmpHelper {
     public static final String OID_IF_ALIAS = "1.3.6.1.2.1.31.1.1.1.18";
     public static final String OID_IF_HIGH_SPEED = "1.3.6.1.2.1.31.1.1.1.15";
 
-    private String community;
-    private String address;
-    private int snmpVersion = SnmpConstants.version2c;
+
+    // OIDs pré-compilados usados na coleta (evita parse de String a cada requisição)
+    private static final OID SYS_DESCR = new OID(OID_SYS_DESCR);
+    private static final OID SYS_UPTIME = new OID(OID_SYS_UPTIME);
+    private static final OID HOSTNAME = new OID(OID_HOSTNAME);
+    private static final OID CPU_LOAD_1MIN = new OID(OID_CPU_LOAD_1MIN);
+    private static final OID SS_CPU_USER_PERCENT = new OID(OID_SS_CPU_USER_PERCENT);
+    private static final OID SS_CPU_SYSTEM_PERCENT = new OID(OID_SS_CPU_SYSTEM_PERCENT);
+    private static final OID SS_CPU_IDLE_PERCENT = new OID(OID_SS_CPU_IDLE_PERCENT);
+    private static final OID HR_PROCESSOR_LOAD = new OID(OID_HR_PROCESSOR_LOAD);
+    private static final OID WIN_CPU_UTIL = new OID(OID_WIN_CPU_UTIL);
+    private static final OID HR_STORAGE_TYPE = new OID(OID_HR_STORAGE_TYPE);
+    private static final OID HR_STORAGE_DESCR = new OID(OID_HR_STORAGE_DESCR);
+    private static final OID HR_STORAGE_UNITS = new OID(OID_HR_STORAGE_UNITS);
+    private static final OID HR_STORAGE_SIZE = new OID(OID_HR_STORAGE_SIZE);
+    private static final OID HR_STORAGE_USED = new OID(OID_HR_STORAGE_USED);
+    private static final OID MEM_TOTAL_REAL = new OID(OID_MEM_TOTAL_REAL);
+    private static final OID MEM_AVAIL_REAL = new OID(OID_MEM_AVAIL_REAL);
+    private static final OID MEM_USED_REAL = new OID(OID_MEM_USED_REAL);
+    private static final OID DISK_PATH = new OID(OID_DISK_PATH);
+    private static final OID DISK_TOTAL = new OID(OID_DISK_TOTAL);
+    private static final OID DISK_AVAIL = new OID(OID_DISK_AVAIL);
+    private static final OID DISK_USED = new OID(OID_DISK_USED);
+
+    // hrStorageType (1.3.6.1.2.1.25.2.1.x)
+    private static final int HR_STORAGE_OTHER = 1;
+    private static final int HR_STORAGE_RAM = 2;
+    private static final int HR_STORAGE_VIRTUAL_MEMORY = 3;
+    private static final int HR_STORAGE_FIXED_DISK = 4;
+
+    private static final long KB_PER_GB = 1024L * 1024L;
+    private static final long BYTES_PER_GB = 1024L * 1024L * 1024L;
+    private static final Pattern DRIVE_LETTER = Pattern.compile("^[A-Z]:\\\\.*");
+
+    /** Valor de leitura indisponível nos campos primitivos */
+    public static final long NOT_AVAILABLE = -1L;
+
+    private final SnmpCredentials credentials;
+    private final UdpAddress address;
+    private final SnmpSessionManager session;
+    private final SnmpRateLimit rateLimit;
+
+    // Trace de diagnóstico do dispositivo (null quando desabilitado)
+    private final SnmpTrace trace;
     private int timeout = 5000;
     private int retries = 2;
 
     // Cache para detecção de SO
+    private String systemDescription = null;
     private Boolean isWindows = null;
     private Boolean isPfsense = null;
 
+    // Cache da leitura de memória (uma varredura por ciclo de coleta)
+    private MemoryReading memoryReading = null;
+
     public SnmpHelper(String ip, String community) {
-        this.address = "udp:" + ip + "/161"; // Porta SNMP padrão
-        this.community = community;
+        this(ip, SnmpCredentials.DEFAULT_PORT, community); // Porta SNMP padrão
+    }
+
+    /**
+     * Permite informar a porta do agente (ex: agentes em porta não padrão ou
+     * agente embarcado usado nos benchmarks)
+     */
+    public SnmpHelper(String ip, int port, String community) {
+        this(ip, SnmpCredentials.community(port, community));
+    }
+
+    /**
+     * Coleta com as credenciais do servidor (v2c ou v3), pela sessão SNMP
+     * compartilhada do processo
+     */
+    public SnmpHelper(String ip, SnmpCredentials credentials) {
+        this(ip, credentials, SnmpRateLimit.DEFAULT);
+    }
+
+    /**
+     * Coleta respeitando o limite de carga do agente (ex: pfSense com poucas
+     * requisições por segundo e uma por vez)
+     */
+    public SnmpHelper(String ip, SnmpCredentials credentials, SnmpRateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+        this.address = new UdpAddress(ip + "/" + credentials.getPort());
+        this.trace = SnmpTrace.forAddress(ip);
+        this.credentials = credentials;
+        this.session = SnmpSessionManager.getInstance();
         // Configurações mais tolerantes para melhor compatibilidade
         this.timeout = 5000; // 5 segundos
         this.retries = 3;
     }
 
     public String getAsString(String oid) throws Exception {
-        CommunityTarget<UdpAddress> target = createTarget();
-        TransportMapping<UdpAddress> transport = new DefaultUdpTransportMapping();
-        Snmp snmp = new Snmp(transport);
-        transport.listen();
+        return getVariable(new OID(oid)).toString();
+    }
 
-        PDU pdu = new PDU();
-        pdu.add(new VariableBinding(new OID(oid)));
-        pdu.setType(PDU.GET);
+    public String getAsString(OID oid) throws Exception {
+        return getVariable(oid).toString();
+    }
 
-        ResponseEvent<UdpAddress> responseEvent = snmp.send(pdu, target);
+    /**
+     * Obtém o valor tipado de um OID. Exceções SNMP (noSuchObject,
+     * noSuchInstance, endOfMibView) são detectadas via
+     * {@link Variable#isException()}.
+     */
+    public Variable getVariable(OID oid) throws Exception {
+        long start = trace != null ? System.nanoTime() : 0L;
 
-        try {
-            snmp.close();
-        } catch (Exception e) {
-            // Ignora erros ao fechar
-        }
+        PDU pdu = credentials.createPdu();
+        pdu.add(new VariableBinding(oid));
+        pdu.setType(PDU.GET);
+
+        PDU response = session.send(pdu, credentials, address, rateLimit, timeout, retries);
 
-        if (responseEvent != null && responseEvent.getResponse() != null) {
-            PDU response = responseEvent.getResponse();
+        if (response != null) {
 
             if (response.getErrorStatus() != 0) {
+                traceRequest("GET", oid, start, SnmpTrace.Outcome.ERROR, response.getErrorStatusText());
                 throw new RuntimeException("Erro SNMP: " + response.getErrorStatusText()
                         + " (código: " + response.getErrorStatus() + ") para OID: " + oid);
             }
 
             if (response.size() > 0) {
-                VariableBinding vb = response.get(0);
-                String result = vb.getVariable().toString();
+                Variable variable = response.get(0).getVariable();
 
-                if (result.contains("noSuchObject") || result.contains("noSuchInstance")) {
+                if (SnmpValueDecoder.isException(variable)) {
+                    traceRequest("GET", oid, start, SnmpTrace.Outcome.NO_SUCH, variable);
                     throw new RuntimeException("OID não suportado pelo dispositivo: " + oid);
                 }
 
-                return result;
+                traceRequest("GET", oid, start, SnmpTrace.Outcome.OK, variable);
+                return variable;
             }
         }
 
+        traceRequest("GET", oid, start, SnmpTrace.Outcome.TIMEOUT, null);
         throw new RuntimeException("SNMP Timeout ou sem resposta para OID: " + oid);
     }
 
-    private CommunityTarget<UdpAddress> createTarget() {
-        Address targetAddress = GenericAddress.parse(address);
-        CommunityTarget<UdpAddress> target = new CommunityTarget<>();
-        target.setCommunity(new OctetString(community));
-        target.setAddress((UdpAddress) targetAddress);
-        target.setRetries(retries);
-        target.setTimeout(timeout);
-        target.setVersion(snmpVersion);
-        return target;
+    private void traceRequest(String operation, OID oid, long start, SnmpTrace.Outcome outcome, Object value) {
+        if (trace != null) {
+            trace.request(operation, oid, System.nanoTime() - start, outcome, value);
+        }
+    }
+
+    /**
+     * Obtém um valor numérico (Integer32, Counter, Gauge, TimeTicks ou texto
+     * numérico) sem conversão intermediária para String
+     */
+    public long getLong(OID oid) throws Exception {
+        return SnmpValueDecoder.toLong(getVariable(oid));
+    }
+
+    /**
+     * Obtém um valor numérico como double (ex: laLoad "0.42")
+     */
+    public double getDouble(OID oid) throws Exception {
+        return SnmpValueDecoder.toDouble(getVariable(oid));
+    }
+
+    /**
+     * OID de uma coluna de tabela para o índice informado
+     */
+    private static OID column(OID column, int index) {
+        return new OID(column.getValue(), index);
     }
 
     // Métodos utilitários para OIDs comumente usadas
     /**
-     * Obtém a descrição do sistema
+     * Obtém a descrição do sistema (com cache, usada também na detecção de SO)
      */
     public String getSystemDescription() throws Exception {
-        return getAsString(OID_SYS_DESCR);
+        if (systemDescription == null) {
+            systemDescription = getAsString(SYS_DESCR);
+        }
+        return systemDescription;
     }
 
     /**
      * Obtém o hostname do sistema
      */
     public String getHostname() throws Exception {
-        return getAsString(OID_HOSTNAME);
+        return getAsString(HOSTNAME);
     }
 
     /**
      * Obtém o uptime do sistema em centésimos de segundo
      */
     public String getUptime() throws Exception {
-        return getAsString(OID_SYS_UPTIME);
+        return String.valueOf(getUptimeCentiseconds());
+    }
+
+    /**
+     * Obtém o uptime (sysUpTime, TimeTicks) em centésimos de segundo
+     */
+    public long getUptimeCentiseconds() throws Exception {
+        return getLong(SYS_UPTIME);
     }
 
     /**
@@ -206,7 +309,7 @@ public class SnmpHelper {
      */
     public boolean isWindowsSystem() throws Exception {
         if (isWindows == null) {
-            String sysDescr = getAsString(OID_SYS_DESCR).toLowerCase();
+            String sysDescr = getSystemDescription().toLowerCase();
             isWindows = sysDescr.contains("windows") || sysDescr.contains("microsoft");
         }
         return isWindows;
@@ -217,8 +320,8 @@ public class SnmpHelper {
      */
     public boolean isPfSenseSystem() throws Exception {
         if (isPfsense == null) {
-            String sysDescr = getAsString(OID_SYS_DESCR).toLowerCase();
-            isPfsense = sysDescr.contains("pfsense") || 
+            String sysDescr = getSystemDescription().toLowerCase();
+            isPfsense = sysDescr.contains("pfsense") ||
                        sysDescr.contains("freebsd") ||
                        sysDescr.contains("netgate");
         }
@@ -258,18 +361,14 @@ public class SnmpHelper {
         }
     }
 
-    private Double getLinuxCpuUsage() throws Exception {
+    private double getLinuxCpuUsage() throws Exception {
         // MÉTODO 1: Percentuais pré-calculados (mais preciso)
         try {
-            String idlePercent = getAsString(OID_SS_CPU_IDLE_PERCENT);
-            if (idlePercent != null && !idlePercent.contains("noSuch")) {
-                double idle = Double.parseDouble(idlePercent.trim());
-                double usage = 100.0 - idle;
+            double usage = 100.0 - getDouble(SS_CPU_IDLE_PERCENT);
 
-                // Validação
-                if (usage >= 0 && usage <= 100) {
-                    return clampPercent(usage);
-                }
+            // Validação
+            if (usage >= 0 && usage <= 100) {
+                return clampPercent(usage);
             }
         } catch (Exception e) {
             // Net-SNMP Percentual não disponível
@@ -277,18 +376,10 @@ public class SnmpHelper {
 
         // MÉTODO 2: Cálculo via User + System percentuais
         try {
-            String userPercent = getAsString(OID_SS_CPU_USER_PERCENT);
-            String systemPercent = getAsString(OID_SS_CPU_SYSTEM_PERCENT);
+            double usage = getDouble(SS_CPU_USER_PERCENT) + getDouble(SS_CPU_SYSTEM_PERCENT);
 
-            if (userPercent != null && systemPercent != null
-                    && !userPercent.contains("noSuch") && !systemPercent.contains("noSuch")) {
-                double user = Double.parseDouble(userPercent.trim());
-                double system = Double.parseDouble(systemPercent.trim());
-                double usage = user + system;
-
-                if (usage >= 0 && usage <= 100) {
-                    return clampPercent(usage);
-                }
+            if (usage >= 0 && usage <= 100) {
+                return clampPercent(usage);
             }
         } catch (Exception e) {
             // User+System não disponível
@@ -296,29 +387,9 @@ public class SnmpHelper {
 
         // MÉTODO 3: Host Resources MIB (funciona em muitos Linux)
         try {
-            List<VariableBinding> cpuLoads = snmpWalk(OID_HR_PROCESSOR_LOAD);
-
-            if (!cpuLoads.isEmpty()) {
-                double totalLoad = 0;
-                int validCount = 0;
-
-                for (VariableBinding vb : cpuLoads) {
-                    try {
-                        String valueStr = vb.getVariable().toString().trim();
-                        double load = Double.parseDouble(valueStr);
-
-                        if (load >= 0 && load <= 100) {
-                            totalLoad += load;
-                            validCount++;
-                        }
-                    } catch (NumberFormatException ignored) {
-                    }
-                }
-
-                if (validCount > 0) {
-                    double avgLoad = totalLoad / validCount;
-                    return clampPercent(avgLoad);
-                }
+            double avgLoad = averageProcessorLoad(snmpWalk(OID_HR_PROCESSOR_LOAD));
+            if (avgLoad >= 0) {
+                return clampPercent(avgLoad);
             }
         } catch (Exception e) {
             // Host Resources MIB não disponível
@@ -334,32 +405,19 @@ public class SnmpHelper {
         throw new Exception("Nenhum método de coleta de CPU funcionou para Linux");
     }
 
-    private Double getWindowsCpuUsage() throws Exception {
-        // MÉTODO 1: Host Resources MIB - média de hrProcessorLoad por core
+    private double getWindowsCpuUsage() throws Exception {
+        // MÉTODO 1: Host Resources MIB - primeiro hrProcessorLoad válido
         try {
-            List<VariableBinding> cpuLoads = snmpWalk(OID_HR_PROCESSOR_LOAD);
+            for (VariableBinding vb : snmpWalk(OID_HR_PROCESSOR_LOAD)) {
+                Variable variable = vb.getVariable();
+                if (SnmpValueDecoder.isNumeric(variable)) {
+                    double load = SnmpValueDecoder.toDouble(variable);
 
-            if (!cpuLoads.isEmpty()) {
-                double totalLoad = 0;
-                int validCount = 0;
-
-                for (VariableBinding vb : cpuLoads) {
-                    try {
-                        String valueStr = vb.getVariable().toString().trim();
-                        double load = Double.parseDouble(valueStr);
-
-                        // Validação: 0..100
-                        if (load >= 0 && load <= 100) {
-                            return load;
-                        }
-                    } catch (NumberFormatException ignored) {
+                    // Validação: 0..100
+                    if (load >= 0 && load <= 100) {
+                        return load;
                     }
                 }
-
-                if (validCount > 0) {
-                    double avgLoad = totalLoad / validCount;
-                    return clampPercent(avgLoad);
-                }
             }
         } catch (Exception e) {
             // Host Resources MIB (walk) não disponível
@@ -371,13 +429,10 @@ public class SnmpHelper {
         int count = 0;
         for (int idx : commonIndexes) {
             try {
-                String value = getAsString(OID_HR_PROCESSOR_LOAD + "." + idx);
-                if (value != null && !value.contains("noSuch")) {
-                    double load = Double.parseDouble(value.trim());
-                    if (load >= 0 && load <= 100) {
-                        total += load;
-                        count++;
-                    }
+                double load = getDouble(column(HR_PROCESSOR_LOAD, idx));
+                if (load >= 0 && load <= 100) {
+                    total += load;
+                    count++;
                 }
             } catch (Exception ignored) {
             }
@@ -386,90 +441,53 @@ public class SnmpHelper {
             // Última tentativa com varredura de 1..32
             for (int idx = 1; idx <= 32; idx++) {
                 try {
-                    String value = getAsString(OID_HR_PROCESSOR_LOAD + "." + idx);
-                    if (value != null && !value.contains("noSuch")) {
-                        double load = Double.parseDouble(value.trim());
-                        if (load >= 0 && load <= 100) {
-                            total += load;
-                            count++;
-                        }
+                    double load = getDouble(column(HR_PROCESSOR_LOAD, idx));
+                    if (load >= 0 && load <= 100) {
+                        total += load;
+                        count++;
                     }
                 } catch (Exception ignored) {
                 }
             }
         }
         if (count > 0) {
-            double avg = total / count;
-            return avg;
+            return total / count;
         }
 
         // MÉTODO 3: OID específico Windows (pode variar por agente SNMP)
-        try {
-            // Tenta alguns índices usuais
-            String[] candidates = { OID_WIN_CPU_UTIL + ".0", OID_WIN_CPU_UTIL + ".1", OID_WIN_CPU_UTIL };
-            for (String oid : candidates) {
-                try {
-                    String winCpu = getAsString(oid);
-                    if (winCpu != null && !winCpu.contains("noSuch")) {
-                        double usage = Double.parseDouble(winCpu.trim());
-                        if (usage >= 0 && usage <= 100) {
-                            return usage;
-                        }
-                    }
-                } catch (Exception ignored) {
+        OID[] candidates = { column(WIN_CPU_UTIL, 0), column(WIN_CPU_UTIL, 1), WIN_CPU_UTIL };
+        for (OID oid : candidates) {
+            try {
+                double usage = getDouble(oid);
+                if (usage >= 0 && usage <= 100) {
+                    return usage;
                 }
+            } catch (Exception ignored) {
             }
-        } catch (Exception e) {
-            // Windows OID específico não disponível
         }
 
         throw new Exception("Nenhum método de coleta de CPU funcionou para Windows");
     }
 
-    private Double getLoadAverageAsPercent() throws Exception {
-        String load1min = getAsString(OID_CPU_LOAD_1MIN);
+    private double getLoadAverageAsPercent() throws Exception {
+        double load = getDouble(CPU_LOAD_1MIN);
 
-        if (load1min != null && !load1min.contains("noSuch")) {
-            double load = Double.parseDouble(load1min.trim());
+        // Tenta detectar número de CPUs
+        int cpuCount = getCpuCount();
 
-            // Tenta detectar número de CPUs
-            int cpuCount = getCpuCount();
+        // Calcula porcentagem baseada no load e número de CPUs
+        double percent = (load / cpuCount) * 100.0;
 
-            // Calcula porcentagem baseada no load e número de CPUs
-            double percent = (load / cpuCount) * 100.0;
-
-            // Limita entre 0 e 100
-            percent = Math.min(100.0, Math.max(0.0, percent));
-
-            return clampPercent(percent);
-        }
-
-        throw new Exception("Load Average não disponível");
+        // Limita entre 0 e 100
+        return clampPercent(percent);
     }
 
-    private Double getFallbackCpuUsage() throws Exception {
+    private double getFallbackCpuUsage() throws Exception {
         // Tenta Host Resources mesmo em Linux (alguns suportam)
         try {
-            List<VariableBinding> cpuLoads = snmpWalk(OID_HR_PROCESSOR_LOAD);
-            if (!cpuLoads.isEmpty()) {
-                double totalLoad = 0;
-                int count = 0;
-
-                for (VariableBinding vb : cpuLoads) {
-                    try {
-                        double load = Double.parseDouble(vb.getVariable().toString().trim());
-                        if (load >= 0 && load <= 100) {
-                            totalLoad += load;
-                            count++;
-                        }
-                    } catch (NumberFormatException ignored) {
-                    }
-                }
-
-                if (count > 0) {
-                    double avg = totalLoad / count;
-                    return clampPercent(avg);
-                }
+            double avg = averageProcessorLoad(snmpWalk(OID_HR_PROCESSOR_LOAD));
+            if (avg >= 0) {
+                return clampPercent(avg);
             }
         } catch (Exception e) {
             // Fallback HR failed
@@ -478,6 +496,28 @@ public class SnmpHelper {
         throw new Exception("Todos os métodos de coleta de CPU falharam");
     }
 
+    /**
+     * Média dos valores válidos (0..100) de hrProcessorLoad, ou -1 se nenhum
+     */
+    private static double averageProcessorLoad(List<VariableBinding> cpuLoads) {
+        double totalLoad = 0;
+        int validCount = 0;
+
+        for (VariableBinding vb : cpuLoads) {
+            Variable variable = vb.getVariable();
+            if (!SnmpValueDecoder.isNumeric(variable)) {
+                continue;
+            }
+            double load = SnmpValueDecoder.toDouble(variable);
+            if (load >= 0 && load <= 100) {
+                totalLoad += load;
+                validCount++;
+            }
+        }
+
+        return validCount > 0 ? totalLoad / validCount : -1;
+    }
+
     /**
      * Tenta detectar o número de CPUs/cores do sistema
      */
@@ -488,7 +528,11 @@ public class SnmpHelper {
             if (!loads.isEmpty()) {
                 return Math.max(1, loads.size());
             }
+        } catch (Exception e) {
+            // Ignora erro
+        }
 
+        try {
             // 2) Fallback: contar entradas de FRWID
             List<VariableBinding> processors = snmpWalk(OID_HR_PROCESSOR_FRWID);
             if (!processors.isEmpty()) {
@@ -522,19 +566,59 @@ public class SnmpHelper {
         }
     }
 
+    /**
+     * Leitura de memória em KB obtida em uma única varredura. Campos não
+     * disponíveis no agente valem {@link SnmpHelper#NOT_AVAILABLE}.
+     */
+    public static final class MemoryReading {
+
+        private final long totalKB;
+        private final long usedKB;
+        private final long availableKB;
+
+        public MemoryReading(long totalKB, long usedKB, long availableKB) {
+            this.totalKB = totalKB;
+            this.usedKB = usedKB;
+            this.availableKB = availableKB;
+        }
+
+        public long getTotalKB() {
+            return totalKB;
+        }
+
+        public long getUsedKB() {
+            return usedKB;
+        }
+
+        public long getAvailableKB() {
+            return availableKB;
+        }
+    }
+
+    /**
+     * Lê memória total, usada e disponível (inteligente por SO). Host
+     * Resources MIB primeiro (Windows e PFSENSE), Net-SNMP como fallback
+     * (Linux). O resultado fica em cache na instância.
+     */
+    public MemoryReading readMemory() throws Exception {
+        if (memoryReading == null) {
+            MemoryReading reading;
+            try {
+                reading = readMemoryFromHostResources();
+            } catch (Exception e) {
+                reading = readMemoryFromNetSnmp();
+            }
+            memoryReading = reading;
+        }
+        return memoryReading;
+    }
+
     /**
      * Obtém a memória total (inteligente por SO)
      */
     public String getMemoryTotal() throws Exception {
         try {
-            // Tenta Host Resources MIB primeiro (Windows e PFSENSE)
-            String hostResourcesMem = getWindowsMemoryFromHostResources("total");
-            if (hostResourcesMem != null && !hostResourcesMem.isEmpty() && !hostResourcesMem.equals("0")) {
-                return hostResourcesMem;
-            }
-            
-            // Fallback para Net-SNMP OIDs (Linux)
-            return getAsString(OID_MEM_TOTAL_REAL);
+            return formatKB(readMemory().getTotalKB());
         } catch (Exception e) {
             return null;
         }
@@ -545,14 +629,7 @@ public class SnmpHelper {
      */
     public String getMemoryAvailable() throws Exception {
         try {
-            // Tenta Host Resources MIB primeiro (Windows e PFSENSE)
-            String hostResourcesMem = getWindowsMemoryFromHostResources("available");
-            if (hostResourcesMem != null && !hostResourcesMem.isEmpty() && !hostResourcesMem.equals("0")) {
-                return hostResourcesMem;
-            }
-            
-            // Fallback para Net-SNMP OIDs (Linux)
-            return getAsString(OID_MEM_AVAIL_REAL);
+            return formatKB(readMemory().getAvailableKB());
         } catch (Exception e) {
             return null;
         }
@@ -563,124 +640,115 @@ public class SnmpHelper {
      */
     public String getMemoryUsed() throws Exception {
         try {
-            // Tenta Host Resources MIB primeiro (Windows e PFSENSE)
-            String hostResourcesMem = getWindowsMemoryFromHostResources("used");
-            if (hostResourcesMem != null && !hostResourcesMem.isEmpty() && !hostResourcesMem.equals("0")) {
-                return hostResourcesMem;
-            }
-            
-            // Fallback para Net-SNMP OIDs (Linux)
-            return getAsString(OID_MEM_USED_REAL);
+            return formatKB(readMemory().getUsedKB());
         } catch (Exception e) {
             return null;
         }
     }
 
+    private static String formatKB(long kb) {
+        return kb == NOT_AVAILABLE ? null : String.valueOf(kb);
+    }
+
     /**
-     * Helper para obter informações de memória do Windows/PFSENSE via Host Resources MIB
-     * Procura por TODAS as entradas de tipo RAM e retorna a MAIOR (RAM principal)
+     * Memória via Net-SNMP (UCD-SNMP-MIB memory group, valores em KB)
      */
-    private String getWindowsMemoryFromHostResources(String type) throws Exception {
+    private MemoryReading readMemoryFromNetSnmp() throws Exception {
+        long totalKB = getLong(MEM_TOTAL_REAL);
+        long usedKB = getLongOrDefault(MEM_USED_REAL, NOT_AVAILABLE);
+        long availableKB = getLongOrDefault(MEM_AVAIL_REAL, NOT_AVAILABLE);
+        return new MemoryReading(totalKB, usedKB, availableKB);
+    }
+
+    private long getLongOrDefault(OID oid, long defaultValue) {
+        try {
+            return getLong(oid);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Memória do Windows/PFSENSE via Host Resources MIB. Procura por TODAS as
+     * entradas de tipo RAM e usa a MAIOR (RAM principal).
+     */
+    private MemoryReading readMemoryFromHostResources() throws Exception {
         long bestTotalKB = 0;
         long bestUsedKB = 0;
         int bestIndex = -1;
         String bestDescr = "";
-        
-        System.out.println("[MEM-HR] Procurando entradas de RAM em Host Resources (índices 1-50)...");
-        
+
         // Procura por TODAS as entradas RAM - expandido para índice 50
         for (int i = 1; i <= 50; i++) {
             try {
-                String storageType = getAsString(OID_HR_STORAGE_TYPE + "." + i);
-                String descr = getAsString(OID_HR_STORAGE_DESCR + "." + i);
-                
-                // Ignora se não tem tipo ou descrição
-                if (storageType == null || descr == null || storageType.contains("noSuch")) {
+                int storageType = SnmpValueDecoder.lastSubId(getVariable(column(HR_STORAGE_TYPE, i)));
+                String descr = getAsString(column(HR_STORAGE_DESCR, i));
+                String lowerDescr = descr.toLowerCase();
+
+                // Procura por RAM - pode ser tipo .2 (RAM) ou descrição contendo "memory"/"physical"
+                boolean isRamType = storageType == HR_STORAGE_RAM;
+                boolean isRamDescription = lowerDescr.contains("physical") ||
+                                          lowerDescr.contains("memory") ||
+                                          lowerDescr.contains("ram");
+
+                if (!isRamType && !isRamDescription) {
                     continue;
                 }
-                
-                System.out.println("[MEM-HR] Índice " + i + ": tipo=" + storageType + ", desc=" + descr);
-                
-                // Procura por RAM - pode ser tipo .2 (RAM) ou descrição contendo "memory"/"physical"
-                boolean isRamType = storageType.endsWith(".2") || storageType.contains("1.3.6.1.2.1.25.2.1.2");
-                boolean isRamDescription = descr.toLowerCase().contains("physical") || 
-                                          descr.toLowerCase().contains("memory") ||
-                                          descr.toLowerCase().contains("ram");
-                
-                if (isRamType || isRamDescription) {
-                    System.out.println("[MEM-HR] ✓ Encontrado candidato: " + descr);
-                    
-                    String units = getAsString(OID_HR_STORAGE_UNITS + "." + i);
-                    String size = getAsString(OID_HR_STORAGE_SIZE + "." + i);
-                    String used = getAsString(OID_HR_STORAGE_USED + "." + i);
-
-                    if (units != null && size != null && !units.contains("noSuch") && !size.contains("noSuch")) {
-                        try {
-                            long unitSize = Long.parseLong(units.trim());
-                            long totalSize = Long.parseLong(size.trim());
-                            long usedSize = Long.parseLong(used != null && !used.contains("noSuch") ? used.trim() : "0");
-                            
-                            long totalBytes = unitSize * totalSize;
-                            long totalKB = totalBytes / 1024;
-                            long usedBytes = unitSize * usedSize;
-                            long usedKB = usedBytes / 1024;
-                            
-                            long totalGB = totalKB / 1024 / 1024;
-                            System.out.println("[MEM-HR] Índice " + i + ": " + descr + " = " + totalGB + " GB (KB=" + totalKB + ")");
-                            
-                            // Descarta valores muito pequenos (< 256 MB) e rejeita entradas óbvias não-RAM
-                            boolean isTooSmall = totalKB < 262144; // 256 MB em KB
-                            boolean isVirtual = descr.toLowerCase().contains("virtual");
-                            
-                            if (!isTooSmall && !isVirtual) {
-                                // Prioriza a MAIOR entrada encontrada
-                                if (totalKB > bestTotalKB) {
-                                    bestTotalKB = totalKB;
-                                    bestUsedKB = usedKB;
-                                    bestIndex = i;
-                                    bestDescr = descr;
-                                    System.out.println("[MEM-HR] ✅ Nova melhor entrada: índice " + i + " com " + totalGB + " GB");
-                                }
-                            } else {
-                                String reason = isTooSmall ? ("muito pequeno: " + (totalKB/1024) + " MB") : "é virtual";
-                                System.out.println("[MEM-HR] ⚠️ Descartado (" + reason + ")");
-                            }
-                        } catch (NumberFormatException e) {
-                            System.out.println("[MEM-HR] ❌ Erro parsing números no índice " + i + ": " + e.getMessage());
+
+                long unitSize;
+                long totalSize;
+                try {
+                    unitSize = getLong(column(HR_STORAGE_UNITS, i));
+                    totalSize = getLong(column(HR_STORAGE_SIZE, i));
+                } catch (NumberFormatException e) {
+                    if (trace != null) {
+                        trace.note("memory", "Índice " + i + " (" + descr + "): valores não numéricos - " + e.getMessage());
+                    }
+                    continue;
+                }
+                long usedSize = getLongOrDefault(column(HR_STORAGE_USED, i), 0);
+
+                long totalKB = unitSize * totalSize / 1024;
+                long usedKB = unitSize * usedSize / 1024;
+
+                // Descarta valores muito pequenos (< 256 MB) e rejeita entradas óbvias não-RAM
+                boolean isTooSmall = totalKB < 262144; // 256 MB em KB
+                boolean isVirtual = lowerDescr.contains("virtual");
+
+                if (!isTooSmall && !isVirtual) {
+                    // Prioriza a MAIOR entrada encontrada
+                    if (totalKB > bestTotalKB) {
+                        bestTotalKB = totalKB;
+                        bestUsedKB = usedKB;
+                        bestIndex = i;
+                        bestDescr = descr;
+                        if (trace != null) {
+                            trace.note("memory", "Candidato RAM índice " + i + " (" + descr + "): " + totalKB + " KB - melhor até agora");
                         }
-                    } else {
-                        System.out.println("[MEM-HR] ⚠️ OIDs não retornaram valores válidos (units=" + units + ", size=" + size + ")");
                     }
+                } else if (trace != null) {
+                    String reason = isTooSmall ? ("muito pequeno: " + (totalKB / 1024) + " MB") : "é virtual";
+                    trace.note("memory", "Candidato RAM índice " + i + " (" + descr + ") descartado: " + reason);
                 }
             } catch (Exception e) {
                 // Continue tentando outros índices
             }
         }
-        
+
         if (bestIndex == -1) {
-            System.out.println("[MEM-HR] ❌ Nenhuma entrada RAM válida encontrada");
-            throw new Exception("Memória " + type + " não encontrada via Host Resources MIB");
-        }
-        
-        System.out.println("[MEM-HR] ✅ Usando entrada: índice " + bestIndex + " (" + bestDescr + ") com " + (bestTotalKB/1024/1024) + " GB");
-        
-        // Retorna conforme o tipo solicitado
-        switch (type) {
-            case "total" -> {
-                System.out.println("[MEM-HR] Retornando TOTAL: " + bestTotalKB + " KB");
-                return String.valueOf(bestTotalKB);
-            }
-            case "used" -> {
-                System.out.println("[MEM-HR] Retornando USADO: " + bestUsedKB + " KB");
-                return String.valueOf(bestUsedKB);
+            if (trace != null) {
+                trace.note("memory", "Nenhuma entrada RAM válida em Host Resources; usando Net-SNMP");
             }
-            case "available" -> {
-                long availKB = bestTotalKB - bestUsedKB;
-                System.out.println("[MEM-HR] Retornando DISPONÍVEL: " + availKB + " KB");
-                return String.valueOf(availKB);
-            }
-            default -> throw new Exception("Tipo de memória desconhecido: " + type);
+            throw new Exception("Memória não encontrada via Host Resources MIB");
+        }
+
+        log.debug("Memória via Host Resources em {}: índice {} ({}) com {} KB", address, bestIndex, bestDescr, bestTotalKB);
+        if (trace != null) {
+            trace.note("memory", "Usando índice " + bestIndex + " (" + bestDescr + "): total=" + bestTotalKB
+                    + " KB, usado=" + bestUsedKB + " KB");
         }
+
+        return new MemoryReading(bestTotalKB, bestUsedKB, bestTotalKB - bestUsedKB);
     }
 
     /**
@@ -689,10 +757,10 @@ public class SnmpHelper {
     public String getDiskTotal() throws Exception {
         try {
             if (isWindowsSystem()) {
-                return getWindowsDiskFromHostResources("total");
+                return String.valueOf(getWindowsDiskFromHostResources("total"));
             } else {
                 // Para Linux, tenta Net-SNMP (índice 1 = primeiro disco)
-                return getAsString(OID_DISK_TOTAL + ".1");
+                return String.valueOf(getLong(column(DISK_TOTAL, 1)));
             }
         } catch (Exception e) {
             return null;
@@ -705,9 +773,9 @@ public class SnmpHelper {
     public String getDiskUsed() throws Exception {
         try {
             if (isWindowsSystem()) {
-                return getWindowsDiskFromHostResources("used");
+                return String.valueOf(getWindowsDiskFromHostResources("used"));
             } else {
-                return getAsString(OID_DISK_USED + ".1");
+                return String.valueOf(getLong(column(DISK_USED, 1)));
             }
         } catch (Exception e) {
             return null;
@@ -720,9 +788,9 @@ public class SnmpHelper {
     public String getDiskAvailable() throws Exception {
         try {
             if (isWindowsSystem()) {
-                return getWindowsDiskFromHostResources("available");
+                return String.valueOf(getWindowsDiskFromHostResources("available"));
             } else {
-                return getAsString(OID_DISK_AVAIL + ".1");
+                return String.valueOf(getLong(column(DISK_AVAIL, 1)));
             }
         } catch (Exception e) {
             return null;
@@ -731,51 +799,36 @@ public class SnmpHelper {
 
     /**
      * Helper para obter informações de disco do Windows via Host Resources MIB
+     * (valores em KB)
      */
-    private String getWindowsDiskFromHostResources(String type) throws Exception {
+    private long getWindowsDiskFromHostResources(String type) throws Exception {
         // Procura por storage do tipo disco fixo
         for (int i = 1; i <= 20; i++) {
             try {
-                String storageType = getAsString(OID_HR_STORAGE_TYPE + "." + i);
-                String description = getAsString(OID_HR_STORAGE_DESCR + "." + i);
+                int storageType = SnmpValueDecoder.lastSubId(getVariable(column(HR_STORAGE_TYPE, i)));
+                String description = getAsString(column(HR_STORAGE_DESCR, i));
 
                 // Procura por discos (tipo 1.3.6.1.2.1.25.2.1.4 = disco fixo)
                 // ou pela descrição contendo "C:" ou similar
-                if ((storageType != null && storageType.contains("1.3.6.1.2.1.25.2.1.4"))
-                        || (description != null && (description.contains("C:") || description.contains("/")))) {
-
-                    String units = getAsString(OID_HR_STORAGE_UNITS + "." + i);
-                    String size = getAsString(OID_HR_STORAGE_SIZE + "." + i);
-                    String used = getAsString(OID_HR_STORAGE_USED + "." + i);
-
-                    if (units != null && size != null) {
-                        long unitSize = Long.parseLong(units);
-                        long totalSize = Long.parseLong(size);
-                        long totalBytes = unitSize * totalSize;
-                        long totalKB = totalBytes / 1024;
-
-                        switch (type) {
-                            case "total" -> {
-                                return String.valueOf(totalKB);
-                            }
-                            case "used" -> {
-                                if (used != null) {
-                                    long usedSize = Long.parseLong(used);
-                                    long usedBytes = unitSize * usedSize;
-                                    return String.valueOf(usedBytes / 1024);
-                                }
-                            }
-                            case "available" -> {
-                                if (used != null) {
-                                    long usedSize = Long.parseLong(used);
-                                    long availableSize = totalSize - usedSize;
-                                    long availableBytes = unitSize * availableSize;
-                                    return String.valueOf(availableBytes / 1024);
-                                }
-                            }
-                            default -> {
-                                // Tipo desconhecido
-                            }
+                if (storageType == HR_STORAGE_FIXED_DISK
+                        || description.contains("C:") || description.contains("/")) {
+
+                    long unitSize = getLong(column(HR_STORAGE_UNITS, i));
+                    long totalSize = getLong(column(HR_STORAGE_SIZE, i));
+
+                    switch (type) {
+                        case "total" -> {
+                            return unitSize * totalSize / 1024;
+                        }
+                        case "used" -> {
+                            return unitSize * getLong(column(HR_STORAGE_USED, i)) / 1024;
+                        }
+                        case "available" -> {
+                            long usedSize = getLong(column(HR_STORAGE_USED, i));
+                            return unitSize * (totalSize - usedSize) / 1024;
+                        }
+                        default -> {
+                            // Tipo desconhecido
                         }
                     }
                 }
@@ -804,7 +857,7 @@ public class SnmpHelper {
 
     /**
      * Diagnostic method removed - use proper logging framework for diagnostics
-     * 
+     *
      * @deprecated Use logging framework instead of console output
      */
     @Deprecated
@@ -817,13 +870,13 @@ public class SnmpHelper {
      *
      * @return Lista de DiskInfoDto com todos os discos encontrados
      */
-    public java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> getAllDisks() {
-        java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> diskList = new java.util.ArrayList<>();
+    public List<DiskInfoDto> getAllDisks() {
+        List<DiskInfoDto> diskList = new ArrayList<>();
 
         try {
             boolean isWindowsSystem = isWindowsSystem();
             boolean isPfsenseSystem = false;
-            
+
             // Detecta PFSENSE
             try {
                 isPfsenseSystem = isPfSenseSystem();
@@ -831,37 +884,52 @@ public class SnmpHelper {
                 // Ignora erro na detecção
             }
 
-            System.out.println("[DEBUG DISK] isWindows=" + isWindowsSystem + ", isPfsense=" + isPfsenseSystem);
+            if (trace != null) {
+                trace.note("disk", "Detecção de SO: isWindows=" + isWindowsSystem + ", isPfsense=" + isPfsenseSystem);
+            }
 
             if (isWindowsSystem) {
                 // Windows: usa Host Resources MIB para enumerar todos os discos
-                System.out.println("[DEBUG DISK] Coletando discos Windows...");
                 diskList = collectWindowsDisks();
             } else if (isPfsenseSystem) {
                 // PFSENSE/FreeBSD: usa Net-SNMP ou Host Resources (tenta ambos)
-                System.out.println("[DEBUG DISK] Coletando discos PFSENSE/FreeBSD...");
-                diskList = collectPfsenseDisks();
-                
+                diskList = collectUcdDisks("FreeBSD Filesystem");
+
                 // Se não encontrou via Net-SNMP, tenta Host Resources
                 if (diskList.isEmpty()) {
-                    System.out.println("[DEBUG DISK] Net-SNMP não retornou discos, tentando Host Resources...");
-                    diskList = collectPfsenseDisksViaHostResources();
+                    if (trace != null) {
+                        trace.note("disk", "Net-SNMP não retornou discos, tentando Host Resources");
+                    }
+                    diskList = collectUnixDisksViaHostResources(100, "FreeBSD Filesystem (HR-MIB)");
                 }
             } else {
                 // Linux: usa Net-SNMP para enumerar discos
-                System.out.println("[DEBUG DISK] Coletando discos Linux...");
-                diskList = collectLinuxDisks();
+                diskList = collectUcdDisks("Linux Filesystem");
+
+                // Se não encontrou discos com UCD-MIB, tenta Host Resources MIB (fallback)
+                if (diskList.isEmpty()) {
+                    if (trace != null) {
+                        trace.note("disk", "Net-SNMP não retornou discos, tentando Host Resources");
+                    }
+                    diskList = collectUnixDisksViaHostResources(200, "Linux Filesystem (HR-MIB)");
+                }
             }
 
             // Calcula percentuais para todos os discos
-            for (com.victorqueiroga.serverwatch.dto.DiskInfoDto disk : diskList) {
+            for (DiskInfoDto disk : diskList) {
                 disk.calculateUsagePercent();
             }
 
-            System.out.println("[DEBUG DISK] Total de discos encontrados: " + diskList.size());
+            log.debug("{} discos encontrados em {}", diskList.size(), address);
+            if (trace != null) {
+                trace.note("disk", "Total de discos encontrados: " + diskList.size());
+            }
 
         } catch (Exception e) {
-            System.out.println("[DEBUG DISK] ❌ Erro ao coletar discos: " + e.getMessage());
+            log.debug("Erro ao coletar discos de {}: {}", address, e.getMessage());
+            if (trace != null) {
+                trace.note("disk", "Erro ao coletar discos: " + e.getMessage());
+            }
         }
 
         return diskList;
@@ -870,522 +938,215 @@ public class SnmpHelper {
     /**
      * Coleta discos do Windows usando Host Resources MIB
      */
-    private java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> collectWindowsDisks() {
-        java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> diskList = new java.util.ArrayList<>();
-
-        try {
-            System.out.println("\n[DEBUG DISK-WIN] ========== INICIANDO BUSCA POR DISCOS WINDOWS ==========");
-            System.out.println("[DEBUG DISK-WIN] Procurando discos Windows (índices 1-200)...\n");
-            
-            int discosTotaisEncontrados = 0;
-            int discosAdicionados = 0;
-            
-            // Enumera índices de storage do Host Resources MIB
-            // Expandido para 200 índices para encontrar discos em servidores com muitos storage
-            for (int i = 1; i <= 200; i++) {
-                try {
-                    // Verifica o tipo de storage
-                    String storageType = getAsString(OID_HR_STORAGE_TYPE + "." + i);
-                    if (storageType == null || storageType.contains("noSuch")) {
-                        continue;
-                    }
-
-                    // Pega descrição do storage
-                    String description = getAsString(OID_HR_STORAGE_DESCR + "." + i);
-                    if (description == null || description.trim().isEmpty()) {
-                        continue;
-                    }
-
-                    discosTotaisEncontrados++;
-                    System.out.println("[DEBUG DISK-WIN] Índice " + i + ": Tipo=" + storageType);
-                    System.out.println("[DEBUG DISK-WIN]         Desc=" + description);
+    private List<DiskInfoDto> collectWindowsDisks() {
+        List<DiskInfoDto> diskList = new ArrayList<>();
 
-                    // Coleta métricas do disco ANTES de filtrar
-                    String totalUnits = getAsString(OID_HR_STORAGE_SIZE + "." + i);
-                    String usedUnits = getAsString(OID_HR_STORAGE_USED + "." + i);
-                    String unitSize = getAsString(OID_HR_STORAGE_UNITS + "." + i);
+        int discosTotaisEncontrados = 0;
 
-                    System.out.println("[DEBUG DISK-WIN]         Size (unidades)=" + totalUnits + ", Unit (bytes)=" + unitSize + ", Used=" + usedUnits);
-
-                    if (totalUnits == null || totalUnits.contains("noSuch") ||
-                        unitSize == null || unitSize.contains("noSuch")) {
-                        System.out.println("[DEBUG DISK-WIN] ⚠️ OIDs não retornaram valores válidos\n");
-                        continue;
-                    }
-
-                    try {
-                        long total = Long.parseLong(totalUnits.trim());
-                        long used = usedUnits != null && !usedUnits.contains("noSuch") ? 
-                                    Long.parseLong(usedUnits.trim()) : 0;
-                        long unit = Long.parseLong(unitSize.trim());
-
-                        System.out.println("[DEBUG DISK-WIN]         Cálculo: Total=" + total + " unidades, Used=" + used + " unidades, Unit=" + unit + " bytes/unidade");
-
-                        // Converte para bytes - ambos total e used usam a mesma unidade
-                        long totalBytes = total * unit;
-                        long usedBytes = used * unit;
-                        
-                        long totalGB = totalBytes / (1024L * 1024L * 1024L);
-                        long usedGB = usedBytes / (1024L * 1024L * 1024L);
-                        long availableGB = totalGB - usedGB;
-
-                        System.out.println("[DEBUG DISK-WIN]         = " + totalBytes + " bytes");
-                        System.out.println("[DEBUG DISK-WIN]         = " + totalGB + " GB");
-
-                        // Filtra por tipo de disco DEPOIS de ter os valores
-                        // Tipo .4 é o padrão para "Fixed Disk" em Host Resources MIB
-                        // Tipo .1 é Physical Memory (deve ser ignorado)
-                        // Tipo .3 é Virtual Memory (deve ser ignorado)
-                        boolean isFixedDisk = storageType.endsWith(".4");
-                        boolean hasFixedKeyword = description.toLowerCase().contains("fixed");
-                        boolean isDriveLetter = description.matches("^[A-Z]:\\\\.*");
-                        
-                        // Rejeita explicitamente memória virtual e física
-                        boolean isVirtualMemory = storageType.endsWith(".3") || description.toLowerCase().contains("virtual");
-                        boolean isPhysicalMemory = storageType.endsWith(".1") || description.toLowerCase().contains("physical");
-                        
-                        System.out.println("[DEBUG DISK-WIN]         Filtros: isFixed=" + isFixedDisk + ", hasKeyword=" + hasFixedKeyword + 
-                                         ", isDrive=" + isDriveLetter + ", isVirtual=" + isVirtualMemory + ", isPhysical=" + isPhysicalMemory);
-                        
-                        boolean shouldAdd = (isFixedDisk || hasFixedKeyword || isDriveLetter) && !isVirtualMemory && !isPhysicalMemory;
-
-                        if (totalGB > 0 && shouldAdd) {
-                            com.victorqueiroga.serverwatch.dto.DiskInfoDto disk = new com.victorqueiroga.serverwatch.dto.DiskInfoDto();
-                            disk.setPath(extractDriveLetter(description));
-                            disk.setDescription(description);
-                            disk.setTotalGB(totalGB);
-                            disk.setUsedGB(usedGB);
-                            disk.setAvailableGB(availableGB);
-                            disk.setType("Fixed Disk");
-
-                            diskList.add(disk);
-                            discosAdicionados++;
-                            System.out.println("[DEBUG DISK-WIN] ✅ DISCO ADICIONADO: " + description + " (" + totalGB + " GB)\n");
-                        } else {
-                            String motivo = totalGB == 0 ? "tamanho zero" : "descartado pelo filtro";
-                            System.out.println("[DEBUG DISK-WIN] ⚠️ " + motivo + " (tipo=" + storageType + ", desc=" + description + ")\n");
-                        }
-                    } catch (NumberFormatException nfe) {
-                        System.out.println("[DEBUG DISK-WIN] ❌ Erro ao parsear números no índice " + i + ": " + nfe.getMessage() + "\n");
-                    } catch (Exception calcError) {
-                        System.out.println("[DEBUG DISK-WIN] ❌ Erro no cálculo para índice " + i + ": " + calcError.getMessage() + "\n");
-                    }
+        // Enumera índices de storage do Host Resources MIB
+        // Expandido para 200 índices para encontrar discos em servidores com muitos storage
+        for (int i = 1; i <= 200; i++) {
+            try {
+                // Verifica o tipo de storage
+                int storageType = SnmpValueDecoder.lastSubId(getVariable(column(HR_STORAGE_TYPE, i)));
 
-                } catch (Exception e) {
-                    // Ignora erros de índices individuais
+                // Pega descrição do storage
+                String description = getAsString(column(HR_STORAGE_DESCR, i));
+                if (description.trim().isEmpty()) {
+                    continue;
                 }
-            }
-            
-            System.out.println("[DEBUG DISK-WIN] ========== RESULTADO FINAL ==========");
-            System.out.println("[DEBUG DISK-WIN] Total de entradas de storage encontradas: " + discosTotaisEncontrados);
-            System.out.println("[DEBUG DISK-WIN] Total de discos Windows adicionados: " + discosAdicionados);
-            System.out.println("[DEBUG DISK-WIN] =====================================\n");
-            
-            // Se não encontrou o disco esperado, faz busca agressiva em índices maiores
-            if (discosAdicionados < 2) {
-                System.out.println("[DEBUG DISK-WIN] ⚠️ Poucos discos encontrados, buscando em índices 201-500...");
-                for (int i = 201; i <= 500; i++) {
-                    try {
-                        String storageType = getAsString(OID_HR_STORAGE_TYPE + "." + i);
-                        if (storageType == null || storageType.contains("noSuch")) {
-                            continue;
-                        }
 
-                        String description = getAsString(OID_HR_STORAGE_DESCR + "." + i);
-                        if (description == null || description.trim().isEmpty()) {
-                            continue;
-                        }
-
-                        // Log apenas se encontrar algo
-                        System.out.println("[DEBUG DISK-WIN-EXT] Índice " + i + ": Tipo=" + storageType + ", Desc=" + description);
-
-                        // Coleta métricas
-                        String totalUnits = getAsString(OID_HR_STORAGE_SIZE + "." + i);
-                        String usedUnits = getAsString(OID_HR_STORAGE_USED + "." + i);
-                        String unitSize = getAsString(OID_HR_STORAGE_UNITS + "." + i);
-
-                        if (totalUnits != null && !totalUnits.contains("noSuch") &&
-                            unitSize != null && !unitSize.contains("noSuch")) {
-
-                            long total = Long.parseLong(totalUnits.trim());
-                            long used = usedUnits != null && !usedUnits.contains("noSuch") ? 
-                                        Long.parseLong(usedUnits.trim()) : 0;
-                            long unit = Long.parseLong(unitSize.trim());
-
-                            long totalBytes = total * unit;
-                            long usedBytes = used * unit;
-                            
-                            long totalGB = totalBytes / (1024L * 1024L * 1024L);
-                            long usedGB = usedBytes / (1024L * 1024L * 1024L);
-                            long availableGB = totalGB - usedGB;
-
-                            // Critério menos restritivo: se for tipo .4 ou tiver tamanho > 100 MB
-                            boolean isFixedDisk = storageType.endsWith(".4");
-                            boolean isLargeStorage = totalGB >= 0.1; // >= 100MB
-                            boolean isVirtualMemory = storageType.endsWith(".3") || description.toLowerCase().contains("virtual");
-                            boolean isPhysicalMemory = storageType.endsWith(".1") || description.toLowerCase().contains("physical");
-                            
-                            if ((isFixedDisk || isLargeStorage) && !isVirtualMemory && !isPhysicalMemory && totalGB > 0) {
-                                com.victorqueiroga.serverwatch.dto.DiskInfoDto disk = new com.victorqueiroga.serverwatch.dto.DiskInfoDto();
-                                disk.setPath(extractDriveLetter(description));
-                                disk.setDescription(description);
-                                disk.setTotalGB(totalGB);
-                                disk.setUsedGB(usedGB);
-                                disk.setAvailableGB(availableGB);
-                                disk.setType("Fixed Disk");
-
-                                diskList.add(disk);
-                                System.out.println("[DEBUG DISK-WIN-EXT] ✅ DISCO ENCONTRADO NA BUSCA ESTENDIDA: " + description + " (" + totalGB + " GB)\n");
-                            }
-                        }
-                    } catch (Exception e) {
-                        // Ignora erros em índices estendidos
+                discosTotaisEncontrados++;
+                // Coleta métricas do disco ANTES de filtrar
+                long total = getLong(column(HR_STORAGE_SIZE, i));
+                long unit = getLong(column(HR_STORAGE_UNITS, i));
+                long used = getLongOrDefault(column(HR_STORAGE_USED, i), 0);
+
+                // Converte para bytes - ambos total e used usam a mesma unidade
+                long totalGB = total * unit / BYTES_PER_GB;
+                long usedGB = used * unit / BYTES_PER_GB;
+
+                // Filtra por tipo de disco DEPOIS de ter os valores
+                // Tipo .4 é o padrão para "Fixed Disk" em Host Resources MIB
+                // Tipo .1 é Physical Memory (deve ser ignorado)
+                // Tipo .3 é Virtual Memory (deve ser ignorado)
+                String lowerDescription = description.toLowerCase();
+                boolean isFixedDisk = storageType == HR_STORAGE_FIXED_DISK;
+                boolean hasFixedKeyword = lowerDescription.contains("fixed");
+                boolean isDriveLetter = DRIVE_LETTER.matcher(description).matches();
+
+                // Rejeita explicitamente memória virtual e física
+                boolean isVirtualMemory = storageType == HR_STORAGE_VIRTUAL_MEMORY || lowerDescription.contains("virtual");
+                boolean isPhysicalMemory = storageType == HR_STORAGE_OTHER || lowerDescription.contains("physical");
+
+
+                boolean shouldAdd = (isFixedDisk || hasFixedKeyword || isDriveLetter) && !isVirtualMemory && !isPhysicalMemory;
+
+                if (totalGB > 0 && shouldAdd) {
+                    diskList.add(newDisk(extractDriveLetter(description), description,
+                            totalGB, usedGB, totalGB - usedGB, "Fixed Disk"));
+                    if (trace != null) {
+                        trace.note("disk", "Índice " + i + " (" + description + ") adicionado: " + totalGB + " GB");
                     }
+                } else if (trace != null) {
+                    String motivo = totalGB == 0 ? "tamanho zero" : "descartado pelo filtro";
+                    trace.note("disk", "Índice " + i + " (" + description + ") " + motivo + ": tipo=" + storageType
+                            + ", unidades=" + total + "x" + unit + " bytes, isFixed=" + isFixedDisk
+                            + ", hasKeyword=" + hasFixedKeyword + ", isDrive=" + isDriveLetter
+                            + ", isVirtual=" + isVirtualMemory + ", isPhysical=" + isPhysicalMemory);
                 }
+            } catch (Exception e) {
+                // Ignora erros de índices individuais
             }
-
-        } catch (Exception e) {
-            System.out.println("[DEBUG DISK-WIN] ❌ Erro ao coletar discos Windows: " + e.getMessage());
-            e.printStackTrace();
         }
 
-        return diskList;
-    }
-
-    /**
-     * Coleta discos do Linux usando Net-SNMP
-     */
-    private java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> collectLinuxDisks() {
-        java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> diskList = new java.util.ArrayList<>();
-
-        try {
-
-            // Net-SNMP enumera discos nos índices 1, 2, 3...
-            // Aumentar para 20 para contemplar mais discos
-            for (int i = 1; i <= 20; i++) {
-                try {
-                    String path = getAsString(OID_DISK_PATH + "." + i);
-
-                    // Se path é nulo ou contém erro SNMP, pula
-                    if (path == null || path.contains("noSuch") || path.trim().isEmpty()) {
-                        continue;
-                    }
-
-                    String total = getAsString(OID_DISK_TOTAL + "." + i);
-                    String used = getAsString(OID_DISK_USED + "." + i);
-                    String avail = getAsString(OID_DISK_AVAIL + "." + i);
-
-                    if (total != null && !total.contains("noSuch")
-                            && used != null && !used.contains("noSuch")
-                            && avail != null && !avail.contains("noSuch")) {
-
-                        try {
-                            long totalKB = Long.parseLong(total.trim());
-                            long usedKB = Long.parseLong(used.trim());
-                            long availKB = Long.parseLong(avail.trim());
-
-                            // Converte para GB
-                            long totalGB = totalKB / (1024 * 1024);
-                            long usedGB = usedKB / (1024 * 1024);
-                            long availableGB = availKB / (1024 * 1024);
-
-                            // Adicionar disco mesmo se totalGB == 0 (para discos pequenos)
-                            if (totalKB > 0) {
-                                com.victorqueiroga.serverwatch.dto.DiskInfoDto disk = new com.victorqueiroga.serverwatch.dto.DiskInfoDto();
-                                disk.setPath(path);
-                                disk.setDescription(path + " filesystem");
-                                disk.setTotalGB(totalGB);
-                                disk.setUsedGB(usedGB);
-                                disk.setAvailableGB(availableGB);
-                                disk.setType("Linux Filesystem");
-                                disk.calculateUsagePercent();
-
-                                diskList.add(disk);
-                            }
-                        } catch (NumberFormatException nfe) {
-                            // Number parsing error for disk
-                        }
-                    }
-
-                } catch (Exception e) {
-                    // Ignora erros de índices individuais silenciosamente
-                }
-            }
-
-            // Se não encontrou discos com UCD-MIB, tenta Host Resources MIB (fallback)
-            if (diskList.isEmpty()) {
-                diskList = collectLinuxDisksViaHostResources();
-            }
-
-        } catch (Exception e) {
-            // Error collecting Linux disks
+        int discosAdicionados = diskList.size();
+        if (trace != null) {
+            trace.note("disk", "Entradas de storage: " + discosTotaisEncontrados + ", discos Windows adicionados: "
+                    + discosAdicionados);
         }
 
-        return diskList;
-    }
-
-    /**
-     * Coleta discos do Linux usando Host Resources MIB (fallback quando UCD-MIB não
-     * funciona)
-     */
-    private java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> collectLinuxDisksViaHostResources() {
-        java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> diskList = new java.util.ArrayList<>();
-
-        try {
-            // Enumera índices de storage do Host Resources MIB
-            // Aumentado para 100 para contemplar índices maiores (some systems use indices
-            // > 50)
-            for (int i = 1; i <= 200; i++) {
+        // Se não encontrou o disco esperado, faz busca agressiva em índices maiores
+        if (discosAdicionados < 2) {
+            if (trace != null) {
+                trace.note("disk", "Poucos discos encontrados, buscando em índices 201-500");
+            }
+            for (int i = 201; i <= 500; i++) {
                 try {
-                    // Verifica o tipo de storage
-                    String storageType = getAsString(OID_HR_STORAGE_TYPE + "." + i);
-                    if (storageType == null || storageType.contains("noSuch")) {
-                        continue;
-                    }
-
-                    // Pega descrição do storage
-                    String description = getAsString(OID_HR_STORAGE_DESCR + "." + i);
-                    if (description == null || description.trim().isEmpty()) {
-                        continue;
-                    }
-
-                    // Filtra por tipos comuns de disco em Linux
-                    // Tipo .4 = fixed disk (padrão em Linux também)
-                    // Alternativamente, filtra por descrição contendo / (mount points Linux)
-                    // Também pula tipos de memória (1.1 = other, 1.2 = RAM, 1.3 = virtual)
-                    String typeStr = storageType.trim();
+                    int storageType = SnmpValueDecoder.lastSubId(getVariable(column(HR_STORAGE_TYPE, i)));
 
-                    // Se é memória física (Physical memory, Virtual memory, etc), pula
-                    if (typeStr.endsWith(".1") || typeStr.endsWith(".2") || typeStr.endsWith(".3")) {
+                    String description = getAsString(column(HR_STORAGE_DESCR, i));
+                    if (description.trim().isEmpty()) {
                         continue;
                     }
 
-                    // Se não começa com "/" e não é disco fixo (.4), pula
-                    if (!description.startsWith("/") && !storageType.endsWith(".4")) {
-                        continue;
-                    }
-
-                    // Coleta métricas do disco
-                    String totalUnits = getAsString(OID_HR_STORAGE_SIZE + "." + i);
-                    String usedUnits = getAsString(OID_HR_STORAGE_USED + "." + i);
-                    String unitSize = getAsString(OID_HR_STORAGE_UNITS + "." + i);
-
-                    if (totalUnits != null && !totalUnits.contains("noSuch")
-                            && usedUnits != null && !usedUnits.contains("noSuch")
-                            && unitSize != null && !unitSize.contains("noSuch")) {
-
-                        try {
-                            long total = Long.parseLong(totalUnits.trim());
-                            long used = Long.parseLong(usedUnits.trim());
-                            long unit = Long.parseLong(unitSize.trim());
-
-                            // Converte para GB (total em unidades, cada unidade = unit bytes)
-                            long totalBytes = total * unit;
-                            long usedBytes = used * unit;
-                            long availableBytes = totalBytes - usedBytes;
-
-                            long totalGB = totalBytes / (1024 * 1024 * 1024);
-                            long usedGB = usedBytes / (1024 * 1024 * 1024);
-                            long availableGB = availableBytes / (1024 * 1024 * 1024);
-
-                            // Só adiciona se tiver tamanho válido (pelo menos 1 MB)
-                            if (totalBytes > (1024 * 1024)) {
-                                com.victorqueiroga.serverwatch.dto.DiskInfoDto disk = new com.victorqueiroga.serverwatch.dto.DiskInfoDto();
-                                disk.setPath(description);
-                                disk.setDescription(description + " filesystem");
-                                disk.setTotalGB(totalGB);
-                                disk.setUsedGB(usedGB);
-                                disk.setAvailableGB(availableGB);
-                                disk.setType("Linux Filesystem (HR-MIB)");
-                                disk.calculateUsagePercent();
-
-                                diskList.add(disk);
-                            }
-                        } catch (NumberFormatException nfe) {
-                            // Number parsing error
+                    // Coleta métricas
+                    long total = getLong(column(HR_STORAGE_SIZE, i));
+                    long unit = getLong(column(HR_STORAGE_UNITS, i));
+                    long used = getLongOrDefault(column(HR_STORAGE_USED, i), 0);
+
+                    long totalGB = total * unit / BYTES_PER_GB;
+                    long usedGB = used * unit / BYTES_PER_GB;
+
+                    // Critério menos restritivo: qualquer storage não-memória com tamanho >= 1 GB
+                    String lowerDescription = description.toLowerCase();
+                    boolean isVirtualMemory = storageType == HR_STORAGE_VIRTUAL_MEMORY || lowerDescription.contains("virtual");
+                    boolean isPhysicalMemory = storageType == HR_STORAGE_OTHER || lowerDescription.contains("physical");
+
+                    if (!isVirtualMemory && !isPhysicalMemory && totalGB > 0) {
+                        diskList.add(newDisk(extractDriveLetter(description), description,
+                                totalGB, usedGB, totalGB - usedGB, "Fixed Disk"));
+                        if (trace != null) {
+                            trace.note("disk", "Índice " + i + " (" + description + ") adicionado na busca estendida: "
+                                    + totalGB + " GB");
                         }
                     }
-
                 } catch (Exception e) {
-                    // Ignora erros de índices individuais
+                    // Ignora erros em índices estendidos
                 }
             }
-
-        } catch (Exception e) {
-            // Error collecting disks from Host Resources
         }
 
         return diskList;
     }
 
     /**
-     * Coleta discos do PFSENSE/FreeBSD usando Net-SNMP (UCD-MIB)
-     * FreeBSD geralmente suporta as mesmas OIDs que Linux
+     * Coleta discos do Linux e PFSENSE/FreeBSD usando Net-SNMP (UCD-MIB
+     * dskTable, valores em KB). FreeBSD geralmente suporta as mesmas OIDs que
+     * Linux.
      */
-    private java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> collectPfsenseDisks() {
-        java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> diskList = new java.util.ArrayList<>();
+    private List<DiskInfoDto> collectUcdDisks(String diskType) {
+        List<DiskInfoDto> diskList = new ArrayList<>();
 
-        try {
-            System.out.println("[DEBUG DISK-PFSENSE] Tentando coleta via Net-SNMP...");
-            
-            // PFSENSE/FreeBSD pode usar as mesmas OIDs que Linux
-            // Net-SNMP enumera discos nos índices 1, 2, 3...
-            for (int i = 1; i <= 20; i++) {
-                try {
-                    String path = getAsString(OID_DISK_PATH + "." + i);
+        // Net-SNMP enumera discos nos índices 1, 2, 3...
+        // Aumentar para 20 para contemplar mais discos
+        for (int i = 1; i <= 20; i++) {
+            try {
+                String path = getAsString(column(DISK_PATH, i));
 
-                    // Se path é nulo ou contém erro SNMP, pula
-                    if (path == null || path.contains("noSuch") || path.trim().isEmpty()) {
-                        continue;
-                    }
+                // Se path é vazio, pula
+                if (path.trim().isEmpty()) {
+                    continue;
+                }
 
-                    System.out.println("[DEBUG DISK-PFSENSE] Encontrado disco índice " + i + ": " + path);
-
-                    String total = getAsString(OID_DISK_TOTAL + "." + i);
-                    String used = getAsString(OID_DISK_USED + "." + i);
-                    String avail = getAsString(OID_DISK_AVAIL + "." + i);
-
-                    if (total != null && !total.contains("noSuch")
-                            && used != null && !used.contains("noSuch")
-                            && avail != null && !avail.contains("noSuch")) {
-
-                        try {
-                            long totalKB = Long.parseLong(total.trim());
-                            long usedKB = Long.parseLong(used.trim());
-                            long availKB = Long.parseLong(avail.trim());
-
-                            // Converte para GB
-                            long totalGB = totalKB / (1024 * 1024);
-                            long usedGB = usedKB / (1024 * 1024);
-                            long availableGB = availKB / (1024 * 1024);
-
-                            if (totalKB > 0) {
-                                com.victorqueiroga.serverwatch.dto.DiskInfoDto disk = new com.victorqueiroga.serverwatch.dto.DiskInfoDto();
-                                disk.setPath(path);
-                                disk.setDescription(path + " filesystem");
-                                disk.setTotalGB(totalGB);
-                                disk.setUsedGB(usedGB);
-                                disk.setAvailableGB(availableGB);
-                                disk.setType("FreeBSD Filesystem");
-                                disk.calculateUsagePercent();
-
-                                diskList.add(disk);
-                                System.out.println("[DEBUG DISK-PFSENSE] ✅ Disco adicionado: " + path + " (" + totalGB + " GB)");
-                            }
-                        } catch (NumberFormatException nfe) {
-                            System.out.println("[DEBUG DISK-PFSENSE] Erro ao parsear números para índice " + i);
-                        }
-                    }
+                long totalKB = getLong(column(DISK_TOTAL, i));
+                long usedKB = getLong(column(DISK_USED, i));
+                long availKB = getLong(column(DISK_AVAIL, i));
 
-                } catch (Exception e) {
-                    // Ignora erros de índices individuais silenciosamente
+                // Adicionar disco mesmo se totalGB == 0 (para discos pequenos)
+                if (totalKB > 0) {
+                    diskList.add(newDisk(path, path + " filesystem",
+                            totalKB / KB_PER_GB, usedKB / KB_PER_GB, availKB / KB_PER_GB, diskType));
                 }
+            } catch (Exception e) {
+                // Ignora erros de índices individuais silenciosamente
             }
-
-        } catch (Exception e) {
-            System.out.println("[DEBUG DISK-PFSENSE] ❌ Erro ao coletar discos PFSENSE via Net-SNMP: " + e.getMessage());
         }
 
         return diskList;
     }
 
     /**
-     * Coleta discos do PFSENSE/FreeBSD usando Host Resources MIB (fallback)
-     * Quando UCD-MIB não está disponível
+     * Coleta discos de Linux ou PFSENSE/FreeBSD usando Host Resources MIB
+     * (fallback quando UCD-MIB não funciona)
      */
-    private java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> collectPfsenseDisksViaHostResources() {
-        java.util.List<com.victorqueiroga.serverwatch.dto.DiskInfoDto> diskList = new java.util.ArrayList<>();
+    private List<DiskInfoDto> collectUnixDisksViaHostResources(int maxIndex, String diskType) {
+        List<DiskInfoDto> diskList = new ArrayList<>();
 
-        try {
-            System.out.println("[DEBUG DISK-PFSENSE-HR] Tentando coleta via Host Resources MIB...");
-
-            // Enumera índices de storage do Host Resources MIB
-            // FreeBSD pode ter índices até altos
-            for (int i = 1; i <= 100; i++) {
-                try {
-                    // Verifica o tipo de storage
-                    String storageType = getAsString(OID_HR_STORAGE_TYPE + "." + i);
-                    if (storageType == null || storageType.contains("noSuch")) {
-                        continue;
-                    }
+        // Enumera índices de storage do Host Resources MIB
+        for (int i = 1; i <= maxIndex; i++) {
+            try {
+                // Verifica o tipo de storage
+                int storageType = SnmpValueDecoder.lastSubId(getVariable(column(HR_STORAGE_TYPE, i)));
 
-                    // Pega descrição do storage
-                    String description = getAsString(OID_HR_STORAGE_DESCR + "." + i);
-                    if (description == null || description.trim().isEmpty()) {
-                        continue;
-                    }
+                // Se é memória (other, RAM, virtual), pula
+                if (storageType == HR_STORAGE_OTHER || storageType == HR_STORAGE_RAM
+                        || storageType == HR_STORAGE_VIRTUAL_MEMORY) {
+                    continue;
+                }
 
-                    System.out.println("[DEBUG DISK-PFSENSE-HR] Índice " + i + " - Tipo: " + storageType + ", Desc: " + description);
+                // Pega descrição do storage
+                String description = getAsString(column(HR_STORAGE_DESCR, i));
+                if (description.trim().isEmpty()) {
+                    continue;
+                }
 
-                    // Filtra por tipos de disco fixo
-                    // FreeBSD também usa tipo .4 para fixed disk
-                    // Pula memória física (.1, .2, .3) e cd-rom (.5)
-                    String typeStr = storageType.trim();
-                    
-                    // Se é memória, pula
-                    if (typeStr.endsWith(".1") || typeStr.endsWith(".2") || typeStr.endsWith(".3")) {
-                        continue;
-                    }
-                    
-                    // Se não é disco fixo (.4) e não parece ser filesystem, pula
-                    if (!typeStr.endsWith(".4") && !description.startsWith("/")) {
-                        continue;
-                    }
+                // Se não começa com "/" e não é disco fixo (.4), pula
+                if (!description.startsWith("/") && storageType != HR_STORAGE_FIXED_DISK) {
+                    continue;
+                }
 
-                    // Coleta métricas do disco
-                    String totalUnits = getAsString(OID_HR_STORAGE_SIZE + "." + i);
-                    String usedUnits = getAsString(OID_HR_STORAGE_USED + "." + i);
-                    String unitSize = getAsString(OID_HR_STORAGE_UNITS + "." + i);
-
-                    if (totalUnits != null && !totalUnits.contains("noSuch")
-                            && usedUnits != null && !usedUnits.contains("noSuch")
-                            && unitSize != null && !unitSize.contains("noSuch")) {
-
-                        try {
-                            long total = Long.parseLong(totalUnits.trim());
-                            long used = Long.parseLong(usedUnits.trim());
-                            long unit = Long.parseLong(unitSize.trim());
-
-                            // Converte para GB
-                            long totalBytes = total * unit;
-                            long usedBytes = used * unit;
-                            long availableBytes = totalBytes - usedBytes;
-
-                            long totalGB = totalBytes / (1024 * 1024 * 1024);
-                            long usedGB = usedBytes / (1024 * 1024 * 1024);
-                            long availableGB = availableBytes / (1024 * 1024 * 1024);
-
-                            // Só adiciona se tiver tamanho válido (pelo menos 1 MB)
-                            if (totalBytes > (1024 * 1024)) {
-                                com.victorqueiroga.serverwatch.dto.DiskInfoDto disk = new com.victorqueiroga.serverwatch.dto.DiskInfoDto();
-                                disk.setPath(description);
-                                disk.setDescription(description + " filesystem");
-                                disk.setTotalGB(totalGB);
-                                disk.setUsedGB(usedGB);
-                                disk.setAvailableGB(availableGB);
-                                disk.setType("FreeBSD Filesystem (HR-MIB)");
-                                disk.calculateUsagePercent();
-
-                                diskList.add(disk);
-                                System.out.println("[DEBUG DISK-PFSENSE-HR] ✅ Disco adicionado: " + description + " (" + totalGB + " GB)");
-                            }
-                        } catch (NumberFormatException nfe) {
-                            System.out.println("[DEBUG DISK-PFSENSE-HR] Erro ao parsear números para índice " + i);
-                        }
-                    }
+                // Coleta métricas do disco (total em unidades, cada unidade = unit bytes)
+                long totalBytes = getLong(column(HR_STORAGE_SIZE, i)) * getLong(column(HR_STORAGE_UNITS, i));
+                long usedBytes = getLong(column(HR_STORAGE_USED, i)) * getLong(column(HR_STORAGE_UNITS, i));
+                long availableBytes = totalBytes - usedBytes;
 
-                } catch (Exception e) {
-                    // Ignora erros de índices individuais
+                // Só adiciona se tiver tamanho válido (pelo menos 1 MB)
+                if (totalBytes > (1024 * 1024)) {
+                    diskList.add(newDisk(description, description + " filesystem",
+                            totalBytes / BYTES_PER_GB, usedBytes / BYTES_PER_GB, availableBytes / BYTES_PER_GB, diskType));
                 }
+            } catch (Exception e) {
+                // Ignora erros de índices individuais
             }
-
-        } catch (Exception e) {
-            System.out.println("[DEBUG DISK-PFSENSE-HR] ❌ Erro ao coletar discos PFSENSE via Host Resources: " + e.getMessage());
         }
 
         return diskList;
     }
 
+    private static DiskInfoDto newDisk(String path, String description, long totalGB, long usedGB,
+            long availableGB, String type) {
+        DiskInfoDto disk = new DiskInfoDto();
+        disk.setPath(path);
+        disk.setDescription(description);
+        disk.setTotalGB(totalGB);
+        disk.setUsedGB(usedGB);
+        disk.setAvailableGB(availableGB);
+        disk.setType(type);
+        disk.calculateUsagePercent();
+        return disk;
+    }
+
     /**
      * Extrai a letra do drive da descrição do Windows (ex: "C:\" de "C:\
      * Label:System Serial Number 123456")
@@ -1396,7 +1157,7 @@ public class SnmpHelper {
         }
 
         // Procura por padrão "C:" no início
-        if (description.matches("^[A-Z]:\\\\.*")) {
+        if (DRIVE_LETTER.matcher(description).matches()) {
             return description.substring(0, 2); // Retorna "C:"
         }
 
@@ -1405,60 +1166,69 @@ public class SnmpHelper {
         return parts.length > 0 ? parts[0] : "Unknown";
     }
 
+    /**
+     * Converte o valor textual de uma variável SNMP para double, tratando
+     * diferentes formatos
+     */
+    public static Double parseDoubleValue(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            // Tenta remover caracteres não numéricos
+            String cleanValue = value.replaceAll("[^0-9.]", "");
+            try {
+                return Double.parseDouble(cleanValue);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+
     /**
      * Realiza um SNMP Walk (sequência de GET NEXT) a partir de um OID base.
      * Útil para iterar tabelas como hrProcessorLoad.
      *
      * * @param oidBase OID raiz da tabela (ex: 1.3.6.1.2.1.25.3.3.1.2)
-     * 
+     *
      * @return Uma lista de VariableBindings (OID e Valor) encontrados.
      */
     public List<VariableBinding> snmpWalk(String oidBase) throws Exception {
         List<VariableBinding> resultList = new ArrayList<>();
-        CommunityTarget<UdpAddress> target = createTarget();
 
-        TransportMapping<UdpAddress> transport = new DefaultUdpTransportMapping();
-        Snmp snmp = new Snmp(transport);
-        transport.listen();
-
-        try {
-            OID currentOid = new OID(oidBase);
-            boolean finished = false;
+        OID rootOid = new OID(oidBase);
+        OID currentOid = rootOid;
+        boolean finished = false;
 
-            while (!finished) {
-                PDU pdu = new PDU();
-                pdu.add(new VariableBinding(currentOid));
-                pdu.setType(PDU.GETNEXT);
+        while (!finished) {
+            long start = trace != null ? System.nanoTime() : 0L;
+            PDU pdu = credentials.createPdu();
+            pdu.add(new VariableBinding(currentOid));
+            pdu.setType(PDU.GETNEXT);
 
-                ResponseEvent<UdpAddress> responseEvent = snmp.send(pdu, target);
+            PDU response = session.send(pdu, credentials, address, rateLimit, timeout, retries);
 
-                if (responseEvent == null || responseEvent.getResponse() == null) {
-                    throw new RuntimeException("SNMP Timeout durante WALK.");
-                }
+            if (response == null) {
+                traceRequest("GETNEXT", currentOid, start, SnmpTrace.Outcome.TIMEOUT, null);
+                throw new RuntimeException("SNMP Timeout durante WALK.");
+            }
 
-                PDU response = responseEvent.getResponse();
-                VariableBinding vb = response.get(0);
+            VariableBinding vb = response.get(0);
 
-                // 1. Verificar fim da MIB ou erro
-                if (response.getErrorStatus() != 0 || vb.getVariable().toString().contains("noSuch")) {
-                    finished = true;
-                    continue;
-                }
-                OID oidString = new OID(oidBase);
-
-                // 2. Verificar se o novo OID ainda está sob a OID base
-                if (vb.getOid().startsWith(oidString)) {
-                    resultList.add(vb);
-                    // 3. Preparar para o próximo GETNEXT
-                    currentOid = vb.getOid();
-                } else {
-                    finished = true; // Saiu do escopo do WALK
-                }
+            // 1. Verificar fim da MIB ou erro (noSuchObject/endOfMibView)
+            if (response.getErrorStatus() != 0 || SnmpValueDecoder.isException(vb.getVariable())) {
+                traceRequest("GETNEXT", currentOid, start, SnmpTrace.Outcome.NO_SUCH, vb.getVariable());
+                finished = true;
+                continue;
             }
-        } finally {
-            try {
-                snmp.close();
-            } catch (Exception e) {
+
+            // 2. Verificar se o novo OID ainda está sob a OID base
+            traceRequest("GETNEXT", vb.getOid(), start, SnmpTrace.Outcome.OK, vb.getVariable());
+            if (vb.getOid().startsWith(rootOid)) {
+                resultList.add(vb);
+                // 3. Preparar para o próximo GETNEXT
+                currentOid = vb.getOid();
+            } else {
+                finished = true; // Saiu do escopo do WALK
             }
         }
 
@@ -0,0 +1,79 @@
+package com.victorqueiroga.serverwatch.utils;
+
+/**
+ * Limites de carga SNMP aplicados a um agente: taxa de requisições (token
+ * bucket com rajada) e número máximo de requisições simultâneas.
+ *
+ * Agentes frágeis (pfSense, switches pequenos) descartam pacotes sob
+ * rajadas; limitar na origem evita timeouts e as retransmissões que eles
+ * provocam.
+ */
+public final class SnmpRateLimit {
+
+    /** Limite padrão usado quando nenhum perfil foi configurado */
+    public static final SnmpRateLimit DEFAULT = new SnmpRateLimit(200, 50, 4, 30_000);
+
+    private final double requestsPerSecond;
+    private final int burst;
+    private final int maxInFlight;
+    private final long acquireTimeoutMillis;
+
+    public SnmpRateLimit(double requestsPerSecond, int burst, int maxInFlight, long acquireTimeoutMillis) {
+        if (requestsPerSecond <= 0 || burst < 1 || maxInFlight < 1 || acquireTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Limite SNMP inválido: " + requestsPerSecond + " req/s, rajada "
+                    + burst + ", simultâneas " + maxInFlight);
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public long getAcquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+
+    /**
+     * Intervalo entre requisições em regime (nanossegundos)
+     */
+    long intervalNanos() {
+        return (long) (1_000_000_000L / requestsPerSecond);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof SnmpRateLimit limit
+                && Double.compare(requestsPerSecond, limit.requestsPerSecond) == 0
+                && burst == limit.burst
+                && maxInFlight == limit.maxInFlight
+                && acquireTimeoutMillis == limit.acquireTimeoutMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(requestsPerSecond);
+        result = 31 * result + burst;
+        result = 31 * result + maxInFlight;
+        return 31 * result + Long.hashCode(acquireTimeoutMillis);
+    }
+
+    @Override
+    public String toString() {
+        return requestsPerSecond + " req/s (rajada " + burst + ", simultâneas " + maxInFlight + ")";
+    }
+}
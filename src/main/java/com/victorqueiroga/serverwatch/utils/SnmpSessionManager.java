@@ -0,0 +1,309 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.snmp4j.CommunityTarget;
+import org.snmp4j.MessageDispatcherImpl;
+import org.snmp4j.PDU;
+import org.snmp4j.ScopedPDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.UserTarget;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.mp.MPv1;
+import org.snmp4j.mp.MPv2c;
+import org.snmp4j.mp.MPv3;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.security.AuthMD5;
+import org.snmp4j.security.AuthSHA;
+import org.snmp4j.security.PrivDES;
+import org.snmp4j.security.SecurityModel;
+import org.snmp4j.security.SecurityModels;
+import org.snmp4j.security.SecurityProtocols;
+import org.snmp4j.security.USM;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sessão SNMP compartilhada pelo processo.
+ *
+ * Mantém um único {@link Snmp}/transporte UDP e um único USM para todas as
+ * coletas, em vez de abrir um socket por requisição. No SNMPv3, o engine ID
+ * autoritativo de cada agente é descoberto uma vez e reaproveitado; as
+ * chaves do usuário são localizadas para esse engine ID uma única vez e o
+ * USM acompanha boots/time dos agentes. A redescoberta só acontece quando o
+ * agente responde com um REPORT de notInTimeWindow ou unknownEngineID (ex:
+ * reinício do snmpd ou troca do equipamento no mesmo IP).
+ *
+ * Cada envio passa pelo {@link AgentRateLimiter} do agente (token bucket e
+ * limite de requisições simultâneas), configurado por tipo de SO.
+ */
+@Slf4j
+public final class SnmpSessionManager {
+
+    private static final OID USM_STATS_NOT_IN_TIME_WINDOWS = SnmpConstants.usmStatsNotInTimeWindows;
+    private static final OID USM_STATS_UNKNOWN_ENGINE_IDS = SnmpConstants.usmStatsUnknownEngineIDs;
+
+    private static volatile SnmpSessionManager instance;
+
+    private final Snmp snmp;
+    private final USM usm;
+    private final MPv3 mpv3;
+
+    // Engine ID autoritativo descoberto por agente
+    private final ConcurrentHashMap<UdpAddress, OctetString> engineIds = new ConcurrentHashMap<>();
+
+    // Limitador de carga por agente
+    private final ConcurrentHashMap<UdpAddress, AgentRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    // Credenciais já localizadas por engine ID + usuário
+    private final ConcurrentHashMap<LocalizedUserKey, Integer> localizedUsers = new ConcurrentHashMap<>();
+
+    private SnmpSessionManager() throws IOException {
+        SecurityProtocols protocols = SecurityProtocols.getInstance().addDefaultProtocols();
+        // MD5/SHA-1/DES saíram dos padrões do SNMP4J 3.x, mas ainda são comuns nos agentes
+        protocols.addAuthenticationProtocol(new AuthMD5());
+        protocols.addAuthenticationProtocol(new AuthSHA());
+        protocols.addPrivacyProtocol(new PrivDES());
+
+        this.usm = new USM(protocols, new OctetString(MPv3.createLocalEngineID()), 0);
+        this.mpv3 = new MPv3(usm);
+        // Modelos de segurança da sessão, independentes do singleton do SNMP4J
+        mpv3.setSecurityModels(new SecurityModels().addSecurityModel(usm));
+
+        MessageDispatcherImpl dispatcher = new MessageDispatcherImpl();
+        dispatcher.addMessageProcessingModel(new MPv1());
+        dispatcher.addMessageProcessingModel(new MPv2c());
+        dispatcher.addMessageProcessingModel(mpv3);
+
+        DefaultUdpTransportMapping transport = new DefaultUdpTransportMapping();
+        transport.setThreadName("serverwatch-snmp");
+        this.snmp = new Snmp(dispatcher, transport);
+        transport.listen();
+    }
+
+    /**
+     * Sessão do processo, criada no primeiro uso
+     */
+    public static SnmpSessionManager getInstance() {
+        SnmpSessionManager session = instance;
+        if (session == null) {
+            synchronized (SnmpSessionManager.class) {
+                session = instance;
+                if (session == null) {
+                    try {
+                        session = new SnmpSessionManager();
+                    } catch (IOException e) {
+                        throw new RuntimeException("Não foi possível abrir o transporte SNMP: " + e.getMessage(), e);
+                    }
+                    instance = session;
+                }
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Envia o PDU ao agente e retorna a resposta, ou {@code null} em timeout.
+     * A requisição aguarda o limite de carga do agente (taxa e simultâneas)
+     * antes de sair. REPORTs de erro de segurança do SNMPv3 são convertidos
+     * em exceção.
+     */
+    public PDU send(PDU pdu, SnmpCredentials credentials, UdpAddress address, SnmpRateLimit limit, int timeout,
+            int retries) throws IOException {
+        AgentRateLimiter limiter = limiterFor(address, limit);
+        limiter.acquire(address);
+        try {
+            return doSend(pdu, credentials, address, timeout, retries);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private PDU doSend(PDU pdu, SnmpCredentials credentials, UdpAddress address, int timeout, int retries)
+            throws IOException {
+        if (!credentials.isV3()) {
+            CommunityTarget<UdpAddress> target = new CommunityTarget<>(address,
+                    new OctetString(credentials.getCommunity()));
+            target.setVersion(credentials.getVersion());
+            target.setTimeout(timeout);
+            target.setRetries(retries);
+            return responseOf(snmp.send(pdu, target));
+        }
+
+        PDU response = sendV3(pdu, credentials, address, timeout, retries);
+
+        if (isStaleEngineReport(response)) {
+            // Agente reiniciado ou substituído: descarta o estado e tenta uma única vez
+            log.debug("Engine SNMPv3 de {} desatualizado ({}), redescobrindo", address,
+                    response.get(0).getOid());
+            forgetEngine(address);
+            resetForResend(pdu);
+            response = sendV3(pdu, credentials, address, timeout, retries);
+        }
+
+        if (response != null && response.getType() == PDU.REPORT) {
+            throw new RuntimeException("SNMPv3 rejeitado por " + address + ": " + describeReport(response));
+        }
+        return response;
+    }
+
+    /**
+     * Limitador do agente; recriado se o limite configurado mudar
+     */
+    private AgentRateLimiter limiterFor(UdpAddress address, SnmpRateLimit limit) {
+        AgentRateLimiter limiter = limiters.get(address);
+        if (limiter != null && limiter.getLimit().equals(limit)) {
+            return limiter;
+        }
+        return limiters.compute(address,
+                (a, current) -> current != null && current.getLimit().equals(limit) ? current
+                        : new AgentRateLimiter(limit));
+    }
+
+    /**
+     * Situação dos limitadores por agente (diagnóstico)
+     */
+    public List<AgentLoad> getAgentLoads() {
+        List<AgentLoad> loads = new ArrayList<>(limiters.size());
+        limiters.forEach((address, limiter) -> loads.add(new AgentLoad(address.toString(),
+                limiter.getLimit().toString(), limiter.getInFlight(), limiter.getThrottledRequests(),
+                limiter.getRejectedRequests())));
+        return loads;
+    }
+
+    private PDU sendV3(PDU pdu, SnmpCredentials credentials, UdpAddress address, int timeout, int retries)
+            throws IOException {
+        OctetString engineId = engineIdFor(address, timeout);
+        ensureLocalizedUser(engineId, credentials);
+
+        UserTarget<UdpAddress> target = new UserTarget<>(address, new OctetString(credentials.getSecurityName()),
+                engineId.getValue(), credentials.getSecurityLevel());
+        target.setSecurityModel(SecurityModel.SECURITY_MODEL_USM);
+        target.setVersion(SnmpConstants.version3);
+        target.setTimeout(timeout);
+        target.setRetries(retries);
+        return responseOf(snmp.send(pdu, target));
+    }
+
+    /**
+     * Engine ID em cache ou descoberto agora
+     */
+    private OctetString engineIdFor(UdpAddress address, int timeout) {
+        OctetString cached = engineIds.get(address);
+        if (cached != null) {
+            return cached;
+        }
+        // Descoberta fora do lock do mapa: coletas concorrentes do mesmo agente
+        // no primeiro ciclo podem descobrir em paralelo, mas prevalece um só valor
+        byte[] discovered = snmp.discoverAuthoritativeEngineID(address, timeout);
+        if (discovered == null || discovered.length == 0) {
+            throw new RuntimeException("SNMP Timeout na descoberta do engine ID de " + address);
+        }
+        OctetString engineId = new OctetString(discovered);
+        log.debug("Engine ID SNMPv3 de {} descoberto: {}", address, engineId.toHexString());
+        OctetString previous = engineIds.putIfAbsent(address, engineId);
+        return previous != null ? previous : engineId;
+    }
+
+    /**
+     * Registra no USM as chaves já localizadas para o engine ID, evitando a
+     * derivação da senha (1 MB de hash por senha) a cada requisição
+     */
+    private void ensureLocalizedUser(OctetString engineId, SnmpCredentials credentials) {
+        LocalizedUserKey key = new LocalizedUserKey(engineId, credentials.getSecurityName());
+        int fingerprint = credentials.fingerprint();
+        Integer current = localizedUsers.get(key);
+        if (current != null && current == fingerprint) {
+            return;
+        }
+
+        SecurityProtocols protocols = SecurityProtocols.getInstance();
+        byte[] authKey = null;
+        byte[] privKey = null;
+        if (credentials.getAuthProtocol() != null) {
+            authKey = protocols.passwordToKey(credentials.getAuthProtocol(),
+                    new OctetString(credentials.getAuthPassphrase()), engineId.getValue());
+        }
+        if (credentials.getPrivProtocol() != null) {
+            privKey = protocols.passwordToKey(credentials.getPrivProtocol(), credentials.getAuthProtocol(),
+                    new OctetString(credentials.getPrivPassphrase()), engineId.getValue());
+        }
+
+        if ((credentials.getAuthProtocol() != null && authKey == null)
+                || (credentials.getPrivProtocol() != null && privKey == null)) {
+            throw new RuntimeException("Protocolo SNMPv3 não suportado para " + credentials);
+        }
+
+        usm.addLocalizedUser(engineId.getValue(), new OctetString(credentials.getSecurityName()),
+                credentials.getAuthProtocol(), authKey, credentials.getPrivProtocol(), privKey);
+        localizedUsers.put(key, fingerprint);
+    }
+
+    private void forgetEngine(UdpAddress address) {
+        OctetString engineId = engineIds.remove(address);
+        mpv3.removeEngineID(address);
+        if (engineId != null) {
+            usm.removeEngineTime(engineId);
+        }
+    }
+
+    private static boolean isStaleEngineReport(PDU response) {
+        if (response == null || response.getType() != PDU.REPORT || response.size() == 0) {
+            return false;
+        }
+        OID oid = response.get(0).getOid();
+        return oid.startsWith(USM_STATS_NOT_IN_TIME_WINDOWS) || oid.startsWith(USM_STATS_UNKNOWN_ENGINE_IDS);
+    }
+
+    private static String describeReport(PDU report) {
+        if (report.size() == 0) {
+            return "REPORT sem variáveis";
+        }
+        OID oid = report.get(0).getOid();
+        if (oid.startsWith(SnmpConstants.usmStatsUnknownUserNames)) {
+            return "usuário desconhecido";
+        }
+        if (oid.startsWith(SnmpConstants.usmStatsWrongDigests)) {
+            return "senha de autenticação incorreta";
+        }
+        if (oid.startsWith(SnmpConstants.usmStatsDecryptionErrors)) {
+            return "senha de privacidade incorreta";
+        }
+        if (oid.startsWith(SnmpConstants.usmStatsUnsupportedSecLevels)) {
+            return "nível de segurança não suportado";
+        }
+        return "REPORT " + oid;
+    }
+
+    /**
+     * Zera request ID e contexto para reenviar o mesmo PDU após redescoberta
+     */
+    private static void resetForResend(PDU pdu) {
+        pdu.setRequestID(new Integer32(0));
+        if (pdu instanceof ScopedPDU scoped) {
+            scoped.setContextEngineID(new OctetString());
+        }
+    }
+
+    private static PDU responseOf(ResponseEvent<UdpAddress> event) {
+        return event != null ? event.getResponse() : null;
+    }
+
+    /**
+     * Carga de um agente: limite, requisições em andamento e quantas
+     * esperaram por token ou foram recusadas por falta de vaga
+     */
+    public record AgentLoad(String address, String limit, int inFlight, long throttled, long rejected) {
+    }
+
+    private record LocalizedUserKey(OctetString engineId, String securityName) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Trace de diagnóstico SNMP por dispositivo.
+ *
+ * Quando habilitado para um IP, o {@link SnmpHelper} registra eventos
+ * estruturados (operação, OID, latência, resultado) em um buffer circular
+ * limitado, consultável pelos endpoints de debug. Quando nenhum dispositivo
+ * está com trace ativo, {@link #forAddress(String)} retorna {@code null} após
+ * a leitura de um único campo volátil, sem lookup no mapa nem alocação.
+ */
+public final class SnmpTrace {
+
+    public static final int DEFAULT_CAPACITY = 512;
+    public static final int MAX_CAPACITY = 10_000;
+
+    private static final ConcurrentHashMap<String, SnmpTrace> TRACES = new ConcurrentHashMap<>();
+    private static volatile boolean anyEnabled = false;
+
+    private final String address;
+    private final SnmpTraceEvent[] events;
+    private final Instant enabledAt = Instant.now();
+    private long sequence = 0;
+
+    private SnmpTrace(String address, int capacity) {
+        this.address = address;
+        this.events = new SnmpTraceEvent[capacity];
+    }
+
+    /**
+     * Habilita (ou reinicia) o trace para um IP
+     */
+    public static synchronized SnmpTrace enable(String address, int capacity) {
+        int bounded = Math.max(1, Math.min(capacity, MAX_CAPACITY));
+        SnmpTrace trace = new SnmpTrace(address, bounded);
+        TRACES.put(address, trace);
+        anyEnabled = true;
+        return trace;
+    }
+
+    /**
+     * Desabilita o trace de um IP, descartando os eventos
+     */
+    public static synchronized boolean disable(String address) {
+        boolean removed = TRACES.remove(address) != null;
+        anyEnabled = !TRACES.isEmpty();
+        return removed;
+    }
+
+    /**
+     * Trace ativo para o IP, ou {@code null} se desabilitado
+     */
+    public static SnmpTrace forAddress(String address) {
+        if (!anyEnabled) {
+            return null;
+        }
+        return TRACES.get(address);
+    }
+
+    /**
+     * IPs com trace ativo
+     */
+    public static Set<String> enabledAddresses() {
+        return Set.copyOf(TRACES.keySet());
+    }
+
+    /**
+     * Registra uma requisição SNMP (GET/GETNEXT)
+     */
+    public void request(String operation, Object oid, long latencyNanos, Outcome outcome, Object value) {
+        record(operation, String.valueOf(oid), latencyNanos / 1_000, outcome, value != null ? value.toString() : null);
+    }
+
+    /**
+     * Registra uma decisão da coleta (ex: disco aceito/descartado)
+     */
+    public void note(String stage, String message) {
+        record(stage, null, 0, Outcome.INFO, message);
+    }
+
+    private synchronized void record(String operation, String oid, long latencyMicros, Outcome outcome,
+            String detail) {
+        long seq = ++sequence;
+        events[(int) ((seq - 1) % events.length)] = new SnmpTraceEvent(seq, Instant.now(), operation, oid,
+                latencyMicros, outcome, detail);
+    }
+
+    /**
+     * Eventos em ordem cronológica (mais antigos primeiro)
+     */
+    public synchronized List<SnmpTraceEvent> snapshot() {
+        int size = (int) Math.min(sequence, events.length);
+        List<SnmpTraceEvent> result = new ArrayList<>(size);
+        for (long seq = sequence - size + 1; seq <= sequence; seq++) {
+            result.add(events[(int) ((seq - 1) % events.length)]);
+        }
+        return result;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public Instant getEnabledAt() {
+        return enabledAt;
+    }
+
+    public synchronized long getTotalEvents() {
+        return sequence;
+    }
+
+    /**
+     * Resultado de um evento do trace
+     */
+    public enum Outcome {
+        OK, NO_SUCH, ERROR, TIMEOUT, INFO
+    }
+
+    /**
+     * Evento estruturado do trace
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class SnmpTraceEvent {
+
+        private final long sequence;
+        private final Instant timestamp;
+        private final String operation;
+        private final String oid;
+        private final long latencyMicros;
+        private final Outcome outcome;
+        private final String detail;
+    }
+}
@@ -0,0 +1,185 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import java.nio.charset.StandardCharsets;
+
+import org.snmp4j.smi.AssignableFromLong;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.Variable;
+
+/**
+ * Decodificação tipada de valores SNMP.
+ *
+ * Lê Integer32, Counter32/64, Gauge32 e TimeTicks diretamente via
+ * {@link Variable#toLong()} e detecta noSuchObject/noSuchInstance/endOfMibView
+ * via {@link Variable#isException()}, sem passar por {@code toString()}.
+ * Strings numéricas (ex: laLoad do Net-SNMP, "0.42") são interpretadas
+ * diretamente sobre os bytes do OctetString.
+ */
+public final class SnmpValueDecoder {
+
+    private SnmpValueDecoder() {
+    }
+
+    /**
+     * Indica se a variável é ausente ou uma exceção SNMP (noSuchObject,
+     * noSuchInstance, endOfMibView)
+     */
+    public static boolean isException(Variable variable) {
+        return variable == null || variable.isException();
+    }
+
+    /**
+     * Indica se a variável pode ser lida como número
+     */
+    public static boolean isNumeric(Variable variable) {
+        if (isException(variable)) {
+            return false;
+        }
+        if (variable instanceof AssignableFromLong || variable instanceof Integer32) {
+            return true;
+        }
+        return variable instanceof OctetString octets && isNumericText(octets.getValue());
+    }
+
+    /**
+     * Lê a variável como inteiro longo
+     *
+     * @throws NumberFormatException se a variável não for numérica
+     */
+    public static long toLong(Variable variable) {
+        if (isException(variable)) {
+            throw new NumberFormatException("Valor SNMP ausente: " + variable);
+        }
+        if (variable instanceof OctetString octets) {
+            return parseLong(octets.getValue());
+        }
+        if (variable instanceof OID) {
+            throw new NumberFormatException("Valor SNMP não numérico (OID): " + variable);
+        }
+        return variable.toLong();
+    }
+
+    /**
+     * Lê a variável como double (contadores, gauges ou texto numérico)
+     *
+     * @throws NumberFormatException se a variável não for numérica
+     */
+    public static double toDouble(Variable variable) {
+        if (isException(variable)) {
+            throw new NumberFormatException("Valor SNMP ausente: " + variable);
+        }
+        if (variable instanceof OctetString octets) {
+            return parseDouble(octets.getValue());
+        }
+        if (variable instanceof OID) {
+            throw new NumberFormatException("Valor SNMP não numérico (OID): " + variable);
+        }
+        return variable.toLong();
+    }
+
+    /**
+     * Último sub-identificador de um valor do tipo OID (ex: hrStorageType
+     * 1.3.6.1.2.1.25.2.1.4 -> 4), ou -1 se não for um OID
+     */
+    public static int lastSubId(Variable variable) {
+        if (variable instanceof OID oid && oid.size() > 0) {
+            return oid.last();
+        }
+        return -1;
+    }
+
+    private static boolean isNumericText(byte[] bytes) {
+        int start = skipSpaces(bytes, 0);
+        int end = trimEnd(bytes, start);
+        if (start >= end) {
+            return false;
+        }
+        boolean digits = false;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                digits = true;
+            } else if (!(b == '.' || (i == start && (b == '-' || b == '+')))) {
+                return false;
+            }
+        }
+        return digits;
+    }
+
+    private static long parseLong(byte[] bytes) {
+        int start = skipSpaces(bytes, 0);
+        int end = trimEnd(bytes, start);
+        if (start >= end) {
+            throw new NumberFormatException("Texto SNMP vazio");
+        }
+        boolean negative = bytes[start] == '-';
+        if (negative || bytes[start] == '+') {
+            start++;
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Texto SNMP não inteiro");
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    private static double parseDouble(byte[] bytes) {
+        int start = skipSpaces(bytes, 0);
+        int end = trimEnd(bytes, start);
+        if (start >= end) {
+            throw new NumberFormatException("Texto SNMP vazio");
+        }
+        boolean negative = bytes[start] == '-';
+        if (negative || bytes[start] == '+') {
+            start++;
+        }
+        long mantissa = 0;
+        long divisor = 1;
+        boolean fraction = false;
+        boolean digits = false;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || mantissa > Long.MAX_VALUE / 10 || divisor > Long.MAX_VALUE / 10) {
+                // Formato fora do caminho rápido (expoente, muitos dígitos): usa o parser do JDK
+                return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII).trim());
+            }
+            mantissa = mantissa * 10 + digit;
+            digits = true;
+            if (fraction) {
+                divisor *= 10;
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Texto SNMP não numérico");
+        }
+        double value = (double) mantissa / divisor;
+        return negative ? -value : value;
+    }
+
+    private static int skipSpaces(byte[] bytes, int from) {
+        int i = from;
+        while (i < bytes.length && (bytes[i] & 0xFF) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(byte[] bytes, int start) {
+        int end = bytes.length;
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,179 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import com.victorqueiroga.serverwatch.model.AlertRule.Condition;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.Rule;
+
+/**
+ * Estado de uma regra com condição em janela para uma série.
+ *
+ * Cada amostra atualiza o estado em O(1), sem revisitar o histórico, e o
+ * espaço é fixo por série: um instante de início (FOR_DURATION), um anel de
+ * bits com contagem (M_OF_N) ou um anel de (timestamp, valor) de capacidade
+ * {@link #RATE_CAPACITY} (RATE_OF_CHANGE). Com limite de recuperação, a regra
+ * violada só volta ao normal quando a amostra deixa de atender o operador em
+ * relação a esse limite (histerese); também vale para regras INSTANT.
+ */
+public final class WindowedCondition {
+
+    /**
+     * Maior janela de M_OF_N, em amostras
+     */
+    public static final int MAX_WINDOW_SAMPLES = 1_024;
+
+    /**
+     * Amostras guardadas para RATE_OF_CHANGE; com coletas mais frequentes que
+     * a janela comporta, a taxa é medida a partir da amostra mais antiga
+     * guardada
+     */
+    public static final int RATE_CAPACITY = 64;
+
+    private static final double MILLIS_PER_MINUTE = 60_000.0;
+
+    private final Rule rule;
+    private boolean active;
+
+    // FOR_DURATION: início da sequência atual de amostras violando, ou -1
+    private long since = -1;
+
+    // M_OF_N: anel de bits das últimas N amostras
+    private final long[] hits;
+    private int position;
+    private int hitCount;
+
+    // RATE_OF_CHANGE: anel de amostras dentro da janela
+    private final long[] times;
+    private final double[] values;
+    private int oldest;
+    private int size;
+    private double rate = Double.NaN;
+
+    public WindowedCondition(Rule rule) {
+        this.rule = rule;
+        if (rule.condition() == Condition.M_OF_N) {
+            if (rule.requiredSamples() < 1 || rule.windowSamples() < rule.requiredSamples()
+                    || rule.windowSamples() > MAX_WINDOW_SAMPLES) {
+                throw new IllegalArgumentException("Janela M de N inválida na regra " + rule.id() + ": "
+                        + rule.requiredSamples() + " de " + rule.windowSamples());
+            }
+            hits = new long[(rule.windowSamples() + 63) >>> 6];
+        } else {
+            hits = null;
+        }
+        if ((rule.condition() == Condition.FOR_DURATION || rule.condition() == Condition.RATE_OF_CHANGE)
+                && rule.windowMillis() <= 0) {
+            throw new IllegalArgumentException("Duração inválida na regra " + rule.id() + ": " + rule.windowMillis());
+        }
+        if (rule.condition() == Condition.RATE_OF_CHANGE) {
+            times = new long[RATE_CAPACITY];
+            values = new double[RATE_CAPACITY];
+        } else {
+            times = null;
+            values = null;
+        }
+    }
+
+    /**
+     * Indica se a regra precisa de estado por série
+     */
+    public static boolean isStateful(Rule rule) {
+        return rule.condition() != Condition.INSTANT || !Double.isNaN(rule.recoveryThreshold());
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    /**
+     * Indica se a regra estava violada na última amostra
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Taxa de variação por minuto medida na última amostra (RATE_OF_CHANGE),
+     * ou NaN enquanto não há duas amostras na janela
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Registra uma amostra
+     *
+     * @param timestamp instante da amostra em milissegundos; as amostras devem
+     *                  chegar em ordem
+     * @return se a regra está violada
+     */
+    public boolean update(long timestamp, double value) {
+        active = switch (rule.condition()) {
+            case INSTANT -> matches(value);
+            case FOR_DURATION -> updateDuration(timestamp, value);
+            case M_OF_N -> updateCount(value);
+            case RATE_OF_CHANGE -> updateRate(timestamp, value);
+        };
+        return active;
+    }
+
+    /**
+     * Compara com o limite da regra, ou com o de recuperação enquanto violada
+     */
+    private boolean matches(double value) {
+        double threshold = active && !Double.isNaN(rule.recoveryThreshold())
+                ? rule.recoveryThreshold()
+                : rule.threshold();
+        return rule.operator().test(value, threshold);
+    }
+
+    private boolean updateDuration(long timestamp, double value) {
+        if (!matches(value)) {
+            since = -1;
+            return false;
+        }
+        if (since < 0) {
+            since = timestamp;
+        }
+        return active || timestamp - since >= rule.windowMillis();
+    }
+
+    private boolean updateCount(double value) {
+        int word = position >>> 6;
+        long bit = 1L << position;
+        if ((hits[word] & bit) != 0) {
+            hits[word] &= ~bit;
+            hitCount--;
+        }
+        if (matches(value)) {
+            hits[word] |= bit;
+            hitCount++;
+        }
+        if (++position == rule.windowSamples()) {
+            position = 0;
+        }
+        return hitCount >= rule.requiredSamples();
+    }
+
+    private boolean updateRate(long timestamp, double value) {
+        // Descarta as amostras que saíram da janela
+        while (size > 0 && timestamp - times[oldest] > rule.windowMillis()) {
+            oldest = (oldest + 1) % RATE_CAPACITY;
+            size--;
+        }
+        if (size == RATE_CAPACITY) {
+            oldest = (oldest + 1) % RATE_CAPACITY;
+            size--;
+        }
+        int slot = (oldest + size) % RATE_CAPACITY;
+        times[slot] = timestamp;
+        values[slot] = value;
+        size++;
+
+        long elapsed = timestamp - times[oldest];
+        if (elapsed <= 0) {
+            rate = Double.NaN;
+            return false;
+        }
+        rate = (value - values[oldest]) / (elapsed / MILLIS_PER_MINUTE);
+        return matches(rate);
+    }
+}
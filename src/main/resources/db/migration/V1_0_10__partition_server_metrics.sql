@@ -0,0 +1,143 @@
+-- V1_0_10__partition_server_metrics.sql
+-- Converte server_metrics em tabela particionada por dia (RANGE em timestamp).
+-- A retenção passa a ser DROP da partição inteira, e consultas por período
+-- leem apenas as partições do intervalo.
+
+-- A sequence é reaproveitada pela nova tabela: desvincula antes do DROP
+ALTER SEQUENCE server_metrics_id_seq OWNED BY NONE;
+
+ALTER TABLE server_metrics RENAME TO server_metrics_legacy;
+ALTER TABLE server_metrics_legacy DROP CONSTRAINT fk_metric_server;
+DROP INDEX IF EXISTS idx_metric_server;
+DROP INDEX IF EXISTS idx_metric_name;
+DROP INDEX IF EXISTS idx_metric_timestamp;
+DROP INDEX IF EXISTS idx_metric_server_name;
+DROP INDEX IF EXISTS idx_metric_category;
+
+-- A chave de particionamento precisa fazer parte da chave primária
+CREATE TABLE server_metrics (
+    id BIGINT NOT NULL DEFAULT nextval('server_metrics_id_seq'),
+    server_id BIGINT NOT NULL,
+    metric_name VARCHAR(100) NOT NULL,
+    metric_value DECIMAL(15,4) NOT NULL,
+    unit VARCHAR(20),
+    string_value VARCHAR(500),
+    category VARCHAR(50) NOT NULL,
+    subcategory VARCHAR(100),
+    snmp_oid VARCHAR(200),
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    is_critical BOOLEAN DEFAULT FALSE,
+    warning_threshold DECIMAL(15,4),
+    critical_threshold DECIMAL(15,4),
+    CONSTRAINT pk_server_metrics PRIMARY KEY (id, timestamp),
+    CONSTRAINT fk_metric_server FOREIGN KEY (server_id) REFERENCES servers(id) ON DELETE CASCADE
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE server_metrics_id_seq OWNED BY server_metrics.id;
+
+-- Índices criados na tabela pai são replicados em cada partição
+CREATE INDEX idx_metric_server ON server_metrics(server_id);
+CREATE INDEX idx_metric_name ON server_metrics(metric_name);
+CREATE INDEX idx_metric_timestamp ON server_metrics(timestamp);
+CREATE INDEX idx_metric_server_name ON server_metrics(server_id, metric_name);
+CREATE INDEX idx_metric_category ON server_metrics(category);
+
+-- Recebe linhas sem partição diária (ex: importação de histórico antigo); a
+-- manutenção periódica as realoca em partições diárias
+CREATE TABLE server_metrics_default PARTITION OF server_metrics DEFAULT;
+
+/*
+ * Cria a partição diária server_metrics_pAAAAMMDD, se ainda não existir.
+ * Retorna true se a partição foi criada.
+ */
+CREATE OR REPLACE FUNCTION server_metrics_create_partition(p_day DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    v_name TEXT := 'server_metrics_p' || to_char(p_day, 'YYYYMMDD');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF server_metrics FOR VALUES FROM (%L) TO (%L)',
+                   v_name, p_day::timestamp, (p_day + 1)::timestamp);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+/*
+ * Remove as partições diárias anteriores a p_before. Retorna quantas foram
+ * removidas.
+ */
+CREATE OR REPLACE FUNCTION server_metrics_drop_partitions(p_before DATE) RETURNS INTEGER AS $$
+DECLARE
+    v_partition RECORD;
+    v_dropped INTEGER := 0;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'server_metrics'::regclass
+          AND c.relname ~ '^server_metrics_p[0-9]{8}$'
+          AND to_date(substring(c.relname FROM 17), 'YYYYMMDD') < p_before
+    LOOP
+        EXECUTE format('DROP TABLE %I', v_partition.relname);
+        v_dropped := v_dropped + 1;
+    END LOOP;
+    RETURN v_dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+/*
+ * Move as linhas da partição default para partições diárias (criadas sob
+ * demanda). Linhas anteriores a p_before já estão fora da retenção e são
+ * apenas removidas. Retorna quantas linhas foram movidas.
+ */
+CREATE OR REPLACE FUNCTION server_metrics_relocate_default(p_before DATE) RETURNS BIGINT AS $$
+DECLARE
+    v_day DATE;
+    v_moved BIGINT := 0;
+    v_count BIGINT;
+BEGIN
+    DELETE FROM server_metrics_default WHERE timestamp < p_before;
+
+    FOR v_day IN SELECT DISTINCT timestamp::date FROM server_metrics_default ORDER BY 1 LOOP
+        CREATE TEMP TABLE server_metrics_relocation (LIKE server_metrics) ON COMMIT DROP;
+
+        WITH moved AS (
+            DELETE FROM server_metrics_default
+            WHERE timestamp >= v_day AND timestamp < v_day + 1
+            RETURNING *
+        )
+        INSERT INTO server_metrics_relocation SELECT * FROM moved;
+        GET DIAGNOSTICS v_count = ROW_COUNT;
+
+        -- Sem as linhas do dia na default, a partição pode ser criada
+        PERFORM server_metrics_create_partition(v_day);
+        INSERT INTO server_metrics SELECT * FROM server_metrics_relocation;
+
+        DROP TABLE server_metrics_relocation;
+        v_moved := v_moved + v_count;
+    END LOOP;
+    RETURN v_moved;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partições para os dias com dados existentes e para a próxima semana
+SELECT server_metrics_create_partition(d)
+FROM (
+    SELECT DISTINCT timestamp::date AS d FROM server_metrics_legacy
+    UNION
+    SELECT generate_series(current_date, current_date + 7, interval '1 day')::date
+) days;
+
+INSERT INTO server_metrics (id, server_id, metric_name, metric_value, unit, string_value, category,
+                            subcategory, snmp_oid, timestamp, is_critical, warning_threshold, critical_threshold)
+SELECT id, server_id, metric_name, metric_value, unit, string_value, category,
+       subcategory, snmp_oid, timestamp, is_critical, warning_threshold, critical_threshold
+FROM server_metrics_legacy;
+DROP TABLE server_metrics_legacy;
+
+COMMENT ON TABLE server_metrics IS 'Tabela de métricas coletadas via SNMP dos servidores, particionada por dia (server_metrics_pAAAAMMDD)';
+COMMENT ON TABLE server_metrics_default IS 'Partição default: linhas sem partição diária, realocadas pela manutenção';
+COMMENT ON COLUMN server_metrics.category IS 'Categoria da métrica (SYSTEM, CPU, MEMORY, DISK, NETWORK, PROCESS, SERVICE, CUSTOM)';
+COMMENT ON COLUMN server_metrics.snmp_oid IS 'OID SNMP usado para coletar a métrica';
@@ -0,0 +1,34 @@
+-- V1_0_11__create_server_metric_rollups.sql
+-- Agregados de server_metrics em intervalos fixos (1m/5m/1h/1d), mantidos
+-- incrementalmente pelo MetricRollupService. Gráficos e estatísticas de
+-- períodos longos leem os agregados em vez das amostras brutas.
+
+CREATE TABLE server_metric_rollups (
+    resolution VARCHAR(20) NOT NULL,
+    server_id BIGINT NOT NULL,
+    metric_name VARCHAR(100) NOT NULL,
+    subcategory VARCHAR(100) NOT NULL DEFAULT '',
+    bucket_start TIMESTAMP NOT NULL,
+    min_value DECIMAL(15,4) NOT NULL,
+    max_value DECIMAL(15,4) NOT NULL,
+    sum_value DECIMAL(24,4) NOT NULL,
+    sample_count BIGINT NOT NULL,
+    last_value DECIMAL(15,4) NOT NULL,
+    last_timestamp TIMESTAMP NOT NULL,
+    CONSTRAINT pk_server_metric_rollups PRIMARY KEY (resolution, server_id, metric_name, subcategory, bucket_start),
+    CONSTRAINT fk_rollup_server FOREIGN KEY (server_id) REFERENCES servers(id) ON DELETE CASCADE
+);
+
+-- Retenção por resolução
+CREATE INDEX idx_rollup_resolution_bucket ON server_metric_rollups(resolution, bucket_start);
+
+-- Até onde (exclusivo) cada resolução já foi agregada
+CREATE TABLE metric_rollup_watermarks (
+    resolution VARCHAR(20) PRIMARY KEY,
+    processed_until TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE server_metric_rollups IS 'Agregados de server_metrics por servidor, métrica, subcategoria e intervalo';
+COMMENT ON COLUMN server_metric_rollups.subcategory IS 'Subcategoria da métrica (ex: ponto de montagem); vazio quando não há';
+COMMENT ON COLUMN server_metric_rollups.bucket_start IS 'Início do intervalo, alinhado a 2000-01-01 00:00';
+COMMENT ON TABLE metric_rollup_watermarks IS 'Fim (exclusivo) do período já agregado em cada resolução';
@@ -0,0 +1,31 @@
+-- V1_0_12__create_server_metric_blocks.sql
+-- Histórico de longo prazo compactado: um bloco por série (servidor, métrica,
+-- subcategoria) e dia, com timestamps em delta-of-delta e valores em XOR
+-- (GorillaEncoder). Dias antigos de server_metrics são convertidos em blocos
+-- pelo MetricCompactionService e a partição do dia é removida.
+
+CREATE TABLE server_metric_blocks (
+    server_id BIGINT NOT NULL,
+    metric_name VARCHAR(100) NOT NULL,
+    subcategory VARCHAR(100) NOT NULL DEFAULT '',
+    day DATE NOT NULL,
+    unit VARCHAR(20),
+    category VARCHAR(50) NOT NULL,
+    warning_threshold DECIMAL(15,4),
+    critical_threshold DECIMAL(15,4),
+    sample_count INTEGER NOT NULL,
+    first_timestamp TIMESTAMP NOT NULL,
+    last_timestamp TIMESTAMP NOT NULL,
+    data BYTEA NOT NULL,
+    CONSTRAINT pk_server_metric_blocks PRIMARY KEY (server_id, metric_name, subcategory, day),
+    CONSTRAINT fk_block_server FOREIGN KEY (server_id) REFERENCES servers(id) ON DELETE CASCADE
+);
+
+-- Retenção
+CREATE INDEX idx_block_day ON server_metric_blocks(day);
+
+-- Blocos já são compactados: evita a tentativa de compressão do TOAST
+ALTER TABLE server_metric_blocks ALTER COLUMN data SET STORAGE EXTERNAL;
+
+COMMENT ON TABLE server_metric_blocks IS 'Histórico compactado de métricas: um bloco por série e dia';
+COMMENT ON COLUMN server_metric_blocks.data IS 'Pontos (timestamp, valor) no formato do GorillaEncoder';
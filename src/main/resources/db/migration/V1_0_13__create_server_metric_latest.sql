@@ -0,0 +1,35 @@
+-- V1_0_13__create_server_metric_latest.sql
+-- Último valor de cada série (servidor, métrica, subcategoria), atualizado
+-- por upsert na mesma transação que grava o lote em server_metrics. O
+-- dashboard e as consultas de "última métrica" leem esta tabela em vez de
+-- buscar MAX(timestamp) no histórico.
+
+CREATE TABLE server_metric_latest (
+    server_id BIGINT NOT NULL,
+    metric_name VARCHAR(100) NOT NULL,
+    subcategory VARCHAR(100) NOT NULL DEFAULT '',
+    metric_value DECIMAL(15,4) NOT NULL,
+    unit VARCHAR(20),
+    category VARCHAR(50) NOT NULL,
+    snmp_oid VARCHAR(200),
+    timestamp TIMESTAMP NOT NULL,
+    is_critical BOOLEAN NOT NULL DEFAULT FALSE,
+    warning_threshold DECIMAL(15,4),
+    critical_threshold DECIMAL(15,4),
+    CONSTRAINT pk_server_metric_latest PRIMARY KEY (server_id, metric_name, subcategory),
+    CONSTRAINT fk_latest_server FOREIGN KEY (server_id) REFERENCES servers(id) ON DELETE CASCADE
+);
+
+-- Últimas métricas por categoria de um servidor
+CREATE INDEX idx_latest_server_category ON server_metric_latest(server_id, category);
+
+-- Carga inicial a partir do histórico existente
+INSERT INTO server_metric_latest (server_id, metric_name, subcategory, metric_value, unit, category,
+                                  snmp_oid, timestamp, is_critical, warning_threshold, critical_threshold)
+SELECT DISTINCT ON (server_id, metric_name, COALESCE(subcategory, ''))
+       server_id, metric_name, COALESCE(subcategory, ''), metric_value, unit, category,
+       snmp_oid, timestamp, COALESCE(is_critical, FALSE), warning_threshold, critical_threshold
+FROM server_metrics
+ORDER BY server_id, metric_name, COALESCE(subcategory, ''), timestamp DESC, id DESC;
+
+COMMENT ON TABLE server_metric_latest IS 'Último valor de cada série de métricas, mantido pela gravação dos lotes';
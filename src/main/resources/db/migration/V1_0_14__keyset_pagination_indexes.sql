@@ -0,0 +1,12 @@
+-- V1_0_14__keyset_pagination_indexes.sql
+-- Índices para paginação por chave (keyset): as listagens percorrem
+-- (created_at, id) em alerts e (timestamp, id) em server_metrics a partir do
+-- cursor, em vez de pular linhas com OFFSET. O índice composto substitui o
+-- índice só por data (mesmo prefixo).
+
+DROP INDEX IF EXISTS idx_alert_created;
+CREATE INDEX IF NOT EXISTS idx_alert_created_id ON alerts(created_at, id);
+
+DROP INDEX IF EXISTS idx_metric_timestamp;
+CREATE INDEX IF NOT EXISTS idx_metric_timestamp_id ON server_metrics(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_metric_server_timestamp_id ON server_metrics(server_id, timestamp, id);
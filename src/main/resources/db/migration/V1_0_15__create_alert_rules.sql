@@ -0,0 +1,41 @@
+-- V1_0_15__create_alert_rules.sql
+-- Regras de limite avaliadas a cada coleta. Uma regra vale para todos os
+-- servidores (GLOBAL), para um sistema operacional ou para um servidor; para
+-- cada métrica, as regras do escopo mais específico substituem as demais.
+-- As regras padrão reproduzem os limites antes fixos no código.
+
+CREATE TABLE alert_rules (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    metric_name VARCHAR(50) NOT NULL,
+    operator VARCHAR(20) NOT NULL,
+    threshold DECIMAL(15,4) NOT NULL,
+    severity_id BIGINT NOT NULL,
+    alert_type VARCHAR(50) NOT NULL DEFAULT 'PERFORMANCE',
+    scope VARCHAR(20) NOT NULL DEFAULT 'GLOBAL',
+    server_id BIGINT,
+    operation_system_id BIGINT,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_alert_rule_severity FOREIGN KEY (severity_id) REFERENCES severities(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_alert_rule_server FOREIGN KEY (server_id) REFERENCES servers(id) ON DELETE CASCADE,
+    CONSTRAINT fk_alert_rule_os FOREIGN KEY (operation_system_id) REFERENCES operation_systems(id) ON DELETE CASCADE,
+    CONSTRAINT chk_alert_rule_scope CHECK (
+        (scope = 'GLOBAL' AND server_id IS NULL AND operation_system_id IS NULL) OR
+        (scope = 'OPERATION_SYSTEM' AND server_id IS NULL AND operation_system_id IS NOT NULL) OR
+        (scope = 'SERVER' AND server_id IS NOT NULL AND operation_system_id IS NULL))
+);
+
+CREATE INDEX IF NOT EXISTS idx_alert_rule_server ON alert_rules(server_id);
+CREATE INDEX IF NOT EXISTS idx_alert_rule_os ON alert_rules(operation_system_id);
+
+INSERT INTO alert_rules (name, metric_name, operator, threshold, severity_id, alert_type)
+SELECT v.name, v.metric_name, v.operator, v.threshold, s.id, v.alert_type
+FROM (VALUES
+    ('Servidor sem resposta SNMP', 'AVAILABILITY', 'LESS_THAN', 1, 'Critical', 'MONITORING'),
+    ('Uso de CPU acima de 80%', 'CPU_USAGE', 'GREATER_THAN', 80, 'High', 'PERFORMANCE'),
+    ('Uso de memória acima de 85%', 'MEMORY_USAGE', 'GREATER_THAN', 85, 'High', 'PERFORMANCE'),
+    ('Uso de disco a partir de 90%', 'DISK_USAGE', 'GREATER_OR_EQUAL', 90, 'Critical', 'PERFORMANCE')
+) AS v(name, metric_name, operator, threshold, severity, alert_type)
+JOIN severities s ON s.name = v.severity;
@@ -0,0 +1,34 @@
+-- V1_0_16__add_alert_rule_conditions.sql
+-- Condições sustentadas nas regras de alerta: duração mínima da violação
+-- (FOR_DURATION), M de N amostras (M_OF_N) e taxa de variação por minuto
+-- (RATE_OF_CHANGE), com limite de recuperação opcional (histerese).
+
+ALTER TABLE alert_rules
+    ADD COLUMN condition_type VARCHAR(20) NOT NULL DEFAULT 'INSTANT',
+    ADD COLUMN duration_seconds INTEGER,
+    ADD COLUMN required_samples INTEGER,
+    ADD COLUMN window_samples INTEGER,
+    ADD COLUMN recovery_threshold DECIMAL(15,4),
+    ADD CONSTRAINT chk_alert_rule_condition CHECK (
+        condition_type = 'INSTANT' OR
+        (condition_type IN ('FOR_DURATION', 'RATE_OF_CHANGE') AND duration_seconds > 0) OR
+        (condition_type = 'M_OF_N' AND required_samples >= 1 AND window_samples >= required_samples
+            AND window_samples <= 1024));
+
+-- Um pico isolado de CPU ou memória deixava de abrir alerta e de marcar o
+-- servidor como WARNING: CPU precisa ficar acima do limite por 4 minutos
+-- (3 coletas), memória em 3 das últimas 5 coletas, e ambos só normalizam
+-- 10 pontos abaixo do limite (disco, 5 pontos)
+UPDATE alert_rules
+SET condition_type = 'FOR_DURATION', duration_seconds = 240, recovery_threshold = 70,
+    name = 'Uso de CPU acima de 80% por 4 minutos'
+WHERE scope = 'GLOBAL' AND name = 'Uso de CPU acima de 80%';
+
+UPDATE alert_rules
+SET condition_type = 'M_OF_N', required_samples = 3, window_samples = 5, recovery_threshold = 75,
+    name = 'Uso de memória acima de 85% em 3 de 5 coletas'
+WHERE scope = 'GLOBAL' AND name = 'Uso de memória acima de 85%';
+
+UPDATE alert_rules
+SET recovery_threshold = 85
+WHERE scope = 'GLOBAL' AND name = 'Uso de disco a partir de 90%';
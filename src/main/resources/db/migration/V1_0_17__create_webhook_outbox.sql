@@ -0,0 +1,23 @@
+-- V1_0_17__create_webhook_outbox.sql
+-- Lotes de alertas cujo envio por webhook falhou (ou foi adiado porque o
+-- destino já tinha o máximo de requisições em andamento), aguardando nova
+-- tentativa. Lotes que esgotam as tentativas ficam como FAILED.
+
+CREATE TABLE webhook_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    delivery_id VARCHAR(36) NOT NULL,
+    endpoint VARCHAR(500) NOT NULL,
+    payload TEXT NOT NULL,
+    alert_count INTEGER NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_webhook_outbox_delivery UNIQUE (delivery_id),
+    CONSTRAINT chk_webhook_outbox_status CHECK (status IN ('PENDING', 'FAILED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_webhook_outbox_due ON webhook_outbox(next_attempt_at)
+    WHERE status = 'PENDING';
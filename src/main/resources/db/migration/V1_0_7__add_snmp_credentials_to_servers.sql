@@ -0,0 +1,21 @@
+-- V1_0_7__add_snmp_credentials_to_servers.sql
+-- Credenciais SNMP por servidor (v2c por community ou v3 com USM)
+
+ALTER TABLE servers
+ADD COLUMN IF NOT EXISTS snmp_version VARCHAR(5) NOT NULL DEFAULT 'V2C',
+ADD COLUMN IF NOT EXISTS snmp_port INTEGER NOT NULL DEFAULT 161,
+ADD COLUMN IF NOT EXISTS snmp_community VARCHAR(100) DEFAULT 'public',
+ADD COLUMN IF NOT EXISTS snmp_security_name VARCHAR(100),
+ADD COLUMN IF NOT EXISTS snmp_auth_protocol VARCHAR(10),
+ADD COLUMN IF NOT EXISTS snmp_auth_passphrase VARCHAR(200),
+ADD COLUMN IF NOT EXISTS snmp_priv_protocol VARCHAR(10),
+ADD COLUMN IF NOT EXISTS snmp_priv_passphrase VARCHAR(200);
+
+COMMENT ON COLUMN servers.snmp_version IS 'Versão SNMP usada na coleta: V2C ou V3';
+COMMENT ON COLUMN servers.snmp_port IS 'Porta UDP do agente SNMP';
+COMMENT ON COLUMN servers.snmp_community IS 'Community SNMP (v2c)';
+COMMENT ON COLUMN servers.snmp_security_name IS 'Usuário USM (v3)';
+COMMENT ON COLUMN servers.snmp_auth_protocol IS 'Protocolo de autenticação v3: MD5, SHA, SHA256, SHA512 (vazio = noAuth)';
+COMMENT ON COLUMN servers.snmp_auth_passphrase IS 'Senha de autenticação v3';
+COMMENT ON COLUMN servers.snmp_priv_protocol IS 'Protocolo de privacidade v3: DES, AES128, AES256 (vazio = noPriv)';
+COMMENT ON COLUMN servers.snmp_priv_passphrase IS 'Senha de privacidade v3';
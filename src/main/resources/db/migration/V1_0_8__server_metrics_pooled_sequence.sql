@@ -0,0 +1,7 @@
+-- V1_0_8__server_metrics_pooled_sequence.sql
+-- IDs de server_metrics alocados em blocos de 50 (otimizador pooled do
+-- Hibernate), permitindo INSERTs em lote via JDBC batch
+
+ALTER SEQUENCE server_metrics_id_seq INCREMENT BY 50;
+
+COMMENT ON SEQUENCE server_metrics_id_seq IS 'IDs de server_metrics; incremento deve ser igual ao allocationSize da entidade ServerMetric';
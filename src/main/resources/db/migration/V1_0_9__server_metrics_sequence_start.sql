@@ -0,0 +1,10 @@
+-- V1_0_9__server_metrics_sequence_start.sql
+-- O COPY de métricas usa o default da coluna (nextval por linha) enquanto o
+-- Hibernate reserva blocos de 50 IDs. Avança a sequence para além do valor
+-- inicial, pois o otimizador pooled trata o primeiro valor (1) como caso
+-- especial e poderia reservar um bloco já consumido pelo COPY.
+
+SELECT setval('server_metrics_id_seq', GREATEST(
+    (SELECT last_value FROM server_metrics_id_seq),
+    (SELECT COALESCE(MAX(id), 0) FROM server_metrics),
+    50));
@@ -0,0 +1,123 @@
+package com.victorqueiroga.serverwatch.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.AlertNotification;
+
+/**
+ * Teste do envio de alertas por e-mail em resumos, contra o {@link SmtpSink}
+ */
+public class AlertEmailDispatcherTest {
+
+    @Test
+    public void testAlertStormBecomesOneEmailPerRecipient() throws Exception {
+        try (SmtpSink sink = new SmtpSink()) {
+            AlertEmailDispatcher dispatcher = dispatcher(sink, 500, 10_000);
+            dispatcher.start();
+            try {
+                for (long serverId = 1; serverId <= 200; serverId++) {
+                    assertThat(dispatcher.submit(alert(serverId, serverId % 10 == 0 ? 1 : 2))).isTrue();
+                }
+                await(() -> sink.getMessages().size() == 2);
+
+                assertThat(sink.getMessages()).extracting(SmtpSink.Received::recipients)
+                        .containsExactlyInAnyOrder(List.of("ops@example.com"), List.of("infra@example.com"));
+                SmtpSink.Received received = sink.getMessages().get(0);
+                assertThat(received.data()).contains("Subject: [ServerWatch] 200 alertas em 200 servidores");
+                // Mais graves primeiro
+                assertThat(received.data().indexOf("Critical")).isLessThan(received.data().indexOf("High"));
+
+                // Segunda rajada: mesma conexão SMTP
+                for (long serverId = 1; serverId <= 50; serverId++) {
+                    dispatcher.submit(alert(serverId, 2));
+                }
+                await(() -> sink.getMessages().size() == 4);
+                assertThat(sink.getConnectionCount()).isEqualTo(1);
+                assertThat(dispatcher.getSentCount()).isEqualTo(4);
+            } finally {
+                dispatcher.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testFailedDigestIsRetriedWithBackoff() throws Exception {
+        try (SmtpSink sink = new SmtpSink()) {
+            // Uma falha por destinatário em cada uma das duas primeiras tentativas
+            sink.failNext(4);
+            AlertEmailDispatcher dispatcher = dispatcher(sink, 0, 100);
+            dispatcher.start();
+            try {
+                long start = System.currentTimeMillis();
+                dispatcher.submit(alert(1L, 1));
+                await(() -> sink.getMessages().size() == 2);
+
+                // Duas falhas: esperas de 100 e 200 ms antes do reenvio
+                assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(300);
+                assertThat(sink.getMessages().get(0).data())
+                        .contains("Subject: [ServerWatch] Critical: Uso de CPU acima de 80% em srv1");
+            } finally {
+                dispatcher.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testPendingDigestsAreSentOnShutdown() throws Exception {
+        try (SmtpSink sink = new SmtpSink()) {
+            AlertEmailDispatcher dispatcher = dispatcher(sink, 60_000, 10_000);
+            dispatcher.start();
+            dispatcher.submit(alert(1L, 2));
+            dispatcher.submit(alert(2L, 2));
+            dispatcher.stop();
+
+            assertThat(sink.getMessages()).hasSize(2);
+            assertThat(sink.getMessages().get(0).data()).contains("2 alertas em 2 servidores");
+        }
+    }
+
+    @Test
+    public void testDisabledWithoutRecipients() {
+        ServerWatchProperties properties = new ServerWatchProperties();
+        properties.getNotifications().getEmail().setEnabled(true);
+        AlertEmailDispatcher dispatcher = new AlertEmailDispatcher(properties, new EmailConfig());
+        dispatcher.start();
+
+        assertThat(dispatcher.isEnabled()).isFalse();
+        assertThat(dispatcher.submit(alert(1L, 1))).isFalse();
+    }
+
+    private static AlertEmailDispatcher dispatcher(SmtpSink sink, long windowMillis, long backoffMillis) {
+        ServerWatchProperties properties = new ServerWatchProperties();
+        ServerWatchProperties.Notifications.Email email = properties.getNotifications().getEmail();
+        email.setEnabled(true);
+        email.setSmtpHost("localhost");
+        email.setSmtpPort(sink.getPort());
+        email.setUseSSL(false);
+        email.setRecipients(List.of("ops@example.com", "infra@example.com"));
+        email.setDigestWindowMillis(windowMillis);
+        email.setRetryBackoffMillis(backoffMillis);
+        return new AlertEmailDispatcher(properties, new EmailConfig());
+    }
+
+    private static AlertNotification alert(long serverId, int severityLevel) {
+        return new AlertNotification(serverId, serverId, "srv" + serverId, "Uso de CPU acima de 80%",
+                severityLevel == 1 ? "Critical" : "High", severityLevel, "93.00", "> 80.00",
+                LocalDateTime.of(2026, 1, 1, 12, 0).plusSeconds(serverId), false);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
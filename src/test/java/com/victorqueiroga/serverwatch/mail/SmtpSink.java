@@ -0,0 +1,130 @@
+package com.victorqueiroga.serverwatch.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo em memória para testes: aceita qualquer remetente e
+ * destinatário, guarda as mensagens recebidas e conta as conexões. Pode
+ * recusar temporariamente (451) as próximas mensagens.
+ */
+public class SmtpSink implements AutoCloseable {
+
+    /**
+     * Mensagem recebida
+     */
+    public record Received(List<String> recipients, String data) {
+    }
+
+    private final ServerSocket server;
+    private final Thread acceptor;
+    private final List<Received> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger failNext = new AtomicInteger();
+
+    public SmtpSink() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::accept, "smtp-sink");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public List<Received> getMessages() {
+        return messages;
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Recusa as próximas {@code count} mensagens com erro temporário
+     */
+    public void failNext(int count) {
+        failNext.set(count);
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                Thread session = new Thread(() -> serve(socket), "smtp-sink-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost SmtpSink");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-localhost\r\n250 8BITMIME");
+                } else if (command.startsWith("HELO") || command.startsWith("NOOP")) {
+                    reply(out, "250 OK");
+                } else if (command.startsWith("MAIL FROM") || command.startsWith("RSET")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    recipients.add(line.substring(line.indexOf(':') + 1).trim().replaceAll("[<>]", ""));
+                    reply(out, "250 OK");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 Fim com <CRLF>.<CRLF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+                    }
+                    if (failNext.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                        reply(out, "451 4.3.0 Falha temporária");
+                    } else {
+                        messages.add(new Received(List.copyOf(recipients), data.toString()));
+                        reply(out, "250 OK");
+                    }
+                    recipients.clear();
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Tchau");
+                    return;
+                } else {
+                    reply(out, "502 Comando não implementado");
+                }
+            }
+        } catch (IOException e) {
+            // Conexão encerrada pelo cliente
+        }
+    }
+
+    private static void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+}
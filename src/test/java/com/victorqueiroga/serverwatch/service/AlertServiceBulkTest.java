@@ -0,0 +1,131 @@
+package com.victorqueiroga.serverwatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.AlertFilter;
+import com.victorqueiroga.serverwatch.model.Alert.AlertStatus;
+import com.victorqueiroga.serverwatch.model.Alert.AlertType;
+import com.victorqueiroga.serverwatch.repository.AlertRepository;
+import com.victorqueiroga.serverwatch.repository.SeverityRepository;
+
+/**
+ * Teste do reconhecimento e da resolução de alertas em lote
+ */
+public class AlertServiceBulkTest {
+
+    private static final OpenAlertIndex.Key CPU = new OpenAlertIndex.Key(1L, "CPU_USAGE", AlertType.PERFORMANCE);
+    private static final OpenAlertIndex.Key DISK = new OpenAlertIndex.Key(1L, "DISK_USAGE", AlertType.PERFORMANCE);
+
+    private AlertBulkUpdater updater;
+    private AlertStatistics statistics;
+    private OpenAlertIndex index;
+    private AlertService service;
+
+    @BeforeEach
+    public void setUp() {
+        updater = mock(AlertBulkUpdater.class);
+        statistics = mock(AlertStatistics.class);
+        index = new OpenAlertIndex(mock(AlertRepository.class), new ServerWatchProperties());
+        index.opened(CPU, new OpenAlertIndex.Entry(10, 0, 2, 2, "93.00", AlertStatus.OPEN));
+        index.opened(DISK, new OpenAlertIndex.Entry(11, 0, 2, 2, "95.00", AlertStatus.OPEN));
+        service = new AlertService(mock(AlertRepository.class), mock(SeverityRepository.class),
+                mock(RowCountEstimator.class), index, statistics, mock(ReferenceDataCache.class), updater);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testResolveByIdsClosesSeriesAndCountsOnce() {
+        when(updater.resolve(eq("id = ANY(?)"), anyList(), eq("ops"), eq("incidente"))).thenReturn(List.of(
+                updated(10, AlertStatus.OPEN, "CPU_USAGE"),
+                updated(11, AlertStatus.ACKNOWLEDGED, "DISK_USAGE")));
+
+        assertThat(service.resolveAlerts(List.of(10L, 11L, 12L), "ops", "incidente")).isEqualTo(2);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.isCoolingDown(CPU)).isTrue();
+        ArgumentCaptor<List<AlertStatistics.State>> before = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<AlertStatistics.State>> after = ArgumentCaptor.forClass(List.class);
+        verify(statistics).changed(before.capture(), after.capture());
+        assertThat(before.getValue()).extracting(AlertStatistics.State::status)
+                .containsExactly(AlertStatus.OPEN, AlertStatus.ACKNOWLEDGED);
+        assertThat(after.getValue()).allSatisfy(state -> {
+            assertThat(state.status()).isEqualTo(AlertStatus.RESOLVED);
+            assertThat(state.resolved()).isTrue();
+        });
+    }
+
+    @Test
+    public void testAcknowledgeByFilterKeepsSeriesOpen() {
+        when(updater.acknowledge(eq("TRUE AND server_id = ? AND alert_type = ?"), eq(List.of(1L, "PERFORMANCE"))))
+                .thenReturn(List.of(updated(10, AlertStatus.OPEN, "CPU_USAGE")));
+
+        int affected = service.acknowledgeAlerts(new AlertFilter(1L, null, null, null, AlertType.PERFORMANCE, null));
+
+        assertThat(affected).isEqualTo(1);
+        assertThat(index.get(CPU).getStatus()).isEqualTo(AlertStatus.ACKNOWLEDGED);
+        assertThat(index.get(DISK).getStatus()).isEqualTo(AlertStatus.OPEN);
+        verify(statistics).changed(anyList(), anyList());
+    }
+
+    @Test
+    public void testIndexChangesWaitForCommit() {
+        when(updater.resolve(eq("id = ANY(?)"), anyList(), eq("ops"), eq(null)))
+                .thenReturn(List.of(updated(10, AlertStatus.OPEN, "CPU_USAGE")));
+
+        // Rollback: as sincronizações são descartadas e o índice segue o banco
+        TransactionSynchronizationManager.initSynchronization();
+        service.resolveAlerts(List.of(10L), "ops", null);
+        assertThat(index.get(CPU)).isNotNull();
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(index.get(CPU)).isNotNull();
+        assertThat(index.isCoolingDown(CPU)).isFalse();
+
+        // Commit: a série é fechada e entra em carência
+        TransactionSynchronizationManager.initSynchronization();
+        service.resolveAlerts(List.of(10L), "ops", null);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(index.get(CPU)).isNull();
+        assertThat(index.isCoolingDown(CPU)).isTrue();
+    }
+
+    @Test
+    public void testEmptySelectionIsRejected() {
+        assertThatThrownBy(() -> service.acknowledgeAlerts(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.resolveAlerts(new AlertFilter(null, null, null, null, null, ""), "ops", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(updater);
+        assertThat(index.size()).isEqualTo(2);
+        verify(statistics, never()).changed(anyList(), anyList());
+    }
+
+    private static AlertBulkUpdater.Updated updated(long alertId, AlertStatus previous, String metricName) {
+        return new AlertBulkUpdater.Updated(alertId, previous, AlertType.PERFORMANCE, 2L, 2, 1L, metricName);
+    }
+}
@@ -0,0 +1,124 @@
+package com.victorqueiroga.serverwatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.victorqueiroga.serverwatch.dto.AlertStats;
+import com.victorqueiroga.serverwatch.model.Alert.AlertStatus;
+import com.victorqueiroga.serverwatch.model.Alert.AlertType;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.model.Severity;
+import com.victorqueiroga.serverwatch.repository.AlertRepository;
+import com.victorqueiroga.serverwatch.repository.ServerRepository;
+import com.victorqueiroga.serverwatch.repository.SeverityRepository;
+import com.victorqueiroga.serverwatch.service.AlertStatistics.State;
+
+/**
+ * Teste das estatísticas de alertas mantidas em memória
+ */
+public class AlertStatisticsTest {
+
+    private AlertRepository alertRepository;
+    private SeverityRepository severityRepository;
+    private ServerRepository serverRepository;
+    private AlertStatistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        alertRepository = mock(AlertRepository.class);
+        severityRepository = mock(SeverityRepository.class);
+        serverRepository = mock(ServerRepository.class);
+        when(severityRepository.findAll()).thenReturn(List.of(
+                Severity.builder().id(1L).name("Critical").level(1).build(),
+                Severity.builder().id(2L).name("High").level(2).build(),
+                Severity.builder().id(3L).name("Medium").level(3).build()));
+        // Banco: 2 alertas abertos (High) no srv1 e 1 resolvido (Medium)
+        when(alertRepository.countForStatistics()).thenReturn(rows(
+                new Object[] { AlertStatus.OPEN, AlertType.PERFORMANCE, 2L, 2, false, 2L },
+                new Object[] { AlertStatus.RESOLVED, AlertType.SYSTEM, 3L, 3, true, 1L }));
+        when(alertRepository.countActiveByServer()).thenReturn(rows(new Object[] { 10L, "srv1", 2L }));
+        statistics = new AlertStatistics(alertRepository, severityRepository, serverRepository);
+        statistics.init();
+    }
+
+    @Test
+    public void testLoadedFromDatabase() {
+        AlertStats stats = statistics.snapshot();
+
+        assertThat(stats.totalActive()).isEqualTo(2);
+        assertThat(stats.totalCritical()).isEqualTo(2);
+        assertThat(stats.byStatus()).containsExactly(new Object[] { AlertStatus.OPEN, 2L },
+                new Object[] { AlertStatus.RESOLVED, 1L });
+        assertThat(stats.bySeverity()).containsExactly(new Object[] { "High", 2L }, new Object[] { "Medium", 1L });
+        assertThat(stats.topServers(5)).containsExactly(new Object[] { "srv1", 2L });
+        assertThat(stats.reconciledAt()).isNotNull();
+    }
+
+    @Test
+    public void testLifecycleIsCountedWithoutQueries() {
+        State opened = new State(AlertStatus.OPEN, AlertType.PERFORMANCE, 1L, 1, false, 20L);
+        State acknowledged = new State(AlertStatus.ACKNOWLEDGED, AlertType.PERFORMANCE, 1L, 1, false, 20L);
+        State downgraded = new State(AlertStatus.ACKNOWLEDGED, AlertType.PERFORMANCE, 3L, 3, false, 20L);
+        State resolved = new State(AlertStatus.RESOLVED, AlertType.PERFORMANCE, 3L, 3, true, 20L);
+        Server srv2 = new Server();
+        srv2.setId(20L);
+        srv2.setName("srv2");
+        when(serverRepository.findAllById(List.of(20L))).thenReturn(List.of(srv2));
+
+        statistics.changed(null, opened);
+        AlertStats stats = statistics.snapshot();
+        assertThat(stats.totalActive()).isEqualTo(3);
+        assertThat(stats.totalCritical()).isEqualTo(3);
+        assertThat(stats.topServers(1)).containsExactly(new Object[] { "srv1", 2L });
+        assertThat(stats.topServers(5)).hasSize(2);
+        // Sem alterações, a mesma leitura
+        assertThat(statistics.snapshot()).isSameAs(stats);
+
+        statistics.changed(opened, acknowledged);
+        statistics.changed(acknowledged, downgraded);
+        stats = statistics.snapshot();
+        assertThat(stats.totalActive()).isEqualTo(3);
+        assertThat(stats.totalCritical()).isEqualTo(2);
+        assertThat(stats.byStatus()).containsExactly(new Object[] { AlertStatus.OPEN, 2L },
+                new Object[] { AlertStatus.RESOLVED, 1L }, new Object[] { AlertStatus.ACKNOWLEDGED, 1L });
+
+        statistics.changed(downgraded, resolved);
+        statistics.changed(resolved, null);
+        stats = statistics.snapshot();
+        assertThat(stats.totalActive()).isEqualTo(2);
+        assertThat(stats.bySeverity()).containsExactly(new Object[] { "High", 2L }, new Object[] { "Medium", 1L });
+        assertThat(stats.topServers(5)).containsExactly(new Object[] { "srv1", 2L });
+
+        // Só a carga inicial consultou as contagens; o nome do srv2 uma vez
+        verify(alertRepository, times(1)).countForStatistics();
+        verify(serverRepository, times(1)).findAllById(List.of(20L));
+    }
+
+    @Test
+    public void testReconcileCorrectsDrift() {
+        // Alteração feita fora da aplicação
+        when(alertRepository.countForStatistics()).thenReturn(rows(
+                new Object[] { AlertStatus.OPEN, AlertType.PERFORMANCE, 2L, 2, false, 5L }));
+        when(alertRepository.countActiveByServer()).thenReturn(rows(new Object[] { 10L, "srv1", 5L }));
+
+        statistics.reconcile();
+
+        AlertStats stats = statistics.snapshot();
+        assertThat(stats.totalActive()).isEqualTo(5);
+        assertThat(stats.byStatus()).containsExactly(new Object[] { AlertStatus.OPEN, 5L });
+        assertThat(stats.topServers(5)).containsExactly(new Object[] { "srv1", 5L });
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
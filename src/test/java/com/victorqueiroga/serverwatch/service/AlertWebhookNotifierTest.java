@@ -0,0 +1,248 @@
+package com.victorqueiroga.serverwatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.AlertNotification;
+import com.victorqueiroga.serverwatch.model.WebhookOutbox;
+import com.victorqueiroga.serverwatch.repository.WebhookOutboxRepository;
+
+/**
+ * Teste do envio de alertas por webhook contra um servidor HTTP em memória,
+ * com a fila persistente simulada
+ */
+public class AlertWebhookNotifierTest {
+
+    private static final String SECRET = "segredo";
+
+    private record Request(String delivery, String timestamp, String signature, String body) {
+    }
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicLong delayMillis = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private WebhookOutboxRepository outboxRepository;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/alerts", this::handle);
+        server.start();
+        outboxRepository = mock(WebhookOutboxRepository.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAlertStormBecomesSignedArrayBatches() throws Exception {
+        AlertWebhookNotifier notifier = notifier(100, 200, 2);
+        notifier.start();
+        try {
+            for (long serverId = 1; serverId <= 250; serverId++) {
+                assertThat(notifier.submit(alert(serverId))).isTrue();
+            }
+            await(() -> notifier.getSentCount() == 3);
+
+            assertThat(requests).hasSize(3);
+            int alerts = 0;
+            for (Request request : requests) {
+                JsonNode body = objectMapper.readTree(request.body());
+                assertThat(body.isArray()).isTrue();
+                alerts += body.size();
+                assertThat(request.signature())
+                        .isEqualTo("sha256=" + AlertWebhookNotifier.sign(SECRET, request.timestamp() + "." + request.body()));
+            }
+            assertThat(alerts).isEqualTo(250);
+            assertThat(requests).extracting(Request::delivery).doesNotHaveDuplicates();
+            assertThat(objectMapper.readTree(requests.get(0).body()).get(0).get("serverName").asText()).isEqualTo("srv1");
+        } finally {
+            notifier.stop();
+        }
+    }
+
+    @Test
+    public void testFailedBatchGoesToOutbox() throws Exception {
+        status.set(503);
+        AlertWebhookNotifier notifier = notifier(100, 0, 2);
+        notifier.start();
+        try {
+            LocalDateTime before = LocalDateTime.now();
+            notifier.submit(alert(1L));
+            await(() -> notifier.getRetryCount() == 1);
+
+            ArgumentCaptor<WebhookOutbox> saved = ArgumentCaptor.forClass(WebhookOutbox.class);
+            verify(outboxRepository).save(saved.capture());
+            WebhookOutbox entry = saved.getValue();
+            assertThat(entry.getStatus()).isEqualTo(WebhookOutbox.Status.PENDING);
+            assertThat(entry.getAttempts()).isEqualTo(1);
+            assertThat(entry.getLastError()).isEqualTo("HTTP 503");
+            assertThat(entry.getDeliveryId()).isEqualTo(requests.get(0).delivery());
+            // Primeira espera entre metade e o total de retry-backoff-millis
+            assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+
+            // Recusa do destino não é repetida
+            status.set(400);
+            notifier.submit(alert(2L));
+            await(() -> notifier.getFailedCount() == 1);
+            verify(outboxRepository, times(2)).save(saved.capture());
+            assertThat(saved.getValue().getStatus()).isEqualTo(WebhookOutbox.Status.FAILED);
+        } finally {
+            notifier.stop();
+        }
+    }
+
+    @Test
+    public void testSlowReceiverDoesNotBlockSubmit() throws Exception {
+        delayMillis.set(2_000);
+        AlertWebhookNotifier notifier = notifier(1, 0, 1);
+        notifier.start();
+        try {
+            long start = System.currentTimeMillis();
+            for (long serverId = 1; serverId <= 5; serverId++) {
+                assertThat(notifier.submit(alert(serverId))).isTrue();
+            }
+            assertThat(System.currentTimeMillis() - start).isLessThan(500);
+
+            // Uma requisição em andamento; os demais lotes vão para a fila persistente
+            await(() -> notifier.getDeferredCount() == 4);
+            ArgumentCaptor<WebhookOutbox> saved = ArgumentCaptor.forClass(WebhookOutbox.class);
+            verify(outboxRepository, times(4)).save(saved.capture());
+            assertThat(saved.getAllValues()).allSatisfy(entry -> {
+                assertThat(entry.getAttempts()).isZero();
+                assertThat(entry.getAlertCount()).isEqualTo(1);
+            });
+            await(() -> notifier.getSentCount() == 1);
+        } finally {
+            notifier.stop();
+        }
+    }
+
+    @Test
+    public void testPendingBatchIsResentFromOutbox() throws Exception {
+        WebhookOutbox pending = WebhookOutbox.builder()
+                .id(7L)
+                .deliveryId("8f2c1f9e-0000-4000-8000-000000000007")
+                .endpoint(url())
+                .payload("[{\"alertId\":7}]")
+                .alertCount(1)
+                .attempts(2)
+                .nextAttemptAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(pending), List.of());
+        AlertWebhookNotifier notifier = notifier(100, 0, 2);
+        notifier.start();
+        try {
+            await(() -> notifier.getSentCount() == 1);
+            verify(outboxRepository, atLeastOnce()).deleteById(7L);
+
+            assertThat(requests.get(0).delivery()).isEqualTo(pending.getDeliveryId());
+            assertThat(requests.get(0).body()).isEqualTo(pending.getPayload());
+            // Reservado durante o envio
+            assertThat(pending.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        } finally {
+            notifier.stop();
+        }
+    }
+
+    @Test
+    public void testBackoffIsJitteredAndBounded() {
+        for (int attempts = 1; attempts <= 40; attempts++) {
+            long ceiling = Math.min(600_000L, 10_000L << Math.min(attempts - 1, 30));
+            long backoff = AlertWebhookNotifier.backoff(attempts, 10_000, 600_000);
+            assertThat(backoff).isBetween(ceiling / 2, ceiling);
+        }
+    }
+
+    private AlertWebhookNotifier notifier(int maxAlertsPerBatch, long windowMillis, int maxConcurrentRequests) {
+        ServerWatchProperties properties = new ServerWatchProperties();
+        properties.getMonitoring().getAlerts().setEnableWebhookAlerts(true);
+        ServerWatchProperties.Notifications.Webhook webhook = properties.getNotifications().getWebhook();
+        webhook.setEnabled(true);
+        webhook.setUrl(url());
+        webhook.setSecret(SECRET);
+        webhook.setMaxAlertsPerBatch(maxAlertsPerBatch);
+        webhook.setBatchWindowMillis(windowMillis);
+        webhook.setMaxConcurrentRequests(maxConcurrentRequests);
+        webhook.setRetryBackoffMillis(60_000);
+        webhook.setRetryPollMillis(100);
+        return new AlertWebhookNotifier(properties, WebClient.builder(), outboxRepository,
+                mock(PlatformTransactionManager.class), objectMapper);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/alerts";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(new Request(exchange.getRequestHeaders().getFirst(AlertWebhookNotifier.DELIVERY_HEADER),
+                exchange.getRequestHeaders().getFirst(AlertWebhookNotifier.TIMESTAMP_HEADER),
+                exchange.getRequestHeaders().getFirst(AlertWebhookNotifier.SIGNATURE_HEADER), body));
+        try {
+            Thread.sleep(delayMillis.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(status.get(), -1);
+        exchange.close();
+    }
+
+    private static AlertNotification alert(long serverId) {
+        return new AlertNotification(serverId, serverId, "srv" + serverId, "Uso de CPU acima de 80%", "High", 2,
+                "93.00", "> 80.00", LocalDateTime.of(2026, 1, 1, 12, 0).plusSeconds(serverId), false);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,108 @@
+package com.victorqueiroga.serverwatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.model.MetricRollupWatermark;
+import com.victorqueiroga.serverwatch.model.ServerMetric.MetricCategory;
+import com.victorqueiroga.serverwatch.model.ServerMetricBlock;
+import com.victorqueiroga.serverwatch.model.ServerMetricRollup.Resolution;
+import com.victorqueiroga.serverwatch.repository.MetricRollupWatermarkRepository;
+import com.victorqueiroga.serverwatch.repository.ServerMetricBlockRepository;
+import com.victorqueiroga.serverwatch.repository.ServerMetricRepository;
+import com.victorqueiroga.serverwatch.repository.ServerMetricRollupRepository;
+import com.victorqueiroga.serverwatch.utils.GorillaEncoder;
+
+/**
+ * Teste do recálculo dos agregados após importar amostras em um dia já
+ * compactado: as amostras do bloco continuam nos agregados
+ */
+public class MetricRollupServiceTest {
+
+    @Test
+    public void testRecomputeKeepsCompactedSamples() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate day = now.toLocalDate().minusDays(10);
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1).minusSeconds(1);
+
+        GorillaEncoder encoder = new GorillaEncoder();
+        for (int hour = 0; hour < 24; hour++) {
+            encoder.append(RecentMetricStore.toMillis(from.plusHours(hour).plusMinutes(30)), hour);
+        }
+        ServerMetricBlock block = new ServerMetricBlock();
+        block.setServerId(1L);
+        block.setMetricName("cpu_usage");
+        block.setSubcategory("");
+        block.setDay(day);
+        block.setUnit("%");
+        block.setCategory(MetricCategory.CPU);
+        block.setSampleCount(encoder.count());
+        block.setFirstTimestamp(from.plusMinutes(30));
+        block.setLastTimestamp(from.plusHours(23).plusMinutes(30));
+        block.setData(encoder.toByteArray());
+
+        ServerMetricRollupRepository rollupRepository = mock(ServerMetricRollupRepository.class);
+        MetricRollupWatermarkRepository watermarkRepository = mock(MetricRollupWatermarkRepository.class);
+        for (Resolution resolution : Resolution.values()) {
+            when(watermarkRepository.findById(resolution))
+                    .thenReturn(Optional.of(new MetricRollupWatermark(resolution, now)));
+        }
+        ServerMetricBlockRepository blockRepository = mock(ServerMetricBlockRepository.class);
+        when(blockRepository.findOverlapping(any(), any())).thenReturn(List.of(block));
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(MetricRollupService.MERGE_SQL)).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        MetricRollupService service = new MetricRollupService(rollupRepository, watermarkRepository,
+                mock(ServerMetricRepository.class), blockRepository, mock(RecentMetricStore.class),
+                mock(MetricIngestService.class), dataSource, mock(PlatformTransactionManager.class),
+                new ServerWatchProperties());
+
+        service.recompute(from, to);
+
+        // Minuto e 5 minutos já saíram da retenção
+        verify(rollupRepository, never()).deleteRange(eq(Resolution.ONE_MINUTE), any(), any());
+        verify(rollupRepository, never()).deleteRange(eq(Resolution.FIVE_MINUTES), any(), any());
+        verify(rollupRepository).deleteRange(Resolution.ONE_HOUR, from, from.plusDays(1));
+        verify(rollupRepository).aggregateRawMetrics(eq(Resolution.ONE_HOUR.name()), anyString(), eq(from),
+                eq(from.plusDays(1)));
+        verify(rollupRepository).aggregateRawMetrics(eq(Resolution.ONE_DAY.name()), anyString(), eq(from),
+                eq(from.plusDays(1)));
+
+        // 24 agregados de hora com uma amostra e um agregado do dia com todas
+        ArgumentCaptor<String> resolutions = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Long> counts = ArgumentCaptor.forClass(Long.class);
+        verify(statement, times(25)).setString(eq(1), resolutions.capture());
+        verify(statement, times(25)).setLong(eq(9), counts.capture());
+        assertThat(resolutions.getAllValues().subList(0, 24)).containsOnly(Resolution.ONE_HOUR.name());
+        assertThat(counts.getAllValues().subList(0, 24)).containsOnly(1L);
+        assertThat(resolutions.getAllValues().get(24)).isEqualTo(Resolution.ONE_DAY.name());
+        assertThat(counts.getAllValues().get(24)).isEqualTo(24L);
+        verify(statement, times(25)).addBatch();
+        verify(connection, times(2)).close();
+    }
+}
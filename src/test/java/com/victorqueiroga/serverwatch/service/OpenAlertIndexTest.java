@@ -0,0 +1,121 @@
+package com.victorqueiroga.serverwatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.model.Alert;
+import com.victorqueiroga.serverwatch.model.Alert.AlertStatus;
+import com.victorqueiroga.serverwatch.model.Alert.AlertType;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.model.Severity;
+import com.victorqueiroga.serverwatch.repository.AlertRepository;
+
+/**
+ * Teste do índice em memória dos alertas abertos
+ */
+public class OpenAlertIndexTest {
+
+    private static final OpenAlertIndex.Key CPU = new OpenAlertIndex.Key(1L, "CPU_USAGE", AlertType.PERFORMANCE);
+    private static final OpenAlertIndex.Key MEMORY = new OpenAlertIndex.Key(1L, "MEMORY_USAGE", AlertType.PERFORMANCE);
+
+    private AlertRepository alertRepository;
+    private OpenAlertIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        alertRepository = mock(AlertRepository.class);
+        index = new OpenAlertIndex(alertRepository, new ServerWatchProperties());
+    }
+
+    @Test
+    public void testReloadKeepsNewestAlertPerSeries() {
+        // Ordem do repositório: mais recentes primeiro
+        when(alertRepository.findActiveAlerts()).thenReturn(List.of(
+                alert(12L, "CPU_USAGE", AlertStatus.ACKNOWLEDGED),
+                alert(11L, "MEMORY_USAGE", AlertStatus.OPEN),
+                alert(10L, "CPU_USAGE", AlertStatus.OPEN)));
+
+        index.reload();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.get(CPU).getAlertId()).isEqualTo(12L);
+        assertThat(index.get(CPU).getStatus()).isEqualTo(AlertStatus.ACKNOWLEDGED);
+        assertThat(index.get(MEMORY).getAlertId()).isEqualTo(11L);
+
+        // A duplicata mais antiga não está no índice: resolvê-la não fecha a série
+        Alert older = alert(10L, "CPU_USAGE", AlertStatus.OPEN);
+        older.resolve("ops", null);
+        index.update(older);
+        assertThat(index.get(CPU).getAlertId()).isEqualTo(12L);
+        assertThat(index.isCoolingDown(CPU)).isFalse();
+    }
+
+    @Test
+    public void testResolvedSeriesCoolsDown() {
+        index.update(alert(10L, "CPU_USAGE", AlertStatus.OPEN));
+        Alert resolved = alert(10L, "CPU_USAGE", AlertStatus.OPEN);
+        resolved.resolve("ops", null);
+
+        index.update(resolved);
+
+        assertThat(index.get(CPU)).isNull();
+        assertThat(index.isCoolingDown(CPU)).isTrue();
+        assertThat(index.isCoolingDown(MEMORY)).isFalse();
+        // Um novo alerta aberto pelas regras encerra a carência
+        index.opened(CPU, new OpenAlertIndex.Entry(13L, 5, 2, 2, "91.00", AlertStatus.OPEN));
+        assertThat(index.isCoolingDown(CPU)).isFalse();
+    }
+
+    @Test
+    public void testCooldownExpires() {
+        ServerWatchProperties properties = new ServerWatchProperties();
+        properties.getMonitoring().getAlerts().setCooldownMinutes(0);
+        index = new OpenAlertIndex(alertRepository, properties);
+        index.update(alert(10L, "CPU_USAGE", AlertStatus.OPEN));
+        Alert resolved = alert(10L, "CPU_USAGE", AlertStatus.OPEN);
+        resolved.resolve("ops", null);
+
+        index.update(resolved);
+
+        assertThat(index.get(CPU)).isNull();
+        assertThat(index.isCoolingDown(CPU)).isFalse();
+    }
+
+    @Test
+    public void testUpdateMovesAlertToNewSeries() {
+        index.update(alert(10L, "CPU_USAGE", AlertStatus.OPEN));
+
+        // Alerta editado para outra métrica: sai da série anterior, sem carência
+        index.update(alert(10L, "MEMORY_USAGE", AlertStatus.ACKNOWLEDGED));
+
+        assertThat(index.get(CPU)).isNull();
+        assertThat(index.isCoolingDown(CPU)).isFalse();
+        assertThat(index.get(MEMORY).getAlertId()).isEqualTo(10L);
+        assertThat(index.get(MEMORY).getStatus()).isEqualTo(AlertStatus.ACKNOWLEDGED);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.removed(10L);
+        assertThat(index.size()).isZero();
+    }
+
+    private static Alert alert(Long id, String metricName, AlertStatus status) {
+        Server server = new Server();
+        server.setId(1L);
+        return Alert.builder()
+                .id(id)
+                .server(server)
+                .metricName(metricName)
+                .alertType(AlertType.PERFORMANCE)
+                .status(status)
+                .severity(Severity.builder().id(2L).name("High").level(2).build())
+                .currentValue("90.00")
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.victorqueiroga.serverwatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.victorqueiroga.serverwatch.config.ServerWatchProperties;
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.model.ServerMetric.MetricCategory;
+
+/**
+ * Teste do histórico recente de métricas em memória
+ */
+public class RecentMetricStoreTest {
+
+    private LocalDateTime start;
+    private RecentMetricStore store;
+
+    @BeforeEach
+    public void setUp() {
+        start = LocalDateTime.now();
+        store = new RecentMetricStore(new ServerWatchProperties());
+        for (int i = 0; i < 10; i++) {
+            store.append(sample(start.plusMinutes(i), i));
+        }
+    }
+
+    @Test
+    public void testPeriodSinceStartupIsServedFromMemory() {
+        Optional<List<RecentMetricStore.SeriesData>> found = store.find(1L, MetricSample.CPU_USAGE,
+                start.plusSeconds(1), null);
+
+        assertThat(found).isPresent();
+        assertThat(found.get()).singleElement().satisfies(series -> assertThat(series.size()).isEqualTo(9));
+        assertThat(store.find(1L, null, start.minusHours(1), null)).isEmpty();
+    }
+
+    @Test
+    public void testImportedPeriodFallsBackToDatabase() {
+        store.imported(start.plusMinutes(3), start.plusMinutes(4));
+
+        assertThat(store.find(1L, MetricSample.CPU_USAGE, start.plusSeconds(1), null)).isEmpty();
+        assertThat(store.find(1L, MetricSample.CPU_USAGE, start.plusSeconds(1), start.plusMinutes(3))).isPresent();
+        assertThat(store.find(1L, MetricSample.CPU_USAGE, start.plusMinutes(5), null)).isPresent();
+    }
+
+    @Test
+    public void testImportBeforeStartupKeepsMemory() {
+        store.imported(start.minusDays(2), start.minusDays(1));
+
+        assertThat(store.find(1L, MetricSample.CPU_USAGE, start.plusSeconds(1), null)).isPresent();
+    }
+
+    @Test
+    public void testSamplesKeepThresholdsTheyWereStoredWith() {
+        // Regra editada no meio da série: os limites mudam a partir do minuto 3
+        LocalDateTime from = start.plusSeconds(1);
+        for (int i = 0; i < 6; i++) {
+            double critical = i < 3 ? 90.0 : 95.0;
+            store.append(new MetricSample(1L, MetricSample.MEMORY_USAGE, 92, "%", MetricCategory.MEMORY, null, null,
+                    from.plusMinutes(i), 80.0, critical));
+        }
+
+        RecentMetricStore.SeriesData series = store.find(1L, MetricSample.MEMORY_USAGE, from, null).orElseThrow()
+                .get(0);
+
+        assertThat(series.size()).isEqualTo(6);
+        for (int i = 0; i < 6; i++) {
+            assertThat(series.warningThreshold(i)).isEqualTo(80.0);
+            assertThat(series.criticalThreshold(i)).isEqualTo(i < 3 ? 90.0 : 95.0);
+        }
+    }
+
+    private static MetricSample sample(LocalDateTime timestamp, double value) {
+        return new MetricSample(1L, MetricSample.CPU_USAGE, value, "%", MetricCategory.CPU, null, null, timestamp,
+                null, null);
+    }
+}
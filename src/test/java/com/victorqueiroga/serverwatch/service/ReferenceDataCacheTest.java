@@ -0,0 +1,98 @@
+package com.victorqueiroga.serverwatch.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.victorqueiroga.serverwatch.model.OperationSystem;
+import com.victorqueiroga.serverwatch.model.Server;
+import com.victorqueiroga.serverwatch.model.Severity;
+import com.victorqueiroga.serverwatch.repository.OperationSystemRepository;
+import com.victorqueiroga.serverwatch.repository.ServerRepository;
+import com.victorqueiroga.serverwatch.repository.SeverityRepository;
+
+/**
+ * Teste dos dados de referência mantidos em memória
+ */
+public class ReferenceDataCacheTest {
+
+    private ServerRepository serverRepository;
+    private SeverityRepository severityRepository;
+    private OperationSystemRepository operationSystemRepository;
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        serverRepository = mock(ServerRepository.class);
+        severityRepository = mock(SeverityRepository.class);
+        operationSystemRepository = mock(OperationSystemRepository.class);
+        when(serverRepository.findAll()).thenReturn(List.of(server("srv1")), List.of(server("srv1"), server("srv2")));
+        when(severityRepository.findAllByOrderByLevel())
+                .thenReturn(List.of(Severity.builder().id(1L).name("Critical").level(1).build()));
+        when(operationSystemRepository.findAll()).thenReturn(List.of(new OperationSystem()));
+        cache = new ReferenceDataCache(serverRepository, severityRepository, operationSystemRepository);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRepeatedReadsDoNotQuery() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.servers()).hasSize(1);
+            assertThat(cache.severities()).extracting(Severity::getName).containsExactly("Critical");
+            assertThat(cache.operationSystems()).hasSize(1);
+        }
+
+        verify(serverRepository, times(1)).findAll();
+        verify(severityRepository, times(1)).findAllByOrderByLevel();
+        verify(operationSystemRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void testInvalidateReloadsWithNewVersion() {
+        ReferenceDataCache.Snapshot first = cache.snapshot();
+
+        cache.invalidate();
+        ReferenceDataCache.Snapshot second = cache.snapshot();
+
+        assertThat(second.version()).isGreaterThan(first.version());
+        assertThat(second.servers()).extracting(Server::getName).containsExactly("srv1", "srv2");
+        verify(serverRepository, times(2)).findAll();
+    }
+
+    @Test
+    public void testInvalidateWaitsForCommit() {
+        ReferenceDataCache.Snapshot first = cache.snapshot();
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate();
+        // Antes do commit, os dados atuais continuam valendo
+        assertThat(cache.snapshot()).isSameAs(first);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.servers()).hasSize(2);
+    }
+
+    private static Server server(String name) {
+        Server server = new Server();
+        server.setName(name);
+        return server;
+    }
+}
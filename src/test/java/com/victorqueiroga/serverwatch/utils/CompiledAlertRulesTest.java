@@ -0,0 +1,145 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.victorqueiroga.serverwatch.dto.DiskInfoDto;
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+import com.victorqueiroga.serverwatch.model.AlertRule;
+import com.victorqueiroga.serverwatch.model.AlertRule.Condition;
+import com.victorqueiroga.serverwatch.model.AlertRule.Operator;
+import com.victorqueiroga.serverwatch.model.AlertRule.RuleMetric;
+import com.victorqueiroga.serverwatch.model.Severity;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.RuleSet;
+
+/**
+ * Teste dos limites de aviso e crítico derivados das regras de alerta, usados
+ * nas amostras gravadas e no status da coleta
+ */
+public class CompiledAlertRulesTest {
+
+    private static final Severity CRITICAL = Severity.builder().id(1L).name("Critical").level(1).build();
+    private static final Severity HIGH = Severity.builder().id(2L).name("High").level(2).build();
+    private static final Severity MEDIUM = Severity.builder().id(3L).name("Medium").level(3).build();
+
+    private final RuleSet rules = CompiledAlertRules.compile(List.of(
+            rule(1L, RuleMetric.AVAILABILITY, Operator.LESS_THAN, 1, CRITICAL, Condition.INSTANT),
+            rule(2L, RuleMetric.CPU_USAGE, Operator.GREATER_THAN, 80, MEDIUM, Condition.FOR_DURATION),
+            rule(3L, RuleMetric.CPU_USAGE, Operator.GREATER_THAN, 95, HIGH, Condition.INSTANT),
+            rule(4L, RuleMetric.CPU_USAGE, Operator.GREATER_THAN, 10, CRITICAL, Condition.RATE_OF_CHANGE),
+            rule(5L, RuleMetric.MEMORY_USAGE, Operator.GREATER_OR_EQUAL, 85, HIGH, Condition.INSTANT)))
+            .ruleSetFor(1L, null);
+
+    @Test
+    public void testThresholdsFollowRuleSeverities() {
+        assertThat(rules.warningThreshold(RuleMetric.CPU_USAGE)).isEqualTo(80.0);
+        // A regra de taxa de variação não é um limite sobre o valor
+        assertThat(rules.criticalThreshold(RuleMetric.CPU_USAGE)).isEqualTo(95.0);
+        assertThat(rules.warningThreshold(RuleMetric.MEMORY_USAGE)).isNull();
+        assertThat(rules.criticalThreshold(RuleMetric.MEMORY_USAGE)).isEqualTo(85.0);
+        // Limite inferior e métrica sem regras
+        assertThat(rules.criticalThreshold(RuleMetric.AVAILABILITY)).isNull();
+        assertThat(rules.criticalThreshold(RuleMetric.DISK_USAGE)).isNull();
+    }
+
+    @Test
+    public void testSamplesCarryRuleThresholds() {
+        ServerStatusDto status = status(96, 50, 97);
+
+        List<MetricSample> samples = MetricSample.fromStatus(status, rules);
+
+        MetricSample cpu = sample(samples, MetricSample.CPU_USAGE);
+        assertThat(cpu.warningThreshold()).isEqualTo(80.0);
+        assertThat(cpu.criticalThreshold()).isEqualTo(95.0);
+        assertThat(cpu.isCritical()).isTrue();
+        assertThat(sample(samples, MetricSample.MEMORY_USAGE).isCritical()).isFalse();
+        // Sem regra de disco, nem o disco quase cheio é gravado como crítico
+        MetricSample disk = sample(samples, MetricSample.DISK_USAGE);
+        assertThat(disk.criticalThreshold()).isNull();
+        assertThat(disk.isCritical()).isFalse();
+    }
+
+    @Test
+    public void testStatusUsesRuleThresholds() {
+        ServerStatusDto warning = status(82, 50, 97);
+        warning.determineStatus(rules);
+        assertThat(warning.getStatus()).isEqualTo("WARNING");
+
+        ServerStatusDto normal = status(50, 84, 97);
+        normal.determineStatus(rules);
+        assertThat(normal.getStatus()).isEqualTo("ONLINE");
+
+        ServerStatusDto withoutRules = status(99, 99, 99);
+        withoutRules.determineStatus(CompiledAlertRules.EMPTY.ruleSetFor(1L, null));
+        assertThat(withoutRules.getStatus()).isEqualTo("ONLINE");
+    }
+
+    @Test
+    public void testStatusAppliesRuleOperator() {
+        // CPU > 80: exatamente no limite continua normal
+        ServerStatusDto atCpuLimit = status(80, 50, 50);
+        atCpuLimit.determineStatus(rules);
+        assertThat(atCpuLimit.getStatus()).isEqualTo("ONLINE");
+
+        // Memória >= 85: no limite já é alerta
+        ServerStatusDto atMemoryLimit = status(50, 85, 50);
+        atMemoryLimit.determineStatus(rules);
+        assertThat(atMemoryLimit.getStatus()).isEqualTo("WARNING");
+    }
+
+    @Test
+    public void testCriticalDisksFollowDiskRules() {
+        ServerStatusDto status = status(50, 50, 97);
+        DiskInfoDto data = new DiskInfoDto();
+        data.setPath("/data");
+        data.setUsagePercent(90.0);
+        status.setDiskList(List.of(status.getDiskList().get(0), data));
+
+        // Sem regra crítica de disco, nenhum disco é listado
+        status.calculateCriticalDiskLetters(rules);
+        assertThat(status.getCriticalDiskLetters()).isEmpty();
+
+        RuleSet diskRules = CompiledAlertRules.compile(List.of(
+                rule(6L, RuleMetric.DISK_USAGE, Operator.GREATER_THAN, 90, HIGH, Condition.INSTANT)))
+                .ruleSetFor(1L, null);
+        status.calculateCriticalDiskLetters(diskRules);
+        assertThat(status.getCriticalDiskLetters()).isEqualTo("/");
+    }
+
+    private static ServerStatusDto status(double cpu, double memory, double disk) {
+        ServerStatusDto status = ServerStatusDto.builder().serverId(1L).serverName("srv1").build();
+        status.markAsOnline();
+        status.setLastCheck(LocalDateTime.of(2026, 1, 1, 0, 0));
+        status.setCpuLoad1Min(cpu);
+        status.setMemoryUsagePercent(memory);
+        DiskInfoDto root = new DiskInfoDto();
+        root.setPath("/");
+        root.setUsagePercent(disk);
+        status.setDiskList(List.of(root));
+        return status;
+    }
+
+    private static MetricSample sample(List<MetricSample> samples, String metricName) {
+        return samples.stream().filter(sample -> sample.metricName().equals(metricName)).findFirst().orElseThrow();
+    }
+
+    private static AlertRule rule(long id, RuleMetric metric, Operator operator, double threshold, Severity severity,
+            Condition condition) {
+        return AlertRule.builder()
+                .id(id)
+                .name(metric + " " + operator.getSymbol() + " " + threshold)
+                .metric(metric)
+                .operator(operator)
+                .threshold(BigDecimal.valueOf(threshold))
+                .severity(severity)
+                .condition(condition)
+                .durationSeconds(condition == Condition.INSTANT ? null : 240)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Teste de ida e volta do formato de blocos de métricas
+ */
+public class GorillaCodecTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void testRoundTripRegularSeries() {
+        Random random = new Random(42);
+        int points = 720;
+        long[] timestamps = new long[points];
+        double[] values = new double[points];
+        long timestamp = START;
+        double value = 35.0;
+        for (int i = 0; i < points; i++) {
+            // Coleta a cada 2 minutos com atraso variável de alguns ms
+            timestamp += 120_000 + random.nextInt(2_000) - 1_000;
+            value = Math.max(0, Math.min(100, value + random.nextGaussian()));
+            timestamps[i] = timestamp;
+            values[i] = Math.round(value * 10_000) / 10_000.0;
+        }
+
+        byte[] block = encode(timestamps, values);
+        assertRoundTrip(block, timestamps, values);
+        // Amostra por linha em server_metrics passa de 100 bytes
+        assertThat(block.length).isLessThan(points * 10);
+    }
+
+    @Test
+    public void testConstantSeriesUsesTwoBitsPerPoint() {
+        int points = 1_000;
+        long[] timestamps = new long[points];
+        double[] values = new double[points];
+        for (int i = 0; i < points; i++) {
+            timestamps[i] = START + i * 60_000L;
+            values[i] = 1;
+        }
+
+        byte[] block = encode(timestamps, values);
+        assertRoundTrip(block, timestamps, values);
+        // Cabeçalho, primeiro ponto, primeiro delta (32 bits) e 2 bits por ponto
+        assertThat(block.length).isLessThanOrEqualTo(4 + 16 + 5 + points / 4 + 1);
+    }
+
+    @Test
+    public void testRoundTripIrregularValuesAndGaps() {
+        long[] timestamps = { START, START, START + 1, START + 86_400_000L, START + 86_400_000L * 40,
+                START + 86_400_000L * 40 + 5, Long.MAX_VALUE / 2 };
+        double[] values = { 0, -0.0, Double.MAX_VALUE, Double.MIN_VALUE, -123.4567, Double.NaN,
+                Double.POSITIVE_INFINITY };
+
+        assertRoundTrip(encode(timestamps, values), timestamps, values);
+    }
+
+    @Test
+    public void testEmptyAndSinglePointBlocks() {
+        assertRoundTrip(encode(new long[0], new double[0]), new long[0], new double[0]);
+        assertRoundTrip(encode(new long[] { START }, new double[] { 42.5 }), new long[] { START },
+                new double[] { 42.5 });
+    }
+
+    @Test
+    public void testRejectsOutOfOrderTimestamps() {
+        GorillaEncoder encoder = new GorillaEncoder();
+        encoder.append(START, 1);
+        assertThatThrownBy(() -> encoder.append(START - 1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testRejectsTruncatedBlock() {
+        byte[] block = encode(new long[] { START, START + 60_000 }, new double[] { 1, 2 });
+        byte[] truncated = Arrays.copyOf(block, 10);
+        GorillaDecoder decoder = new GorillaDecoder(truncated);
+        assertThatThrownBy(() -> {
+            while (decoder.next()) {
+                // consome
+            }
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] encode(long[] timestamps, double[] values) {
+        GorillaEncoder encoder = new GorillaEncoder();
+        for (int i = 0; i < timestamps.length; i++) {
+            encoder.append(timestamps[i], values[i]);
+        }
+        assertThat(encoder.count()).isEqualTo(timestamps.length);
+        return encoder.toByteArray();
+    }
+
+    private static void assertRoundTrip(byte[] block, long[] timestamps, double[] values) {
+        GorillaDecoder decoder = new GorillaDecoder(block);
+        assertThat(decoder.count()).isEqualTo(timestamps.length);
+        int i = 0;
+        while (decoder.next()) {
+            assertThat(decoder.timestamp()).isEqualTo(timestamps[i]);
+            assertThat(Double.doubleToRawLongBits(decoder.value())).isEqualTo(Double.doubleToRawLongBits(values[i]));
+            i++;
+        }
+        assertThat(i).isEqualTo(timestamps.length);
+    }
+}
@@ -0,0 +1,162 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.victorqueiroga.serverwatch.dto.KeysetPage;
+
+/**
+ * Teste dos cursores de paginação por chave e da montagem das páginas
+ */
+public class KeysetCursorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 10, 8, 30);
+    private static final Comparator<Item> ORDER = Comparator.comparing(Item::createdAt).thenComparingLong(Item::id);
+
+    @Test
+    public void testTokenRoundTripTruncatesToMicroseconds() {
+        KeysetCursor cursor = new KeysetCursor(START.withNano(123_456_789), 42, true);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.position()).isEqualTo(START.withNano(123_456_000));
+        assertThat(decoded.id()).isEqualTo(42);
+        assertThat(decoded.backward()).isTrue();
+        assertThat(KeysetCursor.decode(KeysetCursor.LOWEST.encode())).isEqualTo(KeysetCursor.LOWEST);
+        assertThat(KeysetCursor.decode(KeysetCursor.HIGHEST.encode())).isEqualTo(KeysetCursor.HIGHEST);
+    }
+
+    @Test
+    public void testMissingTokenMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    public void testMalformedTokensAreRejected() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        byte[] invalidDirection = ByteBuffer.allocate(17).putLong(0).putLong(1).put((byte) 2).array();
+
+        for (String token : List.of("não-é-base64!", encoder.encodeToString(new byte[16]),
+                encoder.encodeToString(invalidDirection))) {
+            assertThatThrownBy(() -> KeysetCursor.decode(token))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Cursor de paginação inválido");
+        }
+    }
+
+    @Test
+    public void testFirstPageHasNoPreviousCursor() {
+        List<Item> items = items(4);
+
+        KeysetPage<Item> full = page(items.subList(0, 3), 2, null);
+        assertThat(full.content()).containsExactly(items.get(0), items.get(1));
+        assertThat(full.nextCursor()).isNotNull();
+        assertThat(full.previousCursor()).isNull();
+
+        KeysetPage<Item> single = page(items.subList(0, 2), 2, null);
+        assertThat(single.nextCursor()).isNull();
+        assertThat(single.previousCursor()).isNull();
+
+        KeysetPage<Item> empty = page(List.of(), 2, null);
+        assertThat(empty.isEmpty()).isTrue();
+        assertThat(empty.nextCursor()).isNull();
+        assertThat(empty.previousCursor()).isNull();
+    }
+
+    @Test
+    public void testBackwardPageIsReversed() {
+        List<Item> items = items(6);
+        KeysetCursor before = new KeysetCursor(items.get(4).createdAt(), items.get(4).id(), true);
+
+        // Leitura para trás: do mais próximo do cursor para o mais distante
+        KeysetPage<Item> more = page(List.of(items.get(3), items.get(2), items.get(1)), 2, before);
+        assertThat(more.content()).containsExactly(items.get(2), items.get(3));
+        assertThat(KeysetCursor.decode(more.nextCursor()))
+                .isEqualTo(new KeysetCursor(items.get(3).createdAt(), items.get(3).id(), false));
+        assertThat(KeysetCursor.decode(more.previousCursor()))
+                .isEqualTo(new KeysetCursor(items.get(2).createdAt(), items.get(2).id(), true));
+
+        // Sem linha excedente: chegou ao início da listagem
+        KeysetPage<Item> start = page(List.of(items.get(1), items.get(0)), 2, before);
+        assertThat(start.content()).containsExactly(items.get(0), items.get(1));
+        assertThat(start.nextCursor()).isNotNull();
+        assertThat(start.previousCursor()).isNull();
+    }
+
+    @Test
+    public void testTraversalWithTiedTimestamps() {
+        // 23 itens, quatro por instante; a listagem é do mais recente para o mais antigo
+        List<Item> listing = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            listing.add(new Item(START.plusSeconds(i / 4), i + 1));
+        }
+        listing.sort(ORDER.reversed());
+
+        List<List<Item>> pages = new ArrayList<>();
+        KeysetPage<Item> page = fetch(listing, null, 5);
+        pages.add(page.content());
+        while (page.nextCursor() != null) {
+            page = fetch(listing, page.nextCursor(), 5);
+            pages.add(page.content());
+        }
+        assertThat(pages).hasSize(5);
+        assertThat(pages.stream().flatMap(List::stream).toList()).isEqualTo(listing);
+
+        // Volta da última página à primeira pelos cursores anteriores
+        for (int index = pages.size() - 2; index >= 0; index--) {
+            page = fetch(listing, page.previousCursor(), 5);
+            assertThat(page.content()).isEqualTo(pages.get(index));
+        }
+        assertThat(page.previousCursor()).isNull();
+        assertThat(fetch(listing, page.nextCursor(), 5).content()).isEqualTo(pages.get(1));
+    }
+
+    /**
+     * Lê uma página da listagem (mais recentes primeiro) como as consultas
+     * do repositório: {@code size + 1} linhas no sentido do cursor
+     */
+    private static KeysetPage<Item> fetch(List<Item> listing, String token, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(token);
+        Item from = cursor != null ? new Item(cursor.position(), cursor.id()) : null;
+        List<Item> rows = new ArrayList<>();
+        if (cursor != null && cursor.backward()) {
+            for (int i = listing.size() - 1; i >= 0 && rows.size() <= size; i--) {
+                if (ORDER.compare(listing.get(i), from) > 0) {
+                    rows.add(listing.get(i));
+                }
+            }
+        } else {
+            for (int i = 0; i < listing.size() && rows.size() <= size; i++) {
+                if (from == null || ORDER.compare(listing.get(i), from) < 0) {
+                    rows.add(listing.get(i));
+                }
+            }
+        }
+        return page(rows, size, cursor);
+    }
+
+    private static KeysetPage<Item> page(List<Item> rows, int size, KeysetCursor cursor) {
+        return KeysetPage.of(rows, size, cursor, Item::createdAt, Item::id, null);
+    }
+
+    private static List<Item> items(int count) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(START.plusMinutes(i), i + 1));
+        }
+        return items;
+    }
+
+    private record Item(LocalDateTime createdAt, long id) {
+    }
+}
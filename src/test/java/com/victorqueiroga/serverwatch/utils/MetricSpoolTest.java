@@ -0,0 +1,179 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.victorqueiroga.serverwatch.dto.MetricSample;
+import com.victorqueiroga.serverwatch.model.ServerMetric.MetricCategory;
+
+/**
+ * Teste do spool de métricas em disco: recuperação após queda, checkpoint e
+ * descarte de segmentos
+ */
+public class MetricSpoolTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testTruncatedRecordIsDiscardedOnRecovery() throws IOException {
+        try (MetricSpool spool = open()) {
+            append(spool, 0, 3);
+            spool.sync();
+        }
+        // Queda no meio da escrita do terceiro registro: o conteúdo não bate com o CRC
+        Path segment = onlySegment();
+        int third = recordOffset(segment, 2);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), third + 12);
+        }
+
+        try (MetricSpool spool = open()) {
+            assertThat(spool.pendingRecords()).isEqualTo(2);
+            assertThat(values(spool.read(10))).containsExactly(0.0, 1.0);
+
+            // Novas amostras sobrescrevem o registro incompleto
+            append(spool, 10, 1);
+            assertThat(values(spool.read(10))).containsExactly(10.0);
+        }
+    }
+
+    @Test
+    public void testCheckpointRestoresReadPosition() throws IOException {
+        try (MetricSpool spool = open()) {
+            append(spool, 0, 5);
+            spool.sync();
+            spool.commit(spool.read(3));
+        }
+
+        try (MetricSpool spool = open()) {
+            assertThat(spool.pendingRecords()).isEqualTo(2);
+            MetricSpool.Batch batch = spool.read(10);
+            assertThat(values(batch)).containsExactly(3.0, 4.0);
+            assertThat(batch.samples().get(0).timestamp()).isEqualTo(START.plusSeconds(3));
+        }
+    }
+
+    @Test
+    public void testUncommittedReadIsReadAgainAcrossSegments() throws IOException {
+        int count;
+        try (MetricSpool spool = open()) {
+            count = fillSegments(spool, 3);
+            spool.sync();
+            assertThat(spool.read(count).samples()).hasSize(count);
+            assertThat(spool.pendingRecords()).isZero();
+        }
+
+        try (MetricSpool spool = open()) {
+            assertThat(spool.pendingRecords()).isEqualTo(count);
+            List<Double> values = values(spool.read(count));
+            assertThat(values).hasSize(count);
+            assertThat(values.get(0)).isZero();
+            assertThat(values.get(count - 1)).isEqualTo(count - 1);
+        }
+    }
+
+    @Test
+    public void testEvictionWhileReaderIsBehindCountsLostRecords() throws IOException {
+        try (MetricSpool spool = new MetricSpool(directory, SEGMENT_BYTES, 2L * SEGMENT_BYTES)) {
+            // Cerca de cinco segmentos, sem leitura: só os dois últimos ficam
+            int appended = 300;
+            append(spool, 0, appended);
+
+            MetricSpool.Batch batch = spool.read(appended);
+            assertThat(spool.getEvictedRecords()).isPositive();
+            assertThat(spool.getEvictedRecords() + batch.samples().size()).isEqualTo(appended);
+            // A leitura continua na primeira amostra não descartada
+            assertThat(batch.samples().get(0).value()).isEqualTo(spool.getEvictedRecords());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertThat(files.filter(path -> path.toString().endsWith(".seg")).count()).isEqualTo(2);
+            }
+        }
+    }
+
+    @Test
+    public void testPartialCommitKeepsRestPending() throws IOException {
+        try (MetricSpool spool = open()) {
+            append(spool, 0, 6);
+            MetricSpool.Batch batch = spool.read(6);
+            assertThat(spool.oldestPendingTimestamp()).isEqualTo(START);
+
+            spool.commit(batch.slice(0, 4));
+            assertThat(spool.oldestPendingTimestamp()).isEqualTo(START.plusSeconds(4));
+            spool.commit(batch.slice(4, 6));
+            assertThat(spool.oldestPendingTimestamp()).isNull();
+        }
+        try (MetricSpool spool = open()) {
+            assertThat(spool.pendingRecords()).isZero();
+        }
+    }
+
+    private MetricSpool open() throws IOException {
+        return new MetricSpool(directory, SEGMENT_BYTES, 8L * SEGMENT_BYTES);
+    }
+
+    private static void append(MetricSpool spool, int first, int count) throws IOException {
+        for (int i = first; i < first + count; i++) {
+            spool.append(sample(i));
+        }
+    }
+
+    /**
+     * Grava amostras até abrir {@code segments} segmentos
+     *
+     * @return número de amostras gravadas
+     */
+    private int fillSegments(MetricSpool spool, int segments) throws IOException {
+        int count = 0;
+        while (segmentCount() < segments) {
+            spool.append(sample(count++));
+        }
+        return count;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+    }
+
+    // Registros: [tamanho int][crc32c int][amostra]
+    private static int recordOffset(Path segment, int index) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int position = 0;
+        for (int i = 0; i < index; i++) {
+            position += 8 + data.getInt(position);
+        }
+        return position;
+    }
+
+    private static List<Double> values(MetricSpool.Batch batch) {
+        return batch.samples().stream().map(MetricSample::value).toList();
+    }
+
+    private static MetricSample sample(int index) {
+        return new MetricSample(1L, MetricSample.CPU_USAGE, index, "%", MetricCategory.CPU, null, null,
+                START.plusSeconds(index), 80.0, 90.0);
+    }
+}
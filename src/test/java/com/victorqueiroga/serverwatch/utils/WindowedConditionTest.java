@@ -0,0 +1,298 @@
+package com.victorqueiroga.serverwatch.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.victorqueiroga.serverwatch.dto.AlertRuleEvent;
+import com.victorqueiroga.serverwatch.dto.ServerStatusDto;
+import com.victorqueiroga.serverwatch.model.Alert;
+import com.victorqueiroga.serverwatch.model.AlertRule;
+import com.victorqueiroga.serverwatch.model.AlertRule.Condition;
+import com.victorqueiroga.serverwatch.model.AlertRule.Operator;
+import com.victorqueiroga.serverwatch.model.AlertRule.RuleMetric;
+import com.victorqueiroga.serverwatch.model.Severity;
+import com.victorqueiroga.serverwatch.utils.CompiledAlertRules.Rule;
+
+/**
+ * Teste das condições de regra em janela e da histerese
+ */
+public class WindowedConditionTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    public void testForDurationIgnoresSpikesAndRecoversBelowRecoveryThreshold() {
+        WindowedCondition condition = new WindowedCondition(
+                rule(Condition.FOR_DURATION, Operator.GREATER_THAN, 80, 4 * MINUTE, 0, 0, 70));
+
+        // Pico isolado: a sequência é interrompida antes de 4 minutos
+        assertThat(condition.update(START, 95)).isFalse();
+        assertThat(condition.update(START + 2 * MINUTE, 50)).isFalse();
+
+        assertThat(condition.update(START + 4 * MINUTE, 85)).isFalse();
+        assertThat(condition.update(START + 6 * MINUTE, 90)).isFalse();
+        assertThat(condition.update(START + 8 * MINUTE, 81)).isTrue();
+
+        // Abaixo do limite, mas acima da recuperação: continua violada
+        assertThat(condition.update(START + 10 * MINUTE, 75)).isTrue();
+        assertThat(condition.update(START + 12 * MINUTE, 70)).isFalse();
+        // Volta a exigir o limite e a duração completos
+        assertThat(condition.update(START + 14 * MINUTE, 75)).isFalse();
+        assertThat(condition.update(START + 16 * MINUTE, 85)).isFalse();
+    }
+
+    @Test
+    public void testMOfNCountsSamplesLeavingTheWindow() {
+        WindowedCondition condition = new WindowedCondition(
+                rule(Condition.M_OF_N, Operator.GREATER_THAN, 85, 0, 3, 5, Double.NaN));
+        double[] values = { 90, 50, 90, 50, 50, 90, 90, 50, 90, 50, 50, 50 };
+        boolean[] expected = { false, false, false, false, false, false, true, false, true, true, false, false };
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(condition.update(START + i * MINUTE, values[i])).as("amostra %d", i).isEqualTo(expected[i]);
+        }
+    }
+
+    @Test
+    public void testMOfNWindowLargerThanOneWord() {
+        WindowedCondition condition = new WindowedCondition(
+                rule(Condition.M_OF_N, Operator.GREATER_OR_EQUAL, 1, 0, 100, 200, Double.NaN));
+        for (int i = 0; i < 99; i++) {
+            assertThat(condition.update(START + i, 1)).isFalse();
+        }
+        assertThat(condition.update(START + 99, 1)).isTrue();
+        // Depois de 200 amostras abaixo do limite a janela está limpa
+        for (int i = 0; i < 200; i++) {
+            condition.update(START + 100 + i, 0);
+        }
+        assertThat(condition.isActive()).isFalse();
+        for (int i = 0; i < 99; i++) {
+            assertThat(condition.update(START + 300 + i, 1)).isFalse();
+        }
+        assertThat(condition.update(START + 399, 1)).isTrue();
+    }
+
+    @Test
+    public void testRateOfChangeUsesOnlySamplesInsideTheWindow() {
+        // Crescimento de mais de 2 pontos por minuto em 10 minutos
+        WindowedCondition condition = new WindowedCondition(
+                rule(Condition.RATE_OF_CHANGE, Operator.GREATER_THAN, 2, 10 * MINUTE, 0, 0, Double.NaN));
+
+        assertThat(condition.update(START, 10)).isFalse();
+        assertThat(condition.update(START + 2 * MINUTE, 13)).isFalse();
+        assertThat(condition.update(START + 4 * MINUTE, 19)).isTrue();
+        assertThat(condition.update(START + 10 * MINUTE, 25)).isFalse();
+        // A amostra de START saiu da janela: taxa medida desde START + 2 min
+        assertThat(condition.update(START + 11 * MINUTE, 32)).isTrue();
+        // Estável: (32 - 32) em 10 minutos
+        assertThat(condition.update(START + 21 * MINUTE, 32)).isFalse();
+    }
+
+    @Test
+    public void testRateOfChangeMemoryIsBounded() {
+        WindowedCondition condition = new WindowedCondition(
+                rule(Condition.RATE_OF_CHANGE, Operator.GREATER_THAN, 1, 60 * MINUTE, 0, 0, Double.NaN));
+        // Mais amostras na janela que a capacidade: a taxa usa a mais antiga guardada
+        int samples = WindowedCondition.RATE_CAPACITY * 4;
+        for (int i = 0; i < samples; i++) {
+            condition.update(START + i * 1_000L, i < samples - WindowedCondition.RATE_CAPACITY ? 0 : 1);
+        }
+        assertThat(condition.isActive()).isFalse();
+        // Desde a mais antiga guardada: (3 - 1) em 63 s; desde a primeira seria (3 - 0) em 256 s
+        assertThat(condition.update(START + samples * 1_000L, 3)).isTrue();
+    }
+
+    @Test
+    public void testInstantRuleWithHysteresis() {
+        WindowedCondition condition = new WindowedCondition(
+                rule(Condition.INSTANT, Operator.GREATER_OR_EQUAL, 90, 0, 0, 0, 85));
+
+        assertThat(WindowedCondition.isStateful(condition.getRule())).isTrue();
+        assertThat(condition.update(START, 89)).isFalse();
+        assertThat(condition.update(START + MINUTE, 90)).isTrue();
+        assertThat(condition.update(START + 2 * MINUTE, 86)).isTrue();
+        assertThat(condition.update(START + 3 * MINUTE, 84)).isFalse();
+        assertThat(condition.update(START + 4 * MINUTE, 86)).isFalse();
+    }
+
+    @Test
+    public void testInvalidWindowIsRejected() {
+        assertThatThrownBy(() -> new WindowedCondition(
+                rule(Condition.M_OF_N, Operator.GREATER_THAN, 80, 0, 4, 3, Double.NaN)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new WindowedCondition(
+                rule(Condition.FOR_DURATION, Operator.GREATER_THAN, 80, 0, 0, 0, Double.NaN)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testEvaluatorOpensOnlySustainedBreaches() {
+        Severity high = Severity.builder().id(2L).name("High").level(2).build();
+        AlertRule cpu = AlertRule.builder()
+                .id(1L)
+                .name("CPU")
+                .metric(RuleMetric.CPU_USAGE)
+                .operator(Operator.GREATER_THAN)
+                .threshold(BigDecimal.valueOf(80))
+                .severity(high)
+                .condition(Condition.FOR_DURATION)
+                .durationSeconds(240)
+                .recoveryThreshold(BigDecimal.valueOf(70))
+                .build();
+        List<AlertRuleEvent> events = new ArrayList<>();
+        AlertRuleEvaluator evaluator = new AlertRuleEvaluator(events::add);
+        evaluator.setRules(CompiledAlertRules.compile(List.of(cpu)));
+
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        double[] cpuLoad = { 95, 40, 85, 85, 85, 75, 65 };
+        int[] breached = new int[cpuLoad.length];
+        for (int i = 0; i < cpuLoad.length; i++) {
+            ServerStatusDto status = ServerStatusDto.builder().serverId(1L).serverName("srv1").build();
+            status.markAsOnline();
+            status.setLastCheck(start.plusMinutes(2L * i));
+            status.setCpuLoad1Min(cpuLoad[i]);
+            breached[i] = evaluator.evaluate(status);
+            // Recarga das regras no meio da sequência não perde a janela
+            if (i == 3) {
+                evaluator.setRules(CompiledAlertRules.compile(List.of(cpu)));
+            }
+        }
+
+        assertThat(breached).containsExactly(0, 0, 0, 0, 1, 1, 0);
+        assertThat(events).extracting(AlertRuleEvent::type)
+                .containsExactly(AlertRuleEvent.Type.OPENED, AlertRuleEvent.Type.CLOSED);
+    }
+
+    @Test
+    public void testEvaluatorRecoversAfterContinuousPeriodBelowRecoveryThreshold() {
+        Severity high = Severity.builder().id(2L).name("High").level(2).build();
+        AlertRule cpu = AlertRule.builder()
+                .id(1L)
+                .name("CPU")
+                .metric(RuleMetric.CPU_USAGE)
+                .operator(Operator.GREATER_OR_EQUAL)
+                .threshold(BigDecimal.valueOf(90))
+                .severity(high)
+                .condition(Condition.INSTANT)
+                .recoveryThreshold(BigDecimal.valueOf(85))
+                .build();
+        List<AlertRuleEvent> events = new ArrayList<>();
+        AlertRuleEvaluator evaluator = new AlertRuleEvaluator(events::add, 6 * MINUTE);
+        evaluator.setRules(CompiledAlertRules.compile(List.of(cpu)));
+
+        // 88 fica entre a recuperação e o limite: interrompe a contagem sem reabrir
+        double[] cpuLoad = { 95, 80, 88, 80, 80, 80, 80, 80, 95, 70, 95 };
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int i = 0; i < cpuLoad.length; i++) {
+            ServerStatusDto status = ServerStatusDto.builder().serverId(1L).serverName("srv1").build();
+            status.markAsOnline();
+            status.setLastCheck(start.plusMinutes(2L * i));
+            status.setCpuLoad1Min(cpuLoad[i]);
+            evaluator.evaluate(status);
+        }
+
+        assertThat(events).extracting(AlertRuleEvent::type).containsExactly(AlertRuleEvent.Type.OPENED,
+                AlertRuleEvent.Type.CLOSED, AlertRuleEvent.Type.RECOVERED, AlertRuleEvent.Type.OPENED,
+                AlertRuleEvent.Type.CLOSED, AlertRuleEvent.Type.OPENED);
+        AlertRuleEvent recovered = events.get(2);
+        assertThat(recovered.timestamp()).isEqualTo(start.plusMinutes(12));
+        assertThat(recovered.rule().id()).isEqualTo(1L);
+        assertThat(recovered.seriesName()).isEqualTo("CPU_USAGE");
+    }
+
+    @Test
+    public void testRateRuleRecoversWhenRateSettles() {
+        Severity high = Severity.builder().id(2L).name("High").level(2).build();
+        AlertRule cpu = AlertRule.builder()
+                .id(1L)
+                .name("CPU subindo")
+                .metric(RuleMetric.CPU_USAGE)
+                .operator(Operator.GREATER_THAN)
+                .threshold(BigDecimal.valueOf(10))
+                .severity(high)
+                .condition(Condition.RATE_OF_CHANGE)
+                .durationSeconds(240)
+                .build();
+        List<AlertRuleEvent> events = new ArrayList<>();
+        AlertRuleEvaluator evaluator = new AlertRuleEvaluator(events::add, 6 * MINUTE);
+        evaluator.setRules(CompiledAlertRules.compile(List.of(cpu)));
+
+        // Sobe 40 pontos em 2 minutos e estabiliza: o valor segue acima do
+        // limite da regra, mas a taxa não
+        double[] cpuLoad = { 20, 60, 60, 60, 60, 60 };
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int i = 0; i < cpuLoad.length; i++) {
+            ServerStatusDto status = ServerStatusDto.builder().serverId(1L).serverName("srv1").build();
+            status.markAsOnline();
+            status.setLastCheck(start.plusMinutes(2L * i));
+            status.setCpuLoad1Min(cpuLoad[i]);
+            evaluator.evaluate(status);
+        }
+
+        assertThat(events).extracting(AlertRuleEvent::type).containsExactly(AlertRuleEvent.Type.OPENED,
+                AlertRuleEvent.Type.CLOSED, AlertRuleEvent.Type.RECOVERED);
+        assertThat(events.get(1).timestamp()).isEqualTo(start.plusMinutes(4));
+        assertThat(events.get(2).timestamp()).isEqualTo(start.plusMinutes(10));
+    }
+
+    @Test
+    public void testRecoveredRepeatsWhileSeriesHasOpenAlert() {
+        Severity high = Severity.builder().id(2L).name("High").level(2).build();
+        List<AlertRule> rules = new ArrayList<>();
+        for (RuleMetric metric : List.of(RuleMetric.CPU_USAGE, RuleMetric.MEMORY_USAGE)) {
+            rules.add(AlertRule.builder()
+                    .id((long) metric.ordinal())
+                    .name(metric.name())
+                    .metric(metric)
+                    .operator(Operator.GREATER_THAN)
+                    .threshold(BigDecimal.valueOf(90))
+                    .severity(high)
+                    .condition(Condition.INSTANT)
+                    .build());
+        }
+        // Alerta de CPU carregado na inicialização: a série nunca passou por
+        // CLOSED, e o RECOVERED não é atendido (descartado)
+        List<AlertRuleEvent> events = new ArrayList<>();
+        AlertRuleEvaluator evaluator = new AlertRuleEvaluator(events::add, 6 * MINUTE,
+                event -> event.seriesName().equals("CPU_USAGE"));
+        evaluator.setRules(CompiledAlertRules.compile(rules));
+        List<AlertRuleEvent> withoutIndex = new ArrayList<>();
+        AlertRuleEvaluator plain = new AlertRuleEvaluator(withoutIndex::add, 6 * MINUTE);
+        plain.setRules(CompiledAlertRules.compile(rules));
+
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int i = 0; i <= 6; i++) {
+            ServerStatusDto status = ServerStatusDto.builder().serverId(1L).serverName("srv1").build();
+            status.markAsOnline();
+            status.setLastCheck(start.plusMinutes(2L * i));
+            status.setCpuLoad1Min(50.0);
+            status.setMemoryUsagePercent(50.0);
+            evaluator.evaluate(status);
+            plain.evaluate(status);
+        }
+
+        assertThat(events).extracting(AlertRuleEvent::type)
+                .containsExactly(AlertRuleEvent.Type.RECOVERED, AlertRuleEvent.Type.RECOVERED);
+        assertThat(events).extracting(AlertRuleEvent::timestamp)
+                .containsExactly(start.plusMinutes(6), start.plusMinutes(12));
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.seriesName()).isEqualTo("CPU_USAGE");
+            assertThat(event.rule().alertType()).isEqualTo(Alert.AlertType.PERFORMANCE);
+        });
+        assertThat(withoutIndex).isEmpty();
+    }
+
+    private static Rule rule(Condition condition, Operator operator, double threshold, long windowMillis,
+            int requiredSamples, int windowSamples, double recoveryThreshold) {
+        return new Rule(1L, "regra", RuleMetric.CPU_USAGE, operator, threshold, 2L, 2, "High",
+                Alert.AlertType.PERFORMANCE, condition, windowMillis, requiredSamples, windowSamples, recoveryThreshold);
+    }
+}